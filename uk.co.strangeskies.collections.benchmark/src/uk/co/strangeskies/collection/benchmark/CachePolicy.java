@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.benchmark.
+ *
+ * uk.co.strangeskies.collections.benchmark is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections.benchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.benchmark;
+
+import java.util.function.Function;
+
+import uk.co.strangeskies.collection.computingmap.CacheComputingMap;
+import uk.co.strangeskies.collection.computingmap.EvictionPolicy;
+import uk.co.strangeskies.collection.computingmap.LRUCacheComputingMap;
+
+/**
+ * The cache configurations under comparison.
+ * 
+ * @author Elias N Vasylenko
+ */
+enum CachePolicy {
+	/**
+	 * The original {@link LRUCacheComputingMap}, which is synchronized
+	 * throughout.
+	 */
+	LRU_MAP {
+		@Override
+		<K, V> CacheComputingMap<K, V> create(Function<K, V> computation, int maximumSize) {
+			return new LRUCacheComputingMap<>(computation, maximumSize, false);
+		}
+	},
+
+	/**
+	 * A {@link CacheComputingMap} with
+	 * {@link EvictionPolicy#leastRecentlyUsed(long)}.
+	 */
+	LRU {
+		@Override
+		<K, V> CacheComputingMap<K, V> create(Function<K, V> computation, int maximumSize) {
+			return new CacheComputingMap<>(
+					computation,
+					false,
+					EvictionPolicy.leastRecentlyUsed(maximumSize));
+		}
+	},
+
+	/**
+	 * A {@link CacheComputingMap} with {@link EvictionPolicy#windowTinyLfu(long)}.
+	 */
+	TINY_LFU {
+		@Override
+		<K, V> CacheComputingMap<K, V> create(Function<K, V> computation, int maximumSize) {
+			return new CacheComputingMap<>(
+					computation,
+					false,
+					EvictionPolicy.windowTinyLfu(maximumSize));
+		}
+	};
+
+	abstract <K, V> CacheComputingMap<K, V> create(Function<K, V> computation, int maximumSize);
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.benchmark.
+ *
+ * uk.co.strangeskies.collections.benchmark is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections.benchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.strangeskies.collection.computingmap.CacheComputingMap;
+
+/**
+ * Throughput of concurrent accesses to a cache of each {@link CachePolicy}
+ * over a skewed workload which mostly hits, so that the cost of recording
+ * reads with the policy dominates.
+ * 
+ * @author Elias N Vasylenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class CacheThroughputBenchmark {
+	/**
+	 * The position of each thread in the trace.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		int index;
+
+		@Setup
+		public void setup() {
+			index = (int) (Thread.currentThread().getId() * 7919) & (Workload.TRACE_SIZE - 1);
+		}
+	}
+
+	@Param({ "LRU_MAP", "LRU", "TINY_LFU" })
+	CachePolicy policy;
+
+	@Param({ "1000" })
+	int maximumSize;
+
+	private CacheComputingMap<Integer, Integer> cache;
+	private Integer[] trace;
+
+	@Setup
+	public void setup() {
+		int[] keys = Workload.zipfian(maximumSize * 2, 0.9, 0);
+		trace = new Integer[keys.length];
+		for (int i = 0; i < keys.length; i++)
+			trace[i] = keys[i];
+
+		cache = policy.create(k -> k, maximumSize);
+		for (Integer key : trace)
+			cache.putGet(key);
+	}
+
+	@Benchmark
+	public Integer putGet(Cursor cursor) {
+		return cache.putGet(trace[cursor.index++ & (Workload.TRACE_SIZE - 1)]);
+	}
+
+	@Benchmark
+	public Integer get(Cursor cursor) {
+		return cache.get(trace[cursor.index++ & (Workload.TRACE_SIZE - 1)]);
+	}
+}
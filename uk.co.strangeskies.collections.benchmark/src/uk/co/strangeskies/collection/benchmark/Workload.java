@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.benchmark.
+ *
+ * uk.co.strangeskies.collections.benchmark is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections.benchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Precomputed traces of keys to access, so that generating keys does not
+ * contribute to the measured cost of an access.
+ * 
+ * @author Elias N Vasylenko
+ */
+final class Workload {
+	static final int TRACE_SIZE = 1 << 20;
+
+	private Workload() {}
+
+	/**
+	 * Keys drawn from a Zipfian distribution, where the key of rank {@code k}
+	 * is drawn with probability proportional to {@code 1 / k^skew}.
+	 */
+	static int[] zipfian(int keys, double skew, long seed) {
+		double[] cumulative = new double[keys];
+		double total = 0;
+		for (int i = 0; i < keys; i++) {
+			total += 1 / Math.pow(i + 1, skew);
+			cumulative[i] = total;
+		}
+
+		Random random = new Random(seed);
+		int[] trace = new int[TRACE_SIZE];
+		for (int i = 0; i < TRACE_SIZE; i++) {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+			trace[i] = index < 0 ? -index - 1 : index;
+		}
+		return trace;
+	}
+
+	/**
+	 * A Zipfian trace which is interrupted at regular intervals by a scan over a
+	 * run of keys which are never seen again, as by a batch job or a full table
+	 * read.
+	 */
+	static int[] zipfianWithScans(int keys, double skew, int scanLength, long seed) {
+		int[] trace = zipfian(keys, skew, seed);
+
+		int scanKey = keys;
+		for (int start = scanLength; start + scanLength <= TRACE_SIZE; start += scanLength * 4)
+			for (int i = start; i < start + scanLength; i++)
+				trace[i] = scanKey++;
+
+		return trace;
+	}
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A partial implementation of a weighted {@link EvictionPolicy} over queues
+ * of nodes which are only ever touched while holding the policy's lock.
+ * <p>
+ * Reads are recorded into a bounded buffer without locking, and replayed
+ * against the queues in batches by whichever thread next acquires the lock,
+ * either to record a write or because the buffer is filling up. If the buffer
+ * is full the read is dropped, as the order of recent reads only needs to be
+ * approximately right.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
+abstract class BufferedEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
+	static final class Node<K> {
+		private final K key;
+		private long weight;
+		private NodeQueue<K> queue;
+		private Node<K> previous;
+		private Node<K> next;
+
+		Node(K key, long weight) {
+			this.key = key;
+			this.weight = weight;
+		}
+
+		K getKey() {
+			return key;
+		}
+
+		long getWeight() {
+			return weight;
+		}
+
+		NodeQueue<K> getQueue() {
+			return queue;
+		}
+	}
+
+	/*
+	 * An intrusive doubly linked list of nodes, from least to most recently
+	 * added, which keeps a total of their weight.
+	 */
+	static final class NodeQueue<K> {
+		private final Node<K> bounds = new Node<>(null, 0);
+		private long weight;
+
+		NodeQueue() {
+			bounds.previous = bounds.next = bounds;
+		}
+
+		long getWeight() {
+			return weight;
+		}
+
+		Node<K> first() {
+			return bounds.next == bounds ? null : bounds.next;
+		}
+
+		void addLast(Node<K> node) {
+			node.previous = bounds.previous;
+			node.next = bounds;
+			node.previous.next = node.next.previous = node;
+			node.queue = this;
+			weight += node.weight;
+		}
+
+		void remove(Node<K> node) {
+			node.previous.next = node.next;
+			node.next.previous = node.previous;
+			node.previous = node.next = null;
+			node.queue = null;
+			weight -= node.weight;
+		}
+
+		void moveToLast(Node<K> node) {
+			remove(node);
+			addLast(node);
+		}
+
+		void clear() {
+			bounds.previous = bounds.next = bounds;
+			weight = 0;
+		}
+	}
+
+	private static final int READ_BUFFER_SIZE = 128;
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+	private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+	private final long maximumWeight;
+	private final ToLongBiFunction<? super K, ? super V> weigher;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<K, Node<K>> nodes = new HashMap<>();
+
+	private final AtomicReferenceArray<K> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+	private final AtomicLong readBufferWriteCount = new AtomicLong();
+	private volatile long readBufferReadCount;
+
+	public BufferedEvictionPolicy(long maximumWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+		if (maximumWeight < 0)
+			throw new IllegalArgumentException("Maximum weight must not be negative " + maximumWeight);
+
+		this.maximumWeight = maximumWeight;
+		this.weigher = requireNonNull(weigher);
+	}
+
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	protected ToLongBiFunction<? super K, ? super V> getWeigher() {
+		return weigher;
+	}
+
+	@Override
+	public void recordRead(K key) {
+		long writeCount = readBufferWriteCount.get();
+		long pending = writeCount - readBufferReadCount;
+
+		if (pending < READ_BUFFER_SIZE
+				&& readBufferWriteCount.compareAndSet(writeCount, writeCount + 1)) {
+			readBuffer.lazySet((int) (writeCount & READ_BUFFER_MASK), key);
+			pending++;
+		}
+
+		if (pending >= READ_BUFFER_DRAIN_THRESHOLD && lock.tryLock()) {
+			try {
+				drainReadBuffer();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/*
+	 * A slot may have been claimed by a reader which has not yet filled it, in
+	 * which case we stop there and leave the rest for the next drain.
+	 */
+	private void drainReadBuffer() {
+		long readCount = readBufferReadCount;
+		long writeCount = readBufferWriteCount.get();
+
+		for (; readCount < writeCount; readCount++) {
+			int index = (int) (readCount & READ_BUFFER_MASK);
+			K key = readBuffer.get(index);
+			if (key == null)
+				break;
+			readBuffer.lazySet(index, null);
+
+			Node<K> node = nodes.get(key);
+			if (node != null)
+				onRead(node);
+		}
+
+		readBufferReadCount = readCount;
+	}
+
+	@Override
+	public void recordWrite(K key, V value, Consumer<? super K> evictions) {
+		long weight = weigher.applyAsLong(key, value);
+		if (weight < 0)
+			throw new IllegalArgumentException("Weight must not be negative " + weight);
+
+		lock.lock();
+		try {
+			drainReadBuffer();
+
+			Node<K> node = nodes.get(key);
+			if (node == null) {
+				node = new Node<>(key, weight);
+				nodes.put(key, node);
+				onInsert(node);
+			} else {
+				node.queue.weight += weight - node.weight;
+				node.weight = weight;
+				onRead(node);
+			}
+
+			evict(evictions);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void recordRemoval(K key) {
+		lock.lock();
+		try {
+			Node<K> node = nodes.remove(key);
+			if (node != null)
+				node.queue.remove(node);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		lock.lock();
+		try {
+			drainReadBuffer();
+			nodes.clear();
+			onClear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return The total weight of entries, which may temporarily exceed the
+	 *         maximum weight while an eviction is in progress
+	 */
+	@Override
+	public long getWeightedSize() {
+		lock.lock();
+		try {
+			return getWeightedSizeLocked();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Must be invoked while holding the lock.
+	 *
+	 * @return The number of entries
+	 */
+	protected int getNodeCount() {
+		return nodes.size();
+	}
+
+	/**
+	 * Remove the node from its queue and from the policy, then evict its key
+	 * from the map. Must be invoked while holding the lock.
+	 */
+	protected void evict(Node<K> node, Consumer<? super K> evictions) {
+		node.queue.remove(node);
+		nodes.remove(node.key);
+		evictions.accept(node.key);
+	}
+
+	/**
+	 * Must be invoked while holding the lock.
+	 *
+	 * @return The total weight of entries
+	 */
+	protected abstract long getWeightedSizeLocked();
+
+	/**
+	 * Invoked while holding the lock when a new node is added.
+	 */
+	protected abstract void onInsert(Node<K> node);
+
+	/**
+	 * Invoked while holding the lock when a node is read, or its value written
+	 * again.
+	 */
+	protected abstract void onRead(Node<K> node);
+
+	/**
+	 * Invoked while holding the lock to evict nodes until the weighted size is
+	 * within bounds.
+	 */
+	protected abstract void evict(Consumer<? super K> evictions);
+
+	/**
+	 * Invoked while holding the lock to empty every queue.
+	 */
+	protected abstract void onClear();
+}
@@ -32,42 +32,133 @@
  */
 package uk.co.strangeskies.collection.computingmap;
 
+import static java.util.Objects.requireNonNull;
+
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import uk.co.strangeskies.collection.computingmap.TimerWheel.Timer;
 
+/**
+ * A {@link ComputingMap} which computes values asynchronously, and which may
+ * evict entries according to an {@link EvictionPolicy}, expire them according
+ * to an {@link Expiry}, and refresh them some time after they are computed.
+ * <p>
+ * Values are held by soft references if requested, in which case they may be
+ * reclaimed by the garbage collector under memory pressure, otherwise they are
+ * held strongly until evicted, expired, or removed.
+ * <p>
+ * Expired entries are never returned, and are removed by whichever thread
+ * next accesses the map after they expire, with the help of a
+ * {@link TimerWheel timer wheel}. Entries which are due to be refreshed are
+ * recomputed on the executor of the map when next read, and the previous value
+ * continues to be returned until the new value is ready.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
 public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 	protected class KeyedReference extends SoftReference<V> {
 		private final K key;
+		private final V value;
 
 		public KeyedReference(K key) {
-			super(computation().apply(key), references);
+			this(key, load(key));
+		}
+
+		public KeyedReference(K key, V value) {
+			super(value, references);
 			this.key = key;
+			this.value = softReferences ? null : value;
 		}
 
 		public K getKey() {
 			return key;
 		}
+
+		@Override
+		public V get() {
+			return value != null ? value : super.get();
+		}
 	}
 
+	/*
+	 * The value is computed on the executor of the map once the entry has been
+	 * added, unless a reader gets to it first, in which case the reader computes
+	 * it rather than waiting. So a reader never waits behind queued computations
+	 * for the executor, nested computations cannot exhaust a bounded executor,
+	 * and an entry which loses a race to be added is never computed. Until the
+	 * executor accepts the computation it is left to the first reader, whether
+	 * that reader waits for the value or asks for it asynchronously.
+	 */
 	protected class ReferenceEntry implements Entry<K, V> {
 		private final K key;
-		private final Future<KeyedReference> value;
+		private final CompletableFuture<KeyedReference> initialValue;
+		private final AtomicBoolean claimed;
+		private volatile boolean scheduled;
+		private volatile CompletableFuture<KeyedReference> value;
+		private final Timer<ReferenceEntry> expiryTimer = new Timer<>(this);
+		private volatile long refreshTime = Long.MAX_VALUE;
+		private final AtomicBoolean refreshing = new AtomicBoolean();
 
 		protected ReferenceEntry() {
 			key = null;
-			value = CompletableFuture.supplyAsync(() -> new KeyedReference(null));
+			initialValue = CompletableFuture.completedFuture(new KeyedReference(null, null));
+			claimed = new AtomicBoolean(true);
+			value = initialValue;
 		}
 
 		public ReferenceEntry(K key) {
 			this.key = key;
-			value = CompletableFuture.supplyAsync(() -> new KeyedReference(key));
+			initialValue = new CompletableFuture<>();
+			claimed = new AtomicBoolean();
+			value = initialValue;
+		}
+
+		/**
+		 * Create an entry for a value which has already been computed.
+		 */
+		protected ReferenceEntry(K key, V value) {
+			this.key = key;
+			initialValue = CompletableFuture.completedFuture(new KeyedReference(key, value));
+			claimed = new AtomicBoolean(true);
+			this.value = initialValue;
+		}
+
+		private void schedule() {
+			if (!claimed.get()) {
+				try {
+					executor().execute(this::compute);
+					scheduled = true;
+				} catch (RejectedExecutionException e) {}
+			}
+		}
+
+		private void compute() {
+			if (claimed.compareAndSet(false, true)) {
+				try {
+					initialValue.complete(new KeyedReference(key));
+				} catch (Throwable t) {
+					initialValue.completeExceptionally(t);
+				}
+			}
 		}
 
 		@Override
@@ -77,8 +168,13 @@ public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 
 		@Override
 		public V getValue() {
+			compute();
+			return getReference().get();
+		}
+
+		private KeyedReference getReference() {
 			try {
-				return value.get().get();
+				return value.get();
 			} catch (InterruptedException e) {
 				throw new RuntimeException(e);
 			} catch (ExecutionException e) {
@@ -92,34 +188,341 @@ public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 
 		@Override
 		public void remove() {
-			value.cancel(true);
+			claimed.set(true);
+			initialValue.cancel(true);
 		}
 	}
 
 	private final ReferenceQueue<V> references;
 	private final boolean softReferences;
+	private final EvictionPolicy<K, V> evictionPolicy;
+
+	private final Expiry<K, V> expiry;
+	private final long refreshAfterWrite;
+	private final LongSupplier ticker;
+	private final long startTime;
+	private final ReentrantLock expiryLock;
+	private final TimerWheel<ReferenceEntry> expiryTimers;
 
 	public CacheComputingMap(Function<K, V> computation, boolean softReferences) {
-		this(computation, softReferences, Executors.newFixedThreadPool(4));
+		this(computation, softReferences, ComputingMapExecutors.shared());
 	}
 
 	public CacheComputingMap(Function<K, V> computation, boolean softReferences, Executor executor) {
-		super(computation, executor);
+		this(computation, softReferences, executor, EvictionPolicy.unbounded());
+	}
+
+	public CacheComputingMap(
+			Function<K, V> computation,
+			boolean softReferences,
+			EvictionPolicy<K, V> evictionPolicy) {
+		this(computation, softReferences, ComputingMapExecutors.shared(), evictionPolicy);
+	}
+
+	public CacheComputingMap(
+			Function<K, V> computation,
+			boolean softReferences,
+			Executor executor,
+			EvictionPolicy<K, V> evictionPolicy) {
+		this(computation, softReferences, executor, evictionPolicy, Expiry.never());
+	}
+
+	public CacheComputingMap(
+			Function<K, V> computation,
+			boolean softReferences,
+			Executor executor,
+			EvictionPolicy<K, V> evictionPolicy,
+			Expiry<K, V> expiry) {
+		this(computation, softReferences, executor, evictionPolicy, expiry, null, System::nanoTime);
+	}
+
+	/**
+	 * @param refreshAfterWrite
+	 *          The duration after a value is computed at which it is recomputed
+	 *          when next read
+	 */
+	public CacheComputingMap(
+			Function<K, V> computation,
+			boolean softReferences,
+			Executor executor,
+			EvictionPolicy<K, V> evictionPolicy,
+			Expiry<K, V> expiry,
+			Duration refreshAfterWrite) {
+		this(
+				computation,
+				softReferences,
+				executor,
+				evictionPolicy,
+				expiry,
+				requireNonNull(refreshAfterWrite),
+				System::nanoTime);
+	}
+
+	CacheComputingMap(
+			Function<K, V> computation,
+			boolean softReferences,
+			Executor executor,
+			EvictionPolicy<K, V> evictionPolicy,
+			Expiry<K, V> expiry,
+			Duration refreshAfterWrite,
+			LongSupplier ticker) {
+		super(computation, executor, new ConcurrentHashMap<>());
 		references = new ReferenceQueue<>();
 		this.softReferences = softReferences;
+		this.evictionPolicy = requireNonNull(evictionPolicy);
+
+		this.expiry = requireNonNull(expiry);
+		if (refreshAfterWrite == null) {
+			this.refreshAfterWrite = Long.MAX_VALUE;
+		} else if (refreshAfterWrite.isNegative() || refreshAfterWrite.isZero()) {
+			throw new IllegalArgumentException("Refresh duration must be positive " + refreshAfterWrite);
+		} else {
+			this.refreshAfterWrite = toNanos(refreshAfterWrite);
+		}
+		this.ticker = requireNonNull(ticker);
+		startTime = ticker.getAsLong();
+		expiryLock = new ReentrantLock();
+		expiryTimers = new TimerWheel<>(0);
 	}
 
+	/**
+	 * The copy has its own eviction policy and expiry timers, with the same
+	 * configuration as those of the given map. Only those values which have
+	 * already been computed are copied, with the same expiry and refresh times.
+	 */
 	protected CacheComputingMap(CacheComputingMap<K, V> other) {
-		super(other);
-		references = other.references;
+		super(other, new ConcurrentHashMap<>());
+		references = new ReferenceQueue<>();
 		softReferences = other.softReferences;
+		evictionPolicy = other.evictionPolicy.copy();
+
+		expiry = other.expiry;
+		refreshAfterWrite = other.refreshAfterWrite;
+		ticker = other.ticker;
+		startTime = other.startTime;
+		expiryLock = new ReentrantLock();
+		expiryTimers = new TimerWheel<>(0);
+
+		for (K key : other.keySet()) {
+			ReferenceEntry entry = (ReferenceEntry) other.getEntry(key);
+			if (entry != null) {
+				KeyedReference reference = entry.value.isDone() && !entry.value.isCompletedExceptionally()
+						? entry.value.join()
+						: null;
+				V value = reference == null ? null : reference.get();
+
+				if (value != null) {
+					ReferenceEntry copy = copyEntry(key, value);
+					if (addEntry(copy) == copy) {
+						copy.refreshTime = entry.refreshTime;
+						if (isExpiring())
+							scheduleExpiry(copy, entry.expiryTimer.getTime());
+					}
+				}
+			}
+		}
+	}
+
+	private static long toNanos(Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+
+	public EvictionPolicy<K, V> getEvictionPolicy() {
+		return evictionPolicy;
+	}
+
+	public Expiry<K, V> getExpiry() {
+		return expiry;
+	}
+
+	@Override
+	protected long getWeightedSize() {
+		long weightedSize = evictionPolicy.getWeightedSize();
+		return weightedSize < 0 ? super.getWeightedSize() : weightedSize;
+	}
+
+	private boolean isExpiring() {
+		return expiry != NeverExpiry.INSTANCE;
+	}
+
+	private boolean isRefreshing() {
+		return refreshAfterWrite != Long.MAX_VALUE;
+	}
+
+	/*
+	 * Times are measured from the creation of the map, so they are never
+	 * negative and Long.MAX_VALUE can stand for never.
+	 */
+	private long currentTime() {
+		return ticker.getAsLong() - startTime;
+	}
+
+	private static long timeAfter(long currentTime, long duration) {
+		long time = currentTime + duration;
+		return time < 0 ? Long.MAX_VALUE : time;
+	}
+
+	/*
+	 * The write is recorded before the value is made available, so that a value
+	 * is never seen before its expiry is scheduled. The entry may have been
+	 * removed, or replaced, before its value was computed, in which case it is
+	 * not recorded.
+	 */
+	@Override
+	protected void entryAdded(Entry<K, V> entry) {
+		ReferenceEntry referenceEntry = (ReferenceEntry) entry;
+		referenceEntry.value = referenceEntry.value.thenApply(reference -> {
+			recordWrite(referenceEntry, reference.get());
+			return reference;
+		});
+		referenceEntry.schedule();
+	}
+
+	private void recordWrite(ReferenceEntry entry, V value) {
+		if (value == null || getEntry(entry.getKey()) != entry)
+			return;
+
+		if (isExpiring() || isRefreshing()) {
+			long currentTime = currentTime();
+
+			if (isRefreshing())
+				entry.refreshTime = timeAfter(currentTime, refreshAfterWrite);
+
+			if (isExpiring()) {
+				long duration = expiry.expireAfterWrite(entry.getKey(), value, currentTime);
+				scheduleExpiry(entry, timeAfter(currentTime, duration));
+			}
+		}
+
+		List<K> evicted = new ArrayList<>(0);
+		evictionPolicy.recordWrite(entry.getKey(), value, evicted::add);
+		for (K key : evicted)
+			evict(key);
+	}
+
+	private void scheduleExpiry(ReferenceEntry entry, long time) {
+		expiryLock.lock();
+		try {
+			expiryTimers.deschedule(entry.expiryTimer);
+			entry.expiryTimer.setTime(time);
+			if (time != Long.MAX_VALUE)
+				expiryTimers.schedule(entry.expiryTimer);
+		} finally {
+			expiryLock.unlock();
+		}
+	}
+
+	private void descheduleExpiry(Entry<K, V> entry) {
+		if (isExpiring() && entry != null) {
+			expiryLock.lock();
+			try {
+				expiryTimers.deschedule(((ReferenceEntry) entry).expiryTimer);
+			} finally {
+				expiryLock.unlock();
+			}
+		}
+	}
+
+	/*
+	 * The wheel is only advanced when it may have timers to expire, and only by
+	 * one thread at a time, so that readers rarely contend on the lock.
+	 *
+	 * The expiry lock and the lock of the eviction policy are never held
+	 * together, so expired entries are collected under the expiry lock and only
+	 * removed from the policy once it is released, and likewise entries evicted
+	 * by the policy are only descheduled once the policy has returned.
+	 */
+	private void expireEntries() {
+		if (isExpiring()) {
+			long currentTime = currentTime();
+			if (expiryTimers.isDue(currentTime) && expiryLock.tryLock()) {
+				List<ReferenceEntry> expired = new ArrayList<>();
+				try {
+					expiryTimers.advance(currentTime, timer -> expired.add(timer.getValue()));
+				} finally {
+					expiryLock.unlock();
+				}
+				for (ReferenceEntry entry : expired) {
+					long time = entry.expiryTimer.getTime();
+					if (time <= currentTime)
+						expire(entry);
+					else
+						scheduleExpiry(entry, time);
+				}
+			}
+		}
+	}
+
+	private void expire(ReferenceEntry entry) {
+		if (removeEntry(entry)) {
+			descheduleExpiry(entry);
+			evictionPolicy.recordRemoval(entry.getKey());
+			getStatisticsRecorder().recordEviction(EvictionCause.EXPIRED);
+		}
 	}
 
+	/*
+	 * An entry may be evicted as its own write is recorded, so we must not wait
+	 * for its value. This is invoked after the policy has released its lock.
+	 */
+	private void evict(K key) {
+		Entry<K, V> entry = getEntry(key);
+		if (entry != null && removeEntry(entry)) {
+			descheduleExpiry(entry);
+			getStatisticsRecorder().recordEviction(EvictionCause.SIZE);
+		}
+	}
+
+	/*
+	 * The previous value is kept until the new value is ready, and if the
+	 * computation fails, or the executor rejects it, then the previous value is
+	 * kept until the next refresh is due.
+	 */
+	private void refresh(ReferenceEntry entry) {
+		if (!entry.refreshing.compareAndSet(false, true))
+			return;
+
+		K key = entry.getKey();
+		try {
+			CompletableFuture
+					.supplyAsync(() -> new KeyedReference(key), executor())
+					.whenComplete((reference, failure) -> {
+						if (failure == null && getEntry(key) == entry) {
+							entry.value = CompletableFuture.completedFuture(reference);
+							recordWrite(entry, reference.get());
+						} else {
+							entry.refreshTime = timeAfter(currentTime(), refreshAfterWrite);
+						}
+						entry.refreshing.set(false);
+					});
+		} catch (RejectedExecutionException e) {
+			entry.refreshTime = timeAfter(currentTime(), refreshAfterWrite);
+			entry.refreshing.set(false);
+		}
+	}
+
+	/*
+	 * An entry is only removed if its value is still the reference which was
+	 * reclaimed, as it may since have been refreshed or replaced.
+	 */
 	@SuppressWarnings("unchecked")
 	public void clean() {
 		KeyedReference oldReference;
-		while ((oldReference = (KeyedReference) references.poll()) != null)
-			remove(oldReference.key);
+		while ((oldReference = (KeyedReference) references.poll()) != null) {
+			Entry<K, V> entry = getEntry(oldReference.key);
+
+			if (entry != null
+					&& ((ReferenceEntry) entry).value.getNow(null) == oldReference
+					&& removeEntry(entry)) {
+				descheduleExpiry(entry);
+				evictionPolicy.recordRemoval(oldReference.key);
+				getStatisticsRecorder().recordEviction(EvictionCause.COLLECTED);
+			}
+		}
 	}
 
 	@Override
@@ -127,20 +530,123 @@ public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 		return new ReferenceEntry(key);
 	}
 
+	/**
+	 * Create an entry for a value copied from another map, as invoked by
+	 * {@link #CacheComputingMap(CacheComputingMap)}.
+	 */
+	protected ReferenceEntry copyEntry(K key, V value) {
+		return new ReferenceEntry(key, value);
+	}
+
 	@Override
 	public V get(K key) {
 		clean();
+		expireEntries();
+
+		Entry<K, V> entry = getEntry(key);
+		if (entry == null)
+			return recordLookup(null);
+
+		return recordLookup(recordRead((ReferenceEntry) entry, entry.getValue()));
+	}
+
+	@Override
+	public CompletableFuture<V> getAsync(K key) {
+		clean();
+		expireEntries();
+
+		Entry<K, V> entry = getEntry(key);
+		if (entry == null)
+			return CompletableFuture.completedFuture(recordLookup(null));
 
-		return super.get(key);
+		return getAsync((ReferenceEntry) entry).thenApply(this::recordLookup);
+	}
+
+	@Override
+	public CompletableFuture<V> putGetAsync(K key) {
+		clean();
+		expireEntries();
+		expireIfDue(key);
+
+		if (getEntry(key) == null)
+			getStatisticsRecorder().recordMiss();
+		else
+			getStatisticsRecorder().recordHit();
+
+		return getAsync((ReferenceEntry) putEntry(key));
+	}
+
+	private CompletableFuture<V> getAsync(ReferenceEntry entry) {
+		if (!entry.scheduled)
+			entry.compute();
+
+		return entry.value.thenApply(reference -> recordRead(entry, reference.get()));
+	}
+
+	/**
+	 * @return The value if it is present and has not expired, otherwise null
+	 */
+	private V recordRead(ReferenceEntry entry, V value) {
+		if (value == null)
+			return null;
+
+		if (isExpiring() || isRefreshing()) {
+			long currentTime = currentTime();
+
+			if (isExpiring() && !recordExpiryRead(entry, value, currentTime))
+				return null;
+
+			if (currentTime >= entry.refreshTime)
+				refresh(entry);
+		}
+
+		evictionPolicy.recordRead(entry.getKey());
+		return value;
+	}
+
+	/*
+	 * If the expiry time is moved later then the timer is left where it is, and
+	 * is rescheduled when it comes due, otherwise it must be rescheduled now.
+	 */
+	private boolean recordExpiryRead(ReferenceEntry entry, V value, long currentTime) {
+		long time = entry.expiryTimer.getTime();
+
+		if (time <= currentTime) {
+			expire(entry);
+			return false;
+		}
+
+		long currentDuration = time == Long.MAX_VALUE ? Long.MAX_VALUE : time - currentTime;
+		long duration = expiry.expireAfterRead(entry.getKey(), value, currentTime, currentDuration);
+		if (duration != currentDuration) {
+			long newTime = timeAfter(currentTime, duration);
+			if (time == Long.MAX_VALUE || newTime < time)
+				scheduleExpiry(entry, newTime);
+			else
+				entry.expiryTimer.setTime(newTime);
+		}
+
+		return true;
 	}
 
 	@Override
 	public boolean put(K key) {
 		clean();
+		expireEntries();
+
+		expireIfDue(key);
 
 		return super.put(key);
 	}
 
+	private void expireIfDue(K key) {
+		if (isExpiring()) {
+			Entry<K, V> entry = getEntry(key);
+			if (entry != null && ((ReferenceEntry) entry).expiryTimer.getTime() <= currentTime())
+				expire((ReferenceEntry) entry);
+		}
+	}
+
 	@Override
 	public V putGet(K key, Consumer<V> wasPresent, Consumer<V> wasMissing) {
 		clean();
@@ -152,6 +658,24 @@ public class CacheComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 	public V removeGet(K key) {
 		clean();
 
-		return super.removeGet(key);
+		descheduleExpiry(getEntry(key));
+		V value = super.removeGet(key);
+		evictionPolicy.recordRemoval(key);
+		return value;
+	}
+
+	@Override
+	public boolean clear() {
+		boolean changed = super.clear();
+		evictionPolicy.clear();
+		if (isExpiring()) {
+			expiryLock.lock();
+			try {
+				expiryTimers.clear();
+			} finally {
+				expiryLock.unlock();
+			}
+		}
+		return changed;
 	}
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the statistics recorded for a {@link ComputingMap}
+ * by a {@link StatisticsRecorder}.
+ * <p>
+ * Load times are counted in a histogram of {@value #LOAD_TIME_BUCKETS}
+ * buckets. The first bucket counts loads of under a microsecond, roughly, and
+ * the bound of each bucket after it is double that of the one before, up to the
+ * last bucket, which counts loads of around eighteen minutes or more.
+ *
+ * @author Elias N Vasylenko
+ */
+public final class CacheStatistics {
+	/**
+	 * The number of buckets in the load time histogram.
+	 */
+	public static final int LOAD_TIME_BUCKETS = 32;
+	private static final int FIRST_LOAD_TIME_BOUND_SHIFT = 10;
+
+	private final long hitCount;
+	private final long missCount;
+	private final long loadSuccessCount;
+	private final long loadFailureCount;
+	private final long totalLoadTime;
+	private final long[] loadTimeHistogram;
+	private final long[] evictionCounts;
+	private final long weightedSize;
+
+	CacheStatistics(
+			long hitCount,
+			long missCount,
+			long loadSuccessCount,
+			long loadFailureCount,
+			long totalLoadTime,
+			long[] loadTimeHistogram,
+			long[] evictionCounts,
+			long weightedSize) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime = totalLoadTime;
+		this.loadTimeHistogram = loadTimeHistogram;
+		this.evictionCounts = evictionCounts;
+		this.weightedSize = weightedSize;
+	}
+
+	static int getLoadTimeBucket(long loadTime) {
+		int bucket = (64 - Long.numberOfLeadingZeros(loadTime)) - FIRST_LOAD_TIME_BOUND_SHIFT;
+		return Math.max(0, Math.min(bucket, LOAD_TIME_BUCKETS - 1));
+	}
+
+	/**
+	 * @param bucket
+	 *          The index of a bucket of the load time histogram
+	 * @return The exclusive upper bound in nanoseconds of load times counted in
+	 *         the bucket, or {@link Long#MAX_VALUE} for the last bucket
+	 */
+	public static long getLoadTimeBucketBound(int bucket) {
+		if (bucket < 0 || bucket >= LOAD_TIME_BUCKETS)
+			throw new IndexOutOfBoundsException("No load time bucket " + bucket);
+
+		return bucket == LOAD_TIME_BUCKETS - 1
+				? Long.MAX_VALUE
+				: 1L << (bucket + FIRST_LOAD_TIME_BOUND_SHIFT);
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	public long getRequestCount() {
+		return hitCount + missCount;
+	}
+
+	/**
+	 * @return The proportion of requests which were hits, or 1 if there have
+	 *         been no requests
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return requestCount == 0 ? 1 : (double) hitCount / requestCount;
+	}
+
+	public long getLoadSuccessCount() {
+		return loadSuccessCount;
+	}
+
+	public long getLoadFailureCount() {
+		return loadFailureCount;
+	}
+
+	public long getLoadCount() {
+		return loadSuccessCount + loadFailureCount;
+	}
+
+	/**
+	 * @return The total time in nanoseconds spent loading values, whether
+	 *         successfully or not
+	 */
+	public long getTotalLoadTime() {
+		return totalLoadTime;
+	}
+
+	/**
+	 * @return The mean time in nanoseconds spent loading a value, or 0 if no
+	 *         values have been loaded
+	 */
+	public double getAverageLoadTime() {
+		long loadCount = getLoadCount();
+		return loadCount == 0 ? 0 : (double) totalLoadTime / loadCount;
+	}
+
+	/**
+	 * @return The number of loads counted in each bucket of the load time
+	 *         histogram, as bounded by {@link #getLoadTimeBucketBound(int)}
+	 */
+	public long[] getLoadTimeHistogram() {
+		return loadTimeHistogram.clone();
+	}
+
+	public long getEvictionCount() {
+		long evictionCount = 0;
+		for (long count : evictionCounts)
+			evictionCount += count;
+		return evictionCount;
+	}
+
+	public long getEvictionCount(EvictionCause cause) {
+		return evictionCounts[cause.ordinal()];
+	}
+
+	/**
+	 * @return The total weight of entries in the map when the snapshot was
+	 *         taken, or the number of entries if the map does not weigh them
+	 */
+	public long getWeightedSize() {
+		return weightedSize;
+	}
+
+	/**
+	 * @param other
+	 *          An earlier snapshot of the same statistics
+	 * @return The statistics recorded between the other snapshot and this one,
+	 *         with the weighted size of this snapshot
+	 */
+	public CacheStatistics minus(CacheStatistics other) {
+		return new CacheStatistics(
+				Math.max(0, hitCount - other.hitCount),
+				Math.max(0, missCount - other.missCount),
+				Math.max(0, loadSuccessCount - other.loadSuccessCount),
+				Math.max(0, loadFailureCount - other.loadFailureCount),
+				Math.max(0, totalLoadTime - other.totalLoadTime),
+				minus(loadTimeHistogram, other.loadTimeHistogram),
+				minus(evictionCounts, other.evictionCounts),
+				weightedSize);
+	}
+
+	private static long[] minus(long[] counts, long[] otherCounts) {
+		long[] difference = new long[counts.length];
+		for (int i = 0; i < counts.length; i++)
+			difference[i] = Math.max(0, counts[i] - otherCounts[i]);
+		return difference;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName()
+				+ "{hits="
+				+ hitCount
+				+ ", misses="
+				+ missCount
+				+ ", loadSuccesses="
+				+ loadSuccessCount
+				+ ", loadFailures="
+				+ loadFailureCount
+				+ ", totalLoadTime="
+				+ totalLoadTime
+				+ ", evictions="
+				+ Arrays.toString(evictionCounts)
+				+ ", weightedSize="
+				+ weightedSize
+				+ "}";
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Exposes the statistics of a {@link ComputingMap} through JMX as a
+ * {@link CacheStatisticsMXBean}.
+ *
+ * @author Elias N Vasylenko
+ */
+public class CacheStatisticsMonitor implements CacheStatisticsMXBean {
+	/**
+	 * The domain of the names under which monitors are registered by
+	 * {@link #register(String)}.
+	 */
+	public static final String DOMAIN = "uk.co.strangeskies.collection.computingmap";
+
+	private final Supplier<CacheStatistics> statistics;
+	private ObjectName registeredName;
+
+	/**
+	 * @param statistics
+	 *          A supplier of snapshots of statistics, such as
+	 *          {@link ComputingEntryHashMap#getStatistics()}
+	 */
+	public CacheStatisticsMonitor(Supplier<CacheStatistics> statistics) {
+		this.statistics = requireNonNull(statistics);
+	}
+
+	/**
+	 * Register the monitor with the platform MBean server, under the name
+	 * {@code uk.co.strangeskies.collection.computingmap:type=CacheStatistics,name=<name>}.
+	 *
+	 * @param name
+	 *          The name of the cache
+	 * @return The name under which the monitor is registered
+	 * @throws JMException
+	 *           If the name is invalid or is already registered
+	 */
+	public synchronized ObjectName register(String name) throws JMException {
+		if (registeredName != null)
+			throw new IllegalStateException("Already registered as " + registeredName);
+
+		ObjectName objectName = new ObjectName(
+				DOMAIN + ":type=CacheStatistics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		registeredName = objectName;
+
+		return objectName;
+	}
+
+	/**
+	 * Unregister the monitor from the platform MBean server, if it is
+	 * registered.
+	 */
+	public synchronized void unregister() {
+		if (registeredName != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try {
+				server.unregisterMBean(registeredName);
+			} catch (InstanceNotFoundException e) {} catch (JMException e) {
+				throw new IllegalStateException(e);
+			} finally {
+				registeredName = null;
+			}
+		}
+	}
+
+	public CacheStatistics getStatistics() {
+		return statistics.get();
+	}
+
+	@Override
+	public long getHitCount() {
+		return getStatistics().getHitCount();
+	}
+
+	@Override
+	public long getMissCount() {
+		return getStatistics().getMissCount();
+	}
+
+	@Override
+	public double getHitRate() {
+		return getStatistics().getHitRate();
+	}
+
+	@Override
+	public long getLoadSuccessCount() {
+		return getStatistics().getLoadSuccessCount();
+	}
+
+	@Override
+	public long getLoadFailureCount() {
+		return getStatistics().getLoadFailureCount();
+	}
+
+	@Override
+	public long getTotalLoadTime() {
+		return getStatistics().getTotalLoadTime();
+	}
+
+	@Override
+	public double getAverageLoadTime() {
+		return getStatistics().getAverageLoadTime();
+	}
+
+	@Override
+	public long[] getLoadTimeHistogram() {
+		return getStatistics().getLoadTimeHistogram();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return getStatistics().getEvictionCount();
+	}
+
+	@Override
+	public long getSizeEvictionCount() {
+		return getStatistics().getEvictionCount(EvictionCause.SIZE);
+	}
+
+	@Override
+	public long getCollectedEvictionCount() {
+		return getStatistics().getEvictionCount(EvictionCause.COLLECTED);
+	}
+
+	@Override
+	public long getExpiredEvictionCount() {
+		return getStatistics().getEvictionCount(EvictionCause.EXPIRED);
+	}
+
+	@Override
+	public long getWeightedSize() {
+		return getStatistics().getWeightedSize();
+	}
+}
@@ -32,6 +32,8 @@
  */
 package uk.co.strangeskies.collection.computingmap;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
 import java.util.Collection;
@@ -67,7 +69,7 @@ public class ComputingEntryHashMap<K, V> implements ComputingMap<K, V> {
 
 		@Override
 		public synchronized V getValue() {
-			return value != null ? value : (value = computation().apply(getKey()));
+			return value != null ? value : (value = load(getKey()));
 		}
 
 		@Override
@@ -84,24 +86,109 @@ public class ComputingEntryHashMap<K, V> implements ComputingMap<K, V> {
 	private final Map<K, Entry<K, V>> map;
 	private final Function<K, V> computation;
 	private final Executor executor;
+	private volatile StatisticsRecorder statisticsRecorder = StatisticsRecorder.disabled();
 
 	protected ComputingEntryHashMap(Function<K, V> computation, Executor executor) {
-		this.map = new HashMap<>();
+		this(computation, executor, new HashMap<>());
+	}
+
+	protected ComputingEntryHashMap(
+			Function<K, V> computation,
+			Executor executor,
+			Map<K, Entry<K, V>> map) {
+		this.map = map;
 		this.computation = computation;
 		this.executor = executor;
 	}
 
 	protected ComputingEntryHashMap(ComputingEntryHashMap<K, V> other) {
-		this.map = new HashMap<>(other.map);
+		this(other, new HashMap<>(other.map));
+	}
+
+	/**
+	 * Copy the configuration of another map, but not its entries.
+	 *
+	 * @param map
+	 *          The map to hold the entries of the copy
+	 */
+	protected ComputingEntryHashMap(ComputingEntryHashMap<K, V> other, Map<K, Entry<K, V>> map) {
+		this.map = map;
 		this.computation = other.computation;
 		this.executor = other.executor;
+		this.statisticsRecorder = other.statisticsRecorder;
+	}
+
+	/**
+	 * Statistics are not recorded unless a recorder is set.
+	 *
+	 * @param statisticsRecorder
+	 *          The recorder of statistics about the use of the map
+	 */
+	public void setStatisticsRecorder(StatisticsRecorder statisticsRecorder) {
+		this.statisticsRecorder = requireNonNull(statisticsRecorder);
+	}
+
+	public StatisticsRecorder getStatisticsRecorder() {
+		return statisticsRecorder;
+	}
+
+	/**
+	 * @return A snapshot of the statistics recorded so far
+	 */
+	public CacheStatistics getStatistics() {
+		return statisticsRecorder.snapshot(getWeightedSize());
+	}
+
+	/**
+	 * @return The total weight of entries, which by default is their number
+	 */
+	protected long getWeightedSize() {
+		return map.size();
+	}
+
+	/**
+	 * Record a hit if the given value is present, otherwise a miss.
+	 *
+	 * @return The given value
+	 */
+	protected V recordLookup(V value) {
+		if (value != null)
+			statisticsRecorder.recordHit();
+		else
+			statisticsRecorder.recordMiss();
+		return value;
+	}
+
+	/**
+	 * Compute the value for the given key, recording the time taken if
+	 * statistics are being recorded.
+	 */
+	protected V load(K key) {
+		StatisticsRecorder statisticsRecorder = this.statisticsRecorder;
+		if (statisticsRecorder == StatisticsRecorder.disabled())
+			return computation.apply(key);
+
+		long startTime = System.nanoTime();
+		V value;
+		try {
+			value = computation.apply(key);
+		} catch (RuntimeException | Error e) {
+			statisticsRecorder.recordLoadFailure(System.nanoTime() - startTime);
+			throw e;
+		}
+		statisticsRecorder.recordLoadSuccess(System.nanoTime() - startTime);
+		return value;
+	}
+
+	protected Entry<K, V> getEntry(K key) {
+		return map.get(key);
 	}
 
 	@Override
 	public V get(K key) {
 		Entry<?, V> entry = map.get(key);
 
-		return entry == null ? null : entry.getValue();
+		return recordLookup(entry == null ? null : entry.getValue());
 	}
 
 	@Override
@@ -110,20 +197,43 @@ public class ComputingEntryHashMap<K, V> implements ComputingMap<K, V> {
 			return false;
 
 		Entry<K, V> entry = createEntry(key);
-		map.put(key, entry);
-
-		return true;
+		return addEntry(entry) == entry;
 	}
 
 	public V putGetImpl(K key) {
+		return putEntry(key).getValue();
+	}
+
+	/**
+	 * @return The entry for the given key, which is created and added if it is
+	 *         not already present
+	 */
+	protected Entry<K, V> putEntry(K key) {
 		Entry<K, V> entry = map.get(key);
 
-		if (entry == null) {
-			entry = createEntry(key);
-			map.put(key, entry);
+		if (entry == null)
+			entry = addEntry(createEntry(key));
+
+		return entry;
+	}
+
+	/**
+	 * Add the given entry unless an entry is already present for its key, in
+	 * which case the given entry is removed and the present entry is kept, so a
+	 * key added concurrently to a concurrent map is only ever computed once.
+	 *
+	 * @return The entry for the key of the given entry
+	 */
+	protected Entry<K, V> addEntry(Entry<K, V> entry) {
+		Entry<K, V> present = map.putIfAbsent(entry.getKey(), entry);
+
+		if (present != null) {
+			entry.remove();
+			return present;
 		}
 
-		return entry.getValue();
+		entryAdded(entry);
+		return entry;
 	}
 
 	@Override
@@ -144,10 +254,20 @@ public class ComputingEntryHashMap<K, V> implements ComputingMap<K, V> {
 		return new ComputingEntry(key);
 	}
 
+	/**
+	 * Invoked after an entry created by {@link #createEntry(Object)} is added
+	 * to the map.
+	 */
+	protected void entryAdded(Entry<K, V> entry) {}
+
 	protected Function<K, V> computation() {
 		return computation;
 	}
 
+	protected Executor executor() {
+		return executor;
+	}
+
 	@Override
 	public Set<K> keySet() {
 		return new AbstractSet<K>() {
@@ -219,14 +339,30 @@ public class ComputingEntryHashMap<K, V> implements ComputingMap<K, V> {
 	@Override
 	public V removeGet(K key) {
 		Entry<K, V> entry = map.remove(key);
+		if (entry == null)
+			return null;
+
 		V value = entry.getValue();
 		entry.remove();
 		return value;
 	}
 
+	/**
+	 * Remove the given entry, if it is still the entry for its key.
+	 *
+	 * @return true if the entry was removed, false otherwise
+	 */
+	protected boolean removeEntry(Entry<K, V> entry) {
+		if (!map.remove(entry.getKey(), entry))
+			return false;
+
+		entry.remove();
+		return true;
+	}
+
 	@Override
 	public boolean clear() {
-		if (!map.isEmpty())
+		if (map.isEmpty())
 			return false;
 		map.clear();
 		return true;
@@ -34,6 +34,7 @@ package uk.co.strangeskies.collection.computingmap;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -112,6 +113,43 @@ public interface ComputingMap<K, V> extends ReadOnlyMap<K, V> {
 
 	V putGet(K key, Consumer<V> wasPresent, Consumer<V> wasMissing);
 
+	/**
+	 * Get the value for the given key without waiting for it to be computed.
+	 * <p>
+	 * By default the value is fetched synchronously as by {@link #get(Object)},
+	 * but implementations which compute values asynchronously should override
+	 * this method to avoid blocking.
+	 *
+	 * @param key
+	 *          The key object for which to return the mapped computed value
+	 * @return A future which completes with the value associated with the given
+	 *         key, or with null if the key is not in the map
+	 */
+	default CompletableFuture<V> getAsync(K key) {
+		try {
+			return CompletableFuture.completedFuture(get(key));
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Enter the key into the map as by {@link #put(Object)}, and get the value
+	 * without waiting for it to be computed as by {@link #getAsync(Object)}.
+	 *
+	 * @param key
+	 *          The key object to be mapped to a new value
+	 * @return A future which completes with the value associated with the given
+	 *         key
+	 */
+	default CompletableFuture<V> putGetAsync(K key) {
+		try {
+			return CompletableFuture.completedFuture(putGet(key));
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
 	@Override
 	Set<K> keySet();
 
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors on which {@link ComputingMap computing maps} may perform their
+ * computations.
+ * <p>
+ * By default maps share a single {@link #shared() executor}, so that creating
+ * a map does not create threads, and so that the number of computations in
+ * progress at once is bounded across every map.
+ *
+ * @author Elias N Vasylenko
+ */
+public final class ComputingMapExecutors {
+	/**
+	 * The maximum number of computations which the shared executor runs at once
+	 * when it is backed by virtual threads.
+	 */
+	public static final int VIRTUAL_THREAD_CONCURRENCY = 256;
+
+	private static class SharedExecutor {
+		private static final Executor INSTANCE = createSharedExecutor();
+	}
+
+	private ComputingMapExecutors() {}
+
+	/**
+	 * If virtual threads are supported by the runtime, the shared executor runs
+	 * each computation on a virtual thread, and runs at most
+	 * {@value #VIRTUAL_THREAD_CONCURRENCY} at once. Otherwise it runs them on a
+	 * pool of daemon threads, one per available processor, which are released
+	 * when idle.
+	 *
+	 * @return The executor which is shared by default amongst computing maps
+	 */
+	public static Executor shared() {
+		return SharedExecutor.INSTANCE;
+	}
+
+	private static Executor createSharedExecutor() {
+		Executor virtualThreadExecutor = createVirtualThreadExecutor();
+		if (virtualThreadExecutor != null)
+			return bounded(virtualThreadExecutor, VIRTUAL_THREAD_CONCURRENCY);
+
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				parallelism,
+				parallelism,
+				30,
+				TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				daemonThreadFactory());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/*
+	 * We target a release which predates virtual threads, so they must be found
+	 * reflectively.
+	 */
+	private static Executor createVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (Executor) factory.invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static ThreadFactory daemonThreadFactory() {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "computing-map-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Tasks submitted to the resulting executor are queued, and passed on to the
+	 * given executor such that no more than the given number are running at
+	 * once. Submission never blocks.
+	 *
+	 * @param executor
+	 *          The executor on which to run tasks
+	 * @param maximumConcurrency
+	 *          The maximum number of tasks to run at once
+	 * @return An executor which runs tasks on the given executor
+	 */
+	public static Executor bounded(Executor executor, int maximumConcurrency) {
+		return new BoundedExecutor(executor, maximumConcurrency);
+	}
+
+	/*
+	 * Each worker submitted to the underlying executor runs queued tasks until
+	 * the queue is empty, so there are never more workers than the bound.
+	 */
+	private static class BoundedExecutor implements Executor {
+		private final Executor executor;
+		private final int maximumConcurrency;
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger workers = new AtomicInteger();
+
+		BoundedExecutor(Executor executor, int maximumConcurrency) {
+			if (maximumConcurrency <= 0)
+				throw new IllegalArgumentException("Concurrency must be positive " + maximumConcurrency);
+
+			this.executor = requireNonNull(executor);
+			this.maximumConcurrency = maximumConcurrency;
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			tasks.add(requireNonNull(task));
+			startWorker();
+		}
+
+		private void startWorker() {
+			int count;
+			do {
+				count = workers.get();
+				if (count >= maximumConcurrency || tasks.isEmpty())
+					return;
+			} while (!workers.compareAndSet(count, count + 1));
+
+			try {
+				executor.execute(this::work);
+			} catch (RejectedExecutionException e) {
+				workers.decrementAndGet();
+				throw e;
+			}
+		}
+
+		private void work() {
+			try {
+				Runnable task;
+				while ((task = tasks.poll()) != null)
+					task.run();
+			} finally {
+				workers.decrementAndGet();
+				startWorker();
+			}
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A thread-safe {@link ComputingMap} backed by a {@link ConcurrentHashMap}.
+ * <p>
+ * The value for each key is computed at most once, on the thread which first
+ * enters the key, and other threads asking for the same key wait for that
+ * computation rather than repeating it. Reads of values which have already been
+ * computed take no locks. If a computation fails the key is removed, so that it
+ * may be entered again, and the failure is thrown to every thread waiting on
+ * it.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
+public class ConcurrentComputingMap<K, V> implements ComputingMap<K, V> {
+	private class Node {
+		private final K key;
+		private final Thread owner;
+		private final CompletableFuture<V> computation;
+		private volatile boolean done;
+		private V value;
+
+		public Node(K key) {
+			this.key = key;
+			this.owner = Thread.currentThread();
+			this.computation = new CompletableFuture<>();
+		}
+
+		public V compute() {
+			try {
+				value = ConcurrentComputingMap.this.computation.apply(key);
+				done = true;
+				computation.complete(value);
+				return value;
+			} catch (RuntimeException | Error e) {
+				map.remove(key, this);
+				computation.completeExceptionally(e);
+				throw e;
+			}
+		}
+
+		public V getValue() {
+			if (done)
+				return value;
+
+			if (owner == Thread.currentThread() && !computation.isDone())
+				throw new IllegalStateException("Recursive computation for key " + key);
+
+			try {
+				return computation.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				} else {
+					throw (RuntimeException) e.getCause();
+				}
+			}
+		}
+	}
+
+	private final ConcurrentHashMap<K, Node> map;
+	private final Function<K, V> computation;
+
+	public ConcurrentComputingMap(Function<K, V> computation) {
+		this.map = new ConcurrentHashMap<>();
+		this.computation = computation;
+	}
+
+	@Override
+	public V get(K key) {
+		Node node = map.get(key);
+
+		return node == null ? null : node.getValue();
+	}
+
+	@Override
+	public boolean put(K key) {
+		if (map.containsKey(key))
+			return false;
+
+		Node node = new Node(key);
+		if (map.putIfAbsent(key, node) != null)
+			return false;
+
+		node.compute();
+		return true;
+	}
+
+	@Override
+	public V putGet(K key, Consumer<V> wasPresent, Consumer<V> wasMissing) {
+		Node node = map.get(key);
+
+		if (node == null) {
+			Node newNode = new Node(key);
+			node = map.putIfAbsent(key, newNode);
+
+			if (node == null) {
+				V value = newNode.compute();
+				wasMissing.accept(value);
+				return value;
+			}
+		}
+
+		V value = node.getValue();
+		wasPresent.accept(value);
+		return value;
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return map.keySet();
+	}
+
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			@Override
+			public Iterator<V> iterator() {
+				Iterator<Node> iterator = map.values().iterator();
+
+				return new Iterator<V>() {
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public V next() {
+						return iterator.next().getValue();
+					}
+
+					@Override
+					public void remove() {
+						iterator.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return map.size();
+			}
+		};
+	}
+
+	@Override
+	public V removeGet(K key) {
+		Node node = map.remove(key);
+
+		return node == null ? null : node.getValue();
+	}
+
+	@Override
+	public boolean clear() {
+		boolean changed = !map.isEmpty();
+		map.clear();
+		return changed;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link StatisticsRecorder} over {@link LongAdder adders}, which spread
+ * contended updates over separate cells so that recording from many threads
+ * at once does not contend on a single counter.
+ *
+ * @author Elias N Vasylenko
+ */
+class ConcurrentStatisticsRecorder implements StatisticsRecorder {
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder loadSuccesses = new LongAdder();
+	private final LongAdder loadFailures = new LongAdder();
+	private final LongAdder totalLoadTime = new LongAdder();
+	private final LongAdder[] loadTimes = adders(CacheStatistics.LOAD_TIME_BUCKETS);
+	private final LongAdder[] evictions = adders(EvictionCause.values().length);
+
+	private static LongAdder[] adders(int count) {
+		LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; i++)
+			adders[i] = new LongAdder();
+		return adders;
+	}
+
+	private static long[] sums(LongAdder[] adders) {
+		long[] sums = new long[adders.length];
+		for (int i = 0; i < adders.length; i++)
+			sums[i] = adders[i].sum();
+		return sums;
+	}
+
+	@Override
+	public void recordHit() {
+		hits.increment();
+	}
+
+	@Override
+	public void recordMiss() {
+		misses.increment();
+	}
+
+	@Override
+	public void recordLoadSuccess(long loadTime) {
+		loadSuccesses.increment();
+		recordLoadTime(loadTime);
+	}
+
+	@Override
+	public void recordLoadFailure(long loadTime) {
+		loadFailures.increment();
+		recordLoadTime(loadTime);
+	}
+
+	private void recordLoadTime(long loadTime) {
+		totalLoadTime.add(loadTime);
+		loadTimes[CacheStatistics.getLoadTimeBucket(loadTime)].increment();
+	}
+
+	@Override
+	public void recordEviction(EvictionCause cause) {
+		evictions[cause.ordinal()].increment();
+	}
+
+	/*
+	 * The adders are summed one at a time while they may be updated, so the
+	 * snapshot is not atomic, but each count is accurate at some point during
+	 * the snapshot.
+	 */
+	@Override
+	public CacheStatistics snapshot(long weightedSize) {
+		return new CacheStatistics(
+				hits.sum(),
+				misses.sum(),
+				loadSuccesses.sum(),
+				loadFailures.sum(),
+				totalLoadTime.sum(),
+				sums(loadTimes),
+				sums(evictions),
+				weightedSize);
+	}
+}
@@ -33,12 +33,11 @@
 package uk.co.strangeskies.collection.computingmap;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 public class DeferredComputingMap<K, V> extends ComputingEntryHashMap<K, V> {
 	public DeferredComputingMap(Function<K, V> computation) {
-		this(computation, Executors.newFixedThreadPool(4));
+		this(computation, ComputingMapExecutors.shared());
 	}
 
 	public DeferredComputingMap(Function<K, V> computation, Executor executor) {
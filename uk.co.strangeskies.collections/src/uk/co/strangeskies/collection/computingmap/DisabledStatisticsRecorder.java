@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+/**
+ * The recorder given by {@link StatisticsRecorder#disabled()}.
+ *
+ * @author Elias N Vasylenko
+ */
+final class DisabledStatisticsRecorder implements StatisticsRecorder {
+	static final DisabledStatisticsRecorder INSTANCE = new DisabledStatisticsRecorder();
+
+	private DisabledStatisticsRecorder() {}
+
+	@Override
+	public void recordHit() {}
+
+	@Override
+	public void recordMiss() {}
+
+	@Override
+	public void recordLoadSuccess(long loadTime) {}
+
+	@Override
+	public void recordLoadFailure(long loadTime) {}
+
+	@Override
+	public void recordEviction(EvictionCause cause) {}
+
+	@Override
+	public CacheStatistics snapshot(long weightedSize) {
+		return new CacheStatistics(
+				0,
+				0,
+				0,
+				0,
+				0,
+				new long[CacheStatistics.LOAD_TIME_BUCKETS],
+				new long[EvictionCause.values().length],
+				weightedSize);
+	}
+}
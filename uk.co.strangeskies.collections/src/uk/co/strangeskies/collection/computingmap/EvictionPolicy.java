@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.function.Consumer;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A policy deciding which entries of a {@link CacheComputingMap} to evict in
+ * order to keep the total weight of its entries within some bound.
+ * <p>
+ * Implementations must be thread-safe. Reads are expected to be recorded
+ * concurrently and in great number, so {@link #recordRead(Object)} should not
+ * block; it may defer the work of recording the read, or drop the read
+ * altogether under contention.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
+public interface EvictionPolicy<K, V> {
+	/**
+	 * Record a read of the value for a key which is present in the map.
+	 *
+	 * @param key
+	 *          The key which has been read
+	 */
+	void recordRead(K key);
+
+	/**
+	 * Record that a value has been computed for a key, evicting as many other
+	 * keys as necessary to keep within bounds.
+	 *
+	 * @param key
+	 *          The key which has been written
+	 * @param value
+	 *          The value computed for the key
+	 * @param evictions
+	 *          An action to remove each evicted key from the map
+	 */
+	void recordWrite(K key, V value, Consumer<? super K> evictions);
+
+	/**
+	 * Record that a key has been removed from the map other than by eviction.
+	 *
+	 * @param key
+	 *          The key which has been removed
+	 */
+	void recordRemoval(K key);
+
+	/**
+	 * Record that every key has been removed from the map.
+	 */
+	void clear();
+
+	/**
+	 * @return A new policy with the same bounds as this policy, which has not
+	 *         recorded any keys
+	 */
+	EvictionPolicy<K, V> copy();
+
+	/**
+	 * @return The total weight of the keys recorded by the policy, or -1 if the
+	 *         policy does not weigh them
+	 */
+	default long getWeightedSize() {
+		return -1;
+	}
+
+	/**
+	 * @return A policy which never evicts
+	 */
+	static <K, V> EvictionPolicy<K, V> unbounded() {
+		return new EvictionPolicy<K, V>() {
+			@Override
+			public void recordRead(K key) {}
+
+			@Override
+			public void recordWrite(K key, V value, Consumer<? super K> evictions) {}
+
+			@Override
+			public void recordRemoval(K key) {}
+
+			@Override
+			public void clear() {}
+
+			@Override
+			public EvictionPolicy<K, V> copy() {
+				return this;
+			}
+		};
+	}
+
+	/**
+	 * @param maximumSize
+	 *          The maximum number of entries
+	 * @return A policy which evicts the least recently used entry
+	 */
+	static <K, V> EvictionPolicy<K, V> leastRecentlyUsed(long maximumSize) {
+		return leastRecentlyUsed(maximumSize, (k, v) -> 1);
+	}
+
+	/**
+	 * @param maximumWeight
+	 *          The maximum total weight of entries
+	 * @param weigher
+	 *          A function giving the weight of each entry
+	 * @return A policy which evicts the least recently used entries
+	 */
+	static <K, V> EvictionPolicy<K, V> leastRecentlyUsed(
+			long maximumWeight,
+			ToLongBiFunction<? super K, ? super V> weigher) {
+		return new LruEvictionPolicy<>(maximumWeight, weigher);
+	}
+
+	/**
+	 * @param maximumSize
+	 *          The maximum number of entries
+	 * @return A W-TinyLFU policy, as described by
+	 *         {@link #windowTinyLfu(long, ToLongBiFunction)}
+	 */
+	static <K, V> EvictionPolicy<K, V> windowTinyLfu(long maximumSize) {
+		return windowTinyLfu(maximumSize, (k, v) -> 1);
+	}
+
+	/**
+	 * A W-TinyLFU policy admits new entries to a small LRU window. Entries which
+	 * leave the window are only admitted to the main region of the cache if
+	 * they have been used more frequently than the entry they would displace,
+	 * according to an approximate count of recent uses of every key, whether
+	 * present or not. This protects frequently used entries from being flushed
+	 * by a scan over many entries which are used only once.
+	 *
+	 * @param maximumWeight
+	 *          The maximum total weight of entries
+	 * @param weigher
+	 *          A function giving the weight of each entry
+	 * @return A W-TinyLFU policy
+	 */
+	static <K, V> EvictionPolicy<K, V> windowTinyLfu(
+			long maximumWeight,
+			ToLongBiFunction<? super K, ? super V> weigher) {
+		return new WindowTinyLfuEvictionPolicy<>(maximumWeight, weigher);
+	}
+}
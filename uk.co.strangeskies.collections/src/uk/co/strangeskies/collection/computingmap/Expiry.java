@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * A policy deciding how long the entries of a {@link CacheComputingMap} may
+ * live before they expire. An expired entry is never returned from the map,
+ * and is removed from the map some time after it expires.
+ * <p>
+ * Durations are given in nanoseconds, and {@link Long#MAX_VALUE} is
+ * interpreted as never expiring. Durations which would overflow the current
+ * time are also interpreted as never expiring.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
+public interface Expiry<K, V> {
+	/**
+	 * @param key
+	 *          The key for which a value has been computed
+	 * @param value
+	 *          The computed value
+	 * @param currentTime
+	 *          The current time in nanoseconds
+	 * @return The duration in nanoseconds until the entry expires
+	 */
+	long expireAfterWrite(K key, V value, long currentTime);
+
+	/**
+	 * Entries are expected to be read concurrently and in great number, so this
+	 * should be cheap to compute. If the duration is shortened the entry will not
+	 * be returned after its new expiry, though it may not be removed from the map
+	 * until its previous expiry.
+	 *
+	 * @param key
+	 *          The key which has been read
+	 * @param value
+	 *          The value which has been read
+	 * @param currentTime
+	 *          The current time in nanoseconds
+	 * @param currentDuration
+	 *          The remaining duration in nanoseconds until the entry expires
+	 * @return The duration in nanoseconds until the entry expires
+	 */
+	long expireAfterRead(K key, V value, long currentTime, long currentDuration);
+
+	/**
+	 * @return An expiry under which entries never expire
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> Expiry<K, V> never() {
+		return (Expiry<K, V>) NeverExpiry.INSTANCE;
+	}
+
+	/**
+	 * @param duration
+	 *          The duration for which each value lives
+	 * @return An expiry under which entries expire a fixed duration after their
+	 *         value is computed
+	 */
+	static <K, V> Expiry<K, V> afterWrite(Duration duration) {
+		long nanos = toNanos(duration);
+
+		return new Expiry<K, V>() {
+			@Override
+			public long expireAfterWrite(K key, V value, long currentTime) {
+				return nanos;
+			}
+
+			@Override
+			public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+				return currentDuration;
+			}
+		};
+	}
+
+	/**
+	 * @param duration
+	 *          The duration for which each value lives after it is last read
+	 * @return An expiry under which entries expire a fixed duration after their
+	 *         value is computed or last read
+	 */
+	static <K, V> Expiry<K, V> afterAccess(Duration duration) {
+		long nanos = toNanos(duration);
+
+		return new Expiry<K, V>() {
+			@Override
+			public long expireAfterWrite(K key, V value, long currentTime) {
+				return nanos;
+			}
+
+			@Override
+			public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+				return nanos;
+			}
+		};
+	}
+
+	private static long toNanos(Duration duration) {
+		if (duration.isNegative())
+			throw new IllegalArgumentException("Duration must not be negative " + duration);
+
+		try {
+			return duration.toNanos();
+		} catch (ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+/**
+ * A count-min sketch of the approximate number of recent occurrences of each
+ * item, with four 4-bit counters per item, so counts saturate at fifteen.
+ * <p>
+ * Once a number of increments proportional to the width of the sketch have
+ * been made, every counter is halved, so that the counts reflect recent
+ * history. This class is not thread-safe.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The type of items
+ */
+class FrequencySketch<T> {
+	private static final long[] SEEDS = {
+			0xc3a5c85c97cb3127L,
+			0xb492b66fbe98f273L,
+			0x9ae16a3b2f90404fL,
+			0xcbf29ce484222325L };
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final long ONE_MASK = 0x1111111111111111L;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private long[] table = new long[0];
+	private int tableMask;
+	private int sampleSize;
+	private int size;
+
+	public FrequencySketch() {
+		ensureCapacity(0);
+	}
+
+	/**
+	 * Widen the sketch if it is too narrow to count the given number of distinct
+	 * items with reasonable accuracy.
+	 * <p>
+	 * The existing counts are kept, as the counters of an item in the wider
+	 * table are copies of its counters in the narrower table.
+	 *
+	 * @param maximumSize
+	 *          The expected number of distinct items
+	 */
+	public void ensureCapacity(long maximumSize) {
+		int capacity = (int) Math.min(Math.max(maximumSize, 8), MAXIMUM_CAPACITY);
+		if (table.length >= capacity)
+			return;
+
+		long[] previous = table;
+		table = new long[Integer.highestOneBit(capacity - 1) << 1];
+		tableMask = table.length - 1;
+		sampleSize = 10 * table.length;
+
+		if (previous.length > 0)
+			for (int i = 0; i < table.length; i += previous.length)
+				System.arraycopy(previous, 0, table, i, previous.length);
+	}
+
+	/**
+	 * @param item
+	 *          The item to count
+	 * @return The approximate number of recent occurrences of the item, up to
+	 *         fifteen
+	 */
+	public int frequency(T item) {
+		int hash = spread(item.hashCode());
+		int start = (hash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Count an occurrence of the item.
+	 *
+	 * @param item
+	 *          The item to count
+	 */
+	public void increment(T item) {
+		int hash = spread(item.hashCode());
+		int start = (hash & 3) << 2;
+
+		boolean added = false;
+		for (int i = 0; i < 4; i++)
+			added |= incrementAt(indexOf(hash, i), start + i);
+
+		if (added && ++size == sampleSize)
+			reset();
+	}
+
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long mask = 0xfL << offset;
+		if ((table[index] & mask) != mask) {
+			table[index] += 1L << offset;
+			return true;
+		}
+		return false;
+	}
+
+	private void reset() {
+		int odd = 0;
+		for (int i = 0; i < table.length; i++) {
+			odd += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size = (size >>> 1) - (odd >>> 2);
+	}
+
+	private int indexOf(int item, int i) {
+		long hash = (item + SEEDS[i]) * SEEDS[i];
+		hash += hash >>> 32;
+		return ((int) hash) & tableMask;
+	}
+
+	private static int spread(int hash) {
+		hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		return (hash >>> 16) ^ hash;
+	}
+}
@@ -32,117 +32,194 @@
  */
 package uk.co.strangeskies.collection.computingmap;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import uk.co.strangeskies.collection.EquivalenceComparator;
 
+/**
+ * A {@link ComputingMap} which begins to compute the value for each key as
+ * soon as it is put into the map. Computations are run on an executor, which
+ * is {@link ComputingMapExecutors#shared() shared} by default, and may be
+ * cancelled by removing their key before they complete.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
 public class FutureMap<K, V> implements ComputingMap<K, V> {
-	public class PreparationThread extends Thread {
+	/*
+	 * The thread running the computation is recorded, so that it may be
+	 * interrupted on cancellation, while holding the lock of the preparation,
+	 * so that it is never interrupted after it has moved on to other work.
+	 */
+	private class Preparation extends CompletableFuture<V> implements Runnable {
 		private final K key;
-		private V value;
 		private boolean cancellable = true;
-		private RuntimeException exception;
+		private Thread thread;
 
-		public PreparationThread(K key) {
-			synchronized (FutureMap.this) {
-				this.key = key;
-				preparationThreads.put(key, this);
-				start();
-			}
+		Preparation(K key) {
+			this.key = key;
 		}
 
 		@Override
 		public void run() {
-			try {
-				value = mapping.apply(key);
-			} catch (RuntimeException e) {
-				exception = e;
-			} finally {
-				synchronized (FutureMap.this) {
-					if (preparationThreads.containsKey(key)) {
-						if (value != null) {
-							values.put(key, value);
-						}
-						preparationThreads.remove(key);
-						FutureMap.this.notifyAll();
-					}
-				}
+			synchronized (this) {
+				if (isDone())
+					return;
+				thread = Thread.currentThread();
 			}
-		}
 
-		public void setUncancellable() {
-			synchronized (FutureMap.this) {
-				cancellable = false;
-			}
-		}
+			StatisticsRecorder statisticsRecorder = FutureMap.this.statisticsRecorder;
+			boolean recording = statisticsRecorder != StatisticsRecorder.disabled();
+			long startTime = recording ? System.nanoTime() : 0;
 
-		public void cancel() {
-			synchronized (FutureMap.this) {
-				if (cancellable && preparationThreads.containsKey(key)) {
-					preparationThreads.remove(key);
-					FutureMap.this.notifyAll();
-					interrupt();
+			try {
+				V value = mapping.apply(key);
+				if (recording)
+					statisticsRecorder.recordLoadSuccess(System.nanoTime() - startTime);
+				complete(value);
+			} catch (Throwable t) {
+				if (recording)
+					statisticsRecorder.recordLoadFailure(System.nanoTime() - startTime);
+				completeExceptionally(t);
+			} finally {
+				synchronized (this) {
+					thread = null;
+					Thread.interrupted();
 				}
 			}
 		}
 
-		public V waitForValue() {
-			synchronized (FutureMap.this) {
-				while (preparationThreads.containsKey(key)) {
-					try {
-						preparationThreads.wait();
-					} catch (InterruptedException e) {}
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+			if (cancelled && mayInterruptIfRunning) {
+				synchronized (this) {
+					if (thread != null)
+						thread.interrupt();
 				}
-				return getValue();
 			}
-		}
 
-		public V getValue() {
-			if (exception != null) {
-				throw exception;
-			}
-			return value;
+			return cancelled;
 		}
 	}
 
-	private final Map<K, PreparationThread> preparationThreads;
+	private final Map<K, Preparation> preparations;
 	private final Map<K, V> values;
 	private final Function<K, V> mapping;
+	private final Executor executor;
+	private volatile StatisticsRecorder statisticsRecorder = StatisticsRecorder.disabled();
 
 	public FutureMap(Function<K, V> function) {
 		this(function, EquivalenceComparator.identityComparator());
 	}
 
 	public FutureMap(Function<K, V> function, Comparator<K> comparator) {
-		preparationThreads = new TreeMap<>(comparator);
+		this(function, comparator, ComputingMapExecutors.shared());
+	}
+
+	public FutureMap(Function<K, V> function, Comparator<K> comparator, Executor executor) {
+		preparations = new TreeMap<>(comparator);
 		values = new TreeMap<>(comparator);
-		mapping = values::get;
+		mapping = requireNonNull(function);
+		this.executor = requireNonNull(executor);
+	}
+
+	/**
+	 * Statistics are not recorded unless a recorder is set.
+	 *
+	 * @param statisticsRecorder
+	 *          The recorder of statistics about the use of the map
+	 */
+	public void setStatisticsRecorder(StatisticsRecorder statisticsRecorder) {
+		this.statisticsRecorder = requireNonNull(statisticsRecorder);
+	}
+
+	public StatisticsRecorder getStatisticsRecorder() {
+		return statisticsRecorder;
+	}
+
+	/**
+	 * @return A snapshot of the statistics recorded so far, where the weighted
+	 *         size is the number of keys either computed or being computed
+	 */
+	public CacheStatistics getStatistics() {
+		long size;
+		synchronized (this) {
+			size = preparations.size() + values.size();
+		}
+		return statisticsRecorder.snapshot(size);
 	}
 
 	private boolean isPending(K key) {
 		synchronized (this) {
-			return preparationThreads.containsKey(key) || values.containsKey(key);
+			return preparations.containsKey(key) || values.containsKey(key);
 		}
 	}
 
 	@Override
 	public boolean put(final K key) {
-		synchronized (this) {
-			if (isPending(key)) {
-				return false;
-			} else {
-				new PreparationThread(key);
-				return true;
-			}
+		Preparation preparation = prepare(key);
+		if (preparation == null)
+			return false;
+
+		start(preparation);
+		return true;
+	}
+
+	/**
+	 * @return The preparation recorded for the given key, or null if the key is
+	 *         already present
+	 */
+	private synchronized Preparation prepare(K key) {
+		if (isPending(key))
+			return null;
+
+		Preparation preparation = new Preparation(key);
+		preparations.put(key, preparation);
+		preparation.whenComplete((value, failure) -> completed(preparation, value));
+		return preparation;
+	}
+
+	/*
+	 * If the executor rejects the computation then it is run on the calling
+	 * thread, so this must never be invoked while holding the lock on the map.
+	 */
+	private void start(Preparation preparation) {
+		try {
+			executor.execute(preparation);
+		} catch (RejectedExecutionException e) {
+			preparation.run();
+		}
+	}
+
+	private synchronized void completed(Preparation preparation, V value) {
+		if (preparations.get(preparation.key) == preparation) {
+			preparations.remove(preparation.key);
+			if (value != null)
+				values.put(preparation.key, value);
 		}
 	}
 
@@ -151,35 +228,117 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 		return get(key, true);
 	}
 
+	/**
+	 * @param key
+	 *          The key object for which to return the mapped computed value
+	 * @param cancellable
+	 *          False if the computation of the value should no longer be
+	 *          cancelled by removal of the key, true otherwise
+	 * @return The computed value associated with a given key, or null if the
+	 *         computation was cancelled
+	 */
 	public V get(K key, boolean cancellable) {
-		synchronized (this) {
-			if (preparationThreads.containsKey(key)) {
-				if (!cancellable) {
-					preparationThreads.get(key).setUncancellable();
-				}
-				return preparationThreads.get(key).waitForValue();
-			} else if (values.containsKey(key)) {
-				return values.get(key);
+		return join(getAsync(key, cancellable));
+	}
+
+	private V join(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CancellationException e) {
+			return null;
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
 			} else {
-				return null;
+				throw e;
 			}
 		}
 	}
 
+	@Override
+	public CompletableFuture<V> getAsync(K key) {
+		return getAsync(key, true);
+	}
+
+	/**
+	 * The returned future may be cancelled without cancelling the computation.
+	 *
+	 * @param key
+	 *          The key object for which to return the mapped computed value
+	 * @param cancellable
+	 *          False if the computation of the value should no longer be
+	 *          cancelled by removal of the key, true otherwise
+	 * @return A future which completes with the value associated with the given
+	 *         key, or with null if the key is not in the map
+	 */
+	public synchronized CompletableFuture<V> getAsync(K key, boolean cancellable) {
+		if (isPending(key))
+			statisticsRecorder.recordHit();
+		else
+			statisticsRecorder.recordMiss();
+
+		return lookup(key, cancellable);
+	}
+
+	private synchronized CompletableFuture<V> lookup(K key, boolean cancellable) {
+		Preparation preparation = preparations.get(key);
+
+		if (preparation != null) {
+			if (!cancellable)
+				preparation.cancellable = false;
+			return preparation.copy();
+		} else {
+			return CompletableFuture.completedFuture(values.get(key));
+		}
+	}
+
+	@Override
+	public CompletableFuture<V> putGetAsync(K key) {
+		Preparation preparation;
+		CompletableFuture<V> future;
+
+		synchronized (this) {
+			preparation = prepareLookup(key);
+			future = lookup(key, false);
+		}
+
+		if (preparation != null)
+			start(preparation);
+		return future;
+	}
+
 	@Override
 	public V putGet(K key, Consumer<V> wasPresent, Consumer<V> wasMissing) {
+		Preparation preparation;
+		CompletableFuture<V> future;
+
 		synchronized (this) {
-			boolean added = put(key);
-			V value = get(key, false);
+			preparation = prepareLookup(key);
+			future = lookup(key, false);
+		}
 
-			if (added) {
-				wasMissing.accept(value);
-			} else {
-				wasPresent.accept(value);
-			}
+		if (preparation != null)
+			start(preparation);
 
-			return value;
+		V value = join(future);
+		if (preparation != null) {
+			wasMissing.accept(value);
+		} else {
+			wasPresent.accept(value);
 		}
+
+		return value;
+	}
+
+	private synchronized Preparation prepareLookup(K key) {
+		Preparation preparation = prepare(key);
+		if (preparation != null)
+			statisticsRecorder.recordMiss();
+		else
+			statisticsRecorder.recordHit();
+		return preparation;
 	}
 
 	@Override
@@ -187,7 +346,7 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 		return new AbstractSet<K>() {
 			@Override
 			public Iterator<K> iterator() {
-				Iterator<K> baseIterator = preparationThreads.keySet().iterator();
+				Iterator<K> baseIterator = preparations.keySet().iterator();
 
 				return new Iterator<K>() {
 					private K last;
@@ -211,7 +370,7 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 
 			@Override
 			public int size() {
-				return preparationThreads.keySet().size();
+				return preparations.keySet().size();
 			}
 		};
 	}
@@ -255,16 +414,13 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 	@Override
 	public boolean remove(K key) {
 		synchronized (this) {
-			if (preparationThreads.containsKey(key)) {
-				preparationThreads.get(key).cancel();
-				preparationThreads.remove(key);
-				notifyAll();
-				return true;
-			} else if (values.containsKey(key)) {
-				values.remove(key);
+			Preparation preparation = preparations.remove(key);
+			if (preparation != null) {
+				if (preparation.cancellable)
+					preparation.cancel(true);
 				return true;
 			} else {
-				return false;
+				return values.remove(key) != null;
 			}
 		}
 	}
@@ -274,51 +430,68 @@ public class FutureMap<K, V> implements ComputingMap<K, V> {
 		return removeGet(key, true);
 	}
 
+	/**
+	 * @param key
+	 *          The key to remove
+	 * @param cancellable
+	 *          True if the computation of the value may be cancelled, in which
+	 *          case null is returned, false if the computation should be waited
+	 *          for
+	 * @return The value removed
+	 */
 	public V removeGet(K key, boolean cancellable) {
+		Preparation preparation;
+
 		synchronized (this) {
-			if (preparationThreads.containsKey(key)) {
-				if (!cancellable) {
-					preparationThreads.get(key).setUncancellable();
-					V value = preparationThreads.remove(key).waitForValue();
-					notifyAll();
-					return value;
-				} else {
-					preparationThreads.get(key).cancel();
-					return null;
-				}
-			} else if (values.containsKey(key)) {
+			preparation = preparations.remove(key);
+			if (preparation == null)
 				return values.remove(key);
-			} else {
+
+			if (cancellable && preparation.cancellable) {
+				preparation.cancel(true);
 				return null;
 			}
 		}
+
+		return join(preparation);
 	}
 
 	@Override
 	public boolean clear() {
-		boolean changed = false;
-
 		synchronized (this) {
-			for (K key : preparationThreads.keySet()) {
-				changed = remove(key) || changed;
-			}
-			for (K key : values.keySet()) {
-				changed = remove(key) || changed;
-			}
-		}
+			if (preparations.isEmpty() && values.isEmpty())
+				return false;
 
-		return changed;
+			for (Preparation preparation : preparations.values())
+				if (preparation.cancellable)
+					preparation.cancel(true);
+			preparations.clear();
+			values.clear();
+			return true;
+		}
 	}
 
+	/**
+	 * Wait for every computation in progress to complete, or to be cancelled.
+	 */
 	public void waitForAll() {
-		synchronized (this) {
-			while (!preparationThreads.isEmpty()) {
-				preparationThreads.values().stream().findAny().get().waitForValue();
+		for (;;) {
+			List<Preparation> pending;
+			synchronized (this) {
+				if (preparations.isEmpty())
+					return;
+				pending = new ArrayList<>(preparations.values());
+			}
+
+			for (Preparation preparation : pending) {
+				try {
+					preparation.join();
+				} catch (CancellationException | CompletionException e) {}
 			}
 		}
 	}
 
 	public synchronized Set<K> getKeys() {
-		return preparationThreads.keySet();
+		return preparations.keySet();
 	}
 }
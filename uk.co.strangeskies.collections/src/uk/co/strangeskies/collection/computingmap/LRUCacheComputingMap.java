@@ -53,6 +53,17 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 			insert();
 		}
 
+		/*
+		 * A copied entry is inserted by the copy constructor, in the order of the
+		 * entries of the map it was copied from.
+		 */
+		protected LinkedEntry(K key, V value) {
+			super(key, value);
+
+			previous = this;
+			next = this;
+		}
+
 		@Override
 		public V getValue() {
 			uninsert();
@@ -94,7 +105,15 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 		super(other);
 
 		maximumSize = other.maximumSize;
-		bounds = other.bounds;
+		bounds = new LinkedEntry();
+
+		synchronized (other) {
+			for (LinkedEntry entry = other.bounds.previous; entry != other.bounds; entry = entry.previous) {
+				Entry<K, V> copy = getEntry(entry.getKey());
+				if (copy instanceof LRUCacheComputingMap<?, ?>.LinkedEntry)
+					((LinkedEntry) copy).insert();
+			}
+		}
 	}
 
 	@Override
@@ -102,6 +121,11 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 		return new LinkedEntry(key);
 	}
 
+	@Override
+	protected LinkedEntry copyEntry(K key, V value) {
+		return new LinkedEntry(key, value);
+	}
+
 	public synchronized int cacheSize() {
 		return maximumSize;
 	}
@@ -116,7 +140,7 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 		boolean added = super.put(key);
 
 		if (size() > maximumSize)
-			remove(bounds.previous.getKey());
+			evictEldest();
 
 		return added;
 	}
@@ -128,7 +152,7 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 			changed = super.put(key) | changed;
 
 		while (size() > maximumSize)
-			remove(bounds.previous.getKey());
+			evictEldest();
 
 		return changed;
 	}
@@ -138,11 +162,16 @@ public class LRUCacheComputingMap<K, V> extends CacheComputingMap<K, V> {
 		V value = super.putGet(key, wasPresent, wasMissing);
 
 		if (size() > maximumSize)
-			remove(bounds.previous.getKey());
+			evictEldest();
 
 		return value;
 	}
 
+	private void evictEldest() {
+		remove(bounds.previous.getKey());
+		getStatisticsRecorder().recordEviction(EvictionCause.SIZE);
+	}
+
 	public synchronized boolean removeAll(Set<K> keys) {
 		boolean changed = false;
 		for (K key : keys)
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.function.Consumer;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * An {@link EvictionPolicy} which evicts the least recently used entries.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
+class LruEvictionPolicy<K, V> extends BufferedEvictionPolicy<K, V> {
+	private final NodeQueue<K> queue = new NodeQueue<>();
+
+	public LruEvictionPolicy(long maximumWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+		super(maximumWeight, weigher);
+	}
+
+	@Override
+	public LruEvictionPolicy<K, V> copy() {
+		return new LruEvictionPolicy<>(getMaximumWeight(), getWeigher());
+	}
+
+	@Override
+	protected long getWeightedSizeLocked() {
+		return queue.getWeight();
+	}
+
+	@Override
+	protected void onInsert(Node<K> node) {
+		queue.addLast(node);
+	}
+
+	@Override
+	protected void onRead(Node<K> node) {
+		queue.moveToLast(node);
+	}
+
+	@Override
+	protected void evict(Consumer<? super K> evictions) {
+		while (queue.getWeight() > getMaximumWeight())
+			evict(queue.first(), evictions);
+	}
+
+	@Override
+	protected void onClear() {
+		queue.clear();
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+/**
+ * Records statistics about the use of a {@link ComputingMap}, for example to
+ * guide tuning of the size of a cache.
+ * <p>
+ * Recording is opt-in. By default maps use the {@link #disabled() disabled}
+ * recorder, and do not so much as read the time to measure loads.
+ * Implementations must be thread-safe.
+ *
+ * @author Elias N Vasylenko
+ */
+public interface StatisticsRecorder {
+	/**
+	 * Record that a value was found in the map.
+	 */
+	void recordHit();
+
+	/**
+	 * Record that no value was found in the map.
+	 */
+	void recordMiss();
+
+	/**
+	 * @param loadTime
+	 *          The time in nanoseconds spent to compute a value successfully
+	 */
+	void recordLoadSuccess(long loadTime);
+
+	/**
+	 * @param loadTime
+	 *          The time in nanoseconds spent on a computation which failed
+	 */
+	void recordLoadFailure(long loadTime);
+
+	/**
+	 * @param cause
+	 *          The reason an entry was evicted
+	 */
+	void recordEviction(EvictionCause cause);
+
+	/**
+	 * @param weightedSize
+	 *          The current weighted size of the map
+	 * @return The statistics recorded so far
+	 */
+	CacheStatistics snapshot(long weightedSize);
+
+	/**
+	 * @return A recorder which records nothing, and which maps recognise so as to
+	 *         avoid measuring anything at all
+	 */
+	static StatisticsRecorder disabled() {
+		return DisabledStatisticsRecorder.INSTANCE;
+	}
+
+	/**
+	 * @return A recorder which may be updated concurrently from many threads
+	 *         without contention
+	 */
+	static StatisticsRecorder concurrent() {
+		return new ConcurrentStatisticsRecorder();
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel, which schedules timers in buckets of
+ * progressively coarser resolution so that scheduling, descheduling and
+ * expiring a timer are each constant time amortised.
+ * <p>
+ * Each level of the wheel is an array of buckets, with each bucket spanning a
+ * power-of-two number of nanoseconds. Timers are placed at the finest level
+ * whose full span covers the time until they expire, and when the wheel is
+ * advanced past a bucket at a coarser level its timers are cascaded down to
+ * finer levels, or expired if their time has passed.
+ * <p>
+ * Instances are not thread-safe, and must be guarded externally.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The type of the values of timers
+ */
+final class TimerWheel<T> {
+	static final class Timer<T> {
+		private final T value;
+		private volatile long time;
+		private Timer<T> previous;
+		private Timer<T> next;
+
+		Timer(T value) {
+			this.value = value;
+			this.time = Long.MAX_VALUE;
+		}
+
+		T getValue() {
+			return value;
+		}
+
+		/**
+		 * @return The time at which the timer expires, which may be later than the
+		 *         time at which it is scheduled
+		 */
+		long getTime() {
+			return time;
+		}
+
+		/**
+		 * Set the time at which the timer expires. This may be done without
+		 * guarding the wheel, and if the timer is already scheduled it will be
+		 * rescheduled when it comes due, so the time should only be moved later.
+		 */
+		void setTime(long time) {
+			this.time = time;
+		}
+
+		boolean isScheduled() {
+			return next != null;
+		}
+	}
+
+	/*
+	 * The buckets per level, with their spans rounded up to powers of two from
+	 * roughly a second, a minute, an hour, a day, and four days. The last level
+	 * has a single bucket which overflows, and is revisited every four days.
+	 */
+	private static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+	private static final long[] SPANS = {
+			Long.highestOneBit(1_000_000_000L) << 1,
+			Long.highestOneBit(60_000_000_000L) << 1,
+			Long.highestOneBit(3_600_000_000_000L) << 1,
+			Long.highestOneBit(86_400_000_000_000L) << 1,
+			BUCKETS[3] * (Long.highestOneBit(86_400_000_000_000L) << 1),
+			BUCKETS[3] * (Long.highestOneBit(86_400_000_000_000L) << 1) };
+	private static final long[] SHIFT = {
+			Long.numberOfTrailingZeros(SPANS[0]),
+			Long.numberOfTrailingZeros(SPANS[1]),
+			Long.numberOfTrailingZeros(SPANS[2]),
+			Long.numberOfTrailingZeros(SPANS[3]),
+			Long.numberOfTrailingZeros(SPANS[4]) };
+
+	private final Timer<T>[][] wheel;
+	private volatile long currentTime;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	TimerWheel(long currentTime) {
+		this.currentTime = currentTime;
+
+		wheel = new Timer[BUCKETS.length][];
+		for (int i = 0; i < BUCKETS.length; i++) {
+			wheel[i] = new Timer[BUCKETS[i]];
+			for (int j = 0; j < BUCKETS[i]; j++) {
+				Timer<T> bounds = new Timer<>(null);
+				bounds.previous = bounds.next = bounds;
+				wheel[i][j] = bounds;
+			}
+		}
+	}
+
+	/**
+	 * This may be invoked without guarding the wheel.
+	 *
+	 * @param currentTime
+	 *          The current time
+	 * @return true if advancing the wheel to the given time may expire timers,
+	 *         false otherwise
+	 */
+	boolean isDue(long currentTime) {
+		return (currentTime >>> SHIFT[0]) != (this.currentTime >>> SHIFT[0]);
+	}
+
+	/**
+	 * Schedule a timer which is not currently scheduled, at its
+	 * {@link Timer#getTime() time}.
+	 */
+	void schedule(Timer<T> timer) {
+		Timer<T> bounds = findBucket(timer.time);
+		timer.previous = bounds.previous;
+		timer.next = bounds;
+		timer.previous.next = timer.next.previous = timer;
+	}
+
+	/**
+	 * Remove a timer from the wheel if it is scheduled.
+	 */
+	void deschedule(Timer<T> timer) {
+		if (timer.isScheduled()) {
+			timer.previous.next = timer.next;
+			timer.next.previous = timer.previous;
+			timer.previous = timer.next = null;
+		}
+	}
+
+	/**
+	 * Advance the wheel to the given time, descheduling each timer which has
+	 * expired and rescheduling those which have been moved later.
+	 *
+	 * @param currentTime
+	 *          The time to advance to
+	 * @param expired
+	 *          An action to take for each expired timer
+	 */
+	void advance(long currentTime, Consumer<? super Timer<T>> expired) {
+		long previousTime = this.currentTime;
+		this.currentTime = currentTime;
+
+		for (int i = 0; i < SHIFT.length; i++) {
+			long previousTicks = previousTime >>> SHIFT[i];
+			long currentTicks = currentTime >>> SHIFT[i];
+			if (currentTicks - previousTicks <= 0)
+				break;
+			expire(i, previousTicks, currentTicks, expired);
+		}
+	}
+
+	private void expire(
+			int level,
+			long previousTicks,
+			long currentTicks,
+			Consumer<? super Timer<T>> expired) {
+		Timer<T>[] buckets = wheel[level];
+		int mask = buckets.length - 1;
+
+		long ticks = Math.min(currentTicks - previousTicks + 1, buckets.length);
+		for (long i = 0; i < ticks; i++) {
+			Timer<T> bounds = buckets[(int) ((previousTicks + i) & mask)];
+
+			Timer<T> timer = bounds.next;
+			bounds.previous = bounds.next = bounds;
+
+			while (timer != bounds) {
+				Timer<T> next = timer.next;
+				timer.previous = timer.next = null;
+
+				if (timer.time - currentTime <= 0)
+					expired.accept(timer);
+				else
+					schedule(timer);
+
+				timer = next;
+			}
+		}
+	}
+
+	/*
+	 * Timers which are already due go in the current bucket of the finest
+	 * level, so they are expired the next time the wheel is advanced a tick.
+	 */
+	private Timer<T> findBucket(long time) {
+		long duration = time - currentTime;
+		if (duration < 0) {
+			time = currentTime;
+			duration = 0;
+		}
+		int last = wheel.length - 1;
+		for (int i = 0; i < last; i++) {
+			if (duration < SPANS[i + 1]) {
+				long ticks = time >>> SHIFT[i];
+				return wheel[i][(int) (ticks & (wheel[i].length - 1))];
+			}
+		}
+		return wheel[last][0];
+	}
+
+	/**
+	 * Deschedule every timer.
+	 */
+	void clear() {
+		for (Timer<T>[] buckets : wheel) {
+			for (Timer<T> bounds : buckets) {
+				Timer<T> timer = bounds.next;
+				while (timer != bounds) {
+					Timer<T> next = timer.next;
+					timer.previous = timer.next = null;
+					timer = next;
+				}
+				bounds.previous = bounds.next = bounds;
+			}
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import java.util.function.Consumer;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A W-TinyLFU {@link EvictionPolicy}.
+ * <p>
+ * New entries are admitted to an LRU window taking one percent of the maximum
+ * weight. Entries leaving the window become candidates for the main region,
+ * which is a segmented LRU with a probationary segment and a protected segment
+ * taking eighty percent of the main region. A candidate is only admitted if its
+ * key has been used more frequently than the least recently used probationary
+ * entry, according to a {@link FrequencySketch} of recent reads and writes,
+ * otherwise it is evicted. Probationary entries are promoted to the protected
+ * segment when read, and the protected segment demotes its least recently used
+ * entries back to probation when it overflows.
+ *
+ * @author Elias N Vasylenko
+ *
+ * @param <K>
+ *          The type of keys
+ * @param <V>
+ *          The type of values
+ */
+class WindowTinyLfuEvictionPolicy<K, V> extends BufferedEvictionPolicy<K, V> {
+	/*
+	 * The sketch is sized for the maximum weight up front, so admission is not
+	 * decided against an empty sketch while the cache warms up, but within
+	 * reason, as the weight of an entry need not be one.
+	 */
+	private static final long MAXIMUM_INITIAL_SKETCH_SIZE = 1 << 16;
+
+	private final long windowMaximum;
+	private final long mainMaximum;
+	private final long protectedMaximum;
+
+	private final NodeQueue<K> window = new NodeQueue<>();
+	private final NodeQueue<K> probation = new NodeQueue<>();
+	private final NodeQueue<K> protectedQueue = new NodeQueue<>();
+
+	private final FrequencySketch<K> sketch = new FrequencySketch<>();
+
+	public WindowTinyLfuEvictionPolicy(
+			long maximumWeight,
+			ToLongBiFunction<? super K, ? super V> weigher) {
+		super(maximumWeight, weigher);
+
+		windowMaximum = Math.max(1, maximumWeight / 100);
+		mainMaximum = maximumWeight - Math.min(windowMaximum, maximumWeight);
+		protectedMaximum = mainMaximum * 8 / 10;
+
+		sketch.ensureCapacity(Math.min(maximumWeight, MAXIMUM_INITIAL_SKETCH_SIZE));
+	}
+
+	@Override
+	public WindowTinyLfuEvictionPolicy<K, V> copy() {
+		return new WindowTinyLfuEvictionPolicy<>(getMaximumWeight(), getWeigher());
+	}
+
+	@Override
+	protected long getWeightedSizeLocked() {
+		return window.getWeight() + probation.getWeight() + protectedQueue.getWeight();
+	}
+
+	@Override
+	protected void onInsert(Node<K> node) {
+		sketch.ensureCapacity(getNodeCount());
+		sketch.increment(node.getKey());
+		window.addLast(node);
+	}
+
+	@Override
+	protected void onRead(Node<K> node) {
+		sketch.increment(node.getKey());
+
+		NodeQueue<K> queue = node.getQueue();
+		if (queue == probation) {
+			probation.remove(node);
+			protectedQueue.addLast(node);
+
+			Node<K> demoted;
+			while (protectedQueue.getWeight() > protectedMaximum
+					&& (demoted = protectedQueue.first()) != node) {
+				protectedQueue.remove(demoted);
+				probation.addLast(demoted);
+			}
+		} else {
+			queue.moveToLast(node);
+		}
+	}
+
+	@Override
+	protected void evict(Consumer<? super K> evictions) {
+		while (window.getWeight() > windowMaximum) {
+			Node<K> candidate = window.first();
+			window.remove(candidate);
+			admit(candidate, evictions);
+		}
+
+		/*
+		 * We may still exceed the maximum weight if an entry in the main region has
+		 * been re-weighted, or if the main region is too small to admit anything,
+		 * in which case victims are taken from probation, then from the protected
+		 * segment, and only then from the window.
+		 */
+		Node<K> victim;
+		while (getWeightedSizeLocked() > getMaximumWeight() && (victim = nextVictim()) != null)
+			evict(victim, evictions);
+	}
+
+	private Node<K> nextVictim() {
+		Node<K> victim = probation.first();
+		if (victim == null)
+			victim = protectedQueue.first();
+		if (victim == null)
+			victim = window.first();
+		return victim;
+	}
+
+	private void admit(Node<K> candidate, Consumer<? super K> evictions) {
+		probation.addLast(candidate);
+
+		while (probation.getWeight() + protectedQueue.getWeight() > mainMaximum) {
+			Node<K> victim = probation.first();
+			if (victim == candidate)
+				victim = protectedQueue.first();
+
+			if (victim == null
+					|| candidate.getWeight() > mainMaximum
+					|| sketch.frequency(candidate.getKey()) <= sketch.frequency(victim.getKey())) {
+				evict(candidate, evictions);
+				return;
+			}
+
+			evict(victim, evictions);
+		}
+	}
+
+	@Override
+	protected void onClear() {
+		window.clear();
+		probation.clear();
+		protectedQueue.clear();
+	}
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CacheComputingMapTest {
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final AtomicLong time = new AtomicLong();
+	private final AtomicInteger computations = new AtomicInteger();
+
+	private String compute(Integer key) {
+		return key + "-" + computations.incrementAndGet();
+	}
+
+	private void advance(long seconds) {
+		time.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+
+	@After
+	public void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test(timeout = 10000)
+	public void putGetComputesValue() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				Object::toString,
+				true,
+				executor);
+
+		assertThat(map.putGet(1), equalTo("1"));
+		assertThat(map.get(1), equalTo("1"));
+		assertThat(map.removeGet(1), equalTo("1"));
+		assertThat(map.removeGet(1), equalTo(null));
+	}
+
+	@Test(timeout = 10000)
+	public void clearRemovesEverything() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				Object::toString,
+				true,
+				executor);
+		map.putGet(1);
+
+		assertThat(map.clear(), equalTo(true));
+		assertThat(map.get(1), equalTo(null));
+		assertThat(map.clear(), equalTo(false));
+	}
+
+	@Test(timeout = 10000)
+	public void evictionPolicyBoundsSize() throws InterruptedException {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				Object::toString,
+				true,
+				executor,
+				EvictionPolicy.windowTinyLfu(10));
+
+		for (int i = 0; i < 100; i++)
+			map.putGet(i);
+
+		while (map.size() > 10)
+			Thread.sleep(10);
+
+		assertTrue(map.size() <= 10);
+	}
+
+	@Test(timeout = 10000)
+	public void evictionPolicyEvictsLeastRecentlyUsed() throws InterruptedException {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				Object::toString,
+				true,
+				executor,
+				EvictionPolicy.leastRecentlyUsed(2));
+
+		map.putGet(1);
+		map.putGet(2);
+		map.get(1);
+		map.putGet(3);
+
+		while (map.size() > 2)
+			Thread.sleep(10);
+
+		assertThat(map.get(1), equalTo("1"));
+		assertThat(map.get(2), equalTo(null));
+	}
+
+	@Test(timeout = 10000)
+	public void expireAfterWrite() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				executor,
+				EvictionPolicy.unbounded(),
+				Expiry.afterWrite(Duration.ofSeconds(10)),
+				null,
+				time::get);
+
+		assertThat(map.putGet(1), equalTo("1-1"));
+		advance(5);
+		assertThat(map.get(1), equalTo("1-1"));
+		advance(6);
+		assertThat(map.get(1), equalTo(null));
+		assertThat(map.putGet(1), equalTo("1-2"));
+	}
+
+	@Test(timeout = 10000)
+	public void expireAfterAccess() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				executor,
+				EvictionPolicy.unbounded(),
+				Expiry.afterAccess(Duration.ofSeconds(10)),
+				null,
+				time::get);
+
+		map.putGet(1);
+		advance(8);
+		assertThat(map.get(1), equalTo("1-1"));
+		advance(8);
+		assertThat(map.get(1), equalTo("1-1"));
+		advance(11);
+		assertThat(map.get(1), equalTo(null));
+	}
+
+	@Test(timeout = 10000)
+	public void expiredEntriesAreRemovedOnAccess() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				executor,
+				EvictionPolicy.unbounded(),
+				Expiry.afterWrite(Duration.ofSeconds(1)),
+				null,
+				time::get);
+
+		for (int i = 0; i < 10; i++)
+			map.putGet(i);
+		advance(5);
+		map.get(-1);
+
+		assertThat(map.size(), equalTo(0));
+	}
+
+	@Test(timeout = 10000)
+	public void shortenedReadExpiryIsRemovedOnAccess() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				executor,
+				EvictionPolicy.unbounded(),
+				new Expiry<Integer, String>() {
+					@Override
+					public long expireAfterWrite(Integer key, String value, long currentTime) {
+						return TimeUnit.HOURS.toNanos(1);
+					}
+
+					@Override
+					public long expireAfterRead(
+							Integer key,
+							String value,
+							long currentTime,
+							long currentDuration) {
+						return TimeUnit.SECONDS.toNanos(1);
+					}
+				},
+				null,
+				time::get);
+
+		map.putGet(1);
+		assertThat(map.get(1), equalTo("1-1"));
+		advance(5);
+		map.get(-1);
+
+		assertThat(map.size(), equalTo(0));
+	}
+
+	@Test(timeout = 10000)
+	public void putReplacesExpiredEntry() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				executor,
+				EvictionPolicy.unbounded(),
+				Expiry.afterWrite(Duration.ofMillis(100)),
+				null,
+				time::get);
+
+		map.putGet(1);
+		time.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+
+		assertThat(map.put(1), equalTo(true));
+		assertThat(map.putGet(1), equalTo("1-2"));
+	}
+
+	@Test(timeout = 10000)
+	public void concurrentExpiryAndEvictionDoNotDeadlock() throws Exception {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				Runnable::run,
+				EvictionPolicy.leastRecentlyUsed(8),
+				Expiry.afterWrite(Duration.ofMillis(50)),
+				null,
+				() -> time.addAndGet(TimeUnit.MILLISECONDS.toNanos(10)));
+
+		List<Future<?>> workers = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			int offset = i;
+			workers.add(executor.submit(() -> {
+				for (int j = 0; j < 20000; j++)
+					map.putGet((j * 7 + offset) % 64);
+			}));
+		}
+		for (Future<?> worker : workers)
+			worker.get();
+
+		assertTrue(map.size() <= 8);
+	}
+
+	@Test(timeout = 10000)
+	public void concurrentPutGetComputesOnce() throws Exception {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(key -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			return compute(key);
+		}, false, Runnable::run);
+
+		CyclicBarrier barrier = new CyclicBarrier(4);
+		List<Future<String>> workers = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			workers.add(executor.submit(() -> {
+				barrier.await();
+				return map.putGet(1);
+			}));
+		}
+		for (Future<String> worker : workers)
+			assertThat(worker.get(), equalTo("1-1"));
+
+		assertThat(computations.get(), equalTo(1));
+	}
+
+	@Test(timeout = 10000)
+	public void copyHasItsOwnEvictionPolicy() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				Runnable::run,
+				EvictionPolicy.leastRecentlyUsed(2));
+		map.putGet(1);
+		map.putGet(2);
+
+		CacheComputingMap<Integer, String> copy = new CacheComputingMap<>(map);
+		copy.putGet(3);
+
+		assertTrue(copy.getEvictionPolicy() != map.getEvictionPolicy());
+		assertThat(copy.size(), equalTo(2));
+		assertThat(map.get(1), equalTo("1-1"));
+		assertThat(map.get(2), equalTo("2-2"));
+		assertThat(map.get(3), equalTo(null));
+		assertThat(computations.get(), equalTo(3));
+	}
+
+	@Test(timeout = 10000)
+	public void refreshServesPreviousValueUntilRecomputed() {
+		List<Runnable> refreshes = new ArrayList<>();
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				refreshes::add,
+				EvictionPolicy.unbounded(),
+				Expiry.never(),
+				Duration.ofSeconds(10),
+				time::get);
+
+		map.putGet(1);
+		refreshes.clear();
+		advance(11);
+
+		assertThat(map.get(1), equalTo("1-1"));
+		assertThat(map.get(1), equalTo("1-1"));
+		assertThat(refreshes.size(), equalTo(1));
+
+		refreshes.remove(0).run();
+
+		assertThat(map.get(1), equalTo("1-2"));
+		assertThat(refreshes.size(), equalTo(0));
+	}
+
+	@Test(timeout = 10000)
+	public void failedRefreshKeepsPreviousValue() {
+		List<Runnable> refreshes = new ArrayList<>();
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				key -> {
+					if (computations.incrementAndGet() > 1)
+						throw new IllegalStateException();
+					return key + "-" + computations.get();
+				},
+				false,
+				refreshes::add,
+				EvictionPolicy.unbounded(),
+				Expiry.never(),
+				Duration.ofSeconds(10),
+				time::get);
+
+		map.putGet(1);
+		refreshes.clear();
+		advance(11);
+		map.get(1);
+		refreshes.remove(0).run();
+
+		assertThat(map.get(1), equalTo("1-1"));
+		assertThat(refreshes.size(), equalTo(0));
+
+		advance(11);
+		map.get(1);
+		assertThat(refreshes.size(), equalTo(1));
+	}
+
+	@Test(timeout = 10000)
+	public void getAsyncCompletesWhenComputed() {
+		List<Runnable> tasks = new ArrayList<>();
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				tasks::add);
+
+		CompletableFuture<String> value = map.putGetAsync(1);
+		assertThat(value.isDone(), equalTo(false));
+		assertThat(map.getAsync(2).join(), equalTo(null));
+
+		tasks.remove(0).run();
+
+		assertThat(value.join(), equalTo("1-1"));
+		assertThat(map.getAsync(1).join(), equalTo("1-1"));
+	}
+
+	@Test(timeout = 10000)
+	public void rejectedComputationIsRunByReader() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(this::compute, false, task -> {
+			throw new RejectedExecutionException();
+		});
+
+		assertThat(map.putGetAsync(1).join(), equalTo("1-1"));
+		assertThat(map.putGet(2), equalTo("2-2"));
+		assertThat(map.getAsync(1).join(), equalTo("1-1"));
+	}
+
+	@Test(timeout = 10000)
+	public void rejectedRefreshIsRetried() {
+		AtomicBoolean reject = new AtomicBoolean();
+		List<Runnable> refreshes = new ArrayList<>();
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				task -> {
+					if (reject.get())
+						throw new RejectedExecutionException();
+					refreshes.add(task);
+				},
+				EvictionPolicy.unbounded(),
+				Expiry.never(),
+				Duration.ofSeconds(10),
+				time::get);
+
+		map.putGet(1);
+		refreshes.clear();
+		reject.set(true);
+		advance(11);
+
+		assertThat(map.get(1), equalTo("1-1"));
+
+		reject.set(false);
+		assertThat(map.get(1), equalTo("1-1"));
+		assertThat(refreshes.size(), equalTo(0));
+
+		advance(11);
+		assertThat(map.get(1), equalTo("1-1"));
+		assertThat(refreshes.size(), equalTo(1));
+	}
+
+	@Test(timeout = 10000)
+	public void nestedComputationsDoNotExhaustBoundedExecutor() {
+		Executor bounded = ComputingMapExecutors.bounded(executor, 1);
+		List<CacheComputingMap<Integer, Integer>> self = new ArrayList<>();
+		CacheComputingMap<Integer, Integer> map = new CacheComputingMap<>(
+				k -> k == 0 ? 0 : self.get(0).putGet(k - 1) + 1,
+				false,
+				bounded);
+		self.add(map);
+
+		for (int i = 0; i < 10; i++)
+			map.put(i * 10);
+
+		assertThat(map.putGet(100), equalTo(100));
+	}
+
+	@Test(timeout = 10000)
+	public void recordStatistics() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				executor,
+				EvictionPolicy.leastRecentlyUsed(2),
+				Expiry.afterWrite(Duration.ofSeconds(10)),
+				null,
+				time::get);
+		map.setStatisticsRecorder(StatisticsRecorder.concurrent());
+
+		map.putGet(1);
+		map.putGet(1);
+		map.putGet(2);
+		map.putGet(3);
+		advance(11);
+		map.get(3);
+
+		CacheStatistics statistics = map.getStatistics();
+		assertThat(statistics.getHitCount(), equalTo(1L));
+		assertThat(statistics.getMissCount(), equalTo(4L));
+		assertThat(statistics.getLoadSuccessCount(), equalTo(3L));
+		assertThat(statistics.getEvictionCount(EvictionCause.SIZE), equalTo(1L));
+		assertThat(statistics.getEvictionCount(EvictionCause.EXPIRED), equalTo(2L));
+		assertThat(statistics.getWeightedSize(), equalTo(0L));
+	}
+
+	@Test(timeout = 10000)
+	public void statisticsAreDisabledByDefault() {
+		CacheComputingMap<Integer, String> map = new CacheComputingMap<>(
+				this::compute,
+				false,
+				executor);
+
+		map.putGet(1);
+		map.get(1);
+
+		assertThat(map.getStatisticsRecorder(), equalTo(StatisticsRecorder.disabled()));
+		assertThat(map.getStatistics().getRequestCount(), equalTo(0L));
+		assertThat(map.getStatistics().getWeightedSize(), equalTo(1L));
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CacheStatisticsMonitorTest {
+	@Test
+	public void readStatisticsThroughPlatformServer() throws JMException {
+		StatisticsRecorder recorder = StatisticsRecorder.concurrent();
+		CacheStatisticsMonitor monitor = new CacheStatisticsMonitor(() -> recorder.snapshot(3));
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		ObjectName name = monitor.register("test:cache");
+		try {
+			recorder.recordHit();
+			recorder.recordEviction(EvictionCause.SIZE);
+
+			assertThat(server.getAttribute(name, "HitCount"), equalTo(1L));
+			assertThat(server.getAttribute(name, "SizeEvictionCount"), equalTo(1L));
+			assertThat(server.getAttribute(name, "WeightedSize"), equalTo(3L));
+		} finally {
+			monitor.unregister();
+		}
+
+		assertThat(server.isRegistered(name), equalTo(false));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void registerTwice() throws JMException {
+		CacheStatisticsMonitor monitor = new CacheStatisticsMonitor(
+				() -> StatisticsRecorder.disabled().snapshot(0));
+
+		monitor.register("twice");
+		try {
+			monitor.register("twice");
+		} finally {
+			monitor.unregister();
+		}
+	}
+}
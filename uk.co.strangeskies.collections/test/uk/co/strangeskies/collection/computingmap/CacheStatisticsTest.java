@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CacheStatisticsTest {
+	@Test
+	public void loadTimeBucketsDoubleInBound() {
+		assertThat(CacheStatistics.getLoadTimeBucketBound(0), equalTo(1024L));
+		assertThat(CacheStatistics.getLoadTimeBucketBound(1), equalTo(2048L));
+		assertThat(
+				CacheStatistics.getLoadTimeBucketBound(CacheStatistics.LOAD_TIME_BUCKETS - 1),
+				equalTo(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void loadTimesFallWithinBucketBounds() {
+		for (long loadTime : new long[] { 0, 1, 1023, 1024, 2047, 2048, 1_000_000, Long.MAX_VALUE }) {
+			int bucket = CacheStatistics.getLoadTimeBucket(loadTime);
+
+			assertThat(loadTime < CacheStatistics.getLoadTimeBucketBound(bucket)
+					|| bucket == CacheStatistics.LOAD_TIME_BUCKETS - 1, equalTo(true));
+			assertThat(bucket == 0
+					|| loadTime >= CacheStatistics.getLoadTimeBucketBound(bucket - 1), equalTo(true));
+		}
+	}
+
+	@Test
+	public void disabledRecorderRecordsNothing() {
+		StatisticsRecorder recorder = StatisticsRecorder.disabled();
+		recorder.recordHit();
+		recorder.recordMiss();
+		recorder.recordLoadSuccess(10);
+
+		CacheStatistics statistics = recorder.snapshot(5);
+
+		assertThat(statistics.getRequestCount(), equalTo(0L));
+		assertThat(statistics.getLoadCount(), equalTo(0L));
+		assertThat(statistics.getHitRate(), equalTo(1.0));
+		assertThat(statistics.getWeightedSize(), equalTo(5L));
+	}
+
+	@Test
+	public void concurrentRecorderCountsEverything() {
+		StatisticsRecorder recorder = StatisticsRecorder.concurrent();
+		recorder.recordHit();
+		recorder.recordHit();
+		recorder.recordHit();
+		recorder.recordMiss();
+		recorder.recordLoadSuccess(TimeUnit.MICROSECONDS.toNanos(10));
+		recorder.recordLoadFailure(TimeUnit.MICROSECONDS.toNanos(30));
+		recorder.recordEviction(EvictionCause.SIZE);
+		recorder.recordEviction(EvictionCause.EXPIRED);
+		recorder.recordEviction(EvictionCause.EXPIRED);
+
+		CacheStatistics statistics = recorder.snapshot(7);
+
+		assertThat(statistics.getHitCount(), equalTo(3L));
+		assertThat(statistics.getMissCount(), equalTo(1L));
+		assertThat(statistics.getHitRate(), equalTo(0.75));
+		assertThat(statistics.getLoadSuccessCount(), equalTo(1L));
+		assertThat(statistics.getLoadFailureCount(), equalTo(1L));
+		assertThat(statistics.getAverageLoadTime(), equalTo(20_000.0));
+		assertThat(statistics.getEvictionCount(), equalTo(3L));
+		assertThat(statistics.getEvictionCount(EvictionCause.SIZE), equalTo(1L));
+		assertThat(statistics.getEvictionCount(EvictionCause.COLLECTED), equalTo(0L));
+		assertThat(statistics.getEvictionCount(EvictionCause.EXPIRED), equalTo(2L));
+		assertThat(statistics.getWeightedSize(), equalTo(7L));
+
+		long[] histogram = statistics.getLoadTimeHistogram();
+		assertThat(histogram[CacheStatistics.getLoadTimeBucket(10_000)], equalTo(1L));
+		assertThat(histogram[CacheStatistics.getLoadTimeBucket(30_000)], equalTo(1L));
+	}
+
+	@Test
+	public void differenceBetweenSnapshots() {
+		StatisticsRecorder recorder = StatisticsRecorder.concurrent();
+		recorder.recordHit();
+		recorder.recordLoadSuccess(100);
+		CacheStatistics before = recorder.snapshot(1);
+
+		recorder.recordHit();
+		recorder.recordMiss();
+		recorder.recordEviction(EvictionCause.COLLECTED);
+		CacheStatistics difference = recorder.snapshot(2).minus(before);
+
+		assertThat(difference.getHitCount(), equalTo(1L));
+		assertThat(difference.getMissCount(), equalTo(1L));
+		assertThat(difference.getLoadCount(), equalTo(0L));
+		assertThat(difference.getEvictionCount(EvictionCause.COLLECTED), equalTo(1L));
+		assertThat(difference.getWeightedSize(), equalTo(2L));
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ConcurrentComputingMapTest {
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@After
+	public void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void getAbsentKeyReturnsNull() {
+		ConcurrentComputingMap<Integer, String> map = new ConcurrentComputingMap<>(Object::toString);
+
+		assertThat(map.get(1), equalTo(null));
+		assertThat(map.isEmpty(), equalTo(true));
+	}
+
+	@Test
+	public void putComputesValue() {
+		ConcurrentComputingMap<Integer, String> map = new ConcurrentComputingMap<>(Object::toString);
+
+		assertThat(map.put(1), equalTo(true));
+		assertThat(map.put(1), equalTo(false));
+		assertThat(map.get(1), equalTo("1"));
+		assertThat(map.size(), equalTo(1));
+	}
+
+	@Test
+	public void putGetCallbacks() {
+		ConcurrentComputingMap<Integer, String> map = new ConcurrentComputingMap<>(Object::toString);
+		List<String> present = new ArrayList<>();
+		List<String> missing = new ArrayList<>();
+
+		assertThat(map.putGet(1, present::add, missing::add), equalTo("1"));
+		assertThat(map.putGet(1, present::add, missing::add), equalTo("1"));
+
+		assertThat(missing, equalTo(List.of("1")));
+		assertThat(present, equalTo(List.of("1")));
+	}
+
+	@Test
+	public void removeGetAndClear() {
+		ConcurrentComputingMap<Integer, String> map = new ConcurrentComputingMap<>(Object::toString);
+		map.put(1);
+		map.put(2);
+
+		assertThat(map.removeGet(1), equalTo("1"));
+		assertThat(map.removeGet(1), equalTo(null));
+		assertThat(map.keySet(), equalTo(Set.of(2)));
+
+		assertThat(map.clear(), equalTo(true));
+		assertThat(map.clear(), equalTo(false));
+	}
+
+	@Test(timeout = 10000)
+	public void concurrentPutGetComputesOnce() throws Exception {
+		AtomicInteger computations = new AtomicInteger();
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ConcurrentComputingMap<Integer, String> map = new ConcurrentComputingMap<>(k -> {
+			computations.incrementAndGet();
+			computing.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			return k.toString();
+		});
+
+		AtomicInteger missing = new AtomicInteger();
+		AtomicInteger present = new AtomicInteger();
+		Callable<String> putGet = () -> map.putGet(
+				1,
+				v -> present.incrementAndGet(),
+				v -> missing.incrementAndGet());
+
+		List<Future<String>> results = new ArrayList<>();
+		results.add(executor.submit(putGet));
+		computing.await();
+		for (int i = 0; i < 7; i++)
+			results.add(executor.submit(putGet));
+
+		Thread.sleep(50);
+		release.countDown();
+
+		for (Future<String> result : results)
+			assertThat(result.get(5, TimeUnit.SECONDS), equalTo("1"));
+		assertThat(computations.get(), equalTo(1));
+		assertThat(missing.get(), equalTo(1));
+		assertThat(present.get(), equalTo(7));
+	}
+
+	@Test
+	public void failedComputationIsRemoved() {
+		AtomicInteger attempts = new AtomicInteger();
+		RuntimeException failure = new RuntimeException();
+		ConcurrentComputingMap<Integer, String> map = new ConcurrentComputingMap<>(k -> {
+			if (attempts.incrementAndGet() == 1)
+				throw failure;
+			return k.toString();
+		});
+
+		AtomicReference<RuntimeException> thrown = new AtomicReference<>();
+		try {
+			map.putGet(1);
+		} catch (RuntimeException e) {
+			thrown.set(e);
+		}
+
+		assertThat(thrown.get(), equalTo(failure));
+		assertThat(map.get(1), equalTo(null));
+		assertThat(map.putGet(1), equalTo("1"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void recursiveComputationThrows() {
+		AtomicReference<ConcurrentComputingMap<Integer, String>> map = new AtomicReference<>();
+		map.set(new ConcurrentComputingMap<>(k -> map.get().putGet(k)));
+
+		map.get().putGet(1);
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class FrequencySketchTest {
+	@Test
+	public void unseenItemHasZeroFrequency() {
+		FrequencySketch<Integer> sketch = new FrequencySketch<>();
+		sketch.ensureCapacity(100);
+
+		assertThat(sketch.frequency(1), equalTo(0));
+	}
+
+	@Test
+	public void incrementCountsOccurrences() {
+		FrequencySketch<Integer> sketch = new FrequencySketch<>();
+		sketch.ensureCapacity(100);
+
+		for (int i = 0; i < 5; i++)
+			sketch.increment(1);
+
+		assertThat(sketch.frequency(1), equalTo(5));
+	}
+
+	@Test
+	public void frequencySaturatesAtFifteen() {
+		FrequencySketch<Integer> sketch = new FrequencySketch<>();
+		sketch.ensureCapacity(100);
+
+		for (int i = 0; i < 100; i++)
+			sketch.increment(1);
+
+		assertThat(sketch.frequency(1), equalTo(15));
+	}
+
+	@Test
+	public void wideningKeepsCounts() {
+		FrequencySketch<Integer> sketch = new FrequencySketch<>();
+		sketch.ensureCapacity(16);
+
+		for (int i = 0; i < 5; i++)
+			sketch.increment(1);
+		int before = sketch.frequency(2);
+
+		sketch.ensureCapacity(1000);
+
+		assertThat(sketch.frequency(1), equalTo(5));
+		assertTrue(sketch.frequency(2) <= before);
+	}
+
+	@Test
+	public void countsAreHalvedAfterSampling() {
+		FrequencySketch<Integer> sketch = new FrequencySketch<>();
+		sketch.ensureCapacity(64);
+
+		for (int i = 0; i < 10; i++)
+			sketch.increment(-1);
+
+		for (int i = 0; i < 64 * 10; i++)
+			sketch.increment(i);
+
+		assertTrue(sketch.frequency(-1) < 10);
+	}
+
+	@Test
+	public void distinguishesHotFromCold() {
+		FrequencySketch<Integer> sketch = new FrequencySketch<>();
+		sketch.ensureCapacity(1000);
+
+		for (int i = 0; i < 1000; i++)
+			sketch.increment(i);
+		for (int i = 0; i < 10; i++)
+			for (int j = 0; j < 8; j++)
+				sketch.increment(j);
+
+		for (int j = 0; j < 8; j++)
+			assertTrue(sketch.frequency(j) > sketch.frequency(500 + j));
+	}
+}
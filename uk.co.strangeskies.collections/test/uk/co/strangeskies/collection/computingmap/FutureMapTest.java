@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class FutureMapTest {
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+	private final Comparator<Integer> order = Comparator.naturalOrder();
+
+	@After
+	public void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test(timeout = 10000)
+	public void putGetComputesValue() {
+		FutureMap<Integer, String> map = new FutureMap<>(Object::toString, order, executor);
+
+		assertThat(map.putGet(1), equalTo("1"));
+		assertThat(map.get(1), equalTo("1"));
+	}
+
+	@Test(timeout = 10000)
+	public void computeOnGivenExecutor() {
+		List<Runnable> tasks = new ArrayList<>();
+		FutureMap<Integer, String> map = new FutureMap<>(Object::toString, order, tasks::add);
+
+		map.put(1);
+		CompletableFuture<String> value = map.getAsync(1);
+
+		assertThat(value.isDone(), equalTo(false));
+		assertThat(tasks.size(), equalTo(1));
+
+		tasks.get(0).run();
+
+		assertThat(value.join(), equalTo("1"));
+		assertThat(map.get(1), equalTo("1"));
+	}
+
+	@Test(timeout = 10000)
+	public void removeCancelsQueuedComputation() {
+		List<Runnable> tasks = new ArrayList<>();
+		AtomicBoolean computed = new AtomicBoolean();
+		FutureMap<Integer, String> map = new FutureMap<>(k -> {
+			computed.set(true);
+			return k.toString();
+		}, order, tasks::add);
+
+		map.put(1);
+		CompletableFuture<String> value = map.getAsync(1);
+		assertThat(map.remove(1), equalTo(true));
+		tasks.get(0).run();
+
+		assertThat(computed.get(), equalTo(false));
+		assertThat(value.isCompletedExceptionally(), equalTo(true));
+		assertThat(map.get(1), equalTo(null));
+	}
+
+	@Test(timeout = 10000)
+	public void removeInterruptsRunningComputation() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		FutureMap<Integer, String> map = new FutureMap<>(k -> {
+			started.countDown();
+			try {
+				Thread.sleep(10000);
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return k.toString();
+		}, order, executor);
+
+		map.put(1);
+		started.await();
+		map.remove(1);
+
+		interrupted.await();
+	}
+
+	@Test(timeout = 10000)
+	public void uncancellableGetIsNotCancelledByRemove() {
+		List<Runnable> tasks = new ArrayList<>();
+		FutureMap<Integer, String> map = new FutureMap<>(Object::toString, order, tasks::add);
+
+		map.put(1);
+		CompletableFuture<String> value = map.getAsync(1, false);
+		map.remove(1);
+		tasks.get(0).run();
+
+		assertThat(value.join(), equalTo("1"));
+	}
+
+	@Test(timeout = 10000)
+	public void rejectedComputationDoesNotHoldMap() {
+		AtomicReference<FutureMap<Integer, Integer>> map = new AtomicReference<>();
+		map.set(new FutureMap<>(
+				key -> CompletableFuture.supplyAsync(() -> map.get().get(key + 1), executor).join(),
+				order,
+				task -> {
+					throw new RejectedExecutionException();
+				}));
+
+		assertThat(map.get().putGet(1), equalTo(null));
+		assertThat(map.get().putGetAsync(2).join(), equalTo(null));
+	}
+
+	@Test(timeout = 10000, expected = IllegalStateException.class)
+	public void failureIsThrownFromGet() {
+		FutureMap<Integer, String> map = new FutureMap<>(k -> {
+			throw new IllegalStateException();
+		}, order, executor);
+
+		map.putGet(1);
+	}
+
+	@Test(timeout = 10000)
+	public void waitForAllComputations() {
+		FutureMap<Integer, String> map = new FutureMap<>(Object::toString, order, executor);
+
+		for (int i = 0; i < 100; i++)
+			map.put(i);
+		map.waitForAll();
+
+		assertThat(map.getKeys().isEmpty(), equalTo(true));
+		for (int i = 0; i < 100; i++)
+			assertThat(map.get(i), equalTo(Integer.toString(i)));
+	}
+
+	@Test(timeout = 10000)
+	public void recordStatistics() {
+		FutureMap<Integer, String> map = new FutureMap<>(Object::toString, order, executor);
+		map.setStatisticsRecorder(StatisticsRecorder.concurrent());
+
+		map.putGet(1);
+		map.putGet(1);
+		map.get(2);
+
+		CacheStatistics statistics = map.getStatistics();
+		assertThat(statistics.getHitCount(), equalTo(1L));
+		assertThat(statistics.getMissCount(), equalTo(2L));
+		assertThat(statistics.getLoadSuccessCount(), equalTo(1L));
+		assertThat(statistics.getWeightedSize(), equalTo(1L));
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class LruEvictionPolicyTest {
+	private final List<Integer> evicted = new ArrayList<>();
+
+	@Test
+	public void evictLeastRecentlyWritten() {
+		LruEvictionPolicy<Integer, String> policy = new LruEvictionPolicy<>(2, (k, v) -> 1);
+
+		policy.recordWrite(1, "1", evicted::add);
+		policy.recordWrite(2, "2", evicted::add);
+		policy.recordWrite(3, "3", evicted::add);
+
+		assertThat(evicted, equalTo(asList(1)));
+		assertThat(policy.getWeightedSize(), equalTo(2L));
+	}
+
+	@Test
+	public void readsAreRecordedBeforeNextWrite() {
+		LruEvictionPolicy<Integer, String> policy = new LruEvictionPolicy<>(2, (k, v) -> 1);
+
+		policy.recordWrite(1, "1", evicted::add);
+		policy.recordWrite(2, "2", evicted::add);
+		policy.recordRead(1);
+		policy.recordWrite(3, "3", evicted::add);
+
+		assertThat(evicted, equalTo(asList(2)));
+	}
+
+	@Test
+	public void evictByWeight() {
+		LruEvictionPolicy<Integer, String> policy = new LruEvictionPolicy<>(
+				10,
+				(k, v) -> v.length());
+
+		policy.recordWrite(1, "aaaa", evicted::add);
+		policy.recordWrite(2, "bbbb", evicted::add);
+		policy.recordWrite(3, "cccccccc", evicted::add);
+
+		assertThat(evicted, equalTo(asList(1, 2)));
+		assertThat(policy.getWeightedSize(), equalTo(8L));
+	}
+
+	@Test
+	public void removalIsForgotten() {
+		LruEvictionPolicy<Integer, String> policy = new LruEvictionPolicy<>(2, (k, v) -> 1);
+
+		policy.recordWrite(1, "1", evicted::add);
+		policy.recordWrite(2, "2", evicted::add);
+		policy.recordRemoval(1);
+		policy.recordWrite(3, "3", evicted::add);
+
+		assertThat(evicted, equalTo(asList()));
+		assertThat(policy.getWeightedSize(), equalTo(2L));
+	}
+
+	@Test
+	public void manyReadsDoNotBlockOrGrowWithoutBound() {
+		LruEvictionPolicy<Integer, String> policy = new LruEvictionPolicy<>(2, (k, v) -> 1);
+		policy.recordWrite(1, "1", evicted::add);
+		policy.recordWrite(2, "2", evicted::add);
+
+		for (int i = 0; i < 100000; i++)
+			policy.recordRead(i % 2 == 0 ? 1 : 2);
+		policy.recordRead(1);
+		policy.recordWrite(3, "3", evicted::add);
+
+		assertThat(evicted.size(), equalTo(1));
+	}
+}
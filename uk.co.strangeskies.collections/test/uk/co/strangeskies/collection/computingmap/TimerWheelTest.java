@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import uk.co.strangeskies.collection.computingmap.TimerWheel.Timer;
+
+@SuppressWarnings("javadoc")
+public class TimerWheelTest {
+	private final TimerWheel<String> wheel = new TimerWheel<>(0);
+	private final List<String> expired = new ArrayList<>();
+
+	private Timer<String> schedule(String value, long time) {
+		Timer<String> timer = new Timer<>(value);
+		timer.setTime(time);
+		wheel.schedule(timer);
+		return timer;
+	}
+
+	private void advance(long time) {
+		wheel.advance(time, timer -> expired.add(timer.getValue()));
+	}
+
+	@Test
+	public void expireDueTimers() {
+		schedule("a", TimeUnit.SECONDS.toNanos(2));
+		schedule("b", TimeUnit.SECONDS.toNanos(20));
+
+		advance(TimeUnit.SECONDS.toNanos(5));
+
+		assertThat(expired, equalTo(asList("a")));
+	}
+
+	@Test
+	public void doNotExpireEarly() {
+		schedule("a", TimeUnit.SECONDS.toNanos(20));
+
+		advance(TimeUnit.SECONDS.toNanos(19));
+
+		assertThat(expired, equalTo(asList()));
+	}
+
+	@Test
+	public void cascadeFromCoarseLevels() {
+		schedule("minutes", TimeUnit.MINUTES.toNanos(5));
+		schedule("hours", TimeUnit.HOURS.toNanos(5));
+		schedule("days", TimeUnit.DAYS.toNanos(5));
+
+		for (long seconds = 0; seconds < TimeUnit.DAYS.toSeconds(6); seconds += 30) {
+			advance(TimeUnit.SECONDS.toNanos(seconds));
+
+			if (seconds < TimeUnit.MINUTES.toSeconds(5))
+				assertThat(expired, equalTo(asList()));
+			else if (seconds < TimeUnit.HOURS.toSeconds(5))
+				assertThat(expired, equalTo(asList("minutes")));
+			else if (seconds < TimeUnit.DAYS.toSeconds(5))
+				assertThat(expired, equalTo(asList("minutes", "hours")));
+		}
+
+		assertThat(expired, equalTo(asList("minutes", "hours", "days")));
+	}
+
+	@Test
+	public void expireAfterLargeJump() {
+		schedule("a", TimeUnit.MINUTES.toNanos(1));
+		schedule("b", TimeUnit.DAYS.toNanos(30));
+
+		advance(TimeUnit.DAYS.toNanos(365));
+
+		assertThat(expired, equalTo(asList("a", "b")));
+	}
+
+	@Test
+	public void rescheduleTimerMovedLater() {
+		Timer<String> timer = schedule("a", TimeUnit.SECONDS.toNanos(2));
+		timer.setTime(TimeUnit.SECONDS.toNanos(30));
+
+		advance(TimeUnit.SECONDS.toNanos(5));
+		assertThat(expired, equalTo(asList()));
+
+		advance(TimeUnit.SECONDS.toNanos(35));
+		assertThat(expired, equalTo(asList("a")));
+	}
+
+	@Test
+	public void descheduledTimerDoesNotExpire() {
+		Timer<String> timer = schedule("a", TimeUnit.SECONDS.toNanos(2));
+		wheel.deschedule(timer);
+
+		advance(TimeUnit.SECONDS.toNanos(5));
+
+		assertThat(expired, equalTo(asList()));
+		assertThat(timer.isScheduled(), equalTo(false));
+	}
+
+	@Test
+	public void clearDeschedulesEverything() {
+		Timer<String> timer = schedule("a", TimeUnit.SECONDS.toNanos(2));
+		wheel.clear();
+
+		advance(TimeUnit.SECONDS.toNanos(5));
+
+		assertThat(expired, equalTo(asList()));
+		assertThat(timer.isScheduled(), equalTo(false));
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.collections.
+ *
+ * uk.co.strangeskies.collections is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.collections is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.collection.computingmap;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class WindowTinyLfuEvictionPolicyTest {
+	private final Set<Integer> present = new HashSet<>();
+
+	private void access(EvictionPolicy<Integer, Integer> policy, int key) {
+		if (present.contains(key)) {
+			policy.recordRead(key);
+		} else {
+			present.add(key);
+			policy.recordWrite(key, key, present::remove);
+		}
+	}
+
+	@Test
+	public void weightedSizeStaysWithinMaximum() {
+		WindowTinyLfuEvictionPolicy<Integer, Integer> policy = new WindowTinyLfuEvictionPolicy<>(
+				100,
+				(k, v) -> 1);
+
+		for (int i = 0; i < 1000; i++)
+			access(policy, i);
+
+		assertThat(policy.getWeightedSize(), equalTo(100L));
+		assertThat(present.size(), equalTo(100));
+	}
+
+	@Test
+	public void hotSetSurvivesScan() {
+		WindowTinyLfuEvictionPolicy<Integer, Integer> policy = new WindowTinyLfuEvictionPolicy<>(
+				100,
+				(k, v) -> 1);
+
+		for (int round = 0; round < 20; round++)
+			for (int key = 0; key < 50; key++)
+				access(policy, key);
+
+		for (int key = 1000; key < 11000; key++)
+			access(policy, key);
+
+		int survivors = 0;
+		for (int key = 0; key < 50; key++)
+			if (present.contains(key))
+				survivors++;
+		assertTrue("Only " + survivors + " hot keys survived", survivors >= 45);
+	}
+
+	@Test
+	public void lruLosesHotSetToScan() {
+		LruEvictionPolicy<Integer, Integer> policy = new LruEvictionPolicy<>(100, (k, v) -> 1);
+
+		for (int round = 0; round < 20; round++)
+			for (int key = 0; key < 50; key++)
+				access(policy, key);
+
+		for (int key = 1000; key < 11000; key++)
+			access(policy, key);
+
+		for (int key = 0; key < 50; key++)
+			assertThat(present.contains(key), equalTo(false));
+	}
+
+	@Test
+	public void heavyEntryLargerThanMaximumIsEvicted() {
+		WindowTinyLfuEvictionPolicy<Integer, Integer> policy = new WindowTinyLfuEvictionPolicy<>(
+				100,
+				(k, v) -> v);
+
+		present.add(1);
+		policy.recordWrite(1, 10, present::remove);
+		present.add(2);
+		policy.recordWrite(2, 1000, present::remove);
+
+		assertThat(present.contains(2), equalTo(false));
+		assertThat(present.contains(1), equalTo(true));
+		assertTrue(policy.getWeightedSize() <= 100);
+	}
+
+	@Test
+	public void reweightedMainEntryEvictsFromMainRegion() {
+		WindowTinyLfuEvictionPolicy<Integer, Integer> policy = new WindowTinyLfuEvictionPolicy<>(
+				10,
+				(k, v) -> v);
+
+		for (int i = 0; i < 10; i++) {
+			present.add(i);
+			policy.recordWrite(i, 1, present::remove);
+		}
+		present.remove(9);
+		policy.recordRemoval(9);
+
+		policy.recordWrite(0, 5, present::remove);
+
+		assertThat(policy.getWeightedSize(), equalTo(10L));
+		assertThat(present.size(), equalTo(6));
+		assertThat(present.contains(0), equalTo(true));
+	}
+
+	@Test
+	public void clearForgetsEverything() {
+		WindowTinyLfuEvictionPolicy<Integer, Integer> policy = new WindowTinyLfuEvictionPolicy<>(
+				10,
+				(k, v) -> 1);
+
+		for (int i = 0; i < 10; i++)
+			access(policy, i);
+		policy.clear();
+
+		assertThat(policy.getWeightedSize(), equalTo(0L));
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.benchmark.
+ *
+ * uk.co.strangeskies.observable.benchmark is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable.benchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable.benchmark;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.co.strangeskies.observable.Observable;
+
+/**
+ * Hand-off of messages from the producing thread to another thread, through
+ * {@link Observable#executeOn} on a single thread and on a fixed pool, with
+ * and without batching, and through dedicated platform and virtual threads.
+ * <p>
+ * The messages are divided between a number of concurrent observations, whose
+ * consumers may block for a while on each message, as when waiting on I/O.
+ * Blocking consumers tie up the threads of a pool with fewer threads than
+ * there are observations, which is the case dedicated threads are meant for.
+ * 
+ * @author Elias N Vasylenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExecutorHandOffBenchmark {
+  private static final int MESSAGES = 4096;
+  private static final int BATCH_SIZE = 64;
+  private static final int MAILBOX_SIZE = 256;
+  private static final int POOL_SIZE = 4;
+  private static final long CONSUMER_TOKENS = 64;
+  private static final long CONSUMER_BLOCK_NANOS = 1000;
+
+  @Param({
+      "executeOn",
+      "executeOnBatched",
+      "executeOnPool",
+      "executeOnPoolBatched",
+      "executeOnThreads",
+      "executeOnVirtualThreads" })
+  String handOff;
+
+  @Param({ "1", "8" })
+  int observations;
+
+  @Param({ "false", "true" })
+  boolean blocking;
+
+  private ExecutorService executor;
+  private ExecutorService pool;
+  private ThreadFactory threadFactory;
+  private Observable<Integer> source;
+
+  @Setup
+  public void setup() {
+    threadFactory = runnable -> {
+      Thread thread = new Thread(runnable);
+      thread.setDaemon(true);
+      return thread;
+    };
+    executor = Executors.newSingleThreadExecutor(threadFactory);
+    pool = Executors.newFixedThreadPool(POOL_SIZE, threadFactory);
+    source = Observable
+        .of(IntStream.range(0, MESSAGES / observations).boxed().collect(toList()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+    pool.shutdownNow();
+  }
+
+  private Observable<Integer> handOff() {
+    switch (handOff) {
+    case "executeOn":
+      return source.executeOn(executor);
+    case "executeOnBatched":
+      return source.executeOn(executor, BATCH_SIZE);
+    case "executeOnPool":
+      return source.executeOn(pool);
+    case "executeOnPoolBatched":
+      return source.executeOn(pool, BATCH_SIZE);
+    case "executeOnThreads":
+      return source.executeOnThreads(threadFactory, MAILBOX_SIZE);
+    case "executeOnVirtualThreads":
+      return source.executeOnVirtualThreads();
+    default:
+      throw new IllegalArgumentException("Unknown hand-off " + handOff);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void handOff(Blackhole blackhole) throws InterruptedException {
+    CountDownLatch complete = new CountDownLatch(observations);
+
+    for (int i = 0; i < observations; i++) {
+      handOff().observe(new BlackholeObserver<Integer>(blackhole) {
+        @Override
+        public void onNext(Integer message) {
+          if (blocking) {
+            Blackhole.consumeCPU(CONSUMER_TOKENS);
+            LockSupport.parkNanos(CONSUMER_BLOCK_NANOS);
+          }
+          super.onNext(message);
+        }
+
+        @Override
+        public void onComplete() {
+          complete.countDown();
+        }
+      });
+    }
+
+    complete.await();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.benchmark.
+ *
+ * uk.co.strangeskies.observable.benchmark is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable.benchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable.benchmark;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.co.strangeskies.observable.Observable;
+import uk.co.strangeskies.observable.RequestAllocator;
+
+/**
+ * Flattening of a fixed total number of messages spread across a number of
+ * inner observables, under each {@link RequestAllocator}, and through
+ * {@link Observable#mergeMap} and {@link Observable#concatMap}.
+ * 
+ * @author Elias N Vasylenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FlatMapBenchmark {
+  private static final int MESSAGES = 16384;
+
+  @Param({ "sequential", "balanced", "spread" })
+  String allocator;
+
+  @Param({ "16", "1024" })
+  int innerObservables;
+
+  private RequestAllocator requestAllocator;
+  private Observable<Integer> outer;
+  private Observable<Integer> inner;
+
+  @Setup
+  public void setup() {
+    switch (allocator) {
+    case "sequential":
+      requestAllocator = RequestAllocator.sequential();
+      break;
+    case "balanced":
+      requestAllocator = RequestAllocator.balanced();
+      break;
+    case "spread":
+      requestAllocator = RequestAllocator.spread();
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown allocator " + allocator);
+    }
+
+    outer = Observable.of(range(innerObservables));
+    inner = Observable.of(range(MESSAGES / innerObservables));
+  }
+
+  private static List<Integer> range(int count) {
+    return IntStream.range(0, count).boxed().collect(toList());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void flatMap(Blackhole blackhole) {
+    outer.flatMap(i -> inner, requestAllocator).observe(new BlackholeObserver<>(blackhole));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void mergeMap(Blackhole blackhole) {
+    outer.mergeMap(i -> inner).observe(new BlackholeObserver<>(blackhole));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void concatMap(Blackhole blackhole) {
+    outer.concatMap(i -> inner).observe(new BlackholeObserver<>(blackhole));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.benchmark.
+ *
+ * uk.co.strangeskies.observable.benchmark is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable.benchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable.benchmark;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.co.strangeskies.observable.FilteringObserver;
+import uk.co.strangeskies.observable.IntObserver;
+import uk.co.strangeskies.observable.MappingObserver;
+import uk.co.strangeskies.observable.Observable;
+import uk.co.strangeskies.observable.Observation;
+
+/**
+ * Chains of map and filter operations over a cold observable, comparing the
+ * fused chain built by {@link Observable#map} and {@link Observable#filter}
+ * with the same chain built from individual observers, and with a chain over
+ * unboxed primitives.
+ * 
+ * @author Elias N Vasylenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapFilterBenchmark {
+  private static final int MESSAGES = 4096;
+
+  private Observable<Integer> source;
+
+  @Setup
+  public void setup() {
+    List<Integer> messages = IntStream.range(0, MESSAGES).boxed().collect(toList());
+    source = Observable.of(messages);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void fusedMapFilter(Blackhole blackhole) {
+    source
+        .map(i -> i + 1)
+        .filter(i -> (i & 1) == 0)
+        .map(i -> i * 3)
+        .observe(new BlackholeObserver<>(blackhole));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void unfusedMapFilter(Blackhole blackhole) {
+    Observable<Integer> incremented = o -> source
+        .observe(new MappingObserver<Integer, Integer>(o, i -> i + 1));
+    Observable<Integer> filtered = o -> incremented
+        .observe(new FilteringObserver<Integer>(o, i -> (i & 1) == 0));
+    Observable<Integer> multiplied = o -> filtered
+        .observe(new MappingObserver<Integer, Integer>(o, i -> i * 3));
+
+    multiplied.observe(new BlackholeObserver<>(blackhole));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void primitiveMapFilter(Blackhole blackhole) {
+    source
+        .mapToInt(i -> i + 1)
+        .filter(i -> (i & 1) == 0)
+        .map(i -> i * 3)
+        .observe(new IntObserver() {
+          @Override
+          public void onObserve(Observation observation) {
+            observation.requestUnbounded();
+          }
+
+          @Override
+          public void onNext(int message) {
+            blackhole.consume(message);
+          }
+        });
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.benchmark.
+ *
+ * uk.co.strangeskies.observable.benchmark is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable.benchmark is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.strangeskies.observable.ConflatingObservableProperty;
+import uk.co.strangeskies.observable.ObservableProperty;
+import uk.co.strangeskies.observable.ObservablePropertyImpl;
+
+/**
+ * Concurrent writes to an {@link ObservableProperty} with a number of
+ * observers, comparing {@link ObservablePropertyImpl} with
+ * {@link ConflatingObservableProperty}.
+ * 
+ * @author Elias N Vasylenko
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class ObservablePropertyBenchmark {
+  @Param({ "impl", "conflating" })
+  String implementation;
+
+  @Param({ "1", "10" })
+  int observers;
+
+  private ObservableProperty<Integer> property;
+
+  @State(Scope.Thread)
+  public static class Writer {
+    int next;
+
+    @Setup
+    public void setup() {
+      next = ThreadLocalRandom.current().nextInt();
+    }
+  }
+
+  @Setup
+  public void setup() {
+    switch (implementation) {
+    case "impl":
+      property = new ObservablePropertyImpl<>(0);
+      break;
+    case "conflating":
+      property = new ConflatingObservableProperty<>(0);
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown implementation " + implementation);
+    }
+
+    for (int i = 0; i < observers; i++)
+      property.observe(m -> {});
+  }
+
+  @Benchmark
+  public Integer set(Writer writer) {
+    return property.set(writer.next++);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer setUncontended(Writer writer) {
+    return property.set(writer.next++);
+  }
+}
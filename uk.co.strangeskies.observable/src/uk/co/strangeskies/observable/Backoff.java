@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable policy for the delay before each attempt to resubscribe to an
+ * observable, as by {@link Observable#retryWhen(Backoff)} and
+ * {@link Observable#repeatWhen(Backoff)}.
+ * <p>
+ * The delay grows exponentially with each consecutive attempt, up to a
+ * maximum, and may be randomly reduced by up to a given fraction so that many
+ * observers of a shared failing resource do not all resubscribe in lockstep.
+ * 
+ * @author Elias N Vasylenko
+ */
+public final class Backoff {
+  private final Duration initialDelay;
+  private final double multiplier;
+  private final Duration maximumDelay;
+  private final double jitter;
+  private final long maximumAttempts;
+
+  private Backoff(
+      Duration initialDelay,
+      double multiplier,
+      Duration maximumDelay,
+      double jitter,
+      long maximumAttempts) {
+    this.initialDelay = initialDelay;
+    this.multiplier = multiplier;
+    this.maximumDelay = maximumDelay;
+    this.jitter = jitter;
+    this.maximumAttempts = maximumAttempts;
+  }
+
+  /**
+   * @param delay
+   *          the delay before every attempt
+   * @return a policy with a fixed delay, no jitter, and unlimited attempts
+   */
+  public static Backoff fixed(Duration delay) {
+    return exponential(delay).withMultiplier(1);
+  }
+
+  /**
+   * @param initialDelay
+   *          the delay before the first attempt
+   * @return a policy which doubles the delay before each consecutive attempt,
+   *         with no maximum delay, no jitter, and unlimited attempts
+   */
+  public static Backoff exponential(Duration initialDelay) {
+    if (requireNonNull(initialDelay).isNegative())
+      throw new IllegalArgumentException("Delay must not be negative " + initialDelay);
+    return new Backoff(initialDelay, 2, null, 0, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param multiplier
+   *          the factor by which the delay grows with each consecutive attempt
+   * @return a derived policy with the given multiplier
+   */
+  public Backoff withMultiplier(double multiplier) {
+    if (!(multiplier >= 1))
+      throw new IllegalArgumentException("Multiplier must be at least one " + multiplier);
+    return new Backoff(initialDelay, multiplier, maximumDelay, jitter, maximumAttempts);
+  }
+
+  /**
+   * @param maximumDelay
+   *          the delay beyond which the delay should not grow
+   * @return a derived policy with the given maximum delay
+   */
+  public Backoff withMaximumDelay(Duration maximumDelay) {
+    if (requireNonNull(maximumDelay).isNegative())
+      throw new IllegalArgumentException("Delay must not be negative " + maximumDelay);
+    return new Backoff(initialDelay, multiplier, maximumDelay, jitter, maximumAttempts);
+  }
+
+  /**
+   * @param jitter
+   *          the greatest fraction, between zero and one, by which each delay
+   *          may be randomly reduced
+   * @return a derived policy with the given jitter
+   */
+  public Backoff withJitter(double jitter) {
+    if (!(jitter >= 0 && jitter <= 1))
+      throw new IllegalArgumentException("Jitter must be between zero and one " + jitter);
+    return new Backoff(initialDelay, multiplier, maximumDelay, jitter, maximumAttempts);
+  }
+
+  /**
+   * @param maximumAttempts
+   *          the number of consecutive attempts after which to give up
+   * @return a derived policy with the given maximum number of attempts
+   */
+  public Backoff withMaximumAttempts(long maximumAttempts) {
+    if (maximumAttempts < 0)
+      throw new IllegalArgumentException("Attempts must not be negative " + maximumAttempts);
+    return new Backoff(initialDelay, multiplier, maximumDelay, jitter, maximumAttempts);
+  }
+
+  public long getMaximumAttempts() {
+    return maximumAttempts;
+  }
+
+  /**
+   * @param attempt
+   *          the number of the consecutive attempt, starting from one
+   * @return true if the given attempt should be made
+   */
+  public boolean isPermitted(long attempt) {
+    return attempt <= maximumAttempts;
+  }
+
+  /**
+   * @param attempt
+   *          the number of the consecutive attempt, starting from one
+   * @return the delay before the given attempt, before jitter is applied
+   */
+  public Duration getDelay(long attempt) {
+    double nanos = initialDelay.toNanos() * Math.pow(multiplier, attempt - 1);
+    if (maximumDelay != null)
+      nanos = Math.min(nanos, maximumDelay.toNanos());
+    return Duration.ofNanos(nanos >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) nanos);
+  }
+
+  /**
+   * @param attempt
+   *          the number of the consecutive attempt, starting from one
+   * @return the delay before the given attempt, with jitter applied
+   */
+  public Duration getJitteredDelay(long attempt) {
+    Duration delay = getDelay(attempt);
+    if (jitter == 0)
+      return delay;
+
+    double reduction = jitter * ThreadLocalRandom.current().nextDouble();
+    return Duration.ofNanos((long) (delay.toNanos() * (1 - reduction)));
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "(initialDelay="
+        + initialDelay
+        + ", multiplier="
+        + multiplier
+        + ", maximumDelay="
+        + maximumDelay
+        + ", jitter="
+        + jitter
+        + ", maximumAttempts="
+        + maximumAttempts
+        + ")";
+  }
+}
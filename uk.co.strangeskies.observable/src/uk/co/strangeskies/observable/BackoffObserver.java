@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A partial implementation of a passthrough observer which resubscribes to its
+ * upstream observable upon some terminal event, after a delay given by a
+ * {@link Backoff backoff policy}.
+ * <p>
+ * Resubscription is scheduled on a {@link Scheduler}, so it never happens on
+ * the thread which delivered the terminal event, and a source which fails
+ * persistently neither recurses nor spins. Requests which are outstanding when
+ * the upstream observation terminates are made again of the new observation.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type of the upstream observable
+ */
+public abstract class BackoffObserver<T> extends PassthroughObserver<T, T> {
+  private final Observable<? extends T> source;
+  private final Backoff backoff;
+  private final Scheduler scheduler;
+
+  private Observation upstreamObservation;
+  private long pendingRequests;
+  private long attempt;
+  private Disposable resubscription;
+  private boolean cancelled;
+
+  public BackoffObserver(
+      Observer<? super T> downstreamObserver,
+      Observable<? extends T> source,
+      Backoff backoff,
+      Scheduler scheduler) {
+    super(downstreamObserver);
+    this.source = requireNonNull(source);
+    this.backoff = requireNonNull(backoff);
+    this.scheduler = requireNonNull(scheduler);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    boolean firstObservation;
+    long pendingRequests;
+    synchronized (this) {
+      firstObservation = upstreamObservation == null;
+      upstreamObservation = observation;
+      pendingRequests = this.pendingRequests;
+    }
+
+    if (firstObservation) {
+      initializeObservation(observation);
+      getDownstreamObserver().onObserve(new Observation() {
+        @Override
+        public void cancel() {
+          Observation upstreamObservation;
+          synchronized (BackoffObserver.this) {
+            cancelled = true;
+            upstreamObservation = BackoffObserver.this.upstreamObservation;
+            if (resubscription != null)
+              resubscription.cancel();
+          }
+          upstreamObservation.cancel();
+        }
+
+        @Override
+        public void request(long count) {
+          Observation upstreamObservation;
+          synchronized (BackoffObserver.this) {
+            long requests = BackoffObserver.this.pendingRequests + count;
+            BackoffObserver.this.pendingRequests = requests < 0 ? Long.MAX_VALUE : requests;
+            upstreamObservation = BackoffObserver.this.upstreamObservation;
+          }
+          upstreamObservation.request(count);
+        }
+
+        @Override
+        public long getPendingRequestCount() {
+          synchronized (BackoffObserver.this) {
+            return BackoffObserver.this.pendingRequests;
+          }
+        }
+      });
+
+    } else if (isCancelled()) {
+      observation.cancel();
+
+    } else if (pendingRequests > 0) {
+      observation.request(pendingRequests);
+    }
+  }
+
+  private synchronized boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public void onNext(T message) {
+    synchronized (this) {
+      if (pendingRequests != Long.MAX_VALUE)
+        pendingRequests--;
+      onMessage();
+    }
+    getDownstreamObserver().onNext(message);
+  }
+
+  /**
+   * Invoked upon each message, while holding the observer's monitor.
+   */
+  protected void onMessage() {}
+
+  /**
+   * Reset the count of consecutive attempts. Must be invoked while holding the
+   * observer's monitor.
+   */
+  protected void resetAttempts() {
+    attempt = 0;
+  }
+
+  /**
+   * Schedule resubscription to the upstream observable according to the backoff
+   * policy.
+   * 
+   * @return false if the backoff policy permits no further attempts, in which
+   *         case the terminal event should be passed downstream
+   */
+  protected boolean resubscribe() {
+    synchronized (this) {
+      if (cancelled)
+        return true;
+
+      if (!backoff.isPermitted(++attempt))
+        return false;
+
+      resubscription = scheduler.schedule(() -> {
+        synchronized (BackoffObserver.this) {
+          resubscription = null;
+          if (cancelled)
+            return;
+        }
+        source.observe(this);
+      }, backoff.getJitteredDelay(attempt));
+      return true;
+    }
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Introduce backpressure by holding messages in a bounded buffer until they are
+ * requested downstream.
+ * <p>
+ * Messages are held in a preallocated single-producer, single-consumer ring
+ * buffer, so no allocation is made per message. Delivery downstream is
+ * performed by whichever thread is currently draining the buffer, whether that
+ * be the producing thread or the thread which made a request, and is serialized
+ * with a work-in-progress counter so that downstream never receives more
+ * messages than it has requested. If the downstream observer throws, the
+ * upstream observation is cancelled and the failure is delivered downstream.
+ * <p>
+ * An unbounded request is made upstream, so the upstream observable is not
+ * required to support backpressure.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class BackpressureBufferingObserver<M> extends PassthroughObserver<M, M> {
+  private final RingBuffer<M> buffer;
+  private final BufferOverflowPolicy overflowPolicy;
+
+  private Observation upstreamObservation;
+  private final AtomicLong outstandingRequests = new AtomicLong();
+  private final AtomicInteger drainCount = new AtomicInteger();
+
+  private volatile boolean complete;
+  private volatile Throwable failure;
+  private volatile boolean cancelled;
+  private volatile Thread blockedProducer;
+
+  public BackpressureBufferingObserver(
+      Observer<? super M> downstreamObserver,
+      int capacity,
+      BufferOverflowPolicy overflowPolicy) {
+    super(downstreamObserver);
+
+    this.buffer = new RingBuffer<>(capacity);
+    this.overflowPolicy = requireNonNull(overflowPolicy);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    upstreamObservation = observation;
+
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        if (count < 0)
+          throw new IllegalArgumentException("Must request a positive number of messages " + count);
+
+        long requests;
+        long newRequests;
+        do {
+          requests = outstandingRequests.get();
+          if (requests == Long.MAX_VALUE)
+            break;
+
+          newRequests = requests + count;
+          if (newRequests < 0)
+            newRequests = Long.MAX_VALUE;
+        } while (!outstandingRequests.compareAndSet(requests, newRequests));
+
+        drain();
+      }
+
+      @Override
+      public void cancel() {
+        cancelled = true;
+        observation.cancel();
+        unblockProducer();
+        drain();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.get();
+      }
+    });
+
+    observation.requestUnbounded();
+  }
+
+  public int getBufferedMessageCount() {
+    return buffer.size();
+  }
+
+  @Override
+  public void onNext(M message) {
+    if (cancelled || complete)
+      return;
+
+    if (!buffer.offer(message)) {
+      switch (overflowPolicy) {
+      case BLOCK:
+        if (!offerBlocking(message))
+          return;
+        break;
+
+      case DROP_OLDEST:
+        offerDroppingOldest(message);
+        return;
+
+      case DROP_NEWEST:
+        return;
+
+      case FAIL:
+        upstreamObservation.cancel();
+        onFail(new BufferOverflowException(message, buffer.capacity()));
+        return;
+      }
+    }
+
+    drain();
+  }
+
+  private boolean offerBlocking(M message) {
+    blockedProducer = Thread.currentThread();
+    try {
+      while (!buffer.offer(message)) {
+        if (cancelled)
+          return false;
+        LockSupport.park(this);
+      }
+      return true;
+    } finally {
+      blockedProducer = null;
+    }
+  }
+
+  private void unblockProducer() {
+    Thread producer = blockedProducer;
+    if (producer != null)
+      LockSupport.unpark(producer);
+  }
+
+  /*
+   * Only the draining thread may take from the buffer, so to discard the oldest
+   * message we must either take over draining or wait for the current drain to
+   * make space. The draining thread wakes us each time it takes a message and
+   * when it stops, so we park rather than spin while we wait.
+   */
+  private void offerDroppingOldest(M message) {
+    boolean drainTaken = false;
+    blockedProducer = Thread.currentThread();
+    try {
+      while (!buffer.offer(message)) {
+        if (cancelled)
+          return;
+        if (drainCount.compareAndSet(0, 1)) {
+          buffer.poll();
+          buffer.offer(message);
+          drainTaken = true;
+          break;
+        }
+        LockSupport.park(this);
+      }
+    } finally {
+      blockedProducer = null;
+    }
+
+    if (drainTaken)
+      drainLoop(1);
+    else
+      drain();
+  }
+
+  @Override
+  public void onComplete() {
+    complete = true;
+    drain();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    complete = true;
+    drain();
+  }
+
+  private void drain() {
+    if (drainCount.getAndIncrement() == 0)
+      drainLoop(1);
+  }
+
+  private void drainLoop(int missed) {
+    do {
+      if (!cancelled) {
+        long requests = outstandingRequests.get();
+        long fulfilled = 0;
+
+        while (fulfilled != requests && !cancelled && failure == null) {
+          boolean complete = this.complete;
+          M message = buffer.poll();
+
+          if (message == null) {
+            if (complete)
+              terminate();
+            break;
+          }
+
+          unblockProducer();
+          try {
+            getDownstreamObserver().onNext(message);
+          } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+            cancelled = true;
+            upstreamObservation.cancel();
+            throw t;
+          } catch (Throwable t) {
+            upstreamObservation.cancel();
+            failure = t;
+            break;
+          }
+          fulfilled++;
+        }
+
+        if (!cancelled && (failure != null || (complete && buffer.isEmpty())))
+          terminate();
+
+        if (fulfilled > 0 && requests != Long.MAX_VALUE)
+          outstandingRequests.addAndGet(-fulfilled);
+      }
+
+      if (cancelled)
+        buffer.clear();
+
+      missed = drainCount.addAndGet(-missed);
+    } while (missed != 0);
+
+    unblockProducer();
+  }
+
+  private void terminate() {
+    cancelled = true;
+    buffer.clear();
+
+    Throwable failure = this.failure;
+    if (failure != null)
+      getDownstreamObserver().onFail(failure);
+    else
+      getDownstreamObserver().onComplete();
+  }
+}
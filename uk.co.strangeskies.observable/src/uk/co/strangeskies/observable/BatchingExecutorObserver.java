@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-emit messages on the given executor, handing them off in batches.
+ * <p>
+ * Messages are collected into a lock-free queue as they arrive, and at most
+ * one drain task is scheduled on the executor at any time. The drain task
+ * delivers as many queued messages as have been requested downstream, in
+ * order, before terminating. Messages are requested upstream in batches
+ * independently of downstream demand, with the next batch being requested once
+ * three quarters of the last has been delivered, so no more than the batch size
+ * is ever outstanding or queued.
+ * <p>
+ * Completion and failure events are delivered after all preceding messages.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type
+ */
+public class BatchingExecutorObserver<T> extends SafeObserver<T> {
+  private final Executor executor;
+  private final int batchSize;
+  private final int replenishSize;
+
+  private Observation upstreamObservation;
+  private final Observation downstreamObservation;
+  private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicLong outstandingRequests = new AtomicLong();
+  private final AtomicInteger drainCount = new AtomicInteger();
+  private int replenishCount;
+
+  private volatile boolean observed;
+  private volatile boolean complete;
+  private volatile Throwable failure;
+  private volatile boolean cancelled;
+
+  public BatchingExecutorObserver(
+      Observer<? super T> downstreamObserver,
+      Executor executor,
+      int batchSize) {
+    super(downstreamObserver);
+
+    if (batchSize <= 0)
+      throw new IllegalArgumentException("Batch size must be positive " + batchSize);
+
+    this.executor = requireNonNull(executor);
+    this.batchSize = batchSize;
+    this.replenishSize = batchSize - (batchSize >> 2);
+
+    this.downstreamObservation = new Observation() {
+      @Override
+      public void request(long count) {
+        if (count < 0)
+          throw new IllegalArgumentException("Must request a positive number of messages " + count);
+
+        long requests;
+        long newRequests;
+        do {
+          requests = outstandingRequests.get();
+          if (requests == Long.MAX_VALUE)
+            break;
+
+          newRequests = requests + count;
+          if (newRequests < 0)
+            newRequests = Long.MAX_VALUE;
+        } while (!outstandingRequests.compareAndSet(requests, newRequests));
+
+        scheduleDrain();
+      }
+
+      @Override
+      public void cancel() {
+        if (!cancelled) {
+          cancelled = true;
+          upstreamObservation.cancel();
+          scheduleDrain();
+        }
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.get();
+      }
+    };
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    upstreamObservation = observation;
+    observed = true;
+    scheduleDrain();
+  }
+
+  @Override
+  public void onNext(T message) {
+    if (complete || cancelled)
+      return;
+
+    queue.offer(message);
+    scheduleDrain();
+  }
+
+  @Override
+  public void onComplete() {
+    complete = true;
+    scheduleDrain();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    complete = true;
+    scheduleDrain();
+  }
+
+  private void scheduleDrain() {
+    if (drainCount.getAndIncrement() == 0)
+      executor.execute(this::drain);
+  }
+
+  private void drain() {
+    int missed = 1;
+    do {
+      if (observed) {
+        observed = false;
+        super.onObserve(downstreamObservation);
+        if (!cancelled)
+          upstreamObservation.request(batchSize);
+      }
+
+      if (!cancelled) {
+        long requests = outstandingRequests.get();
+        long fulfilled = 0;
+
+        while (fulfilled != requests && !cancelled) {
+          boolean complete = this.complete;
+          T message = queue.poll();
+
+          if (message == null) {
+            if (complete)
+              terminate();
+            break;
+          }
+
+          super.onNext(message);
+          fulfilled++;
+
+          if (++replenishCount == replenishSize) {
+            replenishCount = 0;
+            upstreamObservation.request(replenishSize);
+          }
+        }
+
+        if (!cancelled && complete && queue.isEmpty())
+          terminate();
+
+        if (fulfilled > 0 && requests != Long.MAX_VALUE)
+          outstandingRequests.addAndGet(-fulfilled);
+      }
+
+      if (cancelled)
+        queue.clear();
+
+      missed = drainCount.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void terminate() {
+    cancelled = true;
+
+    Throwable failure = this.failure;
+    if (failure != null)
+      super.onFail(failure);
+    else
+      super.onComplete();
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An iterator which pulls messages from an {@link Observable} in batches.
+ * <p>
+ * The observable is not observed until the first call to {@link #hasNext()}
+ * or {@link #next()}. At most {@code prefetch} messages are then requested
+ * ahead of the consumer, and buffered in a bounded queue, with three quarters
+ * of that amount requested again each time as many have been consumed. When
+ * the queue is empty the consumer thread is parked until a message,
+ * completion or failure arrives, so waiting consumes no processor time and
+ * does not pin a virtual thread to its carrier. If the consumer thread is interrupted while it waits
+ * the iterator is closed, the interrupt status is restored, and iteration
+ * fails with a {@link MissingValueException}.
+ * <p>
+ * If the observable sends more messages than were requested the observation
+ * is cancelled and iteration fails with a {@link BufferOverflowException}.
+ * Observables which do not support backpressure should therefore be buffered
+ * before they are iterated.
+ * <p>
+ * An iterator should be {@link #close() closed} if it is abandoned before it
+ * is exhausted, so that the underlying observation can be cancelled.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          the message type
+ */
+class BlockingIterator<M> implements Iterator<M>, Observer<M>, AutoCloseable {
+  private final Observable<? extends M> observable;
+  private final int prefetch;
+  private final int limit;
+  private final RingBuffer<M> queue;
+
+  private boolean started;
+  private int consumed;
+  private M next;
+
+  private volatile Observation observation;
+  private volatile boolean done;
+  private volatile boolean closed;
+  private Throwable failure;
+  private volatile Thread waiting;
+
+  public BlockingIterator(Observable<? extends M> observable, int prefetch) {
+    if (prefetch <= 0)
+      throw new IllegalArgumentException("Prefetch must be positive " + prefetch);
+
+    this.observable = requireNonNull(observable);
+    this.prefetch = prefetch;
+    this.limit = prefetch - (prefetch >> 2);
+    this.queue = new RingBuffer<>(prefetch);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    this.observation = observation;
+    if (closed)
+      observation.cancel();
+    else
+      observation.request(prefetch);
+  }
+
+  @Override
+  public void onNext(M message) {
+    if (done)
+      return;
+
+    if (!queue.offer(message)) {
+      observation.cancel();
+      failure = new BufferOverflowException(message, prefetch);
+      done = true;
+    }
+
+    signal();
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    signal();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    done = true;
+    signal();
+  }
+
+  private void signal() {
+    /*
+     * The ring buffer publishes with a release store, so we must fence before
+     * checking for a waiting consumer or we may miss one which has just seen
+     * the queue empty.
+     */
+    VarHandle.fullFence();
+    Thread waiting = this.waiting;
+    if (waiting != null)
+      LockSupport.unpark(waiting);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null)
+      return true;
+    if (closed)
+      return false;
+
+    if (!started) {
+      started = true;
+      observable.observe(this);
+    }
+
+    for (;;) {
+      boolean done = this.done;
+      M message = queue.poll();
+
+      if (message != null) {
+        next = message;
+        if (++consumed == limit) {
+          consumed = 0;
+          observation.request(limit);
+        }
+        return true;
+      }
+
+      if (done || closed) {
+        if (failure != null && !closed)
+          throw new MissingValueException(observable, failure);
+        return false;
+      }
+
+      waiting = Thread.currentThread();
+      if (queue.isEmpty() && !this.done && !closed)
+        LockSupport.park(this);
+      waiting = null;
+
+      if (Thread.interrupted()) {
+        close();
+        Thread.currentThread().interrupt();
+        throw new MissingValueException(observable, new InterruptedException());
+      }
+    }
+  }
+
+  @Override
+  public M next() {
+    if (!hasNext())
+      throw new NoSuchElementException();
+
+    M message = next;
+    next = null;
+    return message;
+  }
+
+  /**
+   * Cancel the underlying observation, if it has been made, and end iteration.
+   * If a consumer is waiting on another thread it is woken.
+   */
+  @Override
+  public void close() {
+    if (closed)
+      return;
+    closed = true;
+
+    Observation observation = this.observation;
+    if (observation != null)
+      observation.cancel();
+
+    signal();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+/**
+ * The strategy for dealing with a message which arrives at a
+ * {@link Observable#bufferBackpressure(int, BufferOverflowPolicy) backpressure
+ * buffer} which is already full.
+ * 
+ * @author Elias N Vasylenko
+ */
+public enum BufferOverflowPolicy {
+  /**
+   * Block the producing thread until the consumer makes space in the buffer.
+   * <p>
+   * This should only be used when requests are made downstream on a different
+   * thread to that on which messages are produced, otherwise the producer may
+   * block indefinitely.
+   */
+  BLOCK,
+
+  /**
+   * Discard the oldest message in the buffer to make space for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Discard the new message, leaving the buffer unchanged.
+   */
+  DROP_NEWEST,
+
+  /**
+   * Cancel the upstream observation and fail downstream with a
+   * {@link BufferOverflowException}.
+   */
+  FAIL
+}
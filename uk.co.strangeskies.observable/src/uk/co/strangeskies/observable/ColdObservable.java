@@ -32,8 +32,11 @@
  */
 package uk.co.strangeskies.observable;
 
-import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * A simple implementation of {@link Observable} which implements backpressure
@@ -42,6 +45,13 @@ import java.util.concurrent.atomic.AtomicLong;
  * The implementation is intentionally basic, with messages being pushed to the
  * observer on the same thread which makes the {@link Observation#request(long)
  * request} by default. An executor can be added downstream.
+ * <p>
+ * Requests are accumulated in a single atomic counter, which doubles as a
+ * guard against re-entrance, so requests made from within {@code onNext} are
+ * fulfilled by the loop which is already emitting rather than by recursion.
+ * Elements of {@link RandomAccess random access} lists, including those given
+ * to {@link Observable#of(Object...)}, are emitted by index, and the elements
+ * of other iterables are emitted through their {@link Spliterator}.
  * 
  * @author Elias N Vasylenko
  * @param <M>
@@ -54,70 +64,210 @@ public class ColdObservable<M> implements Observable<M> {
     this.iterable = iterable;
   }
 
+  Iterable<? extends M> getIterable() {
+    return iterable;
+  }
+
   @Override
-  public synchronized Disposable observe(Observer<? super M> observer) {
-    return new ColdObservation<>(iterable, observer);
+  public Disposable observe(Observer<? super M> observer) {
+    if (iterable instanceof List<?> && iterable instanceof RandomAccess)
+      return new RandomAccessObservation<>((List<? extends M>) iterable, observer).start();
+    else
+      return new SpliteratorObservation<>(iterable.spliterator(), observer).start();
   }
 
-  static class ColdObservation<M> extends ObservationImpl<M> {
-    private final Iterator<? extends M> iterator;
-    private final AtomicLong totalCount = new AtomicLong();
+  abstract static class ColdObservation<M> extends ObservationImpl<M> {
+    /*
+     * The number of requests not yet fulfilled by the emitting loop. Whoever
+     * moves this from zero owns the loop until they move it back to zero. It
+     * is held at one while the observer is being notified of the observation,
+     * so requests made from onObserve are fulfilled once it returns, and that
+     * one is counted as emitted so that it is not reported as pending.
+     */
+    private final AtomicLong requested = new AtomicLong(1);
+    private long emitted = 1;
 
-    ColdObservation(Iterable<? extends M> iterable, Observer<? super M> observer) {
+    ColdObservation(Observer<? super M> observer) {
       super(observer);
-      this.iterator = iterable.iterator();
+    }
+
+    Disposable start() {
       onObserve();
-      tryContinue();
+
+      if (!hasNext()) {
+        complete();
+        return this;
+      }
+
+      long requests = requested.get();
+      if (requests == Long.MAX_VALUE) {
+        emitUnbounded();
+      } else {
+        emitted = 0;
+        requests = requested.addAndGet(-1);
+        if (requests != 0)
+          emit(requests);
+      }
+      return this;
     }
 
     @Override
     public void request(long count) {
-      if (count < 0) {
-        throw new IllegalArgumentException();
-      }
+      if (count < 0)
+        throw new IllegalArgumentException("Must request a positive number of messages " + count);
+      if (count == 0)
+        return;
 
-      totalCount.addAndGet(count);
+      long requests;
+      long newRequests;
+      do {
+        requests = requested.get();
+        if (requests == Long.MAX_VALUE)
+          return;
 
-      if (count == Long.MAX_VALUE) {
-        requestUnbounded();
-        return;
-      }
+        newRequests = requests + count;
+        if (newRequests < 0)
+          newRequests = Long.MAX_VALUE;
+      } while (!requested.compareAndSet(requests, newRequests));
 
-      while (count-- > 0 && tryNext()) {}
+      if (requests == 0) {
+        if (newRequests == Long.MAX_VALUE)
+          emitUnbounded();
+        else
+          emit(newRequests);
+      }
     }
 
-    @Override
-    public void requestUnbounded() {
-      totalCount.set(Long.MAX_VALUE);
-      while (tryNext()) {}
-    }
+    private void emit(long requests) {
+      long emitted = 0;
+      for (;;) {
+        while (emitted != requests) {
+          if (isDisposed())
+            return;
+          emitNext();
+          emitted++;
+          this.emitted = emitted;
 
-    private synchronized boolean tryNext() {
-      if (tryContinue()) {
-        if (totalCount.get() < Long.MAX_VALUE)
-          totalCount.decrementAndGet();
-        onNext(iterator.next());
-        tryContinue();
-        return true;
+          if (!hasNext()) {
+            complete();
+            return;
+          }
+        }
+
+        requests = requested.get();
+        if (requests == Long.MAX_VALUE) {
+          emitUnbounded();
+          return;
+        }
+        if (requests == emitted) {
+          this.emitted = 0;
+          requests = requested.addAndGet(-emitted);
+          if (requests == 0)
+            return;
+          emitted = 0;
+        }
       }
-      return false;
     }
 
-    private boolean tryContinue() {
-      if (!isDisposed() && !iterator.hasNext()) {
+    void complete() {
+      if (!isDisposed()) {
         onComplete();
         cancel();
-        return false;
       }
-      return true;
     }
 
     @Override
     public long getPendingRequestCount() {
-      return totalCount.get();
+      long requests = requested.get();
+      return requests == Long.MAX_VALUE ? requests : requests - emitted;
     }
 
     @Override
     protected void cancelImpl() {}
+
+    abstract boolean hasNext();
+
+    abstract void emitNext();
+
+    /**
+     * Emit every remaining element, then complete.
+     */
+    abstract void emitUnbounded();
+  }
+
+  static class RandomAccessObservation<M> extends ColdObservation<M> {
+    private final List<? extends M> list;
+    private final int size;
+    private int index;
+
+    RandomAccessObservation(List<? extends M> list, Observer<? super M> observer) {
+      super(observer);
+      this.list = list;
+      this.size = list.size();
+    }
+
+    @Override
+    boolean hasNext() {
+      return index < size;
+    }
+
+    @Override
+    void emitNext() {
+      onNext(list.get(index++));
+    }
+
+    @Override
+    void emitUnbounded() {
+      for (int i = index; i < size; i++) {
+        if (isDisposed())
+          return;
+        onNext(list.get(i));
+      }
+      index = size;
+      complete();
+    }
+  }
+
+  static class SpliteratorObservation<M> extends ColdObservation<M> implements Consumer<M> {
+    private final Spliterator<? extends M> spliterator;
+    private M next;
+    private boolean hasNext;
+
+    SpliteratorObservation(Spliterator<? extends M> spliterator, Observer<? super M> observer) {
+      super(observer);
+      this.spliterator = spliterator;
+    }
+
+    /*
+     * One element is read ahead so that completion is signalled as soon as the
+     * last element is emitted, rather than on the following request.
+     */
+    @Override
+    boolean hasNext() {
+      return hasNext || (hasNext = spliterator.tryAdvance(this));
+    }
+
+    @Override
+    public void accept(M message) {
+      next = message;
+    }
+
+    @Override
+    void emitNext() {
+      M message = next;
+      next = null;
+      hasNext = false;
+      onNext(message);
+    }
+
+    @Override
+    void emitUnbounded() {
+      while (hasNext()) {
+        if (isDisposed())
+          return;
+        emitNext();
+      }
+      complete();
+    }
   }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The downstream observation of {@link Observable#combineLatest(
+ * java.util.Collection, Function, int) combineLatest}, which combines each
+ * message with the latest message of every other source.
+ * <p>
+ * Sources are drained in turn, so the order of messages within a source is
+ * preserved, but they are not necessarily combined in the order in which they
+ * arrived from different sources.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type of the sources
+ * @param <M>
+ *          The message type of the combination
+ */
+class CombineLatestObservation<T, M> extends CombiningObservation<T, M> {
+  private final Function<? super List<T>, ? extends M> combiner;
+  private final T[] latest;
+  private int present;
+  private int nextSource;
+
+  @SuppressWarnings("unchecked")
+  public CombineLatestObservation(
+      Observer<? super M> downstreamObserver,
+      List<? extends Observable<? extends T>> sources,
+      Function<? super List<T>, ? extends M> combiner,
+      int prefetch) {
+    super(downstreamObserver, sources, prefetch);
+    this.combiner = requireNonNull(combiner);
+    this.latest = (T[]) new Object[sources.size()];
+  }
+
+  @Override
+  protected long emit(long requests) {
+    List<SourceObserver> sources = getSourceObservers();
+
+    long fulfilled = 0;
+    while (fulfilled < requests && !isInterrupted()) {
+      int index = -1;
+      T message = null;
+      for (int i = 0; i < sources.size() && message == null; i++) {
+        index = nextSource;
+        if (++nextSource == sources.size())
+          nextSource = 0;
+        message = sources.get(index).poll();
+      }
+      if (message == null)
+        return fulfilled;
+
+      if (latest[index] == null)
+        present++;
+      latest[index] = message;
+
+      if (present == latest.length) {
+        onNext(combiner.apply(Arrays.asList(latest.clone())));
+        fulfilled++;
+      }
+    }
+    return fulfilled;
+  }
+
+  @Override
+  protected boolean isComplete() {
+    List<SourceObserver> sources = getSourceObservers();
+
+    boolean complete = true;
+    for (int i = 0; i < latest.length; i++) {
+      if (sources.get(i).isDone()) {
+        if (latest[i] == null)
+          return true;
+      } else {
+        complete = false;
+      }
+    }
+    return complete;
+  }
+}
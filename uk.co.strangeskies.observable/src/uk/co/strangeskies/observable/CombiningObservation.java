@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The downstream observation of an operator which combines the messages of
+ * several sources into one, such as {@link Observable#zip(java.util.Collection,
+ * java.util.function.Function) zip} and
+ * {@link Observable#combineLatest(java.util.Collection, java.util.function.Function)
+ * combineLatest}.
+ * <p>
+ * Each source is buffered in its own single-producer single-consumer queue,
+ * with requests made of each source independently as its queue is consumed.
+ * At most one thread at a time drains the queues to the downstream observer,
+ * so the hot path takes no locks. Failure of any source, or of the combiner or
+ * downstream observer, cancels every source and is delivered immediately,
+ * discarding any buffered messages.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type of the sources
+ * @param <M>
+ *          The message type of the combination
+ */
+abstract class CombiningObservation<T, M> implements Observation {
+  class SourceObserver implements Observer<T> {
+    private final RingBuffer<T> queue = new RingBuffer<>(prefetch);
+    private volatile Observation observation;
+    private volatile boolean complete;
+    private int consumed;
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+      if (cancelled)
+        observation.cancel();
+      else
+        observation.request(prefetch);
+    }
+
+    @Override
+    public void onNext(T message) {
+      if (!queue.offer(message))
+        failure.compareAndSet(null, new UnexpectedMessageException(message));
+      scheduleDrain();
+    }
+
+    @Override
+    public void onComplete() {
+      complete = true;
+      scheduleDrain();
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      failure.compareAndSet(null, t);
+      scheduleDrain();
+    }
+
+    boolean isEmpty() {
+      return queue.isEmpty();
+    }
+
+    /**
+     * @return true if the source has completed and every message it sent has
+     *         been consumed
+     */
+    boolean isDone() {
+      return complete && queue.isEmpty();
+    }
+
+    T poll() {
+      T message = queue.poll();
+      if (message != null && ++consumed == replenishSize) {
+        consumed = 0;
+        if (!complete)
+          observation.request(replenishSize);
+      }
+      return message;
+    }
+
+    void cancel() {
+      Observation observation = this.observation;
+      if (observation != null)
+        observation.cancel();
+    }
+  }
+
+  private final Observer<? super M> downstreamObserver;
+  private final List<? extends Observable<? extends T>> sources;
+  private final int prefetch;
+  private final int replenishSize;
+  private final List<SourceObserver> sourceObservers;
+
+  private final AtomicLong outstandingRequests = new AtomicLong();
+  private final AtomicInteger drainCount = new AtomicInteger();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private volatile boolean cancelled;
+
+  public CombiningObservation(
+      Observer<? super M> downstreamObserver,
+      List<? extends Observable<? extends T>> sources,
+      int prefetch) {
+    this.downstreamObserver = requireNonNull(downstreamObserver);
+    this.sources = requireNonNull(sources);
+    this.prefetch = prefetch;
+    this.replenishSize = prefetch - (prefetch >> 2);
+
+    this.sourceObservers = new ArrayList<>(sources.size());
+    for (int i = 0; i < sources.size(); i++)
+      sourceObservers.add(new SourceObserver());
+  }
+
+  /**
+   * Pass this observation to the downstream observer then observe each of the
+   * sources.
+   * 
+   * @return this observation
+   */
+  public Disposable start() {
+    downstreamObserver.onObserve(this);
+    for (int i = 0; i < sources.size() && !cancelled; i++)
+      sources.get(i).observe(sourceObservers.get(i));
+    scheduleDrain();
+    return this;
+  }
+
+  protected List<SourceObserver> getSourceObservers() {
+    return sourceObservers;
+  }
+
+  @Override
+  public void request(long count) {
+    if (count < 0)
+      throw new IllegalArgumentException("Must request a positive number of messages " + count);
+
+    long requests;
+    long newRequests;
+    do {
+      requests = outstandingRequests.get();
+      if (requests == Long.MAX_VALUE)
+        break;
+
+      newRequests = requests + count;
+      if (newRequests < 0)
+        newRequests = Long.MAX_VALUE;
+    } while (!outstandingRequests.compareAndSet(requests, newRequests));
+
+    scheduleDrain();
+  }
+
+  @Override
+  public void cancel() {
+    if (!cancelled) {
+      cancelled = true;
+      cancelSources();
+      scheduleDrain();
+    }
+  }
+
+  private void cancelSources() {
+    for (SourceObserver source : sourceObservers)
+      source.cancel();
+  }
+
+  @Override
+  public long getPendingRequestCount() {
+    return outstandingRequests.get();
+  }
+
+  private void scheduleDrain() {
+    if (drainCount.getAndIncrement() == 0)
+      drain();
+  }
+
+  private void drain() {
+    int missed = 1;
+    do {
+      long requests = outstandingRequests.get();
+      long fulfilled = 0;
+
+      if (!cancelled) {
+        try {
+          fulfilled = emit(requests);
+        } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+          cancelled = true;
+          cancelSources();
+          throw t;
+        } catch (Throwable t) {
+          this.failure.compareAndSet(null, t);
+        }
+
+        Throwable failure = this.failure.get();
+        if (failure != null) {
+          cancelled = true;
+          cancelSources();
+          downstreamObserver.onFail(failure);
+
+        } else if (!cancelled && isComplete()) {
+          cancelled = true;
+          cancelSources();
+          downstreamObserver.onComplete();
+        }
+      }
+
+      if (cancelled)
+        for (SourceObserver source : sourceObservers)
+          source.queue.clear();
+
+      if (fulfilled > 0 && requests != Long.MAX_VALUE)
+        outstandingRequests.addAndGet(-fulfilled);
+
+      missed = drainCount.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * @return true if draining should stop, because the observation has been
+   *         cancelled or a source has failed
+   */
+  protected boolean isInterrupted() {
+    return cancelled || failure.get() != null;
+  }
+
+  protected void onNext(M message) {
+    downstreamObserver.onNext(message);
+  }
+
+  /**
+   * Take messages from the sources and pass combinations of them downstream
+   * with {@link #onNext(Object)}, until no further combination can be made,
+   * the given number of combinations have been passed, or the drain is
+   * {@link #isInterrupted() interrupted}.
+   * <p>
+   * This is only ever invoked by one thread at a time.
+   * 
+   * @param requests
+   *          the number of combinations requested
+   * @return the number of combinations passed downstream
+   */
+  protected abstract long emit(long requests);
+
+  /**
+   * This is only ever invoked by one thread at a time, after {@link #emit(long)}.
+   * 
+   * @return true if no further combinations can be made
+   */
+  protected abstract boolean isComplete();
+}
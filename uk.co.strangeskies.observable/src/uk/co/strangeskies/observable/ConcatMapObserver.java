@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Maps each upstream message to an intermediate observable, and forwards the
+ * messages of each intermediate observable in turn.
+ * <p>
+ * Upstream messages are prefetched into a bounded queue, so the upstream
+ * observable must support backpressure. Only one intermediate observable is
+ * observed at a time, and downstream requests are passed through to it.
+ * Intermediate observables over a single message from
+ * {@link Observable#of(Object...)} are not observed at all, their message
+ * being forwarded directly, and those over no messages are skipped.
+ * <p>
+ * All signals are serialized through a single drain loop, so when an
+ * intermediate observable completes synchronously the next is observed by
+ * the loop rather than by recursion, and long synchronous chains do not grow
+ * the stack. Failure of the upstream observable is delivered once the current
+ * intermediate observable completes, and failure of the mapping, or a null
+ * intermediate observable, is delivered immediately.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type of the upstream observable
+ * @param <U>
+ *          The message type of the downstream observer
+ */
+public class ConcatMapObserver<T, U> extends PassthroughObserver<T, U> {
+  /**
+   * The default number of upstream messages to prefetch.
+   */
+  public static final int DEFAULT_PREFETCH = 2;
+
+  private class InnerObserver implements Observer<U> {
+    private long produced;
+
+    @Override
+    public void onObserve(Observation observation) {
+      newInnerObservation.set(observation);
+      scheduleDrain();
+    }
+
+    @Override
+    public void onNext(U message) {
+      produced++;
+      getDownstreamObserver().onNext(message);
+    }
+
+    @Override
+    public void onComplete() {
+      missedProduced.addAndGet(produced);
+      active = false;
+      scheduleDrain();
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      failure.compareAndSet(null, t);
+      active = false;
+      scheduleDrain();
+    }
+  }
+
+  private final Function<? super T, ? extends Observable<? extends U>> mapping;
+  private final int replenishSize;
+  private final RingBuffer<T> queue;
+  private int consumed;
+
+  private final AtomicInteger drainCount = new AtomicInteger();
+  private final AtomicLong missedRequests = new AtomicLong();
+  private final AtomicLong missedProduced = new AtomicLong();
+  private final AtomicReference<Observation> newInnerObservation = new AtomicReference<>();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  private volatile long outstandingRequests;
+  private volatile Observation innerObservation;
+  private volatile boolean active;
+  private volatile boolean complete;
+  private volatile boolean cancelled;
+  private U pendingScalar;
+
+  public ConcatMapObserver(
+      Observer<? super U> downstreamObserver,
+      Function<? super T, ? extends Observable<? extends U>> mapping) {
+    this(downstreamObserver, mapping, DEFAULT_PREFETCH);
+  }
+
+  public ConcatMapObserver(
+      Observer<? super U> downstreamObserver,
+      Function<? super T, ? extends Observable<? extends U>> mapping,
+      int prefetch) {
+    super(downstreamObserver);
+    if (prefetch <= 0)
+      throw new IllegalArgumentException("Prefetch must be positive " + prefetch);
+
+    this.mapping = requireNonNull(mapping);
+    this.replenishSize = prefetch - (prefetch >> 2);
+    this.queue = new RingBuffer<>(prefetch);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    initializeObservation(observation);
+
+    getDownstreamObserver().onObserve(new Observation() {
+      @Override
+      public void cancel() {
+        cancelled = true;
+        observation.cancel();
+        Observation innerObservation = ConcatMapObserver.this.innerObservation;
+        if (innerObservation != null)
+          innerObservation.cancel();
+        scheduleDrain();
+      }
+
+      @Override
+      public void request(long count) {
+        if (count < 0)
+          throw new IllegalArgumentException(
+              "Must request a positive number of messages " + count);
+
+        long requests;
+        long newRequests;
+        do {
+          requests = missedRequests.get();
+          newRequests = requests + count;
+          if (newRequests < 0)
+            newRequests = Long.MAX_VALUE;
+        } while (!missedRequests.compareAndSet(requests, newRequests));
+
+        scheduleDrain();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests;
+      }
+    });
+
+    observation.request(queue.capacity());
+  }
+
+  @Override
+  public void onNext(T message) {
+    if (!queue.offer(message))
+      failure.compareAndSet(null, new UnexpectedMessageException(message));
+    scheduleDrain();
+  }
+
+  @Override
+  public void onComplete() {
+    complete = true;
+    scheduleDrain();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure.compareAndSet(null, t);
+    scheduleDrain();
+  }
+
+  private void scheduleDrain() {
+    if (drainCount.getAndIncrement() == 0)
+      drain();
+  }
+
+  /*
+   * Only the drain loop makes requests of intermediate observations and
+   * delivers scalar messages, and it only observes the next intermediate
+   * observable once the last has completed, so downstream signals are never
+   * concurrent.
+   */
+  private void drain() {
+    int missed = 1;
+    do {
+      while (true) {
+        updateRequests();
+        if (cancelled || active)
+          break;
+
+        if (pendingScalar != null) {
+          if (outstandingRequests == 0)
+            break;
+          U scalar = pendingScalar;
+          pendingScalar = null;
+          produced(1);
+          getDownstreamObserver().onNext(scalar);
+          continue;
+        }
+
+        Throwable failure = this.failure.get();
+        if (failure != null) {
+          terminate();
+          getDownstreamObserver().onFail(failure);
+          break;
+        }
+
+        boolean complete = this.complete;
+        T message = queue.poll();
+        if (message == null) {
+          if (complete) {
+            terminate();
+            getDownstreamObserver().onComplete();
+          }
+          break;
+        }
+        if (++consumed == replenishSize) {
+          consumed = 0;
+          getObservation().request(replenishSize);
+        }
+
+        Observable<? extends U> inner;
+        try {
+          inner = requireNonNull(mapping.apply(message), "Mapped observable must not be null");
+        } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+          terminate();
+          throw t;
+        } catch (Throwable t) {
+          terminate();
+          getDownstreamObserver().onFail(t);
+          break;
+        }
+        observeInner(inner);
+      }
+
+      if (cancelled) {
+        queue.clear();
+        pendingScalar = null;
+      }
+
+      missed = drainCount.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void observeInner(Observable<? extends U> inner) {
+    if (inner instanceof ColdObservable<?>) {
+      Iterable<? extends U> messages = ((ColdObservable<? extends U>) inner).getIterable();
+      if (messages instanceof Collection<?>) {
+        Collection<? extends U> collection = (Collection<? extends U>) messages;
+        if (collection.isEmpty())
+          return;
+        if (collection.size() == 1) {
+          pendingScalar = requireNonNull(
+              collection instanceof List<?>
+                  ? ((List<? extends U>) collection).get(0)
+                  : collection.iterator().next());
+          return;
+        }
+      }
+    }
+
+    active = true;
+    innerObservation = null;
+    inner.observe(new InnerObserver());
+  }
+
+  private void updateRequests() {
+    long requested = missedRequests.getAndSet(0);
+    long produced = missedProduced.getAndSet(0);
+    Observation newInnerObservation = this.newInnerObservation.getAndSet(null);
+
+    if (requested > 0) {
+      long requests = outstandingRequests + requested;
+      outstandingRequests = requests < 0 ? Long.MAX_VALUE : requests;
+    }
+    produced(produced);
+
+    if (newInnerObservation != null) {
+      innerObservation = newInnerObservation;
+      if (cancelled)
+        newInnerObservation.cancel();
+      else if (outstandingRequests > 0)
+        newInnerObservation.request(outstandingRequests);
+
+    } else if (requested > 0 && active) {
+      Observation innerObservation = this.innerObservation;
+      if (innerObservation != null)
+        innerObservation.request(requested);
+    }
+  }
+
+  private void produced(long count) {
+    long requests = outstandingRequests;
+    if (count > 0 && requests != Long.MAX_VALUE)
+      outstandingRequests = requests - count;
+  }
+
+  private void terminate() {
+    cancelled = true;
+    getObservation().cancel();
+  }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An implementation of {@link ObservableProperty} for values which may change
+ * faster than observers can keep up with.
+ * <p>
+ * The state of the property is published with a single compare-and-set, so
+ * writers never block one another or wait on observers. Each observer is then
+ * signalled to drain the latest state. Only one drain runs for an observer at
+ * a time, and signals which arrive during a drain are coalesced, so an
+ * observer is notified at most once per drain, and only of the latest state,
+ * with intermediate states being skipped.
+ * <p>
+ * By default a drain is run on the thread of the writer which signals it, if
+ * no drain is already running for that observer, otherwise the writer returns
+ * immediately. An executor may be given so that writers never run observers.
+ * <p>
+ * Observers are not required to make requests, as with {@link HotObservable}.
+ * 
+ * @author Elias N Vasylenko
+ * @param <T>
+ *          the type of event message to produce
+ */
+public class ConflatingObservableProperty<T> implements ObservableProperty<T> {
+  /*
+   * Each state doubles as the value of a change, so a change costs only the
+   * allocation of the pair.
+   */
+  private static final class State<T> extends ImmutableObservableValue<T> {
+    private final T value;
+    private final Throwable failure;
+
+    State(T value) {
+      super(value);
+      this.value = value;
+      this.failure = null;
+    }
+
+    State(Throwable failure) {
+      super(failure);
+      this.value = null;
+      this.failure = failure;
+    }
+  }
+
+  private static final class StateChange<T> implements Change<T> {
+    private final ObservableValue<T> previousValue;
+    private final ObservableValue<T> newValue;
+
+    StateChange(ObservableValue<T> previousValue, ObservableValue<T> newValue) {
+      this.previousValue = previousValue;
+      this.newValue = newValue;
+    }
+
+    @Override
+    public ObservableValue<T> previousValue() {
+      return previousValue;
+    }
+
+    @Override
+    public ObservableValue<T> newValue() {
+      return newValue;
+    }
+  }
+
+  private abstract class ConflatingObservation<M> extends ObservationImpl<M> {
+    private final AtomicInteger drainCount = new AtomicInteger();
+    private final Runnable drain = this::drain;
+    private State<T> delivered;
+
+    ConflatingObservation(Observer<? super M> observer, State<T> delivered) {
+      super(observer);
+      this.delivered = delivered;
+    }
+
+    @Override
+    public void request(long count) {}
+
+    @Override
+    public long getPendingRequestCount() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    protected void cancelImpl() {
+      cancelObservation(this);
+    }
+
+    void signal() {
+      if (drainCount.getAndIncrement() == 0) {
+        if (executor == null)
+          drain();
+        else
+          executor.execute(drain);
+      }
+    }
+
+    private void drain() {
+      int missed = 1;
+      do {
+        State<T> state = ConflatingObservableProperty.this.state.get();
+        if (state != delivered && !isDisposed()) {
+          State<T> previous = delivered;
+          delivered = state;
+          deliver(previous, state);
+        }
+
+        missed = drainCount.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    protected abstract void deliver(State<T> previous, State<T> next);
+  }
+
+  private final Executor executor;
+  private final AtomicReference<State<T>> state;
+
+  @SuppressWarnings("unchecked")
+  private final AtomicReference<ConflatingObservation<?>[]> observations = new AtomicReference<>(
+      (ConflatingObservation<?>[]) new ConflatingObservableProperty<?>.ConflatingObservation<?>[0]);
+
+  public ConflatingObservableProperty(T initialValue) {
+    this(new State<>(requireNonNull(initialValue)), null);
+  }
+
+  public ConflatingObservableProperty(Throwable initialProblem) {
+    this(new State<>(requireNonNull(initialProblem)), null);
+  }
+
+  public ConflatingObservableProperty(T initialValue, Executor executor) {
+    this(new State<>(requireNonNull(initialValue)), requireNonNull(executor));
+  }
+
+  public ConflatingObservableProperty(Throwable initialProblem, Executor executor) {
+    this(new State<>(requireNonNull(initialProblem)), requireNonNull(executor));
+  }
+
+  private ConflatingObservableProperty(State<T> initialState, Executor executor) {
+    this.state = new AtomicReference<>(initialState);
+    this.executor = executor;
+  }
+
+  @Override
+  public Disposable observe(Observer<? super T> observer) {
+    return addObservation(new ConflatingObservation<T>(observer, null) {
+      @Override
+      protected void deliver(State<T> previous, State<T> next) {
+        if (next.failure == null)
+          onNext(next.value);
+        else
+          onFail(next.failure);
+      }
+    });
+  }
+
+  @Override
+  public Observable<Change<T>> changes() {
+    return observer -> addObservation(
+        new ConflatingObservation<Change<T>>(observer, state.get()) {
+          @Override
+          protected void deliver(State<T> previous, State<T> next) {
+            onNext(new StateChange<>(previous, next));
+          }
+        });
+  }
+
+  private Disposable addObservation(ConflatingObservation<?> observation) {
+    observation.onObserve();
+
+    ConflatingObservation<?>[] current;
+    ConflatingObservation<?>[] next;
+    do {
+      current = observations.get();
+      next = Arrays.copyOf(current, current.length + 1);
+      next[current.length] = observation;
+    } while (!observations.compareAndSet(current, next));
+
+    if (observation.isDisposed())
+      cancelObservation(observation);
+    else
+      observation.signal();
+
+    return observation;
+  }
+
+  void cancelObservation(Observation observation) {
+    ConflatingObservation<?>[] current;
+    ConflatingObservation<?>[] next;
+    do {
+      current = observations.get();
+
+      int index = -1;
+      for (int i = 0; i < current.length; i++)
+        if (current[i] == observation)
+          index = i;
+      if (index < 0)
+        return;
+
+      next = Arrays.copyOf(current, current.length - 1);
+      System.arraycopy(current, index + 1, next, index, next.length - index);
+    } while (!observations.compareAndSet(current, next));
+  }
+
+  private void signalObservations() {
+    for (ConflatingObservation<?> observation : observations.get())
+      observation.signal();
+  }
+
+  @Override
+  public T set(T value) {
+    requireNonNull(value);
+
+    State<T> current;
+    State<T> next;
+    do {
+      current = state.get();
+      if (current.failure == null && Objects.equals(current.value, value))
+        return value;
+      next = new State<>(value);
+    } while (!state.compareAndSet(current, next));
+
+    signalObservations();
+
+    return current.value;
+  }
+
+  @Override
+  public void setProblem(Throwable t) {
+    state.set(new State<>(requireNonNull(t)));
+    signalObservations();
+  }
+
+  @Override
+  public T get() {
+    State<T> state = this.state.get();
+    if (state.failure != null)
+      throw new MissingValueException(this, state.failure);
+    return state.value;
+  }
+}
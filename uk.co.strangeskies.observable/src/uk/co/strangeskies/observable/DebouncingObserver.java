@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * An observer which forwards a message only once the given quiet period has
+ * elapsed without another message arriving. Upon completion the pending
+ * message, if any, is forwarded immediately.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class DebouncingObserver<M> extends TimedObserver<M, M> {
+  private final Duration quietPeriod;
+  private M pending;
+  private long generation;
+
+  public DebouncingObserver(Observer<? super M> downstreamObserver, Duration quietPeriod) {
+    this(downstreamObserver, quietPeriod, Scheduler.shared());
+  }
+
+  public DebouncingObserver(
+      Observer<? super M> downstreamObserver,
+      Duration quietPeriod,
+      Scheduler scheduler) {
+    super(downstreamObserver, scheduler);
+    this.quietPeriod = requireNonNull(quietPeriod);
+  }
+
+  @Override
+  protected void onStart() {}
+
+  @Override
+  public synchronized void onNext(M message) {
+    if (!isTerminated()) {
+      pending = message;
+      long generation = ++this.generation;
+      setTimer(getScheduler().schedule(() -> emit(generation), quietPeriod));
+    }
+  }
+
+  /*
+   * A task may already be running when it is replaced, so it must check that
+   * no newer message has arrived in the meantime.
+   */
+  private synchronized void emit(long generation) {
+    if (!isTerminated() && generation == this.generation)
+      flush();
+  }
+
+  @Override
+  protected void flush() {
+    if (pending != null) {
+      M message = pending;
+      pending = null;
+      getDownstreamObserver().onNext(message);
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-emit messages on a thread dedicated to the observation.
+ * <p>
+ * A new thread is created from the given factory for each observation, and
+ * messages are passed to it through a bounded mailbox. The thread blocks while
+ * the mailbox is empty or while there is no outstanding downstream demand, so
+ * this is suitable for downstream observers which themselves block, e.g. on
+ * I/O. When the factory produces virtual threads, as per
+ * {@link Observable#executeOnVirtualThreads()}, very large numbers of such
+ * observations may be made without tying up platform threads.
+ * <p>
+ * Messages are requested upstream in batches up to the mailbox size, with more
+ * being requested once three quarters of the last batch has been delivered. If
+ * the upstream observable does not support backpressure and overflows the
+ * mailbox, the observation fails with a {@link BufferOverflowException}.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type
+ */
+public class DedicatedThreadObserver<T> extends SafeObserver<T> {
+  private static final Object COMPLETE = new Object();
+
+  private static class Failure {
+    private final Throwable throwable;
+
+    Failure(Throwable throwable) {
+      this.throwable = throwable;
+    }
+  }
+
+  private final ThreadFactory threadFactory;
+  private final int mailboxSize;
+  private final int replenishSize;
+
+  private final BlockingQueue<Object> mailbox;
+  private final AtomicLong outstandingRequests = new AtomicLong();
+  private Observation upstreamObservation;
+  private final Observation downstreamObservation;
+  private volatile Thread thread;
+  private volatile boolean cancelled;
+
+  public DedicatedThreadObserver(
+      Observer<? super T> downstreamObserver,
+      ThreadFactory threadFactory,
+      int mailboxSize) {
+    super(downstreamObserver);
+
+    if (mailboxSize <= 0)
+      throw new IllegalArgumentException("Mailbox size must be positive " + mailboxSize);
+
+    this.threadFactory = requireNonNull(threadFactory);
+    this.mailboxSize = mailboxSize;
+    this.replenishSize = mailboxSize - (mailboxSize >> 2);
+
+    /*
+     * Leave room for the terminating event.
+     */
+    this.mailbox = new ArrayBlockingQueue<>(mailboxSize + 1);
+
+    this.downstreamObservation = new Observation() {
+      @Override
+      public void request(long count) {
+        if (count < 0)
+          throw new IllegalArgumentException("Must request a positive number of messages " + count);
+
+        long requests;
+        long newRequests;
+        do {
+          requests = outstandingRequests.get();
+          if (requests == Long.MAX_VALUE)
+            break;
+
+          newRequests = requests + count;
+          if (newRequests < 0)
+            newRequests = Long.MAX_VALUE;
+        } while (!outstandingRequests.compareAndSet(requests, newRequests));
+
+        Thread thread = DedicatedThreadObserver.this.thread;
+        if (thread != null)
+          LockSupport.unpark(thread);
+      }
+
+      @Override
+      public void cancel() {
+        if (!cancelled) {
+          cancelled = true;
+          upstreamObservation.cancel();
+
+          Thread thread = DedicatedThreadObserver.this.thread;
+          if (thread != null && thread != Thread.currentThread())
+            thread.interrupt();
+        }
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.get();
+      }
+    };
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    upstreamObservation = observation;
+
+    Thread thread = threadFactory.newThread(this::run);
+    this.thread = thread;
+    thread.start();
+  }
+
+  @Override
+  public void onNext(T message) {
+    if (cancelled)
+      return;
+
+    if (mailbox.size() >= mailboxSize) {
+      upstreamObservation.cancel();
+      onFail(new BufferOverflowException(message, mailboxSize));
+      return;
+    }
+
+    mailbox.offer(message);
+  }
+
+  @Override
+  public void onComplete() {
+    mailbox.offer(COMPLETE);
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    mailbox.offer(new Failure(t));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void run() {
+    super.onObserve(downstreamObservation);
+    if (!cancelled)
+      upstreamObservation.request(mailboxSize);
+
+    int replenishCount = 0;
+
+    try {
+      while (!cancelled) {
+        Object event = mailbox.take();
+
+        if (event == COMPLETE) {
+          cancelled = true;
+          super.onComplete();
+
+        } else if (event instanceof Failure) {
+          cancelled = true;
+          super.onFail(((Failure) event).throwable);
+
+        } else if (awaitRequest()) {
+          super.onNext((T) event);
+          if (outstandingRequests.get() != Long.MAX_VALUE)
+            outstandingRequests.decrementAndGet();
+
+          if (++replenishCount == replenishSize) {
+            replenishCount = 0;
+            upstreamObservation.request(replenishSize);
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      downstreamObservation.cancel();
+    } finally {
+      mailbox.clear();
+      thread = null;
+    }
+  }
+
+  private boolean awaitRequest() throws InterruptedException {
+    while (outstandingRequests.get() == 0) {
+      if (cancelled)
+        return false;
+
+      LockSupport.park(this);
+
+      if (Thread.interrupted())
+        throw new InterruptedException();
+    }
+    return !cancelled;
+  }
+}
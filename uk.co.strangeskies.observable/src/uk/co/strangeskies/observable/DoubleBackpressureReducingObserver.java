@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Introduce backpressure over a {@link DoubleObservable} by reducing messages
+ * until a request is made downstream, then forwarding the reduction, as per
+ * {@link BackpressureReducingObserver}.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class DoubleBackpressureReducingObserver extends DoublePassthroughObserver {
+  private final DoubleBinaryOperator accumulator;
+
+  private double current;
+  private boolean hasCurrent;
+  private boolean complete;
+  private final RequestCount outstandingRequests = new RequestCount();
+
+  public DoubleBackpressureReducingObserver(
+      DoubleObserver downstreamObserver,
+      DoubleBinaryOperator accumulator) {
+    super(downstreamObserver);
+
+    this.accumulator = requireNonNull(accumulator);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        synchronized (outstandingRequests) {
+          outstandingRequests.request(count);
+
+          if (hasCurrent && count > 0)
+            sendNext();
+
+          if (complete && !hasCurrent)
+            getDownstreamObserver().onComplete();
+        }
+      }
+
+      @Override
+      public void cancel() {
+        observation.cancel();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.getCount();
+      }
+    });
+
+    observation.requestUnbounded();
+  }
+
+  private void sendNext() {
+    outstandingRequests.fulfil();
+    hasCurrent = false;
+    getDownstreamObserver().onNext(current);
+  }
+
+  @Override
+  public void onNext(double message) {
+    synchronized (outstandingRequests) {
+      if (hasCurrent) {
+        current = accumulator.applyAsDouble(current, message);
+      } else {
+        current = message;
+        hasCurrent = true;
+      }
+
+      if (!outstandingRequests.isFulfilled())
+        sendNext();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    synchronized (outstandingRequests) {
+      complete = true;
+      if (!hasCurrent)
+        getDownstreamObserver().onComplete();
+    }
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    synchronized (outstandingRequests) {
+      complete = true;
+      hasCurrent = false;
+      getDownstreamObserver().onFail(t);
+    }
+  }
+}
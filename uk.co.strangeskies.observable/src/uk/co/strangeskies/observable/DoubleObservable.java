@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A specialization of {@link Observable} for primitive {@code double} messages.
+ * <p>
+ * Messages are passed to {@link DoubleObserver observers} without boxing, and the
+ * operations provided here likewise avoid boxing. Bridges are available to and
+ * from generic observables, via {@link #mapToObj(DoubleFunction)}, {@link #boxed()}
+ * and {@link Observable#mapToDouble(ToDoubleFunction)}.
+ * 
+ * @author Elias N Vasylenko
+ */
+public interface DoubleObservable {
+  /**
+   * Observers added will receive messages from this observable.
+   * 
+   * @param observer
+   *          an observer to add
+   * @return a disposable over the observation
+   */
+  Disposable observe(DoubleObserver observer);
+
+  default DoubleObservable requestUnbounded() {
+    return observer -> observe(new DoublePassthroughObserver(observer) {
+      @Override
+      public void onObserve(Observation observation) {
+        super.onObserve(observation);
+        observation.requestUnbounded();
+      }
+
+      @Override
+      public void onNext(double message) {
+        getDownstreamObserver().onNext(message);
+      }
+    });
+  }
+
+  /**
+   * Derive an observable which transforms messages according to the given
+   * mapping.
+   * 
+   * @param mapping
+   *          the mapping function
+   * @return an observable over the mapped messages
+   */
+  default DoubleObservable map(DoubleUnaryOperator mapping) {
+    requireNonNull(mapping);
+    return observer -> observe(new DoublePassthroughObserver(observer) {
+      @Override
+      public void onNext(double message) {
+        getDownstreamObserver().onNext(mapping.applyAsDouble(message));
+      }
+    });
+  }
+
+  /**
+   * Derive an observable which passes along only those messages which match the
+   * given condition.
+   * 
+   * @param condition
+   *          the filtering condition
+   * @return the derived observable
+   */
+  default DoubleObservable filter(DoublePredicate condition) {
+    requireNonNull(condition);
+    return observer -> observe(new DoublePassthroughObserver(observer) {
+      @Override
+      public void onNext(double message) {
+        if (condition.test(message))
+          getDownstreamObserver().onNext(message);
+        else
+          getObservation().requestNext();
+      }
+    });
+  }
+
+  /**
+   * Derive a generic observable which transforms messages according to the
+   * given mapping.
+   * 
+   * @param <T>
+   *          the type of the derived observable
+   * @param mapping
+   *          the mapping function
+   * @return an observable over the mapped messages
+   */
+  default <T> Observable<T> mapToObj(DoubleFunction<? extends T> mapping) {
+    requireNonNull(mapping);
+    return observer -> observe(new DoubleObserver() {
+      @Override
+      public void onObserve(Observation observation) {
+        observer.onObserve(observation);
+      }
+
+      @Override
+      public void onNext(double message) {
+        observer.onNext(mapping.apply(message));
+      }
+
+      @Override
+      public void onComplete() {
+        observer.onComplete();
+      }
+
+      @Override
+      public void onFail(Throwable t) {
+        observer.onFail(t);
+      }
+    });
+  }
+
+  /**
+   * @return a generic observable over the boxed messages
+   */
+  default Observable<Double> boxed() {
+    return mapToObj(Double::valueOf);
+  }
+
+  /**
+   * Reduce all messages until completion, making an unbounded request upstream.
+   * 
+   * @param identity
+   *          the identity value for the accumulating function
+   * @param accumulator
+   *          an associative, non-interfering, stateless function for combining
+   *          two values
+   * @return a future over the reduced value
+   */
+  default CompletableFuture<Double> reduce(double identity, DoubleBinaryOperator accumulator) {
+    requireNonNull(accumulator);
+    CompletableFuture<Double> future = new CompletableFuture<>();
+
+    observe(new DoubleObserver() {
+      private double result = identity;
+
+      @Override
+      public void onObserve(Observation observation) {
+        observation.requestUnbounded();
+      }
+
+      @Override
+      public void onNext(double message) {
+        result = accumulator.applyAsDouble(result, message);
+      }
+
+      @Override
+      public void onComplete() {
+        future.complete(result);
+      }
+
+      @Override
+      public void onFail(Throwable t) {
+        future.completeExceptionally(t);
+      }
+    });
+
+    return future;
+  }
+
+  /**
+   * Introduce backpressure by reducing messages until a request is made
+   * downstream, then forwarding the reduction.
+   * 
+   * @param accumulator
+   *          an associative, non-interfering, stateless function for combining
+   *          two values
+   * @return an observable over the reduced values
+   */
+  default DoubleObservable reduceBackpressure(DoubleBinaryOperator accumulator) {
+    return observer -> observe(new DoubleBackpressureReducingObserver(observer, accumulator));
+  }
+
+  /**
+   * Introduce backpressure by collecting messages into a mutable container until
+   * a request is made downstream, then forwarding the container. A new container
+   * is supplied for each window of messages.
+   * 
+   * @param <R>
+   *          the type of the container
+   * @param supplier
+   *          the supplier of a new container for each window
+   * @param accumulator
+   *          a function for incorporating a message into a container
+   * @return an observable over the collected containers
+   */
+  default <R> Observable<R> collectBackpressure(
+      Supplier<? extends R> supplier,
+      ObjDoubleConsumer<? super R> accumulator) {
+    return observer -> observe(
+        new DoubleBackpressureCollectingObserver<>(observer, supplier, accumulator));
+  }
+
+  /**
+   * Introduce backpressure by summarizing messages until a request is made
+   * downstream, then forwarding the summary of that window.
+   * 
+   * @return an observable over the summary statistics of each window
+   */
+  default Observable<DoubleSummaryStatistics> summarizeBackpressure() {
+    return collectBackpressure(DoubleSummaryStatistics::new, DoubleSummaryStatistics::accept);
+  }
+
+  /**
+   * Derive an observable over primitive messages from a generic observable by
+   * application of the given mapping.
+   * 
+   * @param <T>
+   *          the type of the generic observable
+   * @param observable
+   *          the generic observable
+   * @param mapping
+   *          the mapping function
+   * @return an observable over the mapped messages
+   */
+  static <T> DoubleObservable mapping(
+      Observable<? extends T> observable,
+      ToDoubleFunction<? super T> mapping) {
+    requireNonNull(observable);
+    requireNonNull(mapping);
+    return observer -> observable.observe(new Observer<T>() {
+      @Override
+      public void onObserve(Observation observation) {
+        observer.onObserve(observation);
+      }
+
+      @Override
+      public void onNext(T message) {
+        observer.onNext(mapping.applyAsDouble(message));
+      }
+
+      @Override
+      public void onComplete() {
+        observer.onComplete();
+      }
+
+      @Override
+      public void onFail(Throwable t) {
+        observer.onFail(t);
+      }
+    });
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A partial implementation of a decorator over a {@link DoubleObserver}, as per
+ * {@link PassthroughObserver}.
+ * 
+ * @author Elias N Vasylenko
+ */
+public abstract class DoublePassthroughObserver implements DoubleObserver {
+  private Observation observation;
+  private final DoubleObserver downstreamObserver;
+
+  public DoublePassthroughObserver(DoubleObserver downstreamObserver) {
+    this.downstreamObserver = requireNonNull(downstreamObserver);
+  }
+
+  public DoubleObserver getDownstreamObserver() {
+    return downstreamObserver;
+  }
+
+  public Observation getObservation() {
+    return observation;
+  }
+
+  protected void initializeObservation(Observation observation) {
+    this.observation = observation;
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    initializeObservation(observation);
+    getDownstreamObserver().onObserve(observation);
+  }
+
+  @Override
+  public void onComplete() {
+    getDownstreamObserver().onComplete();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    getDownstreamObserver().onFail(t);
+  }
+}
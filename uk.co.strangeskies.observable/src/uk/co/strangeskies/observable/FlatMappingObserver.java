@@ -34,8 +34,6 @@ package uk.co.strangeskies.observable;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.function.Function;
 
 public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
@@ -43,9 +41,11 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
   private final Function<? super T, ? extends Observable<? extends U>> mapping;
 
   private Observation upstreamObservation;
-  private final LinkedHashMap<Observer<? extends U>, Observation> observations;
+  private final ObservationHeap observations;
   private long outstandingRequests;
-  private boolean cancelled;
+  private boolean allocating;
+  private boolean reallocate;
+  private volatile boolean cancelled;
 
   public FlatMappingObserver(
       Observer<? super U> downstreamObserver,
@@ -53,7 +53,7 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
       RequestAllocator requestAllocator) {
     super(downstreamObserver);
     this.mapping = requireNonNull(mapping);
-    this.observations = new LinkedHashMap<>();
+    this.observations = new ObservationHeap();
     this.requestAllocator = requireNonNull(requestAllocator);
   }
 
@@ -61,17 +61,44 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
     return observations;
   }
 
+  /*
+   * Requests made of an intermediate observable may be fulfilled, and so
+   * return requests to the pool or trigger further allocation, before the
+   * allocator returns. So the pool is emptied for the duration of allocation,
+   * and rather than allocating re-entrantly we go around again once the
+   * allocator is done.
+   */
   private void allocateRequests() {
     synchronized (getMutex()) {
-      if (observations.isEmpty()) {
-        upstreamObservation.requestNext();
-      } else {
-        outstandingRequests = requestAllocator
-            .allocateRequests(outstandingRequests, new ArrayList<>(observations.values()));
+      if (allocating) {
+        reallocate = true;
+        return;
+      }
+
+      allocating = true;
+      try {
+        do {
+          reallocate = false;
+          if (observations.isEmpty()) {
+            upstreamObservation.requestNext();
+          } else {
+            long requests = outstandingRequests;
+            outstandingRequests = 0;
+            addRequests(observations.allocateRequests(requestAllocator, requests));
+          }
+        } while (reallocate && !cancelled);
+      } finally {
+        allocating = false;
       }
     }
   }
 
+  private void addRequests(long count) {
+    outstandingRequests += count;
+    if (outstandingRequests < 0)
+      outstandingRequests = Long.MAX_VALUE;
+  }
+
   @Override
   public void onObserve(Observation observation) {
     upstreamObservation = observation;
@@ -81,16 +108,14 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
         observation.cancel();
         cancelled = true;
         synchronized (getMutex()) {
-          observations.values().forEach(Observation::cancel);
+          observations.getObservations().forEach(Observation::cancel);
         }
       }
 
       @Override
       public void request(long count) {
         synchronized (getMutex()) {
-          if (outstandingRequests < Long.MAX_VALUE) {
-            outstandingRequests += count;
-          }
+          addRequests(count);
           allocateRequests();
         }
       }
@@ -107,13 +132,7 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
 
       @Override
       public long getPendingRequestCount() {
-        synchronized (getMutex()) {
-          return observations
-              .values()
-              .stream()
-              .mapToLong(Observation::getPendingRequestCount)
-              .sum();
-        }
+        return observations.getPendingRequestCount();
       }
     });
   }
@@ -123,11 +142,14 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
     synchronized (getMutex()) {
       if (!cancelled) {
         mapping.apply(message).observe(new Observer<U>() {
+          private ObservationHeap.Entry observation;
+
           @Override
           public void onNext(U m) {
             getDownstreamObserver().onNext(m);
             synchronized (getMutex()) {
-              if (observations.get(this).getPendingRequestCount() == 0) {
+              observation.fulfil();
+              if (observation.getPendingRequestCount() == 0) {
                 allocateRequests();
               }
             }
@@ -136,7 +158,7 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
           @Override
           public void onObserve(Observation observation) {
             synchronized (getMutex()) {
-              observations.put(this, observation);
+              this.observation = observations.add(observation);
               allocateRequests();
             }
           }
@@ -144,14 +166,16 @@ public class FlatMappingObserver<T, U> extends PassthroughObserver<T, U> {
           @Override
           public void onComplete() {
             synchronized (getMutex()) {
-              getObservation().request(observations.remove(this).getPendingRequestCount());
+              long pending = observation.getPendingRequestCount();
+              observations.remove(observation);
+              getObservation().request(pending);
             }
           }
 
           @Override
           public void onFail(Throwable t) {
             synchronized (getMutex()) {
-              observations.values().forEach(Observation::cancel);
+              observations.getObservations().forEach(Observation::cancel);
             }
             getDownstreamObserver().onFail(t);
           }
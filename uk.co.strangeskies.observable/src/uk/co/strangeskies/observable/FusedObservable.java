@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An observable which applies a chain of stateless {@link #map(Function) map}
+ * and {@link #filter(Predicate) filter} stages to an upstream observable.
+ * <p>
+ * Rather than decorating the observer once for each stage, adjacent stages are
+ * fused into a single transformation which is applied by a single observer, so
+ * a long chain of such operations costs only one observer dispatch per message.
+ * A lone stage is still applied by the corresponding {@link MappingObserver} or
+ * {@link FilteringObserver}.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type of the upstream observable
+ * @param <M>
+ *          The message type of the fused observable
+ */
+class FusedObservable<T, M> implements Observable<M> {
+  /*
+   * The result of a transformation for a message which has been filtered out.
+   */
+  static final Object FILTERED = new Object();
+
+  private final Observable<? extends T> upstreamObservable;
+  private final Function<? super T, ?> transformation;
+  private final Function<Observer<? super M>, Observer<T>> observerFactory;
+
+  private FusedObservable(
+      Observable<? extends T> upstreamObservable,
+      Function<? super T, ?> transformation,
+      Function<Observer<? super M>, Observer<T>> observerFactory) {
+    this.upstreamObservable = upstreamObservable;
+    this.transformation = transformation;
+    this.observerFactory = observerFactory;
+  }
+
+  static <T, M> FusedObservable<T, M> mapping(
+      Observable<? extends T> upstreamObservable,
+      Function<? super T, ? extends M> mapping) {
+    requireNonNull(mapping);
+    return new FusedObservable<>(
+        upstreamObservable,
+        mapping,
+        observer -> new MappingObserver<>(observer, mapping));
+  }
+
+  static <M> FusedObservable<M, M> filtering(
+      Observable<? extends M> upstreamObservable,
+      Predicate<? super M> condition) {
+    requireNonNull(condition);
+    return new FusedObservable<>(
+        upstreamObservable,
+        message -> condition.test(message) ? message : FILTERED,
+        observer -> new FilteringObserver<>(observer, condition));
+  }
+
+  private <U> FusedObservable<T, U> fuse(Function<? super T, ?> transformation) {
+    return new FusedObservable<>(
+        upstreamObservable,
+        transformation,
+        observer -> new FusedObserver<>(observer, transformation));
+  }
+
+  @Override
+  public Disposable observe(Observer<? super M> observer) {
+    return upstreamObservable.observe(observerFactory.apply(observer));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <U> Observable<U> map(Function<? super M, ? extends U> mapping) {
+    requireNonNull(mapping);
+    Function<? super T, ?> transformation = this.transformation;
+
+    return fuse(message -> {
+      Object result = transformation.apply(message);
+      return result == FILTERED ? FILTERED : mapping.apply((M) result);
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Observable<M> filter(Predicate<? super M> condition) {
+    requireNonNull(condition);
+    Function<? super T, ?> transformation = this.transformation;
+
+    return fuse(message -> {
+      Object result = transformation.apply(message);
+      return result == FILTERED || !condition.test((M) result) ? FILTERED : result;
+    });
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A specialization of {@link HotObservable} for primitive {@code long} messages.
+ * <p>
+ * Observations are held in a copy-on-write array snapshot, so addition and
+ * removal of observers may safely happen concurrently with the firing of
+ * events, and firing an event neither boxes the message nor allocates.
+ * <p>
+ * This implementation does not support backpressure.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class HotLongObservable implements LongObservable {
+  private static final LongObservation[] NO_OBSERVATIONS = new LongObservation[0];
+
+  private class LongObservation implements Observation {
+    private final LongObserver observer;
+    private volatile boolean disposed;
+
+    LongObservation(LongObserver observer) {
+      this.observer = observer;
+    }
+
+    @Override
+    public void request(long count) {}
+
+    @Override
+    public long getPendingRequestCount() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void cancel() {
+      disposed = true;
+      cancelObservation(this);
+    }
+
+    void onObserve() {
+      if (!disposed)
+        tryAction(() -> observer.onObserve(this));
+    }
+
+    void onNext(long message) {
+      if (!disposed) {
+        try {
+          observer.onNext(message);
+        } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+          cancel();
+          throw t;
+        } catch (Throwable t) {
+          cancel();
+          fail(t);
+        }
+      }
+    }
+
+    void onComplete() {
+      if (!disposed) {
+        disposed = true;
+        tryAction(() -> observer.onComplete());
+      }
+    }
+
+    void onFail(Throwable t) {
+      if (!disposed) {
+        disposed = true;
+        fail(t);
+      }
+    }
+
+    private void tryAction(Runnable action) {
+      try {
+        action.run();
+      } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+        cancel();
+        throw t;
+      } catch (Throwable t) {
+        cancel();
+        fail(t);
+      }
+    }
+
+    private void fail(Throwable t) {
+      try {
+        observer.onFail(t);
+      } catch (Throwable u) {
+        t.addSuppressed(u);
+        currentThread().getUncaughtExceptionHandler().uncaughtException(currentThread(), t);
+      }
+    }
+  }
+
+  private volatile boolean live = true;
+  private final AtomicReference<LongObservation[]> observations = new AtomicReference<>(
+      NO_OBSERVATIONS);
+
+  @Override
+  public Disposable observe(LongObserver observer) {
+    LongObservation observation = new LongObservation(requireNonNull(observer));
+
+    LongObservation[] current;
+    LongObservation[] next;
+    do {
+      current = observations.get();
+      next = Arrays.copyOf(current, current.length + 1);
+      next[current.length] = observation;
+    } while (!observations.compareAndSet(current, next));
+
+    if (isLive())
+      observation.onObserve();
+
+    return observation;
+  }
+
+  public boolean hasObservers() {
+    return observations.get().length > 0;
+  }
+
+  void cancelObservation(Observation observation) {
+    LongObservation[] current;
+    LongObservation[] next;
+    do {
+      current = observations.get();
+
+      int index = -1;
+      for (int i = 0; i < current.length; i++)
+        if (current[i] == observation)
+          index = i;
+      if (index < 0)
+        return;
+
+      if (current.length == 1) {
+        next = NO_OBSERVATIONS;
+      } else {
+        next = Arrays.copyOf(current, current.length - 1);
+        System.arraycopy(current, index + 1, next, index, next.length - index);
+      }
+    } while (!observations.compareAndSet(current, next));
+  }
+
+  boolean isLive() {
+    return live;
+  }
+
+  void assertLive() {
+    if (!live)
+      throw new IllegalStateException();
+  }
+
+  void assertDead() {
+    if (live)
+      throw new IllegalStateException();
+  }
+
+  public synchronized HotLongObservable start() {
+    assertDead();
+    live = true;
+    for (LongObservation observation : observations.get())
+      observation.onObserve();
+    return this;
+  }
+
+  /**
+   * Fire the given message to all observers.
+   * 
+   * @param message
+   *          the message event to send
+   * @return the receiver for method chaining
+   */
+  public HotLongObservable next(long message) {
+    assertLive();
+    for (LongObservation observation : observations.get())
+      observation.onNext(message);
+    return this;
+  }
+
+  public synchronized HotLongObservable complete() {
+    assertLive();
+    live = false;
+
+    for (LongObservation observation : observations.getAndSet(NO_OBSERVATIONS))
+      observation.onComplete();
+    return this;
+  }
+
+  public synchronized HotLongObservable fail(Throwable t) {
+    assertLive();
+    requireNonNull(t);
+    live = false;
+
+    for (LongObservation observation : observations.getAndSet(NO_OBSERVATIONS))
+      observation.onFail(t);
+    return this;
+  }
+}
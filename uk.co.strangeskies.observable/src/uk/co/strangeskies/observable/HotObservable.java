@@ -32,18 +32,24 @@
  */
 package uk.co.strangeskies.observable;
 
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.Set;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A simple implementation of {@link Observable} which maintains a list of
  * listeners to receive events fired with {@link #next(Object)}.
  * <p>
- * Addition and removal of observers, as well as the firing of events, are
- * synchronized on the implementation object.
+ * Observations are held in a copy-on-write array snapshot, so addition and
+ * removal of observers may safely happen concurrently with the firing of
+ * events. Firing an event iterates over the current snapshot without locking
+ * or allocation, and observers are notified in the order they were added. An
+ * observer added or removed during the firing of an event may or may not
+ * receive that event. Events are not delivered to an observer until it has
+ * been given its observation, and an observer is notified of completion or
+ * failure only once every event being fired to it has been delivered, so it
+ * never receives an event before its observation starts or after it ends.
  * <p>
  * This implementation does not support backpressure, so listeners which need to
  * control demand must compose the observable with e.g. a buffering or dropping
@@ -54,34 +60,103 @@ import java.util.function.Consumer;
  *          The type of event message to produce
  */
 public class HotObservable<M> implements Observable<M> {
-  private boolean live = true;
-  private Set<ObservationImpl<M>> observations;
+  /*
+   * An observation is added before the observer is notified that it has
+   * started, so events fired in the meantime are skipped rather than reaching
+   * an observer without an observation. Termination is left to the last
+   * in-flight event if there is one, so that it is never delivered
+   * concurrently with, or before, an event.
+   */
+  private class HotObservation extends ObservationImpl<M> {
+    private final AtomicInteger deliveries = new AtomicInteger();
+    private final AtomicReference<Runnable> termination = new AtomicReference<>();
+    private volatile boolean terminated;
 
-  @Override
-  public Disposable observe(Observer<? super M> observer) {
-    return observe(new SafeObserver<>(observer));
-  }
+    HotObservation(SafeObserver<? super M> observer) {
+      super(observer);
+    }
 
-  public Disposable observe(SafeObserver<? super M> observer) {
-    ObservationImpl<M> observation = new ObservationImpl<M>(observer) {
-      @Override
-      public void cancelImpl() {
-        cancelObservation(this);
-      }
+    @Override
+    public void cancelImpl() {
+      cancelObservation(this);
+    }
+
+    @Override
+    public void request(long count) {}
 
-      @Override
-      public void request(long count) {}
+    @Override
+    public long getPendingRequestCount() {
+      return Long.MAX_VALUE;
+    }
 
-      @Override
-      public long getPendingRequestCount() {
-        return Long.MAX_VALUE;
+    @Override
+    public void onNext(M message) {
+      deliveries.incrementAndGet();
+      try {
+        if (!terminated && getObserver().isMakingObservation())
+          super.onNext(message);
+      } finally {
+        if (deliveries.decrementAndGet() == 0 && terminated)
+          runTermination();
       }
-    };
+    }
+
+    @Override
+    public void onComplete() {
+      terminate(super::onComplete);
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      terminate(() -> super.onFail(t));
+    }
+
+    private void terminate(Runnable action) {
+      termination.set(action);
+      terminated = true;
+      deliveries.incrementAndGet();
+      if (deliveries.decrementAndGet() == 0)
+        runTermination();
+    }
+
+    private void runTermination() {
+      Runnable action = termination.getAndSet(null);
+      if (action != null)
+        action.run();
+    }
+  }
+
+  private static final ObservationImpl<?>[] NO_OBSERVATIONS = new ObservationImpl<?>[0];
+
+  private volatile boolean live = true;
+  private final AtomicReference<ObservationImpl<M>[]> observations = new AtomicReference<>(
+      noObservations());
+
+  @SuppressWarnings("unchecked")
+  private static <M> ObservationImpl<M>[] noObservations() {
+    return (ObservationImpl<M>[]) NO_OBSERVATIONS;
+  }
+
+  @Override
+  public Disposable observe(Observer<? super M> observer) {
+    return observe(new SafeObserver<>(observer));
+  }
 
-    if (observations == null)
-      observations = new LinkedHashSet<>();
+  /*
+   * Observation is synchronized with starting and terminating, so an observer
+   * is either started here or by the next call to start, and is never added
+   * once terminated.
+   */
+  public synchronized Disposable observe(SafeObserver<? super M> observer) {
+    HotObservation observation = new HotObservation(observer);
 
-    observations.add(observation);
+    ObservationImpl<M>[] current;
+    ObservationImpl<M>[] next;
+    do {
+      current = observations.get();
+      next = Arrays.copyOf(current, current.length + 1);
+      next[current.length] = observation;
+    } while (!observations.compareAndSet(current, next));
 
     if (isLive())
       observation.onObserve();
@@ -90,23 +165,33 @@ public class HotObservable<M> implements Observable<M> {
   }
 
   public boolean hasObservers() {
-    return observations != null;
+    return observations.get().length > 0;
   }
 
   void cancelObservation(Observation observer) {
-    if (observations != null && observations.remove(observer) && observations.isEmpty()) {
-      observations = null;
-    }
+    ObservationImpl<M>[] current;
+    ObservationImpl<M>[] next;
+    do {
+      current = observations.get();
+
+      int index = indexOf(current, observer);
+      if (index < 0)
+        return;
+
+      if (current.length == 1) {
+        next = noObservations();
+      } else {
+        next = Arrays.copyOf(current, current.length - 1);
+        System.arraycopy(current, index + 1, next, index, next.length - index);
+      }
+    } while (!observations.compareAndSet(current, next));
   }
 
-  private void forObservers(
-      Set<ObservationImpl<M>> observations,
-      Consumer<ObservationImpl<M>> action) {
-    if (observations != null) {
-      for (ObservationImpl<M> observation : new ArrayList<>(observations)) {
-        action.accept(observation);
-      }
-    }
+  private static int indexOf(ObservationImpl<?>[] observations, Observation observation) {
+    for (int i = 0; i < observations.length; i++)
+      if (observations[i] == observation)
+        return i;
+    return -1;
   }
 
   boolean isLive() {
@@ -123,10 +208,14 @@ public class HotObservable<M> implements Observable<M> {
       throw new IllegalStateException();
   }
 
-  public HotObservable<M> start() {
+  /*
+   * Observers are started before events can be fired to them.
+   */
+  public synchronized HotObservable<M> start() {
     assertDead();
+    for (ObservationImpl<M> observation : observations.get())
+      observation.onObserve();
     live = true;
-    forObservers(observations, o -> o.onObserve());
     return this;
   }
 
@@ -140,28 +229,27 @@ public class HotObservable<M> implements Observable<M> {
   public HotObservable<M> next(M item) {
     assertLive();
     Objects.requireNonNull(item);
-    forObservers(observations, o -> o.onNext(item));
+    for (ObservationImpl<M> observation : observations.get())
+      observation.onNext(item);
     return this;
   }
 
-  public HotObservable<M> complete() {
+  public synchronized HotObservable<M> complete() {
     assertLive();
-    Set<ObservationImpl<M>> observations = this.observations;
-    this.observations = null;
     live = false;
 
-    forObservers(observations, o -> o.onComplete());
+    for (ObservationImpl<M> observation : observations.getAndSet(noObservations()))
+      observation.onComplete();
     return this;
   }
 
-  public HotObservable<M> fail(Throwable t) {
+  public synchronized HotObservable<M> fail(Throwable t) {
     assertLive();
     Objects.requireNonNull(t);
-    Set<ObservationImpl<M>> observations = this.observations;
-    this.observations = null;
     live = false;
 
-    forObservers(observations, o -> o.onFail(t));
+    for (ObservationImpl<M> observation : observations.getAndSet(noObservations()))
+      observation.onFail(t);
     return this;
   }
 }
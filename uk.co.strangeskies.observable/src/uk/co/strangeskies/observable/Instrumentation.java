@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The global switch and registry for {@link Observable#instrument(String)
+ * instrumented} stages.
+ * <p>
+ * Instrumentation is disabled by default, in which case instrumented stages are
+ * observed directly and cost nothing per message. While it is enabled, each
+ * new observation of an instrumented stage records {@link StageMetrics}, which
+ * are registered here and passed to the installed {@link InstrumentationSink}
+ * until the observation terminates. Disabling instrumentation does not affect
+ * observations which have already been made.
+ * <p>
+ * Where instrumented stages are observed in a chain, each records the nearest
+ * stage downstream of it, so the graph of a pipeline can be reconstructed from
+ * the registered stages.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class Instrumentation {
+  private static final InstrumentationSink NO_SINK = new InstrumentationSink() {};
+
+  private static volatile InstrumentationSink sink;
+  private static final AtomicLong nextId = new AtomicLong();
+  private static final Set<StageMetrics> stages = ConcurrentHashMap.newKeySet();
+  private static final ThreadLocal<StageMetrics> observingStage = new ThreadLocal<>();
+
+  private Instrumentation() {}
+
+  /**
+   * Enable instrumentation, registering stages without passing them to a sink.
+   */
+  public static void enable() {
+    enable(NO_SINK);
+  }
+
+  /**
+   * Enable instrumentation, passing stages to the given sink.
+   * 
+   * @param sink
+   *          the sink for the metrics of instrumented stages
+   */
+  public static void enable(InstrumentationSink sink) {
+    Instrumentation.sink = requireNonNull(sink);
+  }
+
+  public static void disable() {
+    sink = null;
+  }
+
+  public static boolean isEnabled() {
+    return sink != null;
+  }
+
+  /**
+   * @return the instrumented stages which are currently observed
+   */
+  public static Set<StageMetrics> getStages() {
+    return unmodifiableSet(stages);
+  }
+
+  static <M> Disposable observe(
+      Observable<M> upstream,
+      Observer<? super M> downstreamObserver,
+      String name) {
+    InstrumentationSink sink = Instrumentation.sink;
+    if (sink == null)
+      return upstream.observe(downstreamObserver);
+
+    StageMetrics downstream = observingStage.get();
+    StageMetrics stage = new StageMetrics(nextId.incrementAndGet(), name, downstream);
+
+    observingStage.set(stage);
+    Disposable disposable;
+    try {
+      disposable = upstream.observe(new InstrumentingObserver<>(downstreamObserver, stage, sink));
+    } finally {
+      observingStage.set(downstream);
+    }
+
+    return () -> {
+      disposable.cancel();
+      stageTerminated(stage, sink);
+    };
+  }
+
+  static void stageObserved(StageMetrics stage) {
+    /*
+     * Once observation reaches a stage its upstream is assembled, so anything
+     * observed from here on, for example by a message sent synchronously, is
+     * not upstream of it.
+     */
+    observingStage.remove();
+
+    synchronized (stage) {
+      if (!stage.isTerminated())
+        stages.add(stage);
+    }
+  }
+
+  /*
+   * The sink is told of a stage once the observation has been passed
+   * downstream, and since the stage may have terminated by then it is told of
+   * its termination at the same time.
+   * 
+   * Metrics are opt-in, so a failing sink must not break the pipeline it
+   * observes, and its failures are discarded.
+   */
+  static void stageStarted(StageMetrics stage, InstrumentationSink sink) {
+    synchronized (stage) {
+      stage.setReported();
+      try {
+        sink.stageStarted(stage);
+      } catch (RuntimeException e) {}
+      if (stage.isTerminated())
+        reportTerminated(stage, sink);
+    }
+  }
+
+  static void stageTerminated(StageMetrics stage, InstrumentationSink sink) {
+    synchronized (stage) {
+      if (stage.terminate()) {
+        stages.remove(stage);
+        if (stage.isReported())
+          reportTerminated(stage, sink);
+      }
+    }
+  }
+
+  private static void reportTerminated(StageMetrics stage, InstrumentationSink sink) {
+    try {
+      sink.stageTerminated(stage);
+    } catch (RuntimeException e) {}
+  }
+}
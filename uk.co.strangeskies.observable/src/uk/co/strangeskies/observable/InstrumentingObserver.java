@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An observer which records the {@link StageMetrics} of an instrumented stage
+ * and passes all events through unmodified. The sink is told of the stage
+ * after each signal has been passed through, so it cannot hold up or suppress
+ * the signal.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          the message type
+ */
+class InstrumentingObserver<M> extends PassthroughObserver<M, M> {
+  private final StageMetrics stage;
+  private final InstrumentationSink sink;
+
+  public InstrumentingObserver(
+      Observer<? super M> downstreamObserver,
+      StageMetrics stage,
+      InstrumentationSink sink) {
+    super(downstreamObserver);
+    this.stage = requireNonNull(stage);
+    this.sink = requireNonNull(sink);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    initializeObservation(observation);
+    stage.observe(observation);
+    Instrumentation.stageObserved(stage);
+
+    getDownstreamObserver().onObserve(new Observation() {
+      @Override
+      public void cancel() {
+        observation.cancel();
+        Instrumentation.stageTerminated(stage, sink);
+      }
+
+      @Override
+      public void request(long count) {
+        observation.request(count);
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return observation.getPendingRequestCount();
+      }
+    });
+
+    Instrumentation.stageStarted(stage, sink);
+  }
+
+  @Override
+  public void onNext(M message) {
+    stage.messageIn();
+    long start = System.nanoTime();
+    getDownstreamObserver().onNext(message);
+    stage.messageOut(System.nanoTime() - start);
+  }
+
+  @Override
+  public void onComplete() {
+    try {
+      super.onComplete();
+    } finally {
+      Instrumentation.stageTerminated(stage, sink);
+    }
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    try {
+      super.onFail(t);
+    } finally {
+      Instrumentation.stageTerminated(stage, sink);
+    }
+  }
+}
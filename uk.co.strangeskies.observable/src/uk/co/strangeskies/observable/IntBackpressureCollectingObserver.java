@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Introduce backpressure over a {@link IntObservable} by collecting messages
+ * into a mutable container until a request is made downstream, then forwarding
+ * the container.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <R>
+ *          the type of the container
+ */
+public class IntBackpressureCollectingObserver<R> implements IntObserver {
+  private final Observer<? super R> downstreamObserver;
+  private final Supplier<? extends R> supplier;
+  private final ObjIntConsumer<? super R> accumulator;
+
+  private R current;
+  private boolean complete;
+  private final RequestCount outstandingRequests = new RequestCount();
+
+  public IntBackpressureCollectingObserver(
+      Observer<? super R> downstreamObserver,
+      Supplier<? extends R> supplier,
+      ObjIntConsumer<? super R> accumulator) {
+    this.downstreamObserver = requireNonNull(downstreamObserver);
+    this.supplier = requireNonNull(supplier);
+    this.accumulator = requireNonNull(accumulator);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    downstreamObserver.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        synchronized (outstandingRequests) {
+          outstandingRequests.request(count);
+
+          if (current != null && count > 0)
+            sendNext();
+
+          if (complete && current == null)
+            downstreamObserver.onComplete();
+        }
+      }
+
+      @Override
+      public void cancel() {
+        observation.cancel();
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return outstandingRequests.getCount();
+      }
+    });
+
+    observation.requestUnbounded();
+  }
+
+  private void sendNext() {
+    outstandingRequests.fulfil();
+    R message = current;
+    current = null;
+    downstreamObserver.onNext(message);
+  }
+
+  @Override
+  public void onNext(int message) {
+    synchronized (outstandingRequests) {
+      if (current == null)
+        current = supplier.get();
+      accumulator.accept(current, message);
+
+      if (!outstandingRequests.isFulfilled())
+        sendNext();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    synchronized (outstandingRequests) {
+      complete = true;
+      if (current == null)
+        downstreamObserver.onComplete();
+    }
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    synchronized (outstandingRequests) {
+      complete = true;
+      current = null;
+      downstreamObserver.onFail(t);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * An {@link InstrumentationSink} which registers a {@link StageMetricsMXBean}
+ * for each instrumented stage while it is observed.
+ * <p>
+ * Beans are registered under the domain {@value #DOMAIN} with the type
+ * {@code Stage} and the name and id of the stage, so they may be browsed by
+ * name in a JMX console.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class JmxInstrumentationSink implements InstrumentationSink {
+  public static final String DOMAIN = "uk.co.strangeskies.observable";
+
+  private final MBeanServer server;
+
+  public JmxInstrumentationSink() {
+    this(ManagementFactory.getPlatformMBeanServer());
+  }
+
+  public JmxInstrumentationSink(MBeanServer server) {
+    this.server = requireNonNull(server);
+  }
+
+  public static ObjectName getObjectName(StageMetrics stage) {
+    try {
+      return new ObjectName(
+          DOMAIN + ":type=Stage,name=" + ObjectName.quote(stage.getName()) + ",id="
+              + stage.getId());
+    } catch (JMException e) {
+      throw new IllegalArgumentException("Invalid stage name " + stage.getName(), e);
+    }
+  }
+
+  @Override
+  public void stageStarted(StageMetrics stage) {
+    try {
+      server.registerMBean(new StageMetricsBean(stage), getObjectName(stage));
+    } catch (JMException e) {
+      throw new IllegalStateException("Failed to register stage " + stage, e);
+    }
+  }
+
+  @Override
+  public void stageTerminated(StageMetrics stage) {
+    try {
+      server.unregisterMBean(getObjectName(stage));
+    } catch (JMException e) {
+      throw new IllegalStateException("Failed to unregister stage " + stage, e);
+    }
+  }
+
+  private static class StageMetricsBean implements StageMetricsMXBean {
+    private final StageMetrics stage;
+
+    StageMetricsBean(StageMetrics stage) {
+      this.stage = stage;
+    }
+
+    @Override
+    public long getId() {
+      return stage.getId();
+    }
+
+    @Override
+    public String getName() {
+      return stage.getName();
+    }
+
+    @Override
+    public long getDownstreamId() {
+      StageMetrics downstream = stage.getDownstream();
+      return downstream == null ? -1 : downstream.getId();
+    }
+
+    @Override
+    public long getMessagesIn() {
+      return stage.getMessagesIn();
+    }
+
+    @Override
+    public long getMessagesOut() {
+      return stage.getMessagesOut();
+    }
+
+    @Override
+    public long getOutstandingDemand() {
+      return stage.getOutstandingDemand();
+    }
+
+    @Override
+    public long getQueueDepth() {
+      return stage.getQueueDepth();
+    }
+
+    @Override
+    public long getLatencyCount() {
+      return stage.getLatency().getCount();
+    }
+
+    @Override
+    public double getLatencyMeanNanos() {
+      return stage.getLatency().getMean();
+    }
+
+    @Override
+    public long getLatencyMaximumNanos() {
+      return stage.getLatency().getMaximum();
+    }
+
+    @Override
+    public long getLatencyMedianNanos() {
+      return stage.getLatency().getPercentile(50);
+    }
+
+    @Override
+    public long getLatency99thPercentileNanos() {
+      return stage.getLatency().getPercentile(99);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds, which may be recorded to
+ * concurrently.
+ * <p>
+ * Latencies are counted in buckets by power of two, so recording is cheap and
+ * the footprint is fixed, at the cost of percentiles being reported only to
+ * within a factor of two.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class LatencyHistogram {
+  /**
+   * The number of buckets. Bucket {@code 0} holds latencies of zero, and each
+   * bucket {@code i > 0} holds latencies in the range
+   * {@code [2^(i-1), 2^i - 1]}.
+   */
+  public static final int BUCKET_COUNT = 64;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder total = new LongAdder();
+  private final AtomicLong maximum = new AtomicLong();
+
+  /**
+   * @param nanoseconds
+   *          the latency to record, where negative latencies are recorded as
+   *          zero
+   */
+  public void record(long nanoseconds) {
+    if (nanoseconds < 0)
+      nanoseconds = 0;
+
+    buckets.incrementAndGet(BUCKET_COUNT - Long.numberOfLeadingZeros(nanoseconds));
+    count.increment();
+    total.add(nanoseconds);
+    if (nanoseconds > maximum.get())
+      maximum.accumulateAndGet(nanoseconds, Math::max);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getMaximum() {
+    return maximum.get();
+  }
+
+  public double getMean() {
+    long count = getCount();
+    return count == 0 ? 0 : (double) total.sum() / count;
+  }
+
+  public long getBucketCount(int bucket) {
+    return buckets.get(bucket);
+  }
+
+  public static long getBucketUpperBound(int bucket) {
+    return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+
+  /**
+   * @param percentile
+   *          the percentile, between {@code 0} and {@code 100}
+   * @return an upper bound on the latency below which the given percentile of
+   *         recorded latencies fall, or {@code 0} if none have been recorded
+   */
+  public long getPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100)
+      throw new IllegalArgumentException("Percentile out of range " + percentile);
+
+    long[] counts = new long[BUCKET_COUNT];
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++)
+      count += counts[i] = buckets.get(i);
+    if (count == 0)
+      return 0;
+
+    long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+    long accumulated = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      accumulated += counts[i];
+      if (accumulated >= target)
+        return Math.min(getBucketUpperBound(i), getMaximum());
+    }
+    return getMaximum();
+  }
+}
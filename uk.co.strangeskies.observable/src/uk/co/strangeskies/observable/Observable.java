@@ -33,6 +33,7 @@
 package uk.co.strangeskies.observable;
 
 import static java.util.Collections.emptySet;
+import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toCollection;
@@ -40,23 +41,32 @@ import static java.util.stream.Collectors.toList;
 import static uk.co.strangeskies.observable.Observer.onCompletion;
 import static uk.co.strangeskies.observable.Observer.onObservation;
 import static uk.co.strangeskies.observable.RequestAllocator.balanced;
-import static uk.co.strangeskies.observable.RequestAllocator.sequential;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import uk.co.strangeskies.property.IdentityProperty;
 import uk.co.strangeskies.property.Property;
@@ -71,6 +81,13 @@ import uk.co.strangeskies.property.Property;
  *          sent.
  */
 public interface Observable<M> {
+  /**
+   * The default number of messages requested of each observable in advance
+   * when they are combined by {@link #zip(Collection, Function) zip} or
+   * {@link #combineLatest(Collection, Function) combineLatest}.
+   */
+  int DEFAULT_COMBINING_PREFETCH = 256;
+
   /**
    * Observers added will receive messages from this Observable.
    * 
@@ -169,6 +186,50 @@ public interface Observable<M> {
     }
   }
 
+  /**
+   * Derive an {@link Iterable} over the messages of this observable. Each
+   * iterator makes a new observation, which is not made until the iterator is
+   * first used, and blocks the consuming thread while it waits for messages.
+   * <p>
+   * Messages are requested in batches, such that no more than the given number
+   * are ever outstanding, and buffered until they are consumed. If this
+   * observable does not support backpressure it should first be buffered, for
+   * example with {@link #bufferBackpressure(int, BufferOverflowPolicy)}.
+   * <p>
+   * Since an iterator cannot be closed, an observation is only cancelled when
+   * iteration fails. Consumers which may stop early should prefer
+   * {@link #toStream(int)}.
+   * 
+   * @param prefetch
+   *          the maximum number of messages to request ahead of the consumer
+   * @return an iterable over the messages of this observable
+   * @throws MissingValueException
+   *           from the iterators if the observable fails, with the failure as
+   *           the cause
+   */
+  default Iterable<M> toBlockingIterable(int prefetch) {
+    return () -> new BlockingIterator<>(this, prefetch);
+  }
+
+  /**
+   * Derive a sequential {@link Stream} over the messages of this observable,
+   * with the same blocking and batching behavior as
+   * {@link #toBlockingIterable(int)}.
+   * <p>
+   * Closing the stream cancels the underlying observation, so it is best used
+   * in a try-with-resources block.
+   * 
+   * @param prefetch
+   *          the maximum number of messages to request ahead of the consumer
+   * @return a stream over the messages of this observable
+   */
+  default Stream<M> toStream(int prefetch) {
+    BlockingIterator<M> iterator = new BlockingIterator<>(this, prefetch);
+    return StreamSupport
+        .stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+        .onClose(iterator::close);
+  }
+
   /**
    * Derive a new observable by application of the given function. This gives the
    * same result as just applying the function to the observable directly, and
@@ -243,6 +304,67 @@ public interface Observable<M> {
     return observer -> observe(new RepeatingObserver<>(observer, this));
   }
 
+  /**
+   * As {@link #retryWhen(Backoff, Scheduler)} on the {@link Scheduler#shared()
+   * shared scheduler}.
+   * 
+   * @param backoff
+   *          the policy for delaying each attempt
+   * @return the derived observable
+   */
+  default Observable<M> retryWhen(Backoff backoff) {
+    return retryWhen(backoff, Scheduler.shared());
+  }
+
+  /**
+   * Derive an observable which resubscribes to this observable upon failure,
+   * after a delay given by the backoff policy, until the policy permits no
+   * further consecutive attempts. The count of consecutive attempts is reset
+   * whenever a message is received.
+   * <p>
+   * Resubscription is scheduled on the given scheduler, rather than happening
+   * on the failing thread.
+   * 
+   * @param backoff
+   *          the policy for delaying each attempt
+   * @param scheduler
+   *          the scheduler on which to resubscribe
+   * @return the derived observable
+   */
+  default Observable<M> retryWhen(Backoff backoff, Scheduler scheduler) {
+    return observer -> observe(new RetryWhenObserver<>(observer, this, backoff, scheduler));
+  }
+
+  /**
+   * As {@link #repeatWhen(Backoff, Scheduler)} on the {@link Scheduler#shared()
+   * shared scheduler}.
+   * 
+   * @param backoff
+   *          the policy for delaying each attempt
+   * @return the derived observable
+   */
+  default Observable<M> repeatWhen(Backoff backoff) {
+    return repeatWhen(backoff, Scheduler.shared());
+  }
+
+  /**
+   * Derive an observable which resubscribes to this observable upon
+   * completion, after a delay given by the backoff policy, until the policy
+   * permits no further attempts.
+   * <p>
+   * Resubscription is scheduled on the given scheduler, rather than happening
+   * on the completing thread.
+   * 
+   * @param backoff
+   *          the policy for delaying each attempt
+   * @param scheduler
+   *          the scheduler on which to resubscribe
+   * @return the derived observable
+   */
+  default Observable<M> repeatWhen(Backoff backoff, Scheduler scheduler) {
+    return observer -> observe(new RepeatWhenObserver<>(observer, this, backoff, scheduler));
+  }
+
   default Observable<Observable<M>> materialize() {
     return observer -> observe(new MaterializingObserver<>(observer));
   }
@@ -296,6 +418,10 @@ public interface Observable<M> {
   /**
    * Derive an observable which automatically disposes of observers at some point
    * after they are no longer weakly reachable.
+   * <p>
+   * Observations are cancelled by the {@link ReferenceReaper#shared() shared
+   * reaper} as soon as the garbage collector reclaims their observers, without
+   * waiting for further messages.
    * 
    * @return the derived observable
    */
@@ -364,9 +490,59 @@ public interface Observable<M> {
     return observer -> observe(new ExecutorObserver<>(observer, executor));
   }
 
+  /**
+   * Derive an observable which re-emits messages on the given executor, handing
+   * them off in batches.
+   * <p>
+   * Rather than submitting a task to the executor for each message, messages are
+   * queued and delivered by a single drain task, and requests are made upstream
+   * in batches of up to the given size. This considerably reduces the overhead of
+   * the hand-off for high-rate streams.
+   * 
+   * @param executor
+   *          the target executor
+   * @param batchSize
+   *          the maximum number of messages to request upstream at a time
+   * @return the derived observable
+   */
+  default Observable<M> executeOn(Executor executor, int batchSize) {
+    return observer -> observe(new BatchingExecutorObserver<>(observer, executor, batchSize));
+  }
+
+  /**
+   * Derive an observable which re-emits messages on a new thread for each
+   * observation, passing them through a bounded mailbox.
+   * <p>
+   * The thread blocks while it waits for messages or for downstream demand, so
+   * this is suitable for observers which perform blocking work.
+   * 
+   * @param threadFactory
+   *          the factory from which to create the thread for each observation
+   * @param mailboxSize
+   *          the maximum number of messages to request upstream at a time
+   * @return the derived observable
+   */
+  default Observable<M> executeOnThreads(ThreadFactory threadFactory, int mailboxSize) {
+    return observer -> observe(new DedicatedThreadObserver<>(observer, threadFactory, mailboxSize));
+  }
+
+  /**
+   * As {@link #executeOnThreads(ThreadFactory, int)} with virtual threads, where
+   * the runtime supports them, or daemon platform threads otherwise, and a
+   * mailbox size of 256.
+   * 
+   * @return the derived observable
+   */
+  default Observable<M> executeOnVirtualThreads() {
+    return executeOnThreads(VirtualThreads.threadFactory(), 256);
+  }
+
   /**
    * Derive an observable which transforms messages according to the given
    * mapping.
+   * <p>
+   * Consecutive map and {@link #filter(Predicate) filter} operations are fused,
+   * and applied to each message by a single observer.
    * 
    * @param <T>
    *          the type of the derived observable
@@ -375,19 +551,58 @@ public interface Observable<M> {
    * @return an observable over the mapped messages
    */
   default <T> Observable<T> map(Function<? super M, ? extends T> mapping) {
-    return observer -> observe(new MappingObserver<>(observer, mapping));
+    return FusedObservable.mapping(this, mapping);
+  }
+
+  /**
+   * Derive an observable over primitive {@code int} messages by application of
+   * the given mapping, such that subsequent operations need not box.
+   * 
+   * @param mapping
+   *          the mapping function
+   * @return an observable over the mapped messages
+   */
+  default IntObservable mapToInt(ToIntFunction<? super M> mapping) {
+    return IntObservable.mapping(this, mapping);
+  }
+
+  /**
+   * Derive an observable over primitive {@code long} messages by application of
+   * the given mapping, such that subsequent operations need not box.
+   * 
+   * @param mapping
+   *          the mapping function
+   * @return an observable over the mapped messages
+   */
+  default LongObservable mapToLong(ToLongFunction<? super M> mapping) {
+    return LongObservable.mapping(this, mapping);
+  }
+
+  /**
+   * Derive an observable over primitive {@code double} messages by application of
+   * the given mapping, such that subsequent operations need not box.
+   * 
+   * @param mapping
+   *          the mapping function
+   * @return an observable over the mapped messages
+   */
+  default DoubleObservable mapToDouble(ToDoubleFunction<? super M> mapping) {
+    return DoubleObservable.mapping(this, mapping);
   }
 
   /**
    * Derive an observable which passes along only those messages which match the
    * given condition.
+   * <p>
+   * Consecutive {@link #map(Function) map} and filter operations are fused, and
+   * applied to each message by a single observer.
    * 
    * @param condition
    *          the terminating condition
    * @return the derived observable
    */
   default Observable<M> filter(Predicate<? super M> condition) {
-    return observer -> observe(new FilteringObserver<>(observer, condition));
+    return FusedObservable.filtering(this, condition);
   }
 
   /**
@@ -447,19 +662,47 @@ public interface Observable<M> {
   }
 
   /**
-   * As {@link #flatMap(Function, RequestAllocator)} using
-   * {@link RequestAllocator#sequential() sequential request allocation}.
+   * As {@link #concatMap(Function, int)} with a prefetch of
+   * {@link ConcatMapObserver#DEFAULT_PREFETCH}.
    * 
    * @param <T>
    *          the resulting observable message type
    * 
    * @param mapping
-   *          the terminating condition
+   *          the function mapping each message to the observable whose
+   *          messages are forwarded in its place
    * @return the derived observable
    */
   default <T> Observable<T> concatMap(
       Function<? super M, ? extends Observable<? extends T>> mapping) {
-    return flatMap(mapping, sequential());
+    return concatMap(mapping, ConcatMapObserver.DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Derive an observable which maps each message to an intermediate observable,
+   * then forwards the messages of each intermediate observable in turn.
+   * <p>
+   * The upstream observable must support backpressure, as messages are
+   * requested from it ahead of time into a buffer of the given capacity. The
+   * resulting observable supports backpressure if and only if the intermediate
+   * observables support backpressure.
+   * 
+   * @param <T>
+   *          the resulting observable message type
+   * 
+   * @param mapping
+   *          the function mapping each message to the observable whose
+   *          messages are forwarded in its place
+   * @param prefetch
+   *          the number of upstream messages to request ahead of time
+   * @return the derived observable
+   */
+  default <T> Observable<T> concatMap(
+      Function<? super M, ? extends Observable<? extends T>> mapping,
+      int prefetch) {
+    if (prefetch <= 0)
+      throw new IllegalArgumentException("Prefetch must be positive " + prefetch);
+    return observer -> observe(new ConcatMapObserver<>(observer, mapping, prefetch));
   }
 
   /**
@@ -493,6 +736,93 @@ public interface Observable<M> {
     return observer -> observe(new FlatMappingObserver<>(observer, mapping, requestAllocator));
   }
 
+  /**
+   * Derive an observable which combines each message with the latest message
+   * from another observable.
+   * <p>
+   * Messages which arrive before the other observable has sent a message are
+   * dropped. Requests are passed through to this observable, and an unbounded
+   * request is made of the other observable.
+   * 
+   * @param <U>
+   *          the message type of the other observable
+   * @param <R>
+   *          the resulting observable message type
+   * @param other
+   *          the observable whose latest message to combine with
+   * @param combiner
+   *          the combining function
+   * @return the derived observable
+   */
+  default <U, R> Observable<R> withLatestFrom(
+      Observable<? extends U> other,
+      BiFunction<? super M, ? super U, ? extends R> combiner) {
+    return observer -> observe(new WithLatestFromObserver<>(observer, other, combiner));
+  }
+
+  /**
+   * As {@link #parallel(int, Function, Executor, int)} on the
+   * {@link ForkJoinPool#commonPool() common pool} with a capacity of
+   * {@link ParallelObservable#DEFAULT_PREFETCH} messages per rail.
+   * 
+   * @param parallelism
+   *          the number of rails
+   * @param keyFunction
+   *          a function from messages to keys by which to partition them
+   * @return a parallel observable over the partitioned messages
+   */
+  default ParallelObservable<M> parallel(int parallelism, Function<? super M, ?> keyFunction) {
+    return parallel(parallelism, keyFunction, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * As {@link #parallel(int, Function, Executor, int)} with a capacity of
+   * {@link ParallelObservable#DEFAULT_PREFETCH} messages per rail.
+   * 
+   * @param parallelism
+   *          the number of rails
+   * @param keyFunction
+   *          a function from messages to keys by which to partition them
+   * @param executor
+   *          the executor on which to process each rail
+   * @return a parallel observable over the partitioned messages
+   */
+  default ParallelObservable<M> parallel(
+      int parallelism,
+      Function<? super M, ?> keyFunction,
+      Executor executor) {
+    return parallel(parallelism, keyFunction, executor, ParallelObservable.DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Split messages between the given number of rails, with messages of equal
+   * key always sent to the same rail. Rails are processed concurrently on the
+   * given executor, while the messages on each rail remain in order, so
+   * subsequent stages may be applied to each rail in parallel before the
+   * results are rejoined with {@link ParallelObservable#sequential()}.
+   * <p>
+   * Each rail is buffered in a bounded queue of the given capacity, and no more
+   * messages are requested upstream than would fit in the fullest queue, so a
+   * slow rail applies backpressure to the whole observable.
+   * 
+   * @param parallelism
+   *          the number of rails
+   * @param keyFunction
+   *          a function from messages to keys by which to partition them
+   * @param executor
+   *          the executor on which to process each rail
+   * @param capacity
+   *          the maximum number of messages to buffer for each rail
+   * @return a parallel observable over the partitioned messages
+   */
+  default ParallelObservable<M> parallel(
+      int parallelism,
+      Function<? super M, ?> keyFunction,
+      Executor executor,
+      int capacity) {
+    return new PartitionedObservable<>(this, parallelism, keyFunction, executor, capacity);
+  }
+
   default <R> CompletableFuture<R> reduce(
       Supplier<R> identity,
       BiFunction<R, ? super M, R> accumulator) {
@@ -588,6 +918,41 @@ public interface Observable<M> {
     }).map(collector.finisher());
   }
 
+  /**
+   * As {@link #bufferBackpressure(int, BufferOverflowPolicy)} with an overflow
+   * policy of {@link BufferOverflowPolicy#FAIL}.
+   * 
+   * @param capacity
+   *          the maximum number of messages to buffer
+   * @return an observable over the buffered messages
+   */
+  default Observable<M> bufferBackpressure(int capacity) {
+    return bufferBackpressure(capacity, BufferOverflowPolicy.FAIL);
+  }
+
+  /**
+   * Introduce backpressure by buffering messages until a request is made
+   * downstream, then forwarding them in order.
+   * <p>
+   * Messages are held in a preallocated buffer of the given capacity, so no
+   * allocation is made per message. When a message arrives and the buffer is
+   * full it is dealt with according to the given overflow policy.
+   * <p>
+   * An unbounded request is made to the upstream observable, so it is not
+   * required to support backpressure.
+   * 
+   * @param capacity
+   *          the maximum number of messages to buffer
+   * @param overflowPolicy
+   *          the strategy for dealing with messages which arrive when the
+   *          buffer is full
+   * @return an observable over the buffered messages
+   */
+  default Observable<M> bufferBackpressure(int capacity, BufferOverflowPolicy overflowPolicy) {
+    return observer -> observe(
+        new BackpressureBufferingObserver<>(observer, capacity, overflowPolicy));
+  }
+
   default Observable<List<M>> aggregateBackpressure() {
     return aggregateBackpressure(256);
   }
@@ -596,10 +961,211 @@ public interface Observable<M> {
     return collectBackpressure(toCollection(() -> new MaximumCapacityList<>(toCapacity)));
   }
 
+  /**
+   * As {@link #sample(Duration, Scheduler)} on the {@link Scheduler#shared()
+   * shared scheduler}.
+   * 
+   * @param period
+   *          the sampling period
+   * @return an observable over the sampled messages
+   */
+  default Observable<M> sample(Duration period) {
+    return sample(period, Scheduler.shared());
+  }
+
+  /**
+   * Periodically forward the most recent message received since the previous
+   * period, if any. Upon completion the last message is forwarded if it has not
+   * been already.
+   * <p>
+   * Time-based operations do not support backpressure, so an unbounded request
+   * is made upstream.
+   * 
+   * @param period
+   *          the sampling period
+   * @param scheduler
+   *          the scheduler on which to time the periods
+   * @return an observable over the sampled messages
+   */
+  default Observable<M> sample(Duration period, Scheduler scheduler) {
+    return observer -> observe(new SamplingObserver<>(observer, period, scheduler));
+  }
+
+  /**
+   * As {@link #throttleFirst(Duration, Scheduler)} on the
+   * {@link Scheduler#shared() shared scheduler}.
+   * 
+   * @param period
+   *          the period for which to drop messages after each forwarded message
+   * @return an observable over the throttled messages
+   */
+  default Observable<M> throttleFirst(Duration period) {
+    return throttleFirst(period, Scheduler.shared());
+  }
+
+  /**
+   * Forward a message and then drop any further messages until the given period
+   * has elapsed.
+   * <p>
+   * Time-based operations do not support backpressure, so an unbounded request
+   * is made upstream.
+   * 
+   * @param period
+   *          the period for which to drop messages after each forwarded message
+   * @param scheduler
+   *          the scheduler on which to time the periods
+   * @return an observable over the throttled messages
+   */
+  default Observable<M> throttleFirst(Duration period, Scheduler scheduler) {
+    return observer -> observe(new ThrottlingObserver<>(observer, period, scheduler));
+  }
+
+  /**
+   * As {@link #debounce(Duration, Scheduler)} on the {@link Scheduler#shared()
+   * shared scheduler}.
+   * 
+   * @param quietPeriod
+   *          the period which must pass without a message before the latest
+   *          message is forwarded
+   * @return an observable over the debounced messages
+   */
+  default Observable<M> debounce(Duration quietPeriod) {
+    return debounce(quietPeriod, Scheduler.shared());
+  }
+
+  /**
+   * Forward a message only once the given quiet period has elapsed without
+   * another message arriving. Upon completion any pending message is forwarded
+   * immediately.
+   * <p>
+   * Time-based operations do not support backpressure, so an unbounded request
+   * is made upstream.
+   * 
+   * @param quietPeriod
+   *          the period which must pass without a message before the latest
+   *          message is forwarded
+   * @param scheduler
+   *          the scheduler on which to time the periods
+   * @return an observable over the debounced messages
+   */
+  default Observable<M> debounce(Duration quietPeriod, Scheduler scheduler) {
+    return observer -> observe(new DebouncingObserver<>(observer, quietPeriod, scheduler));
+  }
+
+  /**
+   * As {@link #buffer(Duration, int, Scheduler)} on the
+   * {@link Scheduler#shared() shared scheduler}.
+   * 
+   * @param timespan
+   *          the maximum period over which to collect each list
+   * @param maximumCount
+   *          the maximum number of messages in each list
+   * @return an observable over lists of messages
+   */
+  default Observable<List<M>> buffer(Duration timespan, int maximumCount) {
+    return buffer(timespan, maximumCount, Scheduler.shared());
+  }
+
+  /**
+   * Collect messages into lists, forwarding each list at the end of every
+   * timespan, or as soon as it reaches the maximum count if that comes first.
+   * Empty lists are not forwarded.
+   * <p>
+   * Time-based operations do not support backpressure, so an unbounded request
+   * is made upstream.
+   * 
+   * @param timespan
+   *          the maximum period over which to collect each list
+   * @param maximumCount
+   *          the maximum number of messages in each list
+   * @param scheduler
+   *          the scheduler on which to time the periods
+   * @return an observable over lists of messages
+   */
+  default Observable<List<M>> buffer(Duration timespan, int maximumCount, Scheduler scheduler) {
+    return observer -> observe(
+        new TimedBufferingObserver<>(observer, timespan, maximumCount, scheduler));
+  }
+
+  /**
+   * As {@link #window(Duration, Scheduler)} on the {@link Scheduler#shared()
+   * shared scheduler}.
+   * 
+   * @param timespan
+   *          the period covered by each window
+   * @return an observable over consecutive windows of messages
+   */
+  default Observable<Observable<M>> window(Duration timespan) {
+    return window(timespan, Scheduler.shared());
+  }
+
+  /**
+   * Split messages into consecutive windows of the given timespan. Each window
+   * is forwarded as soon as it opens, and is hot, so it should be observed
+   * immediately upon receipt.
+   * <p>
+   * Time-based operations do not support backpressure, so an unbounded request
+   * is made upstream.
+   * 
+   * @param timespan
+   *          the period covered by each window
+   * @param scheduler
+   *          the scheduler on which to time the periods
+   * @return an observable over consecutive windows of messages
+   */
+  default Observable<Observable<M>> window(Duration timespan, Scheduler scheduler) {
+    return observer -> observe(new WindowingObserver<>(observer, timespan, scheduler));
+  }
+
+  /**
+   * Derive an observable which records {@link StageMetrics metrics} for the
+   * messages which pass through it, if {@link Instrumentation} is enabled when
+   * it is observed.
+   * <p>
+   * Instrumented stages may be placed between operators to find where time is
+   * spent in a pipeline. While instrumentation is disabled they are observed
+   * directly, so they may be left in place at no cost per message.
+   * 
+   * @param name
+   *          the name of the stage, which need not be unique
+   * @return the derived observable
+   */
+  default Observable<M> instrument(String name) {
+    requireNonNull(name);
+    return observer -> Instrumentation.observe(this, observer, name);
+  }
+
+  /**
+   * Derive a {@link Publisher} over this observable. Each subscription to the
+   * publisher is backed by an observation of this observable, with requests and
+   * cancellations passed through directly, so the observable must support
+   * backpressure for the publisher to respect subscriber demand.
+   * 
+   * @return a publisher over this observable
+   */
+  default Publisher<M> toPublisher() {
+    return new ObservablePublisher<>(this);
+  }
+
   /*
    * Static factories
    */
 
+  /**
+   * Derive an observable over the given {@link Publisher}. Each observation is
+   * backed by a subscription to the publisher, with requests and cancellations
+   * passed through directly, so the resulting observable supports backpressure.
+   * 
+   * @param <M>
+   *          the message type
+   * @param publisher
+   *          the publisher to adapt
+   * @return an observable over the publisher
+   */
+  static <M> Observable<M> fromPublisher(Publisher<? extends M> publisher) {
+    return new PublisherObservable<>(publisher);
+  }
+
   @SafeVarargs
   static <M> Observable<M> of(M... messages) {
     return of(Arrays.asList(messages));
@@ -631,6 +1197,177 @@ public interface Observable<M> {
     return of(observables).concatMap(identity());
   }
 
+  /**
+   * As {@link #zip(Collection, Function)} over a pair of observables.
+   * 
+   * @param <A>
+   *          the message type of the first observable
+   * @param <B>
+   *          the message type of the second observable
+   * @param <R>
+   *          the resulting observable message type
+   * @param first
+   *          the first observable
+   * @param second
+   *          the second observable
+   * @param combiner
+   *          the combining function
+   * @return the derived observable
+   */
+  @SuppressWarnings("unchecked")
+  static <A, B, R> Observable<R> zip(
+      Observable<? extends A> first,
+      Observable<? extends B> second,
+      BiFunction<? super A, ? super B, ? extends R> combiner) {
+    requireNonNull(combiner);
+    return Observable.<Object, R>zip(
+        Arrays.asList(first, second),
+        messages -> combiner.apply((A) messages.get(0), (B) messages.get(1)));
+  }
+
+  /**
+   * As {@link #zip(Collection, Function, int)} with a prefetch of
+   * {@link #DEFAULT_COMBINING_PREFETCH}.
+   * 
+   * @param <T>
+   *          the message type of the observables
+   * @param <R>
+   *          the resulting observable message type
+   * @param observables
+   *          the observables to combine
+   * @param combiner
+   *          the combining function
+   * @return the derived observable
+   */
+  static <T, R> Observable<R> zip(
+      Collection<? extends Observable<? extends T>> observables,
+      Function<? super List<T>, ? extends R> combiner) {
+    return zip(observables, combiner, DEFAULT_COMBINING_PREFETCH);
+  }
+
+  /**
+   * Derive an observable which combines the messages of the given observables
+   * by position, such that the nth message is the combination of the nth
+   * message of each.
+   * <p>
+   * Messages from each observable are buffered in a queue of the given
+   * capacity, which is filled by requests made of each observable
+   * independently, so any observable which does not support backpressure may
+   * overflow its queue and fail the derived observable. The derived observable
+   * completes as soon as any of the given observables completes with no
+   * messages left in its queue.
+   * 
+   * @param <T>
+   *          the message type of the observables
+   * @param <R>
+   *          the resulting observable message type
+   * @param observables
+   *          the observables to combine
+   * @param combiner
+   *          the combining function, which is passed a list of one message
+   *          from each observable in order
+   * @param prefetch
+   *          the number of messages to request of each observable in advance
+   * @return the derived observable
+   */
+  static <T, R> Observable<R> zip(
+      Collection<? extends Observable<? extends T>> observables,
+      Function<? super List<T>, ? extends R> combiner,
+      int prefetch) {
+    requireNonNull(combiner);
+    if (prefetch <= 0)
+      throw new IllegalArgumentException("Prefetch must be positive " + prefetch);
+
+    List<Observable<? extends T>> sources = List.copyOf(observables);
+    return observer -> new ZipObservation<>(observer, sources, combiner, prefetch).start();
+  }
+
+  /**
+   * As {@link #combineLatest(Collection, Function)} over a pair of observables.
+   * 
+   * @param <A>
+   *          the message type of the first observable
+   * @param <B>
+   *          the message type of the second observable
+   * @param <R>
+   *          the resulting observable message type
+   * @param first
+   *          the first observable
+   * @param second
+   *          the second observable
+   * @param combiner
+   *          the combining function
+   * @return the derived observable
+   */
+  @SuppressWarnings("unchecked")
+  static <A, B, R> Observable<R> combineLatest(
+      Observable<? extends A> first,
+      Observable<? extends B> second,
+      BiFunction<? super A, ? super B, ? extends R> combiner) {
+    requireNonNull(combiner);
+    return Observable.<Object, R>combineLatest(
+        Arrays.asList(first, second),
+        messages -> combiner.apply((A) messages.get(0), (B) messages.get(1)));
+  }
+
+  /**
+   * As {@link #combineLatest(Collection, Function, int)} with a prefetch of
+   * {@link #DEFAULT_COMBINING_PREFETCH}.
+   * 
+   * @param <T>
+   *          the message type of the observables
+   * @param <R>
+   *          the resulting observable message type
+   * @param observables
+   *          the observables to combine
+   * @param combiner
+   *          the combining function
+   * @return the derived observable
+   */
+  static <T, R> Observable<R> combineLatest(
+      Collection<? extends Observable<? extends T>> observables,
+      Function<? super List<T>, ? extends R> combiner) {
+    return combineLatest(observables, combiner, DEFAULT_COMBINING_PREFETCH);
+  }
+
+  /**
+   * Derive an observable which, once each of the given observables has sent a
+   * message, combines every subsequent message with the latest message of each
+   * of the others.
+   * <p>
+   * Messages from each observable are buffered in a queue of the given
+   * capacity, which is filled by requests made of each observable
+   * independently, so any observable which does not support backpressure may
+   * overflow its queue and fail the derived observable. The derived observable
+   * completes when all of the given observables complete, or as soon as any
+   * completes without having sent a message.
+   * 
+   * @param <T>
+   *          the message type of the observables
+   * @param <R>
+   *          the resulting observable message type
+   * @param observables
+   *          the observables to combine
+   * @param combiner
+   *          the combining function, which is passed a list of the latest
+   *          message from each observable in order
+   * @param prefetch
+   *          the number of messages to request of each observable in advance
+   * @return the derived observable
+   */
+  static <T, R> Observable<R> combineLatest(
+      Collection<? extends Observable<? extends T>> observables,
+      Function<? super List<T>, ? extends R> combiner,
+      int prefetch) {
+    requireNonNull(combiner);
+    if (prefetch <= 0)
+      throw new IllegalArgumentException("Prefetch must be positive " + prefetch);
+
+    List<Observable<? extends T>> sources = List.copyOf(observables);
+    return observer -> new CombineLatestObservation<>(observer, sources, combiner, prefetch)
+        .start();
+  }
+
   static <M> ObservableValue<M> failingValue(Throwable failure) {
     return new ImmutableObservableValue<>(failure);
   }
@@ -33,6 +33,7 @@
 package uk.co.strangeskies.observable;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import uk.co.strangeskies.property.Property;
 
@@ -60,6 +61,36 @@ public interface ObservableProperty<T> extends ObservableValue<T>, Property<T> {
     return new ObservablePropertyImpl<>(initialValue);
   }
 
+  /**
+   * Instantiate a {@link ConflatingObservableProperty conflating observable
+   * property}, which notifies observers on the thread which sets the value.
+   * 
+   * @param <T>
+   *          the type of event message to produce and which we may assign from
+   * @param initialValue
+   *          the initial value
+   * @return an observable property with the given default value
+   */
+  static <T> ObservableProperty<T> conflating(T initialValue) {
+    return new ConflatingObservableProperty<>(initialValue);
+  }
+
+  /**
+   * Instantiate a {@link ConflatingObservableProperty conflating observable
+   * property}, which notifies observers on the given executor.
+   * 
+   * @param <T>
+   *          the type of event message to produce and which we may assign from
+   * @param initialValue
+   *          the initial value
+   * @param executor
+   *          the executor on which to notify observers
+   * @return an observable property with the given default value
+   */
+  static <T> ObservableProperty<T> conflating(T initialValue, Executor executor) {
+    return new ConflatingObservableProperty<>(initialValue, executor);
+  }
+
   void setProblem(Throwable t);
 
   @Override
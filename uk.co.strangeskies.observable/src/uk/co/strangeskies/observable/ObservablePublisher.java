@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+
+/**
+ * An adapter presenting an {@link Observable} as a {@link Publisher}.
+ * <p>
+ * Each {@link Subscriber subscription} is backed by a single observation of
+ * the observable, and requests and cancellations are forwarded directly to that
+ * observation without intermediate buffering. The observable must therefore
+ * support backpressure for the publisher to respect subscriber demand.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class ObservablePublisher<M> implements Publisher<M> {
+  private final Observable<? extends M> observable;
+
+  public ObservablePublisher(Observable<? extends M> observable) {
+    this.observable = requireNonNull(observable);
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super M> subscriber) {
+    requireNonNull(subscriber);
+
+    observable.observe(new Observer<M>() {
+      @Override
+      public void onObserve(Observation observation) {
+        subscriber.onSubscribe(new Subscription() {
+          @Override
+          public void request(long count) {
+            if (count <= 0) {
+              observation.cancel();
+              subscriber.onError(
+                  new IllegalArgumentException(
+                      "Must request a positive number of messages " + count));
+            } else {
+              observation.request(count);
+            }
+          }
+
+          @Override
+          public void cancel() {
+            observation.cancel();
+          }
+        });
+      }
+
+      @Override
+      public void onNext(M message) {
+        subscriber.onNext(message);
+      }
+
+      @Override
+      public void onComplete() {
+        subscriber.onComplete();
+      }
+
+      @Override
+      public void onFail(Throwable t) {
+        subscriber.onError(t);
+      }
+    });
+  }
+}
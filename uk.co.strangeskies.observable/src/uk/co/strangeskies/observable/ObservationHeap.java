@@ -0,0 +1,402 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The set of observations between which a {@link RequestAllocator} divides
+ * requests, as maintained by e.g. a {@link FlatMappingObserver}.
+ * <p>
+ * Observations are kept both in order of insertion and in a binary min-heap
+ * ordered by the number of requests pending on each, so the least-loaded
+ * observation can be found in constant time, and its position restored in
+ * logarithmic time after each request or message. The number of pending
+ * requests is tracked by the heap as requests are made through it and
+ * messages are received, so it can be queried without touching the underlying
+ * observations.
+ * <p>
+ * An observation is removed from the heap in logarithmic time, and from the
+ * list in order of insertion only once enough have been removed to make it
+ * worthwhile, or when the list is next read.
+ * <p>
+ * Instances are not thread safe, and must be guarded by their owner.
+ * 
+ * @author Elias N Vasylenko
+ */
+public final class ObservationHeap {
+  final class Entry implements Observation {
+    private final Observation observation;
+    private long pending;
+    private int index;
+    private boolean removed;
+    private long forwarding;
+    private Entry nextForwarding;
+
+    Entry(Observation observation) {
+      this.observation = requireNonNull(observation);
+    }
+
+    @Override
+    public void request(long count) {
+      if (count < 0)
+        throw new IllegalArgumentException("Must request a positive number of messages " + count);
+      if (removed || count == 0)
+        return;
+
+      long pending = this.pending + count;
+      setPending(pending < 0 ? Long.MAX_VALUE : pending);
+      siftDown(index);
+
+      observation.request(count);
+    }
+
+    @Override
+    public void cancel() {
+      observation.cancel();
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return pending;
+    }
+
+    void fulfil() {
+      if (!removed && pending > 0 && pending < Long.MAX_VALUE) {
+        setPending(pending - 1);
+        siftUp(index);
+      }
+    }
+
+    private void setPending(long pending) {
+      if (this.pending == Long.MAX_VALUE)
+        unboundedCount--;
+      else
+        boundedPendingCount -= this.pending;
+
+      this.pending = pending;
+
+      if (pending == Long.MAX_VALUE)
+        unboundedCount++;
+      else
+        boundedPendingCount += pending;
+
+      totalPendingCount = unboundedCount > 0 ? Long.MAX_VALUE : boundedPendingCount;
+    }
+  }
+
+  private final class ObservationsView extends AbstractList<Observation> implements RandomAccess {
+    @Override
+    public Observation get(int index) {
+      purgeRemoved();
+      return observations.get(index);
+    }
+
+    @Override
+    public int size() {
+      purgeRemoved();
+      return observations.size();
+    }
+  }
+
+  private Entry[] heap = new Entry[8];
+  private int size;
+
+  private final List<Entry> observations = new ArrayList<>();
+  private final List<Observation> observationsView = new ObservationsView();
+  private int removedCount;
+  private boolean allocating;
+  private Entry forwarding;
+
+  private int unboundedCount;
+  private long boundedPendingCount;
+  private volatile long totalPendingCount;
+
+  Entry add(Observation observation) {
+    Entry entry = new Entry(observation);
+
+    if (size == heap.length)
+      heap = Arrays.copyOf(heap, size * 2);
+    entry.index = size;
+    heap[size++] = entry;
+    siftUp(entry.index);
+
+    observations.add(entry);
+    return entry;
+  }
+
+  void remove(Entry entry) {
+    if (entry.removed)
+      return;
+
+    entry.setPending(0);
+    entry.removed = true;
+
+    int index = entry.index;
+    Entry last = heap[--size];
+    heap[size] = null;
+    if (index < size) {
+      heap[index] = last;
+      last.index = index;
+      siftDown(index);
+      siftUp(last.index);
+    }
+
+    removedCount++;
+    if (removedCount > size)
+      purgeRemoved();
+  }
+
+  /*
+   * An allocator may be iterating over the list view, so removal is deferred
+   * until it is done.
+   */
+  private void purgeRemoved() {
+    if (removedCount > 0 && !allocating) {
+      observations.removeIf(e -> e.removed);
+      removedCount = 0;
+    }
+  }
+
+  long allocateRequests(RequestAllocator allocator, long requestCount) {
+    purgeRemoved();
+    allocating = true;
+    try {
+      return allocator.allocateRequests(requestCount, this);
+    } finally {
+      allocating = false;
+      if (removedCount > size)
+        purgeRemoved();
+    }
+  }
+
+  /**
+   * @return the number of observations
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return an unmodifiable view of the observations in order of insertion
+   */
+  public List<Observation> getObservations() {
+    return observationsView;
+  }
+
+  /**
+   * @return the observation with the fewest pending requests, or null if there
+   *         are no observations
+   */
+  public Observation getLeastPending() {
+    return size == 0 ? null : heap[0];
+  }
+
+  /**
+   * @return the number of requests pending on the observation with the fewest,
+   *         or {@link Long#MAX_VALUE} if there are no observations
+   */
+  public long getLeastPendingRequestCount() {
+    return size == 0 ? Long.MAX_VALUE : heap[0].pending;
+  }
+
+  /**
+   * @return the number of observations which share the fewest pending
+   *         requests, found in time proportional to that number
+   */
+  public int getLeastPendingObservationCount() {
+    return size == 0 ? 0 : countPending(0, heap[0].pending);
+  }
+
+  private int countPending(int index, long pending) {
+    if (index >= size || heap[index].pending != pending)
+      return 0;
+    return 1 + countPending((index << 1) + 1, pending) + countPending((index << 1) + 2, pending);
+  }
+
+  /**
+   * Request the given number of messages of each of the observations which
+   * share the fewest pending requests, and one more of some of them, in time
+   * proportional to their number.
+   * <p>
+   * The raised observations must not overtake any other, so no more than the
+   * difference between the fewest pending requests and the
+   * {@link #getLeastPendingRequestCountAbove(long) next fewest} may be
+   * requested of any one.
+   * 
+   * @param count
+   *          the number of messages to request of each observation
+   * @param extra
+   *          the number of observations of which to request one more message,
+   *          which must be fewer than the number of observations with the
+   *          fewest pending requests
+   */
+  public void requestLeastPending(long count, int extra) {
+    if (size > 0)
+      raiseLeastPending(0, heap[0].pending, count, extra);
+
+    /*
+     * The raised observations are only requested of once the heap is settled,
+     * as they may fulfil, complete, or be removed re-entrantly.
+     */
+    while (forwarding != null) {
+      Entry entry = forwarding;
+      forwarding = entry.nextForwarding;
+      entry.nextForwarding = null;
+      if (!entry.removed)
+        entry.observation.request(entry.forwarding);
+      entry.forwarding = 0;
+    }
+  }
+
+  /*
+   * Children are raised before their parents, and extra requests are given to
+   * the first to be raised, so a parent is never raised above its children and
+   * the heap needs no sifting.
+   */
+  private int raiseLeastPending(int index, long pending, long count, int extra) {
+    if (index >= size || heap[index].pending != pending)
+      return extra;
+
+    extra = raiseLeastPending((index << 1) + 1, pending, count, extra);
+    extra = raiseLeastPending((index << 1) + 2, pending, count, extra);
+
+    if (extra > 0) {
+      count++;
+      extra--;
+    }
+    if (count > 0) {
+      Entry entry = heap[index];
+      long raised = pending + count;
+      entry.setPending(raised < 0 ? Long.MAX_VALUE : raised);
+      entry.forwarding = count;
+      entry.nextForwarding = forwarding;
+      forwarding = entry;
+    }
+
+    return extra;
+  }
+
+  /**
+   * @param pending
+   *          a number of pending requests
+   * @return the fewest requests pending on any observation with more than the
+   *         given number, or {@link Long#MAX_VALUE} if there are none
+   */
+  public long getLeastPendingRequestCountAbove(long pending) {
+    return leastPendingAbove(0, pending);
+  }
+
+  private long leastPendingAbove(int index, long pending) {
+    if (index >= size)
+      return Long.MAX_VALUE;
+    if (heap[index].pending > pending)
+      return heap[index].pending;
+    return Math.min(
+        leastPendingAbove((index << 1) + 1, pending),
+        leastPendingAbove((index << 1) + 2, pending));
+  }
+
+  /**
+   * @return the total number of requests pending over all observations,
+   *         saturating at {@link Long#MAX_VALUE}
+   */
+  public long getPendingRequestCount() {
+    return totalPendingCount;
+  }
+
+  /**
+   * Make the same request of every observation. An unbounded request is only
+   * made of those observations which are not already unbounded, which are
+   * found at the top of the heap, so repeated unbounded requests as
+   * observations are added cost only logarithmic time for each addition.
+   * 
+   * @param count
+   *          the number of messages to request of each observation
+   */
+  public void requestEach(long count) {
+    if (count == Long.MAX_VALUE) {
+      while (size > 0 && heap[0].pending < Long.MAX_VALUE)
+        heap[0].request(Long.MAX_VALUE);
+    } else {
+      for (int i = 0; i < observations.size(); i++)
+        observations.get(i).request(count);
+    }
+  }
+
+  private void siftUp(int index) {
+    Entry entry = heap[index];
+    while (index > 0) {
+      int parentIndex = (index - 1) >>> 1;
+      Entry parent = heap[parentIndex];
+      if (parent.pending <= entry.pending)
+        break;
+
+      heap[index] = parent;
+      parent.index = index;
+      index = parentIndex;
+    }
+    heap[index] = entry;
+    entry.index = index;
+  }
+
+  private void siftDown(int index) {
+    Entry entry = heap[index];
+    int half = size >>> 1;
+    while (index < half) {
+      int childIndex = (index << 1) + 1;
+      Entry child = heap[childIndex];
+      int rightIndex = childIndex + 1;
+      if (rightIndex < size && heap[rightIndex].pending < child.pending)
+        child = heap[childIndex = rightIndex];
+      if (entry.pending <= child.pending)
+        break;
+
+      heap[index] = child;
+      child.index = index;
+      index = childIndex;
+    }
+    heap[index] = entry;
+    entry.index = index;
+  }
+}
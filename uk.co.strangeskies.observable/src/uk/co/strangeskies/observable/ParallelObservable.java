@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An observable which emits messages over a fixed number of parallel rails.
+ * Messages on each rail are delivered serially and in order, but messages on
+ * different rails may be delivered concurrently.
+ * <p>
+ * Operations on a parallel observable are applied to each rail independently,
+ * so they are executed on the rail's own worker. Once the parallel stages are
+ * done the rails can be rejoined with {@link #sequential()}.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public interface ParallelObservable<M> {
+  int DEFAULT_PREFETCH = 256;
+
+  /**
+   * @return the number of rails
+   */
+  int getParallelism();
+
+  /**
+   * Observe each rail with the corresponding observer.
+   * 
+   * @param railObservers
+   *          one observer for each rail
+   * @return a disposable to cancel the observation of every rail
+   */
+  Disposable observe(List<? extends Observer<? super M>> railObservers);
+
+  private <T> ParallelObservable<T> decorateRails(
+      Function<Observer<? super T>, Observer<? super M>> decorator) {
+    ParallelObservable<M> upstream = this;
+
+    return new ParallelObservable<T>() {
+      @Override
+      public int getParallelism() {
+        return upstream.getParallelism();
+      }
+
+      @Override
+      public Disposable observe(List<? extends Observer<? super T>> railObservers) {
+        return upstream.observe(railObservers.stream().map(decorator).collect(toList()));
+      }
+    };
+  }
+
+  /**
+   * Map messages on each rail.
+   * 
+   * @param <T>
+   *          the type of the mapped messages
+   * @param mapping
+   *          the mapping function, which may be invoked concurrently for
+   *          messages on different rails
+   * @return a parallel observable over the mapped messages
+   */
+  default <T> ParallelObservable<T> map(Function<? super M, ? extends T> mapping) {
+    requireNonNull(mapping);
+    return decorateRails(observer -> new MappingObserver<M, T>(observer, mapping));
+  }
+
+  /**
+   * Filter messages on each rail.
+   * 
+   * @param condition
+   *          the filter condition, which may be invoked concurrently for
+   *          messages on different rails
+   * @return a parallel observable over the filtered messages
+   */
+  default ParallelObservable<M> filter(Predicate<? super M> condition) {
+    requireNonNull(condition);
+    return decorateRails(observer -> new FilteringObserver<M>(observer, condition));
+  }
+
+  /**
+   * As {@link #sequential(int)} with a prefetch of {@link #DEFAULT_PREFETCH}.
+   * 
+   * @return an observable over the messages of every rail
+   */
+  default Observable<M> sequential() {
+    return sequential(DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Merge the rails back into a single observable. Messages from each rail are
+   * taken in turn, so the order of messages within a rail is preserved, but no
+   * order is imposed between rails.
+   * <p>
+   * Each rail is buffered in a bounded queue, with the given number of
+   * messages requested in advance, and the next batch requested once three
+   * quarters of the last has been delivered. Messages are only delivered
+   * downstream as they are requested.
+   * 
+   * @param prefetch
+   *          the number of messages to buffer from each rail
+   * @return an observable over the messages of every rail
+   */
+  default Observable<M> sequential(int prefetch) {
+    if (prefetch <= 0)
+      throw new IllegalArgumentException("Prefetch must be positive " + prefetch);
+
+    return observer -> {
+      SequentialMerge<M> merge = new SequentialMerge<>(observer, getParallelism(), prefetch);
+      observer.onObserve(merge);
+      merge.setUpstream(observe(merge.getRailObservers()));
+      return merge;
+    };
+  }
+}
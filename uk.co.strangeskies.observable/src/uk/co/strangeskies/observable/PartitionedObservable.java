@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * A parallel observable which partitions the messages of an upstream
+ * observable by key.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+class PartitionedObservable<M> implements ParallelObservable<M> {
+  private final Observable<? extends M> upstream;
+  private final int parallelism;
+  private final Function<? super M, ?> keyFunction;
+  private final Executor executor;
+  private final int capacity;
+
+  public PartitionedObservable(
+      Observable<? extends M> upstream,
+      int parallelism,
+      Function<? super M, ?> keyFunction,
+      Executor executor,
+      int capacity) {
+    if (parallelism <= 0)
+      throw new IllegalArgumentException("Parallelism must be positive " + parallelism);
+    if (capacity <= 0)
+      throw new IllegalArgumentException("Capacity must be positive " + capacity);
+
+    this.upstream = requireNonNull(upstream);
+    this.parallelism = parallelism;
+    this.keyFunction = requireNonNull(keyFunction);
+    this.executor = requireNonNull(executor);
+    this.capacity = capacity;
+  }
+
+  @Override
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  @Override
+  public Disposable observe(List<? extends Observer<? super M>> railObservers) {
+    if (railObservers.size() != parallelism)
+      throw new IllegalArgumentException(
+          "Expected " + parallelism + " rail observers, received " + railObservers.size());
+
+    PartitioningObserver<M> partitioner = new PartitioningObserver<>(
+        railObservers,
+        keyFunction,
+        executor,
+        capacity);
+    upstream.observe(partitioner);
+    return partitioner::cancel;
+  }
+}
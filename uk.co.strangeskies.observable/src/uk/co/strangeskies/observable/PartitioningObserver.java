@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Split messages between a number of rails by key, with messages of equal key
+ * always being sent to the same rail.
+ * <p>
+ * Each rail has a bounded single-producer single-consumer queue, which is
+ * drained to the rail's observer by at most one task at a time on the given
+ * executor, so rails are processed concurrently while the messages on each
+ * remain in order.
+ * <p>
+ * Since any message may be sent to any rail, no more messages are requested
+ * upstream than would fit into the fullest queue. Further requests are made
+ * each time three quarters of a queue's capacity has been delivered across all
+ * rails.
+ * <p>
+ * Completion and failure events are delivered to each rail after all preceding
+ * messages on that rail. Cancelling any rail cancels the whole observation,
+ * as does a failure thrown by the observer of a rail, which is then delivered
+ * to that rail.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class PartitioningObserver<M> implements Observer<M> {
+  private class Rail implements Observation {
+    private final Observer<? super M> observer;
+    private final RingBuffer<M> queue = new RingBuffer<>(capacity);
+    private final AtomicLong outstandingRequests = new AtomicLong();
+    private final AtomicInteger drainCount = new AtomicInteger();
+    private boolean terminated;
+
+    Rail(Observer<? super M> observer) {
+      this.observer = requireNonNull(observer);
+    }
+
+    @Override
+    public void request(long count) {
+      if (count < 0)
+        throw new IllegalArgumentException("Must request a positive number of messages " + count);
+
+      long requests;
+      long newRequests;
+      do {
+        requests = outstandingRequests.get();
+        if (requests == Long.MAX_VALUE)
+          break;
+
+        newRequests = requests + count;
+        if (newRequests < 0)
+          newRequests = Long.MAX_VALUE;
+      } while (!outstandingRequests.compareAndSet(requests, newRequests));
+
+      scheduleDrain();
+    }
+
+    @Override
+    public void cancel() {
+      PartitioningObserver.this.cancel();
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return outstandingRequests.get();
+    }
+
+    void scheduleDrain() {
+      if (drainCount.getAndIncrement() == 0)
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+      int missed = 1;
+      do {
+        if (!terminated && !cancelled) {
+          long requests = outstandingRequests.get();
+          long fulfilled = 0;
+
+          while (!cancelled) {
+            boolean complete = PartitioningObserver.this.complete;
+            M message = fulfilled == requests ? null : queue.poll();
+
+            if (message == null) {
+              if (complete && queue.isEmpty())
+                terminate();
+              break;
+            }
+
+            try {
+              observer.onNext(message);
+            } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+              PartitioningObserver.this.cancel();
+              throw t;
+            } catch (Throwable t) {
+              PartitioningObserver.this.cancel();
+              terminated = true;
+              fail(t);
+              break;
+            }
+            fulfilled++;
+            consumed();
+          }
+
+          if (fulfilled > 0 && requests != Long.MAX_VALUE)
+            outstandingRequests.addAndGet(-fulfilled);
+        }
+
+        if (cancelled)
+          queue.clear();
+
+        missed = drainCount.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void terminate() {
+      terminated = true;
+
+      Throwable failure = PartitioningObserver.this.failure;
+      if (failure != null)
+        fail(failure);
+      else
+        observer.onComplete();
+    }
+
+    private void fail(Throwable t) {
+      try {
+        observer.onFail(t);
+      } catch (Throwable u) {
+        t.addSuppressed(u);
+        currentThread().getUncaughtExceptionHandler().uncaughtException(currentThread(), t);
+      }
+    }
+  }
+
+  private final Function<? super M, ?> keyFunction;
+  private final Executor executor;
+  private final int capacity;
+  private final int replenishSize;
+  private final List<Rail> rails;
+
+  private volatile Observation upstreamObservation;
+  private final AtomicLong outstandingRequests = new AtomicLong();
+  private final AtomicInteger consumedCount = new AtomicInteger();
+
+  private volatile boolean complete;
+  private volatile Throwable failure;
+  private volatile boolean cancelled;
+
+  public PartitioningObserver(
+      List<? extends Observer<? super M>> railObservers,
+      Function<? super M, ?> keyFunction,
+      Executor executor,
+      int capacity) {
+    if (railObservers.isEmpty())
+      throw new IllegalArgumentException("Must partition into at least one rail");
+    if (capacity <= 0)
+      throw new IllegalArgumentException("Capacity must be positive " + capacity);
+
+    this.keyFunction = requireNonNull(keyFunction);
+    this.executor = requireNonNull(executor);
+    this.capacity = capacity;
+    this.replenishSize = capacity - (capacity >> 2);
+
+    this.rails = new ArrayList<>(railObservers.size());
+    for (Observer<? super M> railObserver : railObservers)
+      rails.add(new Rail(railObserver));
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    upstreamObservation = observation;
+
+    for (Rail rail : rails)
+      rail.observer.onObserve(rail);
+
+    if (cancelled)
+      observation.cancel();
+    else
+      replenish();
+  }
+
+  @Override
+  public void onNext(M message) {
+    if (complete || cancelled)
+      return;
+
+    int index = Math.floorMod(Objects.hashCode(keyFunction.apply(message)), rails.size());
+    Rail rail = rails.get(index);
+
+    /*
+     * The message must be visible in the queue before the outstanding request
+     * is released, so that it is never missed from the count of free space.
+     */
+    if (!rail.queue.offer(message)) {
+      upstreamObservation.cancel();
+      onFail(new UnexpectedMessageException(message));
+      return;
+    }
+    outstandingRequests.decrementAndGet();
+
+    rail.scheduleDrain();
+  }
+
+  @Override
+  public void onComplete() {
+    complete = true;
+    rails.forEach(Rail::scheduleDrain);
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    failure = t;
+    complete = true;
+    rails.forEach(Rail::scheduleDrain);
+  }
+
+  /**
+   * Cancel the observation of every rail.
+   */
+  public void cancel() {
+    if (!cancelled) {
+      cancelled = true;
+      Observation upstreamObservation = this.upstreamObservation;
+      if (upstreamObservation != null)
+        upstreamObservation.cancel();
+      rails.forEach(Rail::scheduleDrain);
+    }
+  }
+
+  private void consumed() {
+    int consumed = consumedCount.incrementAndGet();
+    if (consumed >= replenishSize
+        && consumedCount.compareAndSet(consumed, consumed - replenishSize))
+      replenish();
+  }
+
+  /*
+   * Request as many messages as would fit in the fullest queue, less those
+   * already requested. Outstanding requests are read before queue sizes, so a
+   * message arriving concurrently is counted at least once.
+   */
+  private synchronized void replenish() {
+    if (cancelled || complete)
+      return;
+
+    long outstanding = outstandingRequests.get();
+    int free = capacity;
+    for (Rail rail : rails)
+      free = Math.min(free, capacity - rail.queue.size());
+
+    long requests = free - outstanding;
+    if (requests > 0) {
+      outstandingRequests.addAndGet(requests);
+      upstreamObservation.request(requests);
+    }
+  }
+}
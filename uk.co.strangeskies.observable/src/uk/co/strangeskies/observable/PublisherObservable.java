@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Flow.Publisher;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An adapter presenting a {@link Publisher} as an {@link Observable}.
+ * <p>
+ * Each observation is backed by a single {@link Subscription subscription} to
+ * the publisher, and requests and cancellations are forwarded directly to that
+ * subscription without intermediate buffering.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class PublisherObservable<M> implements Observable<M> {
+  private final Publisher<? extends M> publisher;
+
+  public PublisherObservable(Publisher<? extends M> publisher) {
+    this.publisher = requireNonNull(publisher);
+  }
+
+  @Override
+  public Disposable observe(Observer<? super M> observer) {
+    PublisherObservation<M> observation = new PublisherObservation<>(observer);
+    publisher.subscribe(observation);
+    return observation;
+  }
+
+  static class PublisherObservation<M> implements Subscriber<M>, Observation {
+    private final SafeObserver<? super M> observer;
+    private final AtomicLong pendingRequestCount = new AtomicLong();
+    private volatile Subscription subscription;
+    private volatile boolean cancelled;
+
+    PublisherObservation(Observer<? super M> observer) {
+      this.observer = new SafeObserver<>(observer);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      requireNonNull(subscription);
+
+      if (this.subscription != null) {
+        subscription.cancel();
+        return;
+      }
+      this.subscription = subscription;
+
+      if (cancelled)
+        subscription.cancel();
+      else
+        observer.onObserve(this);
+    }
+
+    @Override
+    public void onNext(M item) {
+      long pending = pendingRequestCount.get();
+      if (pending > 0 && pending < Long.MAX_VALUE)
+        pendingRequestCount.decrementAndGet();
+
+      observer.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      observer.onFail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      observer.onComplete();
+    }
+
+    @Override
+    public void request(long count) {
+      if (count < 0)
+        throw new IllegalArgumentException("Must request a positive number of messages " + count);
+
+      if (count == 0 || cancelled)
+        return;
+
+      long requests;
+      long newRequests;
+      do {
+        requests = pendingRequestCount.get();
+        if (requests == Long.MAX_VALUE)
+          break;
+
+        newRequests = requests + count;
+        if (newRequests < 0)
+          newRequests = Long.MAX_VALUE;
+      } while (!pendingRequestCount.compareAndSet(requests, newRequests));
+
+      subscription.request(count);
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return pendingRequestCount.get();
+    }
+
+    @Override
+    public void cancel() {
+      if (!cancelled) {
+        cancelled = true;
+
+        Subscription subscription = this.subscription;
+        if (subscription != null)
+          subscription.cancel();
+      }
+    }
+  }
+}
@@ -33,24 +33,52 @@
 package uk.co.strangeskies.observable;
 
 import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Function;
+
+import uk.co.strangeskies.observable.ReferenceReaper.ObservationDisposal;
 
 public class ReferenceObserver<M> extends PassthroughObserver<M, M> {
   public static <M> ReferenceObserver<M> weak(Observer<? super M> downstreamObserver) {
-    return new ReferenceObserver<>(downstreamObserver, WeakReference::new);
+    return weak(downstreamObserver, ReferenceReaper.shared());
+  }
+
+  public static <M> ReferenceObserver<M> weak(
+      Observer<? super M> downstreamObserver,
+      ReferenceReaper reaper) {
+    return new ReferenceObserver<>(downstreamObserver, reaper::weakReference);
   }
 
   public static <M> ReferenceObserver<M> soft(Observer<? super M> downstreamObserver) {
-    return new ReferenceObserver<>(downstreamObserver, SoftReference::new);
+    return soft(downstreamObserver, ReferenceReaper.shared());
+  }
+
+  public static <M> ReferenceObserver<M> soft(
+      Observer<? super M> downstreamObserver,
+      ReferenceReaper reaper) {
+    return new ReferenceObserver<>(downstreamObserver, reaper::softReference);
   }
 
+  private final ObservationDisposal disposal;
+
   protected ReferenceObserver(
       Observer<? super M> downstreamObserver,
-      Function<Observer<? super M>, Reference<Observer<? super M>>> referenceFunction) {
-    super(referenceFunction.apply(downstreamObserver)::get);
+      BiFunction<Observer<? super M>, Disposable, Reference<Observer<? super M>>> references) {
+    this(downstreamObserver, references, new ObservationDisposal());
+  }
+
+  private ReferenceObserver(
+      Observer<? super M> downstreamObserver,
+      BiFunction<Observer<? super M>, Disposable, Reference<Observer<? super M>>> references,
+      ObservationDisposal disposal) {
+    super(references.apply(downstreamObserver, disposal)::get);
+    this.disposal = disposal;
+  }
+
+  @Override
+  protected void initializeObservation(Observation observation) {
+    super.initializeObservation(observation);
+    disposal.setObservation(observation);
   }
 
   public void withObserver(Consumer<Observer<? super M>> action) {
@@ -58,7 +86,7 @@ public class ReferenceObserver<M> extends PassthroughObserver<M, M> {
     if (observer != null) {
       action.accept(observer);
     } else {
-      getObservation().cancel();
+      disposal.cancel();
     }
   }
 
@@ -35,32 +35,53 @@ package uk.co.strangeskies.observable;
 import static java.util.Objects.requireNonNull;
 
 import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.lang.ref.WeakReference;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Function;
+
+import uk.co.strangeskies.observable.ReferenceReaper.ObservationDisposal;
 
 public class ReferenceOwnedObserver<O, M> extends PassthroughObserver<M, OwnedMessage<O, M>> {
   public static <O, M> ReferenceOwnedObserver<O, M> weak(
       O owner,
       Observer<? super OwnedMessage<O, M>> downstreamObserver) {
-    return new ReferenceOwnedObserver<>(owner, downstreamObserver, WeakReference::new);
+    return weak(owner, downstreamObserver, ReferenceReaper.shared());
+  }
+
+  public static <O, M> ReferenceOwnedObserver<O, M> weak(
+      O owner,
+      Observer<? super OwnedMessage<O, M>> downstreamObserver,
+      ReferenceReaper reaper) {
+    return new ReferenceOwnedObserver<>(owner, downstreamObserver, reaper::weakReference);
   }
 
   public static <O, M> ReferenceOwnedObserver<O, M> soft(
       O owner,
       Observer<? super OwnedMessage<O, M>> downstreamObserver) {
-    return new ReferenceOwnedObserver<>(owner, downstreamObserver, SoftReference::new);
+    return soft(owner, downstreamObserver, ReferenceReaper.shared());
+  }
+
+  public static <O, M> ReferenceOwnedObserver<O, M> soft(
+      O owner,
+      Observer<? super OwnedMessage<O, M>> downstreamObserver,
+      ReferenceReaper reaper) {
+    return new ReferenceOwnedObserver<>(owner, downstreamObserver, reaper::softReference);
   }
 
+  private final ObservationDisposal disposal = new ObservationDisposal();
   private final Reference<O> ownerReference;
 
   protected ReferenceOwnedObserver(
       O owner,
       Observer<? super OwnedMessage<O, M>> downstreamObserver,
-      Function<O, Reference<O>> referenceFunction) {
+      BiFunction<O, Disposable, Reference<O>> referenceFunction) {
     super(downstreamObserver);
-    this.ownerReference = requireNonNull(referenceFunction.apply(owner));
+    this.ownerReference = requireNonNull(referenceFunction.apply(owner, disposal));
+  }
+
+  @Override
+  protected void initializeObservation(Observation observation) {
+    super.initializeObservation(observation);
+    disposal.setObservation(observation);
   }
 
   public void withOwner(Consumer<O> action) {
@@ -68,7 +89,7 @@ public class ReferenceOwnedObserver<O, M> extends PassthroughObserver<M, OwnedMe
     if (owner != null) {
       action.accept(owner);
     } else {
-      getObservation().cancel();
+      disposal.cancel();
     }
   }
 
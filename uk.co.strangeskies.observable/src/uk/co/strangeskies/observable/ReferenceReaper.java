@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A reaper of weak and soft references whose referents have been reclaimed.
+ * <p>
+ * References are created through the reaper with an action to dispose of
+ * whatever depends upon them. A single thread waits on a shared
+ * {@link ReferenceQueue}, and disposes of each reference as soon as it is
+ * enqueued by the garbage collector, rather than waiting for the reference to
+ * be next dereferenced.
+ * <p>
+ * This is used by {@link ReferenceObserver} and {@link ReferenceOwnedObserver}
+ * to cancel observations which can no longer receive messages, so that they do
+ * not accumulate in the observables they observe.
+ * <p>
+ * A reaper other than the {@link #shared() shared} reaper should be
+ * {@link #close() closed} once it is no longer needed, to stop its thread.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class ReferenceReaper implements AutoCloseable {
+  private interface ReapableReference {
+    void reap();
+  }
+
+  private static class ReapableWeakReference<T> extends WeakReference<T>
+      implements ReapableReference {
+    private final Disposable disposal;
+
+    ReapableWeakReference(T referent, ReferenceQueue<? super T> queue, Disposable disposal) {
+      super(referent, queue);
+      this.disposal = disposal;
+    }
+
+    @Override
+    public void reap() {
+      disposal.cancel();
+    }
+  }
+
+  private static class ReapableSoftReference<T> extends SoftReference<T>
+      implements ReapableReference {
+    private final Disposable disposal;
+
+    ReapableSoftReference(T referent, ReferenceQueue<? super T> queue, Disposable disposal) {
+      super(referent, queue);
+      this.disposal = disposal;
+    }
+
+    @Override
+    public void reap() {
+      disposal.cancel();
+    }
+  }
+
+  /**
+   * A disposal which cancels an observation at most once. This may be given to
+   * the reaper before the observation is available.
+   */
+  static class ObservationDisposal implements Disposable {
+    private final AtomicReference<Observation> observation = new AtomicReference<>();
+
+    void setObservation(Observation observation) {
+      this.observation.set(observation);
+    }
+
+    @Override
+    public void cancel() {
+      Observation observation = this.observation.getAndSet(null);
+      if (observation != null)
+        observation.cancel();
+    }
+  }
+
+  private static final ReferenceReaper SHARED = new ReferenceReaper(
+      VirtualThreads.threadFactory());
+
+  /**
+   * @return a reaper shared by the weak and soft reference operations of
+   *         {@link Observable}, which reaps on a virtual thread where they are
+   *         supported and a daemon thread otherwise
+   */
+  public static ReferenceReaper shared() {
+    return SHARED;
+  }
+
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+  private final LongAdder reclaimedCount = new LongAdder();
+  private final Thread thread;
+  private volatile boolean closed;
+
+  /**
+   * Create a reaper with its own thread, which runs until the reaper is
+   * {@link #close() closed}.
+   * 
+   * @param threadFactory
+   *          the factory for the thread which waits on the reference queue
+   */
+  public ReferenceReaper(ThreadFactory threadFactory) {
+    thread = threadFactory.newThread(this::reap);
+    thread.setName("observable-reference-reaper");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stop the thread of the reaper. References which are reclaimed after the
+   * reaper is closed are not disposed of.
+   * 
+   * @throws UnsupportedOperationException
+   *           if this is the shared reaper
+   */
+  @Override
+  public void close() {
+    if (this == SHARED)
+      throw new UnsupportedOperationException("The shared reaper cannot be closed");
+
+    closed = true;
+    thread.interrupt();
+  }
+
+  private void reap() {
+    while (!closed) {
+      Reference<?> reference;
+      try {
+        reference = queue.remove();
+      } catch (InterruptedException e) {
+        return;
+      }
+
+      reclaimedCount.increment();
+      try {
+        ((ReapableReference) reference).reap();
+      } catch (RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+      }
+    }
+  }
+
+  /**
+   * Create a weak reference which is disposed of once its referent is reclaimed.
+   * <p>
+   * The disposal is invoked on the reaper thread, and must not refer to the
+   * referent, otherwise it will never be reclaimed.
+   * 
+   * @param <T>
+   *          the type of the referent
+   * @param referent
+   *          the object to refer to
+   * @param disposal
+   *          the action to take once the referent has been reclaimed
+   * @return a weak reference to the referent
+   */
+  public <T> Reference<T> weakReference(T referent, Disposable disposal) {
+    return new ReapableWeakReference<>(referent, queue, requireNonNull(disposal));
+  }
+
+  /**
+   * Create a soft reference which is disposed of once its referent is reclaimed.
+   * <p>
+   * The disposal is invoked on the reaper thread, and must not refer to the
+   * referent, otherwise it will never be reclaimed.
+   * 
+   * @param <T>
+   *          the type of the referent
+   * @param referent
+   *          the object to refer to
+   * @param disposal
+   *          the action to take once the referent has been reclaimed
+   * @return a soft reference to the referent
+   */
+  public <T> Reference<T> softReference(T referent, Disposable disposal) {
+    return new ReapableSoftReference<>(referent, queue, requireNonNull(disposal));
+  }
+
+  /**
+   * @return the number of references which have been reaped since the reaper
+   *         was created
+   */
+  public long getReclaimedCount() {
+    return reclaimedCount.sum();
+  }
+}
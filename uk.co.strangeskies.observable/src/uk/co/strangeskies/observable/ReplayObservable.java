@@ -0,0 +1,420 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A hot observable which records the messages sent through it, so that late
+ * observers are replayed some or all of the history before receiving live
+ * messages.
+ * <p>
+ * Messages are recorded in a linked sequence of fixed-size segments which are
+ * only ever appended to, so any number of observers can read the history
+ * concurrently without locking. Each observation keeps its own position in the
+ * history and is delivered messages as they are requested, so unlike
+ * {@link HotObservable} this implementation supports backpressure, and a late
+ * observer catches up by reading directly from the segments in bulk.
+ * <p>
+ * The history may be limited by number of messages, by age, or both. Limits
+ * determine where late observers begin, and segments which fall wholly before
+ * the start of the history are released once no observation is reading them.
+ * <p>
+ * Messages, completion, and failure should not be sent concurrently.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class ReplayObservable<M> implements Observable<M> {
+  private static final int SEGMENT_SHIFT = 6;
+  private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+  private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private static final class Segment {
+    private final long base;
+    private final Object[] messages = new Object[SEGMENT_SIZE];
+    private final long[] timestamps;
+    private volatile Segment next;
+
+    Segment(long base, boolean timed) {
+      this.base = base;
+      this.timestamps = timed ? new long[SEGMENT_SIZE] : null;
+    }
+  }
+
+  private class ReplayObservation extends ObservationImpl<M> {
+    private Segment segment;
+    private long index;
+    private final AtomicLong outstandingRequests = new AtomicLong();
+    private final AtomicInteger drainCount = new AtomicInteger();
+
+    ReplayObservation(Observer<? super M> observer, Segment segment, long index) {
+      super(observer);
+      this.segment = segment;
+      this.index = index;
+    }
+
+    @Override
+    public void request(long count) {
+      if (count < 0)
+        throw new IllegalArgumentException("Must request a positive number of messages " + count);
+
+      long requests;
+      long newRequests;
+      do {
+        requests = outstandingRequests.get();
+        if (requests == Long.MAX_VALUE)
+          break;
+
+        newRequests = requests + count;
+        if (newRequests < 0)
+          newRequests = Long.MAX_VALUE;
+      } while (!outstandingRequests.compareAndSet(requests, newRequests));
+
+      drain();
+    }
+
+    @Override
+    public long getPendingRequestCount() {
+      return outstandingRequests.get();
+    }
+
+    @Override
+    protected void cancelImpl() {
+      cancelObservation(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    void drain() {
+      if (drainCount.getAndIncrement() != 0)
+        return;
+
+      int missed = 1;
+      do {
+        long requests = outstandingRequests.get();
+        long fulfilled = 0;
+
+        while (!isDisposed()) {
+          boolean complete = ReplayObservable.this.complete;
+          long size = ReplayObservable.this.size;
+
+          if (index == size) {
+            if (complete) {
+              Throwable failure = ReplayObservable.this.failure;
+              if (failure != null)
+                onFail(failure);
+              else
+                onComplete();
+            }
+            break;
+          }
+
+          if (fulfilled == requests)
+            break;
+
+          long end = index + Math.min(size - index, requests - fulfilled);
+          while (index < end && !isDisposed()) {
+            int offset = (int) (index - segment.base);
+            if (offset == SEGMENT_SIZE) {
+              segment = segment.next;
+              offset = 0;
+            }
+
+            index++;
+            fulfilled++;
+            onNext((M) segment.messages[offset]);
+          }
+        }
+
+        if (fulfilled > 0 && requests != Long.MAX_VALUE)
+          outstandingRequests.addAndGet(-fulfilled);
+
+        missed = drainCount.addAndGet(-missed);
+      } while (missed != 0);
+    }
+  }
+
+  private final int maximumSize;
+  private final long maximumAge;
+  private final Scheduler scheduler;
+
+  private Segment tail;
+  private volatile Segment head;
+  private volatile long headIndex;
+  private volatile long size;
+
+  private volatile boolean complete;
+  private volatile Throwable failure;
+
+  @SuppressWarnings("unchecked")
+  private final AtomicReference<ReplayObservation[]> observations = new AtomicReference<>(
+      (ReplayObservation[]) new ReplayObservable<?>.ReplayObservation[0]);
+
+  /**
+   * @param maximumSize
+   *          the maximum number of messages to replay to late observers
+   * @param maximumAge
+   *          the maximum age of messages to replay to late observers, or null
+   *          if messages should not expire
+   * @param scheduler
+   *          the scheduler whose clock determines the age of messages
+   */
+  public ReplayObservable(int maximumSize, Duration maximumAge, Scheduler scheduler) {
+    if (maximumSize <= 0)
+      throw new IllegalArgumentException("Maximum size must be positive " + maximumSize);
+    if (maximumAge != null && maximumAge.isNegative())
+      throw new IllegalArgumentException("Maximum age must not be negative " + maximumAge);
+
+    this.maximumSize = maximumSize;
+    this.maximumAge = maximumAge == null ? -1 : maximumAge.toNanos();
+    this.scheduler = requireNonNull(scheduler);
+
+    this.tail = new Segment(0, maximumAge != null);
+    this.head = tail;
+  }
+
+  /**
+   * @return a replay observable which replays every message to late observers
+   */
+  public static <M> ReplayObservable<M> unbounded() {
+    return new ReplayObservable<>(Integer.MAX_VALUE, null, Scheduler.shared());
+  }
+
+  /**
+   * @param maximumSize
+   *          the maximum number of messages to replay to late observers
+   * @return a replay observable which replays the latest messages to late
+   *         observers
+   */
+  public static <M> ReplayObservable<M> bounded(int maximumSize) {
+    return new ReplayObservable<>(maximumSize, null, Scheduler.shared());
+  }
+
+  /**
+   * As {@link #timed(Duration, Scheduler)} on the {@link Scheduler#shared()
+   * shared scheduler}.
+   * 
+   * @param maximumAge
+   *          the maximum age of messages to replay to late observers
+   * @return a replay observable which replays recent messages to late
+   *         observers
+   */
+  public static <M> ReplayObservable<M> timed(Duration maximumAge) {
+    return timed(maximumAge, Scheduler.shared());
+  }
+
+  /**
+   * @param maximumAge
+   *          the maximum age of messages to replay to late observers
+   * @param scheduler
+   *          the scheduler whose clock determines the age of messages
+   * @return a replay observable which replays recent messages to late
+   *         observers
+   */
+  public static <M> ReplayObservable<M> timed(Duration maximumAge, Scheduler scheduler) {
+    return new ReplayObservable<>(Integer.MAX_VALUE, requireNonNull(maximumAge), scheduler);
+  }
+
+  @Override
+  public Disposable observe(Observer<? super M> observer) {
+    /*
+     * The head must be read before the head index, as the writer updates them
+     * in the opposite order, so the head segment never starts after the index.
+     */
+    Segment segment = head;
+    long index = Math.max(headIndex, segment.base);
+
+    /*
+     * The head index may have moved on past the end of the head segment we
+     * read, so the segment must catch up before it is indexed into.
+     */
+    if (maximumAge >= 0) {
+      long size = this.size;
+      long cutoff = scheduler.now().toNanos() - maximumAge;
+      while (index < size) {
+        while (index - segment.base >= SEGMENT_SIZE)
+          segment = segment.next;
+        if (segment.timestamps[(int) (index - segment.base)] >= cutoff)
+          break;
+        index++;
+      }
+    }
+    while (index - segment.base >= SEGMENT_SIZE && segment.next != null)
+      segment = segment.next;
+
+    ReplayObservation observation = new ReplayObservation(observer, segment, index);
+    observation.onObserve();
+
+    ReplayObservation[] current;
+    ReplayObservation[] next;
+    do {
+      current = observations.get();
+      next = Arrays.copyOf(current, current.length + 1);
+      next[current.length] = observation;
+    } while (!observations.compareAndSet(current, next));
+
+    /*
+     * The observation may have been completed or cancelled before it was
+     * added, in which case it would have failed to remove itself.
+     */
+    if (observation.isDisposed())
+      cancelObservation(observation);
+    else
+      observation.drain();
+
+    return observation;
+  }
+
+  void cancelObservation(Observation observation) {
+    ReplayObservation[] current;
+    ReplayObservation[] next;
+    do {
+      current = observations.get();
+
+      int index = -1;
+      for (int i = 0; i < current.length; i++)
+        if (current[i] == observation)
+          index = i;
+      if (index < 0)
+        return;
+
+      next = Arrays.copyOf(current, current.length - 1);
+      System.arraycopy(current, index + 1, next, index, next.length - index);
+    } while (!observations.compareAndSet(current, next));
+  }
+
+  public boolean hasObservers() {
+    return observations.get().length > 0;
+  }
+
+  /**
+   * @return the number of messages which would be replayed to an observer
+   *         arriving now, disregarding expiry since the last message
+   */
+  public long getReplaySize() {
+    return size - headIndex;
+  }
+
+  private void assertLive() {
+    if (complete)
+      throw new IllegalStateException();
+  }
+
+  /**
+   * Record the given message and send it to all observers which have
+   * requested it.
+   * 
+   * @param message
+   *          the message event to send
+   * @return the receiver for method chaining
+   */
+  public synchronized ReplayObservable<M> next(M message) {
+    assertLive();
+    Objects.requireNonNull(message);
+
+    long index = size;
+    int offset = (int) (index & SEGMENT_MASK);
+    if (offset == 0 && index > 0) {
+      Segment segment = new Segment(index, maximumAge >= 0);
+      tail.next = segment;
+      tail = segment;
+    }
+
+    tail.messages[offset] = message;
+    if (maximumAge >= 0)
+      tail.timestamps[offset] = scheduler.now().toNanos();
+    size = index + 1;
+
+    trim();
+
+    for (ReplayObservation observation : observations.get())
+      observation.drain();
+    return this;
+  }
+
+  private void trim() {
+    long size = this.size;
+    long headIndex = this.headIndex;
+    Segment head = this.head;
+
+    if (size - headIndex > maximumSize)
+      headIndex = size - maximumSize;
+
+    if (maximumAge >= 0) {
+      long cutoff = scheduler.now().toNanos() - maximumAge;
+      Segment segment = head;
+      while (headIndex < size) {
+        while (headIndex - segment.base >= SEGMENT_SIZE)
+          segment = segment.next;
+        if (segment.timestamps[(int) (headIndex - segment.base)] >= cutoff)
+          break;
+        headIndex++;
+      }
+    }
+
+    while (headIndex - head.base >= SEGMENT_SIZE && head.next != null)
+      head = head.next;
+
+    this.headIndex = headIndex;
+    this.head = head;
+  }
+
+  public synchronized ReplayObservable<M> complete() {
+    assertLive();
+    complete = true;
+
+    for (ReplayObservation observation : observations.get())
+      observation.drain();
+    return this;
+  }
+
+  public synchronized ReplayObservable<M> fail(Throwable t) {
+    assertLive();
+    Objects.requireNonNull(t);
+    failure = t;
+    complete = true;
+
+    for (ReplayObservation observation : observations.get())
+      observation.drain();
+    return this;
+  }
+}
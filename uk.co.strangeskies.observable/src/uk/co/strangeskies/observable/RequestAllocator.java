@@ -40,25 +40,70 @@ import java.util.List;
 public interface RequestAllocator {
   long allocateRequests(long requestCount, List<Observation> observations);
 
+  /**
+   * Allocate requests over a heap of observations. Implementations may
+   * override this to take advantage of the ordering of the heap by pending
+   * request count, otherwise allocation is delegated to
+   * {@link #allocateRequests(long, List)} over the observations in order of
+   * insertion.
+   * 
+   * @param requestCount
+   *          the number of requests to allocate
+   * @param observations
+   *          the observations to allocate requests to
+   * @return the number of requests left unallocated
+   */
+  default long allocateRequests(long requestCount, ObservationHeap observations) {
+    return allocateRequests(requestCount, observations.getObservations());
+  }
+
+  /**
+   * Allocate a single request to each observation which has none pending,
+   * until the requests run out.
+   * 
+   * @return the balanced allocation strategy
+   */
   static RequestAllocator balanced() {
-    return (count, observations) -> {
-      if (count == Long.MAX_VALUE) {
-        observations.forEach(o -> o.request(Long.MAX_VALUE));
-
-      } else {
-        for (int i = 0; i < observations.size() && count > 0; i++) {
-          Observation observation = observations.get(i);
-          if (observation.getPendingRequestCount() == 0) {
-            observation.requestNext();
+    return new RequestAllocator() {
+      @Override
+      public long allocateRequests(long count, ObservationHeap observations) {
+        if (count == Long.MAX_VALUE) {
+          observations.requestEach(Long.MAX_VALUE);
+
+        } else {
+          while (count > 0 && observations.getLeastPendingRequestCount() == 0) {
+            observations.getLeastPending().requestNext();
             count--;
           }
         }
+
+        return count;
       }
 
-      return count;
+      @Override
+      public long allocateRequests(long count, List<Observation> observations) {
+        return balanced(count, observations);
+      }
     };
   }
 
+  private static long balanced(long count, List<Observation> observations) {
+    if (count == Long.MAX_VALUE) {
+      observations.forEach(o -> o.request(Long.MAX_VALUE));
+
+    } else {
+      for (int i = 0; i < observations.size() && count > 0; i++) {
+        Observation observation = observations.get(i);
+        if (observation.getPendingRequestCount() == 0) {
+          observation.requestNext();
+          count--;
+        }
+      }
+    }
+
+    return count;
+  }
+
   static RequestAllocator sequential() {
     return (count, observations) -> {
       observations.get(0).request(count);
@@ -66,50 +111,94 @@ public interface RequestAllocator {
     };
   }
 
+  /**
+   * Allocate requests so as to even out the number pending on each
+   * observation as far as possible.
+   * 
+   * @return the spread allocation strategy
+   */
   static RequestAllocator spread() {
-    return (count, observations) -> {
-      if (count == Long.MAX_VALUE) {
-        observations.forEach(o -> o.request(Long.MAX_VALUE));
+    return new RequestAllocator() {
+      @Override
+      public long allocateRequests(long count, ObservationHeap observations) {
+        if (count == Long.MAX_VALUE) {
+          observations.requestEach(Long.MAX_VALUE);
+          return count;
+        }
+
+        /*
+         * Raise every least-loaded observation to the level of the next all at
+         * once, or if there are not enough requests to do so divide them evenly
+         * between the least-loaded, so the cost does not depend on the count.
+         */
+        while (count > 0 && !observations.isEmpty()) {
+          long leastCount = observations.getLeastPendingRequestCount();
+          long next = observations.getLeastPendingRequestCountAbove(leastCount);
+          int ties = observations.getLeastPendingObservationCount();
+
+          long raise = next - leastCount;
+          if (raise > 0 && raise <= count / ties) {
+            observations.requestLeastPending(raise, 0);
+            count -= raise * ties;
+
+          } else {
+            observations.requestLeastPending(count / ties, (int) (count % ties));
+            count = 0;
+          }
+        }
+
         return count;
+      }
+
+      @Override
+      public long allocateRequests(long count, List<Observation> observations) {
+        return spread(count, observations);
+      }
+    };
+  }
 
-      } else {
-        observations.sort(comparing(Observation::getPendingRequestCount));
+  private static long spread(long count, List<Observation> observations) {
+    if (count == Long.MAX_VALUE) {
+      observations.forEach(o -> o.request(Long.MAX_VALUE));
+      return count;
 
-        int observationsUnderBaseline = observations.size();
-        long pendingUnderBaseline = observations
-            .stream()
-            .mapToLong(Observation::getPendingRequestCount)
-            .sum();
+    } else {
+      observations.sort(comparing(Observation::getPendingRequestCount));
 
-        long newRequestBaseline;
-        do {
-          newRequestBaseline = (pendingUnderBaseline + count) / observationsUnderBaseline;
+      int observationsUnderBaseline = observations.size();
+      long pendingUnderBaseline = observations
+          .stream()
+          .mapToLong(Observation::getPendingRequestCount)
+          .sum();
 
-          long maximumPendingRequests = observations
-              .get(observationsUnderBaseline - 1)
-              .getPendingRequestCount();
+      long newRequestBaseline;
+      do {
+        newRequestBaseline = (pendingUnderBaseline + count) / observationsUnderBaseline;
 
-          if (maximumPendingRequests > newRequestBaseline) {
-            pendingUnderBaseline -= maximumPendingRequests;
-            observationsUnderBaseline--;
-          } else {
-            break;
-          }
-        } while (true);
+        long maximumPendingRequests = observations
+            .get(observationsUnderBaseline - 1)
+            .getPendingRequestCount();
 
-        for (int i = 0; i < observationsUnderBaseline; i++) {
-          Observation observation = observations.get(i);
-          long fulfilled = newRequestBaseline - observation.getPendingRequestCount();
-          observation.request(fulfilled);
-          count -= fulfilled;
+        if (maximumPendingRequests > newRequestBaseline) {
+          pendingUnderBaseline -= maximumPendingRequests;
+          observationsUnderBaseline--;
+        } else {
+          break;
         }
+      } while (true);
 
-        for (int i = 0; i < count; i++) {
-          observations.get(i).requestNext();
-        }
+      for (int i = 0; i < observationsUnderBaseline; i++) {
+        Observation observation = observations.get(i);
+        long fulfilled = newRequestBaseline - observation.getPendingRequestCount();
+        observation.request(fulfilled);
+        count -= fulfilled;
+      }
 
-        return 0;
+      for (int i = 0; i < count; i++) {
+        observations.get(i).requestNext();
       }
-    };
+
+      return 0;
+    }
   }
 }
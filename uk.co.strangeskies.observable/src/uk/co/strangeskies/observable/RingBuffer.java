@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, preallocated, lock-free ring buffer which supports a single
+ * producer and a single consumer.
+ * <p>
+ * {@link #offer(Object)} must only be invoked from the producing thread, and
+ * {@link #poll()} and {@link #clear()} must only be invoked from the consuming
+ * thread, or otherwise be externally serialized. The two sides may operate
+ * concurrently with one another.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          the type of the buffered elements
+ */
+class RingBuffer<T> {
+  private final Object[] elements;
+  private final int mask;
+  private final int capacity;
+
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  public RingBuffer(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("Capacity must be positive " + capacity);
+
+    int length = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    if (length <= 0)
+      throw new IllegalArgumentException("Capacity too large " + capacity);
+
+    this.elements = new Object[length];
+    this.mask = length - 1;
+    this.capacity = capacity;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  public boolean isEmpty() {
+    return head.get() == tail.get();
+  }
+
+  public boolean offer(T element) {
+    long tail = this.tail.get();
+    if (tail - head.get() >= capacity)
+      return false;
+
+    elements[(int) tail & mask] = element;
+    this.tail.lazySet(tail + 1);
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  public T poll() {
+    long head = this.head.get();
+    if (head == tail.get())
+      return null;
+
+    int index = (int) head & mask;
+    T element = (T) elements[index];
+    elements[index] = null;
+    this.head.lazySet(head + 1);
+    return element;
+  }
+
+  public void clear() {
+    while (poll() != null) {}
+  }
+}
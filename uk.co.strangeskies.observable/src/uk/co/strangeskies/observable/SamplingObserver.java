@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * An observer which periodically forwards the most recent message received
+ * since the previous period, if any.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class SamplingObserver<M> extends TimedObserver<M, M> {
+  private final Duration period;
+  private M latest;
+
+  public SamplingObserver(Observer<? super M> downstreamObserver, Duration period) {
+    this(downstreamObserver, period, Scheduler.shared());
+  }
+
+  public SamplingObserver(
+      Observer<? super M> downstreamObserver,
+      Duration period,
+      Scheduler scheduler) {
+    super(downstreamObserver, scheduler);
+    this.period = requireNonNull(period);
+  }
+
+  @Override
+  protected void onStart() {
+    setTimer(getScheduler().schedulePeriodically(this::sample, period, period));
+  }
+
+  @Override
+  public synchronized void onNext(M message) {
+    latest = message;
+  }
+
+  private synchronized void sample() {
+    if (!isTerminated())
+      flush();
+  }
+
+  @Override
+  protected void flush() {
+    if (latest != null) {
+      M message = latest;
+      latest = null;
+      getDownstreamObserver().onNext(message);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * A source of timed events for time-based operations over observables, such
+ * as {@link Observable#sample(Duration)} and {@link Observable#debounce(Duration)}.
+ * <p>
+ * Scheduled actions should be short-lived, as implementations may run many
+ * actions on a single thread. Expensive downstream work should be moved to
+ * another thread, e.g. by {@link Observable#executeOn(java.util.concurrent.Executor)}.
+ * 
+ * @author Elias N Vasylenko
+ */
+public interface Scheduler {
+  /**
+   * @return the current time of the scheduler's clock, measured from an
+   *         arbitrary origin, so it is only meaningful for measuring elapsed
+   *         time
+   */
+  Duration now();
+
+  /**
+   * Schedule an action to be run once after the given delay.
+   * 
+   * @param action
+   *          the action to run
+   * @param delay
+   *          the delay after which to run the action
+   * @return a disposable which prevents the action from running if it has not
+   *         already started
+   */
+  Disposable schedule(Runnable action, Duration delay);
+
+  /**
+   * Schedule an action to be run repeatedly with the given period, starting
+   * after the given delay.
+   * 
+   * @param action
+   *          the action to run
+   * @param initialDelay
+   *          the delay after which to first run the action
+   * @param period
+   *          the period between subsequent runs
+   * @return a disposable which prevents the action from running again
+   */
+  Disposable schedulePeriodically(Runnable action, Duration initialDelay, Duration period);
+
+  /**
+   * @return a scheduler shared between all users, backed by a single daemon
+   *         thread
+   */
+  static Scheduler shared() {
+    return ExecutorScheduler.SHARED;
+  }
+
+  /**
+   * @param executor
+   *          the executor on which to run scheduled actions
+   * @return a scheduler over the given executor
+   */
+  static Scheduler over(ScheduledExecutorService executor) {
+    return new ExecutorScheduler(executor);
+  }
+}
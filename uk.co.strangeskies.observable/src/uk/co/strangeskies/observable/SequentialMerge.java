@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The downstream observation of {@link ParallelObservable#sequential(int)},
+ * which merges the rails of a parallel observable back into a single
+ * observer.
+ * <p>
+ * Each rail is buffered in its own single-producer single-consumer queue, and
+ * at most one thread at a time drains the queues in turn to the downstream
+ * observer. Failure of any rail, or of the downstream observer, cancels every
+ * rail and is delivered immediately, discarding any buffered messages.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+class SequentialMerge<M> implements Observation {
+  private class RailObserver implements Observer<M> {
+    private final RingBuffer<M> queue = new RingBuffer<>(prefetch);
+    private volatile Observation observation;
+    private volatile boolean complete;
+    private int consumed;
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+      if (cancelled)
+        observation.cancel();
+      else
+        observation.request(prefetch);
+    }
+
+    @Override
+    public void onNext(M message) {
+      if (!queue.offer(message))
+        failure.compareAndSet(null, new UnexpectedMessageException(message));
+      scheduleDrain();
+    }
+
+    @Override
+    public void onComplete() {
+      complete = true;
+      completedRails.incrementAndGet();
+      scheduleDrain();
+    }
+
+    @Override
+    public void onFail(Throwable t) {
+      failure.compareAndSet(null, t);
+      scheduleDrain();
+    }
+
+    void consumed() {
+      if (++consumed == replenishSize) {
+        consumed = 0;
+        if (!complete)
+          observation.request(replenishSize);
+      }
+    }
+
+    void cancel() {
+      Observation observation = this.observation;
+      if (observation != null)
+        observation.cancel();
+    }
+  }
+
+  private final Observer<? super M> downstreamObserver;
+  private final int prefetch;
+  private final int replenishSize;
+  private final List<RailObserver> rails;
+  private int nextRail;
+
+  private volatile Disposable upstream;
+  private final AtomicLong outstandingRequests = new AtomicLong();
+  private final AtomicInteger drainCount = new AtomicInteger();
+  private final AtomicInteger completedRails = new AtomicInteger();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private volatile boolean cancelled;
+
+  public SequentialMerge(Observer<? super M> downstreamObserver, int parallelism, int prefetch) {
+    this.downstreamObserver = requireNonNull(downstreamObserver);
+    this.prefetch = prefetch;
+    this.replenishSize = prefetch - (prefetch >> 2);
+
+    this.rails = new ArrayList<>(parallelism);
+    for (int i = 0; i < parallelism; i++)
+      rails.add(new RailObserver());
+  }
+
+  public List<? extends Observer<M>> getRailObservers() {
+    return rails;
+  }
+
+  void setUpstream(Disposable upstream) {
+    this.upstream = upstream;
+    if (cancelled)
+      upstream.cancel();
+  }
+
+  @Override
+  public void request(long count) {
+    if (count < 0)
+      throw new IllegalArgumentException("Must request a positive number of messages " + count);
+
+    long requests;
+    long newRequests;
+    do {
+      requests = outstandingRequests.get();
+      if (requests == Long.MAX_VALUE)
+        break;
+
+      newRequests = requests + count;
+      if (newRequests < 0)
+        newRequests = Long.MAX_VALUE;
+    } while (!outstandingRequests.compareAndSet(requests, newRequests));
+
+    scheduleDrain();
+  }
+
+  @Override
+  public void cancel() {
+    if (!cancelled) {
+      cancelled = true;
+      cancelRails();
+      scheduleDrain();
+    }
+  }
+
+  private void cancelRails() {
+    Disposable upstream = this.upstream;
+    if (upstream != null)
+      upstream.cancel();
+    for (RailObserver rail : rails)
+      rail.cancel();
+  }
+
+  @Override
+  public long getPendingRequestCount() {
+    return outstandingRequests.get();
+  }
+
+  private void scheduleDrain() {
+    if (drainCount.getAndIncrement() == 0)
+      drain();
+  }
+
+  private void drain() {
+    int missed = 1;
+    do {
+      long requests = outstandingRequests.get();
+      long fulfilled = 0;
+
+      while (!cancelled) {
+        Throwable failure = this.failure.get();
+        if (failure != null) {
+          fail(failure);
+          break;
+        }
+
+        boolean complete = completedRails.get() == rails.size();
+        M message = fulfilled == requests ? null : poll();
+
+        if (message == null) {
+          if (complete && isEmpty()) {
+            cancelled = true;
+            downstreamObserver.onComplete();
+          }
+          break;
+        }
+
+        try {
+          downstreamObserver.onNext(message);
+        } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+          cancelled = true;
+          cancelRails();
+          throw t;
+        } catch (Throwable t) {
+          fail(t);
+          break;
+        }
+        fulfilled++;
+      }
+
+      if (cancelled)
+        for (RailObserver rail : rails)
+          rail.queue.clear();
+
+      if (fulfilled > 0 && requests != Long.MAX_VALUE)
+        outstandingRequests.addAndGet(-fulfilled);
+
+      missed = drainCount.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void fail(Throwable t) {
+    cancelled = true;
+    cancelRails();
+    try {
+      downstreamObserver.onFail(t);
+    } catch (Throwable u) {
+      t.addSuppressed(u);
+      currentThread().getUncaughtExceptionHandler().uncaughtException(currentThread(), t);
+    }
+  }
+
+  private M poll() {
+    int size = rails.size();
+    for (int i = 0; i < size; i++) {
+      RailObserver rail = rails.get(nextRail);
+      if (++nextRail == size)
+        nextRail = 0;
+
+      M message = rail.queue.poll();
+      if (message != null) {
+        rail.consumed();
+        return message;
+      }
+    }
+    return null;
+  }
+
+  private boolean isEmpty() {
+    for (RailObserver rail : rails)
+      if (!rail.queue.isEmpty())
+        return false;
+    return true;
+  }
+}
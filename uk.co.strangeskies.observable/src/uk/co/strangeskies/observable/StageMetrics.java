@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics recorded for a single observation of an
+ * {@link Observable#instrument(String) instrumented} stage of a pipeline.
+ * <p>
+ * A stage is a point between two operators. Messages are counted in when they
+ * arrive at the stage from upstream, and counted out when the downstream
+ * observer returns from processing them, with the time between recorded as the
+ * latency. The latency of the operators between two stages, and the messages
+ * they drop, may be found by comparing the metrics of those stages.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class StageMetrics {
+  private final long id;
+  private final String name;
+  private final StageMetrics downstream;
+
+  private final LongAdder messagesIn = new LongAdder();
+  private final LongAdder messagesOut = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  private volatile Observation observation;
+  private final AtomicBoolean terminated = new AtomicBoolean();
+  private boolean reported;
+
+  StageMetrics(long id, String name, StageMetrics downstream) {
+    this.id = id;
+    this.name = requireNonNull(name);
+    this.downstream = downstream;
+  }
+
+  /**
+   * @return a number uniquely identifying this stage amongst those observed
+   *         since instrumentation was first enabled
+   */
+  public long getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the nearest instrumented stage downstream of this one in the same
+   *         pipeline, or null if there is none or it could not be determined
+   */
+  public StageMetrics getDownstream() {
+    return downstream;
+  }
+
+  public long getMessagesIn() {
+    return messagesIn.sum();
+  }
+
+  public long getMessagesOut() {
+    return messagesOut.sum();
+  }
+
+  /**
+   * @return the latencies of delivery of messages to the downstream observer
+   */
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  /**
+   * @return the number of messages requested of the upstream observation which
+   *         have not yet arrived at this stage, which may be
+   *         {@link Long#MAX_VALUE} if the request is unbounded
+   */
+  public long getOutstandingDemand() {
+    Observation observation = this.observation;
+    return observation == null ? 0 : observation.getPendingRequestCount();
+  }
+
+  /**
+   * The number of messages which have left this stage without yet arriving at
+   * the downstream stage. Where the two stages are separated by an asynchronous
+   * boundary, such as {@link Observable#executeOn(java.util.concurrent.Executor)
+   * executeOn}, this is the depth of the queue at that boundary. Messages which
+   * are dropped between the stages, for example by a filter, are also counted.
+   * 
+   * @return the number of messages between this stage and the next, or 0 if
+   *         there is no downstream stage
+   */
+  public long getQueueDepth() {
+    if (downstream == null)
+      return 0;
+    return Math.max(0, getMessagesOut() - downstream.getMessagesIn());
+  }
+
+  public boolean isTerminated() {
+    return terminated.get();
+  }
+
+  void observe(Observation observation) {
+    this.observation = observation;
+  }
+
+  void messageIn() {
+    messagesIn.increment();
+  }
+
+  void messageOut(long latency) {
+    messagesOut.increment();
+    this.latency.record(latency);
+  }
+
+  boolean terminate() {
+    return terminated.compareAndSet(false, true);
+  }
+
+  /*
+   * Whether the start of the stage has been reported to a sink, guarded by the
+   * monitor of the stage.
+   */
+  boolean isReported() {
+    return reported;
+  }
+
+  void setReported() {
+    reported = true;
+  }
+
+  @Override
+  public String toString() {
+    return name + "#" + id;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An observer which collects messages into lists, forwarding each list at the
+ * end of every timespan, or as soon as it reaches the maximum count if that
+ * comes first. Empty lists are not forwarded. Upon completion the partial list,
+ * if any, is forwarded immediately.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class TimedBufferingObserver<M> extends TimedObserver<M, List<M>> {
+  private static final int MAXIMUM_INITIAL_CAPACITY = 16;
+
+  private final Duration timespan;
+  private final int maximumCount;
+  private List<M> buffer;
+
+  public TimedBufferingObserver(
+      Observer<? super List<M>> downstreamObserver,
+      Duration timespan,
+      int maximumCount) {
+    this(downstreamObserver, timespan, maximumCount, Scheduler.shared());
+  }
+
+  public TimedBufferingObserver(
+      Observer<? super List<M>> downstreamObserver,
+      Duration timespan,
+      int maximumCount,
+      Scheduler scheduler) {
+    super(downstreamObserver, scheduler);
+    if (maximumCount <= 0)
+      throw new IllegalArgumentException("Maximum count must be positive " + maximumCount);
+
+    this.timespan = requireNonNull(timespan);
+    this.maximumCount = maximumCount;
+    this.buffer = createBuffer();
+  }
+
+  private List<M> createBuffer() {
+    return new ArrayList<>(Math.min(maximumCount, MAXIMUM_INITIAL_CAPACITY));
+  }
+
+  @Override
+  protected void onStart() {
+    setTimer(getScheduler().schedulePeriodically(this::timeout, timespan, timespan));
+  }
+
+  @Override
+  public synchronized void onNext(M message) {
+    if (!isTerminated()) {
+      buffer.add(message);
+      if (buffer.size() >= maximumCount)
+        flush();
+    }
+  }
+
+  private synchronized void timeout() {
+    if (!isTerminated())
+      flush();
+  }
+
+  @Override
+  protected void flush() {
+    if (!buffer.isEmpty()) {
+      List<M> messages = buffer;
+      buffer = createBuffer();
+      getDownstreamObserver().onNext(messages);
+    }
+  }
+}
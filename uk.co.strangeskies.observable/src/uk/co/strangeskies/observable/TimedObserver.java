@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A partial implementation of a passthrough observer whose messages are
+ * emitted according to events scheduled on a {@link Scheduler}.
+ * <p>
+ * Messages from upstream and events from the scheduler may arrive on
+ * different threads, so all state is guarded by the observer's monitor, and
+ * downstream messages are sent while holding it. At most one scheduled task is
+ * held at a time, and it is cancelled upon completion, failure, or
+ * cancellation.
+ * <p>
+ * Time-based operations do not support backpressure; an unbounded request is
+ * made upstream, and downstream requests are passed straight through.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type of the upstream observable
+ * @param <U>
+ *          The message type of the downstream observer
+ */
+public abstract class TimedObserver<T, U> extends PassthroughObserver<T, U> {
+  private final Scheduler scheduler;
+  private Disposable timer;
+  private boolean terminated;
+
+  public TimedObserver(Observer<? super U> downstreamObserver, Scheduler scheduler) {
+    super(downstreamObserver);
+    this.scheduler = requireNonNull(scheduler);
+  }
+
+  protected Scheduler getScheduler() {
+    return scheduler;
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    super.onObserve(new Observation() {
+      @Override
+      public void request(long count) {
+        observation.request(count);
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return observation.getPendingRequestCount();
+      }
+
+      @Override
+      public void cancel() {
+        synchronized (TimedObserver.this) {
+          terminate();
+        }
+        observation.cancel();
+      }
+    });
+
+    synchronized (this) {
+      if (!terminated)
+        onStart();
+    }
+
+    observation.requestUnbounded();
+  }
+
+  /**
+   * Invoked once downstream has been notified of the observation, while
+   * holding the observer's monitor.
+   */
+  protected abstract void onStart();
+
+  /**
+   * Invoked upon completion of the upstream observable, while holding the
+   * observer's monitor, to send any messages still held.
+   */
+  protected void flush() {}
+
+  /**
+   * Invoked upon failure of the upstream observable, while holding the
+   * observer's monitor, to discard any messages still held.
+   * 
+   * @param t
+   *          the cause of the failure
+   */
+  protected void discard(Throwable t) {}
+
+  /**
+   * Replace the current scheduled task, cancelling the previous one. Must be
+   * invoked while holding the observer's monitor.
+   * 
+   * @param timer
+   *          the new scheduled task
+   */
+  protected void setTimer(Disposable timer) {
+    if (this.timer != null)
+      this.timer.cancel();
+    this.timer = timer;
+  }
+
+  /**
+   * @return true if the observation has completed, failed, or been cancelled,
+   *         in which case scheduled events should be ignored
+   */
+  protected boolean isTerminated() {
+    return terminated;
+  }
+
+  private void terminate() {
+    terminated = true;
+    setTimer(null);
+  }
+
+  @Override
+  public synchronized void onComplete() {
+    if (!terminated) {
+      terminate();
+      flush();
+      super.onComplete();
+    }
+  }
+
+  @Override
+  public synchronized void onFail(Throwable t) {
+    if (!terminated) {
+      terminate();
+      discard(t);
+      super.onFail(t);
+    }
+  }
+}
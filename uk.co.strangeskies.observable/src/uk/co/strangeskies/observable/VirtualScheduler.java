@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Comparator.comparing;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.PriorityQueue;
+
+/**
+ * A {@link Scheduler} over a virtual clock, which advances only when
+ * explicitly instructed to. This allows time-based operations to be tested
+ * deterministically.
+ * <p>
+ * Scheduled actions are run on the thread which {@link #advance(Duration)
+ * advances} the clock, in order of their scheduled time, with actions
+ * scheduled for the same time being run in the order they were scheduled.
+ * 
+ * @author Elias N Vasylenko
+ */
+public class VirtualScheduler implements Scheduler {
+  private class Task implements Disposable {
+    private final Runnable action;
+    private final long period;
+    private final long sequence;
+    private long time;
+    private volatile boolean cancelled;
+
+    Task(Runnable action, long time, long period) {
+      this.action = requireNonNull(action);
+      this.time = time;
+      this.period = period;
+      this.sequence = taskCount++;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      synchronized (VirtualScheduler.this) {
+        tasks.remove(this);
+      }
+    }
+  }
+
+  private final PriorityQueue<Task> tasks = new PriorityQueue<>(
+      comparing((Task t) -> t.time).thenComparing(t -> t.sequence));
+  private long taskCount;
+  private long now;
+
+  /**
+   * @return the time elapsed on the virtual clock since the scheduler was
+   *         created
+   */
+  @Override
+  public synchronized Duration now() {
+    return Duration.ofNanos(now);
+  }
+
+  @Override
+  public synchronized Disposable schedule(Runnable action, Duration delay) {
+    Task task = new Task(action, now + delay.toNanos(), 0);
+    tasks.add(task);
+    return task;
+  }
+
+  @Override
+  public synchronized Disposable schedulePeriodically(
+      Runnable action,
+      Duration initialDelay,
+      Duration period) {
+    if (period.isNegative() || period.isZero())
+      throw new IllegalArgumentException("Period must be positive " + period);
+
+    Task task = new Task(action, now + initialDelay.toNanos(), period.toNanos());
+    tasks.add(task);
+    return task;
+  }
+
+  /**
+   * Advance the virtual clock by the given duration, running each action which
+   * becomes due in order.
+   * 
+   * @param duration
+   *          the amount of time to advance the clock
+   */
+  public void advance(Duration duration) {
+    long target;
+    synchronized (this) {
+      target = now + duration.toNanos();
+    }
+
+    while (true) {
+      Task task;
+      synchronized (this) {
+        task = tasks.peek();
+        if (task == null || task.time > target) {
+          now = target;
+          return;
+        }
+        tasks.poll();
+        now = task.time;
+      }
+
+      if (!task.cancelled) {
+        task.action.run();
+
+        if (task.period > 0 && !task.cancelled) {
+          synchronized (this) {
+            task.time += task.period;
+            tasks.add(task);
+          }
+        }
+      }
+    }
+  }
+}
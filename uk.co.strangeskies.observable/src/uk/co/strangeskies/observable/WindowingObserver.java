@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * An observer which splits messages into consecutive windows of the given
+ * timespan, forwarding each window as a {@link HotObservable} when it opens.
+ * <p>
+ * Like any hot observable, a window only forwards messages to observers which
+ * are already attached, so it should be observed as soon as it is received.
+ * Windows do not support backpressure.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type
+ */
+public class WindowingObserver<M> extends TimedObserver<M, Observable<M>> {
+  private final Duration timespan;
+  private HotObservable<M> window;
+
+  public WindowingObserver(Observer<? super Observable<M>> downstreamObserver, Duration timespan) {
+    this(downstreamObserver, timespan, Scheduler.shared());
+  }
+
+  public WindowingObserver(
+      Observer<? super Observable<M>> downstreamObserver,
+      Duration timespan,
+      Scheduler scheduler) {
+    super(downstreamObserver, scheduler);
+    this.timespan = requireNonNull(timespan);
+  }
+
+  @Override
+  protected void onStart() {
+    openWindow();
+    setTimer(getScheduler().schedulePeriodically(this::nextWindow, timespan, timespan));
+  }
+
+  private void openWindow() {
+    window = new HotObservable<>();
+    getDownstreamObserver().onNext(window);
+  }
+
+  private synchronized void nextWindow() {
+    if (!isTerminated()) {
+      window.complete();
+      openWindow();
+    }
+  }
+
+  @Override
+  public synchronized void onNext(M message) {
+    if (!isTerminated())
+      window.next(message);
+  }
+
+  @Override
+  protected void flush() {
+    window.complete();
+  }
+
+  @Override
+  protected void discard(Throwable t) {
+    window.fail(t);
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * Combines each upstream message with the latest message from another
+ * observable.
+ * <p>
+ * Requests from downstream are passed through to the upstream observation,
+ * and an unbounded request is made of the other observable. Upstream messages
+ * which arrive before the other observable has sent a message are dropped, and
+ * another message requested in their place.
+ * <p>
+ * Failure of the other observable is delivered downstream and cancels the
+ * upstream observation. Since it may arrive concurrently with an upstream
+ * message, delivery is serialized by a counter rather than a lock. Failure of
+ * the combiner is delivered downstream and cancels both observations.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <M>
+ *          The message type of the upstream observable
+ * @param <U>
+ *          The message type of the other observable
+ * @param <R>
+ *          The message type of the downstream observer
+ */
+public class WithLatestFromObserver<M, U, R> extends PassthroughObserver<M, R> {
+  private final Observable<? extends U> other;
+  private final BiFunction<? super M, ? super U, ? extends R> combiner;
+
+  private volatile U latest;
+  private volatile Observation otherObservation;
+  private volatile boolean cancelled;
+  private volatile boolean downstreamObserved;
+
+  private final AtomicInteger deliveryCount = new AtomicInteger();
+  private final AtomicReference<Throwable> otherFailure = new AtomicReference<>();
+
+  public WithLatestFromObserver(
+      Observer<? super R> downstreamObserver,
+      Observable<? extends U> other,
+      BiFunction<? super M, ? super U, ? extends R> combiner) {
+    super(downstreamObserver);
+    this.other = requireNonNull(other);
+    this.combiner = requireNonNull(combiner);
+  }
+
+  @Override
+  public void onObserve(Observation observation) {
+    initializeObservation(observation);
+
+    other.observe(new Observer<U>() {
+      @Override
+      public void onObserve(Observation observation) {
+        otherObservation = observation;
+        if (cancelled)
+          observation.cancel();
+        else
+          observation.requestUnbounded();
+      }
+
+      @Override
+      public void onNext(U message) {
+        latest = message;
+      }
+
+      @Override
+      public void onFail(Throwable t) {
+        failOther(t);
+      }
+    });
+
+    getDownstreamObserver().onObserve(new Observation() {
+      @Override
+      public void cancel() {
+        observation.cancel();
+        cancelOther();
+      }
+
+      @Override
+      public void request(long count) {
+        observation.request(count);
+      }
+
+      @Override
+      public long getPendingRequestCount() {
+        return observation.getPendingRequestCount();
+      }
+    });
+
+    downstreamObserved = true;
+    if (otherFailure.get() != null)
+      deliverOtherFailure();
+  }
+
+  private void cancelOther() {
+    cancelled = true;
+    Observation otherObservation = this.otherObservation;
+    if (otherObservation != null)
+      otherObservation.cancel();
+  }
+
+  private void failOther(Throwable t) {
+    if (otherFailure.compareAndSet(null, t)) {
+      getObservation().cancel();
+      if (downstreamObserved)
+        deliverOtherFailure();
+    }
+  }
+
+  private void deliverOtherFailure() {
+    if (deliveryCount.getAndIncrement() == 0)
+      getDownstreamObserver().onFail(otherFailure.get());
+  }
+
+  @Override
+  public void onNext(M message) {
+    U latest = this.latest;
+    if (latest == null) {
+      getObservation().requestNext();
+
+    } else if (deliveryCount.get() == 0 && deliveryCount.compareAndSet(0, 1)) {
+      Throwable failure = null;
+      try {
+        getDownstreamObserver().onNext(combiner.apply(message, latest));
+      } catch (VirtualMachineError | ThreadDeath | LinkageError t) {
+        getObservation().cancel();
+        cancelOther();
+        throw t;
+      } catch (Throwable t) {
+        failure = t;
+      } finally {
+        if (deliveryCount.decrementAndGet() != 0)
+          getDownstreamObserver().onFail(otherFailure.get());
+      }
+
+      if (failure != null) {
+        getObservation().cancel();
+        onFail(failure);
+      }
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    cancelOther();
+    if (deliveryCount.getAndIncrement() == 0)
+      getDownstreamObserver().onComplete();
+  }
+
+  @Override
+  public void onFail(Throwable t) {
+    cancelOther();
+    if (deliveryCount.getAndIncrement() == 0)
+      getDownstreamObserver().onFail(t);
+  }
+}
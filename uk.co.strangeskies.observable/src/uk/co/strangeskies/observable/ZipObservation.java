@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The downstream observation of {@link Observable#zip(java.util.Collection,
+ * Function, int) zip}, which combines the messages of each source by position.
+ * 
+ * @author Elias N Vasylenko
+ *
+ * @param <T>
+ *          The message type of the sources
+ * @param <M>
+ *          The message type of the combination
+ */
+class ZipObservation<T, M> extends CombiningObservation<T, M> {
+  private final Function<? super List<T>, ? extends M> combiner;
+
+  public ZipObservation(
+      Observer<? super M> downstreamObserver,
+      List<? extends Observable<? extends T>> sources,
+      Function<? super List<T>, ? extends M> combiner,
+      int prefetch) {
+    super(downstreamObserver, sources, prefetch);
+    this.combiner = requireNonNull(combiner);
+  }
+
+  @Override
+  protected long emit(long requests) {
+    List<SourceObserver> sources = getSourceObservers();
+    if (sources.isEmpty())
+      return 0;
+
+    long fulfilled = 0;
+    while (fulfilled < requests && !isInterrupted()) {
+      for (SourceObserver source : sources)
+        if (source.isEmpty())
+          return fulfilled;
+
+      @SuppressWarnings("unchecked")
+      T[] messages = (T[]) new Object[sources.size()];
+      for (int i = 0; i < messages.length; i++)
+        messages[i] = sources.get(i).poll();
+
+      onNext(combiner.apply(Arrays.asList(messages)));
+      fulfilled++;
+    }
+    return fulfilled;
+  }
+
+  @Override
+  protected boolean isComplete() {
+    List<SourceObserver> sources = getSourceObservers();
+    if (sources.isEmpty())
+      return true;
+
+    for (SourceObserver source : sources)
+      if (source.isDone())
+        return true;
+    return false;
+  }
+}
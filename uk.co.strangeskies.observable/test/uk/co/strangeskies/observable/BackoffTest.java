@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class BackoffTest {
+  @Test
+  public void fixedDelay() {
+    Backoff backoff = Backoff.fixed(ofMillis(100));
+
+    assertThat(backoff.getDelay(1), equalTo(ofMillis(100)));
+    assertThat(backoff.getDelay(10), equalTo(ofMillis(100)));
+  }
+
+  @Test
+  public void exponentialDelay() {
+    Backoff backoff = Backoff.exponential(ofMillis(100));
+
+    assertThat(backoff.getDelay(1), equalTo(ofMillis(100)));
+    assertThat(backoff.getDelay(2), equalTo(ofMillis(200)));
+    assertThat(backoff.getDelay(4), equalTo(ofMillis(800)));
+  }
+
+  @Test
+  public void exponentialDelayWithMultiplier() {
+    Backoff backoff = Backoff.exponential(ofMillis(100)).withMultiplier(3);
+
+    assertThat(backoff.getDelay(3), equalTo(ofMillis(900)));
+  }
+
+  @Test
+  public void maximumDelay() {
+    Backoff backoff = Backoff.exponential(ofMillis(100)).withMaximumDelay(ofSeconds(1));
+
+    assertThat(backoff.getDelay(4), equalTo(ofMillis(800)));
+    assertThat(backoff.getDelay(5), equalTo(ofSeconds(1)));
+    assertThat(backoff.getDelay(1000), equalTo(ofSeconds(1)));
+  }
+
+  @Test
+  public void delayDoesNotOverflow() {
+    Backoff backoff = Backoff.exponential(ofSeconds(1));
+
+    assertThat(backoff.getDelay(1000), equalTo(Duration.ofNanos(Long.MAX_VALUE)));
+  }
+
+  @Test
+  public void jitterReducesDelay() {
+    Backoff backoff = Backoff.fixed(ofMillis(100)).withJitter(0.5);
+
+    for (int i = 0; i < 100; i++) {
+      Duration delay = backoff.getJitteredDelay(1);
+      assertTrue(delay.compareTo(ofMillis(50)) >= 0);
+      assertTrue(delay.compareTo(ofMillis(100)) <= 0);
+    }
+  }
+
+  @Test
+  public void maximumAttempts() {
+    Backoff backoff = Backoff.fixed(ofMillis(100)).withMaximumAttempts(2);
+
+    assertThat(backoff.isPermitted(2), equalTo(true));
+    assertThat(backoff.isPermitted(3), equalTo(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void jitterOutOfRangeThrows() {
+    Backoff.fixed(ofMillis(100)).withJitter(1.5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void multiplierBelowOneThrows() {
+    Backoff.exponential(ofMillis(100)).withMultiplier(0.5);
+  }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static uk.co.strangeskies.observable.BufferOverflowPolicy.BLOCK;
+import static uk.co.strangeskies.observable.BufferOverflowPolicy.DROP_NEWEST;
+import static uk.co.strangeskies.observable.BufferOverflowPolicy.DROP_OLDEST;
+import static uk.co.strangeskies.observable.BufferOverflowPolicy.FAIL;
+
+import org.junit.Test;
+
+import mockit.Expectations;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.VerificationsInOrder;
+
+@SuppressWarnings("javadoc")
+public class BackpressureBufferingObserverTest {
+  @Injectable
+  Observation upstreamObservation;
+
+  @Injectable
+  Observer<String> downstreamObserver;
+
+  @Test
+  public void bufferWithoutRequest() {
+    Observer<String> test = new BackpressureBufferingObserver<>(downstreamObserver, 4, FAIL);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onNext("message2");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void requestBufferedMessages() {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        4,
+        FAIL);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onNext("message2");
+    test.onNext("message3");
+    test.getObservation().request(2);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("message1");
+        downstreamObserver.onNext("message2");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void requestBeforeMessages() {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        4,
+        FAIL);
+
+    test.onObserve(upstreamObservation);
+    test.getObservation().request(1);
+    test.onNext("message1");
+    test.onNext("message2");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("message1");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void completeAfterBufferedMessages() {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        4,
+        FAIL);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onComplete();
+    test.getObservation().request(1);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("message1");
+        downstreamObserver.onComplete();
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void failDiscardsBufferedMessages() {
+    Throwable failure = new Throwable();
+
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        4,
+        FAIL);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onFail(failure);
+    test.getObservation().request(1);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onFail(failure);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void overflowWithDropNewest() {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        2,
+        DROP_NEWEST);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onNext("message2");
+    test.onNext("message3");
+    test.getObservation().request(3);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("message1");
+        downstreamObserver.onNext("message2");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void overflowWithDropOldest() {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        2,
+        DROP_OLDEST);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onNext("message2");
+    test.onNext("message3");
+    test.getObservation().request(3);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("message2");
+        downstreamObserver.onNext("message3");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test(timeout = 5000)
+  public void overflowWithBlock() throws InterruptedException {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        1,
+        BLOCK);
+
+    test.onObserve(upstreamObservation);
+    Thread producer = new Thread(() -> {
+      test.onNext("message1");
+      test.onNext("message2");
+    });
+    producer.start();
+
+    while (producer.getState() != Thread.State.WAITING)
+      Thread.sleep(1);
+    test.getObservation().request(2);
+    producer.join();
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("message1");
+        downstreamObserver.onNext("message2");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test(timeout = 5000)
+  public void cancelReleasesBlockedProducer() throws InterruptedException {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        1,
+        BLOCK);
+
+    test.onObserve(upstreamObservation);
+    Thread producer = new Thread(() -> {
+      test.onNext("message1");
+      test.onNext("message2");
+    });
+    producer.start();
+
+    while (producer.getState() != Thread.State.WAITING)
+      Thread.sleep(1);
+    test.getObservation().cancel();
+    producer.join();
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        upstreamObservation.cancel();
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void downstreamFailureIsDelivered() {
+    RuntimeException failure = new RuntimeException();
+    new Expectations() {
+      {
+        downstreamObserver.onNext("message1");
+        result = failure;
+      }
+    };
+
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        4,
+        FAIL);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onNext("message2");
+    test.getObservation().request(2);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("message1");
+        upstreamObservation.cancel();
+        downstreamObserver.onFail(failure);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void overflowWithFail() {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        1,
+        FAIL);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onNext("message2");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        upstreamObservation.cancel();
+        downstreamObserver.onFail((BufferOverflowException) any);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void cancelDiscardsBufferedMessages() {
+    PassthroughObserver<String, String> test = new BackpressureBufferingObserver<>(
+        downstreamObserver,
+        4,
+        FAIL);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.getObservation().cancel();
+    test.getObservation().request(1);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        upstreamObservation.cancel();
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacityTest() {
+    new BackpressureBufferingObserver<>(downstreamObserver, 0, FAIL);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullOverflowPolicyTest() {
+    new BackpressureBufferingObserver<>(downstreamObserver, 1, null);
+  }
+}
@@ -42,6 +42,7 @@ import org.junit.Test;
 import mockit.Expectations;
 import mockit.FullVerifications;
 import mockit.Injectable;
+import mockit.Verifications;
 import mockit.VerificationsInOrder;
 
 @SuppressWarnings("javadoc")
@@ -176,4 +177,26 @@ public class BalancedRequestAllocatorTest {
       }
     };
   }
+
+  @Test
+  public void allocateOverHeapWhenSomeArePendingTest() {
+    ObservationHeap heap = new ObservationHeap();
+    heap.add(firstObservation).request(1);
+    heap.add(secondObservation);
+    heap.add(thirdObservation);
+
+    long remaining = balanced.allocateRequests(3, heap);
+
+    assertThat(remaining, equalTo(1l));
+    assertThat(heap.getPendingRequestCount(), equalTo(3l));
+
+    new Verifications() {
+      {
+        firstObservation.request(1);
+        secondObservation.request(1);
+        thirdObservation.request(1);
+      }
+    };
+    new FullVerifications() {};
+  }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import mockit.Expectations;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.VerificationsInOrder;
+
+@SuppressWarnings("javadoc")
+public class BatchingExecutorObserverTest {
+  interface MockObserver<T> extends Observer<T> {}
+
+  interface MockObservation extends Observation {}
+
+  @Injectable
+  MockObservation upstreamObservation;
+
+  @Injectable
+  MockObserver<String> downstreamObserver;
+
+  @Test
+  public void observeRequestsBatchTest() {
+    SafeObserver<String> test = new BatchingExecutorObserver<>(
+        downstreamObserver,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.request(4);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void messageWithoutRequestTest() {
+    SafeObserver<String> test = new BatchingExecutorObserver<>(
+        downstreamObserver,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.request(4);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void messagesInOrderOnRequestTest() {
+    SafeObserver<String> test = new BatchingExecutorObserver<>(
+        downstreamObserver,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onNext("message2");
+    test.getObservation().request(2);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.request(4);
+        downstreamObserver.onNext("message1");
+        downstreamObserver.onNext("message2");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void replenishBatchTest() {
+    SafeObserver<String> test = new BatchingExecutorObserver<>(
+        downstreamObserver,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+    test.getObservation().requestUnbounded();
+    test.onNext("message1");
+    test.onNext("message2");
+    test.onNext("message3");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.request(4);
+        downstreamObserver.onNext("message1");
+        downstreamObserver.onNext("message2");
+        downstreamObserver.onNext("message3");
+        upstreamObservation.request(3);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void completeAfterQueuedMessagesTest() {
+    SafeObserver<String> test = new BatchingExecutorObserver<>(
+        downstreamObserver,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message");
+    test.onComplete();
+    test.getObservation().requestNext();
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.request(4);
+        downstreamObserver.onNext("message");
+        downstreamObserver.onComplete();
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void singleDrainTaskTest(@Injectable Executor executor) {
+    Observer<String> test = new BatchingExecutorObserver<>(downstreamObserver, executor, 4);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("message1");
+    test.onNext("message2");
+    test.onComplete();
+
+    new VerificationsInOrder() {
+      {
+        executor.execute((Runnable) any);
+        times = 1;
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void throwFromOnNextTest() {
+    Throwable throwable = new Exception();
+
+    new Expectations() {
+      {
+        downstreamObserver.onNext(anyString);
+        result = throwable;
+      }
+    };
+
+    SafeObserver<String> test = new BatchingExecutorObserver<>(
+        downstreamObserver,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+    test.getObservation().requestNext();
+    test.onNext("message");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext("message");
+        downstreamObserver.onFail(throwable);
+      }
+    };
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullExecutorTest() {
+    new BatchingExecutorObserver<>(downstreamObserver, null, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroBatchSizeTest() {
+    new BatchingExecutorObserver<>(downstreamObserver, r -> r.run(), 0);
+  }
+}
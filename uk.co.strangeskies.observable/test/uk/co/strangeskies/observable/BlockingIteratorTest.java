@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import mockit.Injectable;
+import mockit.Verifications;
+
+@SuppressWarnings("javadoc")
+public class BlockingIteratorTest {
+  @Injectable
+  Observation upstreamObservation;
+
+  private static List<Integer> range(int count) {
+    return IntStream.range(0, count).boxed().collect(toList());
+  }
+
+  /*
+   * Hot observables register observers before they are initialized, so wait
+   * on the observation itself before sending any messages.
+   */
+  private static <T> Observable<T> signalObserved(
+      Observable<T> observable,
+      CountDownLatch observed) {
+    return observable.thenAfter(onObservation(o -> observed.countDown()));
+  }
+
+  private static void produce(CountDownLatch observed, Runnable action) {
+    new Thread(() -> {
+      try {
+        observed.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      action.run();
+    }).start();
+  }
+
+  @Test(timeout = 5000)
+  public void iterateEmptyObservableTest() {
+    Iterator<Integer> iterator = Observable.<Integer>of().toBlockingIterable(4).iterator();
+
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test(timeout = 5000)
+  public void iterateMoreMessagesThanPrefetchTest() {
+    List<Integer> received = new ArrayList<>();
+    for (Integer message : Observable.of(range(100)).toBlockingIterable(8))
+      received.add(message);
+
+    assertThat(received, equalTo(range(100)));
+  }
+
+  @Test(timeout = 5000)
+  public void streamMoreMessagesThanPrefetchTest() {
+    try (Stream<Integer> stream = Observable.of(range(100)).toStream(8)) {
+      assertThat(stream.collect(toList()), equalTo(range(100)));
+    }
+  }
+
+  @Test
+  public void observeLazilyTest() {
+    HotObservable<Integer> observable = new HotObservable<>();
+
+    observable.toBlockingIterable(4).iterator();
+    observable.toStream(4);
+
+    assertFalse(observable.hasObservers());
+  }
+
+  @Test(timeout = 5000)
+  public void requestInBatchesTest() {
+    Observable<Integer> observable = observer -> {
+      observer.onObserve(upstreamObservation);
+      for (int i = 0; i < 8; i++)
+        observer.onNext(i);
+      return upstreamObservation;
+    };
+
+    Iterator<Integer> iterator = observable.toBlockingIterable(8).iterator();
+    for (int i = 0; i < 6; i++)
+      iterator.next();
+
+    new Verifications() {
+      {
+        upstreamObservation.request(8);
+        times = 1;
+        upstreamObservation.request(6);
+        times = 1;
+      }
+    };
+  }
+
+  @Test(timeout = 5000)
+  public void failureThrowsMissingValueTest() {
+    HotObservable<Integer> observable = new HotObservable<>();
+    CountDownLatch observed = new CountDownLatch(1);
+    Throwable failure = new Throwable();
+
+    Iterator<Integer> iterator = signalObserved(observable, observed)
+        .toBlockingIterable(4)
+        .iterator();
+    produce(observed, () -> observable.next(1).fail(failure));
+
+    assertThat(iterator.next(), equalTo(1));
+    try {
+      iterator.hasNext();
+    } catch (MissingValueException e) {
+      assertThat(e.getCause(), equalTo(failure));
+      return;
+    }
+    throw new AssertionError();
+  }
+
+  @Test(timeout = 5000)
+  public void overflowThrowsMissingValueTest() {
+    Observable<Integer> observable = observer -> {
+      observer.onObserve(upstreamObservation);
+      for (int i = 0; i < 3; i++)
+        observer.onNext(i);
+      return upstreamObservation;
+    };
+
+    Iterator<Integer> iterator = observable.toBlockingIterable(2).iterator();
+    assertThat(iterator.next(), equalTo(0));
+    assertThat(iterator.next(), equalTo(1));
+    try {
+      iterator.hasNext();
+    } catch (MissingValueException e) {
+      assertTrue(e.getCause() instanceof BufferOverflowException);
+      new Verifications() {
+        {
+          upstreamObservation.cancel();
+        }
+      };
+      return;
+    }
+    throw new AssertionError();
+  }
+
+  @Test(timeout = 5000)
+  public void closeStreamCancelsObservationTest() {
+    HotObservable<Integer> observable = new HotObservable<>();
+    CountDownLatch observed = new CountDownLatch(1);
+
+    try (Stream<Integer> stream = signalObserved(observable, observed).toStream(4)) {
+      produce(observed, () -> observable.next(1));
+
+      assertThat(stream.findFirst().get(), equalTo(1));
+      assertTrue(observable.hasObservers());
+    }
+
+    assertFalse(observable.hasObservers());
+  }
+
+  @Test(timeout = 5000)
+  public void closeFromOtherThreadWakesConsumerTest() {
+    HotObservable<Integer> observable = new HotObservable<>();
+    CountDownLatch observed = new CountDownLatch(1);
+
+    BlockingIterator<Integer> iterator = new BlockingIterator<>(
+        signalObserved(observable, observed),
+        4);
+    produce(observed, iterator::close);
+
+    assertFalse(iterator.hasNext());
+    assertFalse(observable.hasObservers());
+  }
+
+  @Test(timeout = 5000)
+  public void interruptWhileWaitingThrowsMissingValueTest() {
+    HotObservable<Integer> observable = new HotObservable<>();
+
+    Iterator<Integer> iterator = observable.toBlockingIterable(4).iterator();
+    Thread.currentThread().interrupt();
+    try {
+      iterator.hasNext();
+    } catch (MissingValueException e) {
+      assertTrue(e.getCause() instanceof InterruptedException);
+      assertTrue(Thread.interrupted());
+      assertFalse(observable.hasObservers());
+      assertFalse(iterator.hasNext());
+      return;
+    }
+    throw new AssertionError();
+  }
+
+  @Test(timeout = 10000)
+  public void consumeFromProducerThreadTest() {
+    HotObservable<Integer> observable = new HotObservable<>();
+    CountDownLatch observed = new CountDownLatch(1);
+    List<Integer> messages = range(100000);
+
+    Observable<Integer> buffered = signalObserved(observable, observed)
+        .bufferBackpressure(messages.size());
+    produce(observed, () -> {
+      messages.forEach(observable::next);
+      observable.complete();
+    });
+
+    try (Stream<Integer> stream = buffered.toStream(16)) {
+      assertThat(stream.collect(toList()), equalTo(messages));
+    }
+  }
+}
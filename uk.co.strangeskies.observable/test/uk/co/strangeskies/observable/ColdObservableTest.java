@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.Observer.onCompletion;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ColdObservableTest {
+  private static List<Integer> range(int count) {
+    return IntStream.range(0, count).boxed().collect(toList());
+  }
+
+  private static <M> List<M> requestEach(Observable<M> observable, AtomicBoolean complete) {
+    List<M> messages = new ArrayList<>();
+    observable
+        .then(onObservation(Observation::requestNext))
+        .then(messages::add)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe(new Observer<M>() {
+          private Observation observation;
+
+          @Override
+          public void onObserve(Observation observation) {
+            this.observation = observation;
+          }
+
+          @Override
+          public void onNext(M message) {
+            observation.requestNext();
+          }
+        });
+    return messages;
+  }
+
+  @Test(timeout = 10000)
+  public void requestNextFromOnNextDoesNotRecurse() {
+    AtomicBoolean complete = new AtomicBoolean();
+
+    List<Integer> messages = requestEach(Observable.of(range(1000000)), complete);
+
+    assertThat(messages.size(), equalTo(1000000));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 10000)
+  public void requestNextFromOnNextOverSpliteratorDoesNotRecurse() {
+    AtomicBoolean complete = new AtomicBoolean();
+
+    List<Integer> messages = requestEach(
+        new ColdObservable<>(new LinkedList<>(range(1000000))),
+        complete);
+
+    assertThat(messages, equalTo(range(1000000)));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test
+  public void requestsAreFulfilledInOrder() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    new ColdObservable<>(new LinkedList<>(asList(1, 2, 3, 4)))
+        .then(onObservation(observation::set))
+        .observe(messages::add);
+
+    assertThat(messages, equalTo(asList()));
+
+    observation.get().request(3);
+    assertThat(messages, equalTo(asList(1, 2, 3)));
+
+    observation.get().request(1);
+    assertThat(messages, equalTo(asList(1, 2, 3, 4)));
+  }
+
+  @Test
+  public void requestFromOnObserveIsFulfilled() {
+    List<Integer> messages = new ArrayList<>();
+
+    Observable.of(1, 2, 3).then(onObservation(o -> o.request(2))).observe(messages::add);
+
+    assertThat(messages, equalTo(asList(1, 2)));
+  }
+
+  @Test
+  public void pendingRequestCount() {
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    Observable.of(1, 2, 3, 4).then(onObservation(observation::set)).observe(m -> {});
+    assertThat(observation.get().getPendingRequestCount(), equalTo(0L));
+
+    observation.get().request(2);
+    assertThat(observation.get().getPendingRequestCount(), equalTo(0L));
+  }
+
+  @Test
+  public void completeOnLastMessage() {
+    AtomicBoolean complete = new AtomicBoolean();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    new ColdObservable<>(Collections.singleton(1))
+        .then(onObservation(observation::set))
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    observation.get().request(1);
+
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test
+  public void emptyCompletesImmediately() {
+    AtomicBoolean complete = new AtomicBoolean();
+
+    new ColdObservable<>(new LinkedList<>())
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test
+  public void cancelFromOnNextStopsEmission() {
+    List<Integer> messages = new ArrayList<>();
+
+    Observable
+        .of(range(100))
+        .then(onObservation(Observation::requestUnbounded))
+        .observe(new Observer<Integer>() {
+          private Observation observation;
+
+          @Override
+          public void onObserve(Observation observation) {
+            this.observation = observation;
+          }
+
+          @Override
+          public void onNext(Integer message) {
+            messages.add(message);
+            if (message == 4)
+              observation.cancel();
+          }
+        });
+
+    assertThat(messages, equalTo(range(5)));
+  }
+
+  @Test(timeout = 10000)
+  public void concurrentRequestsDeliverEachMessageOnce() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    AtomicInteger count = new AtomicInteger();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(1);
+
+    Observable
+        .of(range(100000))
+        .then(onObservation(observation::set))
+        .then(onCompletion(done::countDown))
+        .observe(m -> count.incrementAndGet());
+
+    for (int i = 0; i < 100000; i++)
+      executor.execute(() -> observation.get().requestNext());
+
+    done.await(5, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    assertThat(count.get(), equalTo(100000));
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.Observer.onCompletion;
+import static uk.co.strangeskies.observable.Observer.onFailure;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CombineLatestObservationTest {
+  @Test(timeout = 5000)
+  public void combineLatestWaitsForEverySource() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<String> second = new HotObservable<>();
+    List<String> messages = new ArrayList<>();
+
+    Observable
+        .combineLatest(first, second, (i, s) -> i + s)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .observe();
+
+    first.next(1).next(2);
+    assertThat(messages, equalTo(asList()));
+
+    second.next("a");
+    assertThat(messages, equalTo(asList("2a")));
+
+    first.next(3);
+    second.next("b");
+    assertThat(messages, equalTo(asList("2a", "3a", "3b")));
+  }
+
+  @Test(timeout = 5000)
+  public void combineLatestRespectsDownstreamRequests() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<String> second = new HotObservable<>();
+    List<String> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    Observable
+        .combineLatest(first, second, (i, s) -> i + s)
+        .then(onObservation(observation::set))
+        .then(messages::add)
+        .observe();
+
+    first.next(1);
+    second.next("a").next("b").next("c");
+    assertThat(messages, equalTo(asList()));
+
+    observation.get().request(2);
+    assertThat(messages, equalTo(asList("1a", "1b")));
+
+    observation.get().request(5);
+    assertThat(messages, equalTo(asList("1a", "1b", "1c")));
+  }
+
+  @Test(timeout = 5000)
+  public void combineLatestCompletesWhenAllSourcesComplete() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<Integer> second = new HotObservable<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .combineLatest(first, second, Integer::sum)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    first.next(1).complete();
+    second.next(2);
+    assertThat(complete.get(), equalTo(false));
+
+    second.complete();
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void combineLatestCompletesWhenSourceCompletesEmpty() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<Integer> second = new HotObservable<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .combineLatest(first, second, Integer::sum)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    first.next(1);
+    second.complete();
+
+    assertThat(complete.get(), equalTo(true));
+    assertThat(first.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void combineLatestColdSources() {
+    List<List<Integer>> messages = new ArrayList<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .combineLatest(asList(Observable.of(1, 2), Observable.of(10)), l -> l)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    assertThat(messages, equalTo(asList(asList(2, 10))));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void combineLatestFailsWhenSourceFails() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<Integer> second = new HotObservable<>();
+    Throwable failure = new Throwable();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+
+    Observable
+        .combineLatest(first, second, Integer::sum)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onFailure(received::set))
+        .observe();
+
+    first.fail(failure);
+
+    assertThat(received.get(), equalTo(failure));
+    assertThat(second.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void combineLatestCancelCancelsSources() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<Integer> second = new HotObservable<>();
+
+    Disposable disposable = Observable
+        .combineLatest(first, second, Integer::sum)
+        .then(onObservation(Observation::requestUnbounded))
+        .observe();
+
+    disposable.cancel();
+
+    assertThat(first.hasObservers(), equalTo(false));
+    assertThat(second.hasObservers(), equalTo(false));
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.Observer.onCompletion;
+import static uk.co.strangeskies.observable.Observer.onFailure;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ConcatMapObserverTest {
+  private static List<Integer> range(int count) {
+    return IntStream.range(0, count).boxed().collect(toList());
+  }
+
+  @Test(timeout = 5000)
+  public void concatInnerObservablesInOrder() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .of(1, 2, 3)
+        .concatMap(i -> Observable.of(i * 10, i * 10 + 1))
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    assertThat(messages, equalTo(asList(10, 11, 20, 21, 30, 31)));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void concatRespectsDownstreamRequests() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    Observable
+        .of(1, 2, 3)
+        .concatMap(i -> Observable.of(i * 10, i * 10 + 1))
+        .then(onObservation(observation::set))
+        .then(messages::add)
+        .observe();
+
+    observation.get().request(3);
+    assertThat(messages, equalTo(asList(10, 11, 20)));
+
+    observation.get().request(2);
+    assertThat(messages, equalTo(asList(10, 11, 20, 21, 30)));
+  }
+
+  @Test(timeout = 5000)
+  public void scalarInnersRespectDownstreamRequests() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    Observable
+        .of(1, 2, 3)
+        .concatMap(i -> Observable.of(i))
+        .then(onObservation(observation::set))
+        .then(messages::add)
+        .observe();
+
+    observation.get().request(2);
+    assertThat(messages, equalTo(asList(1, 2)));
+
+    observation.get().request(2);
+    assertThat(messages, equalTo(asList(1, 2, 3)));
+  }
+
+  @Test(timeout = 5000)
+  public void scalarInnersAreNotObserved() {
+    AtomicInteger observed = new AtomicInteger();
+    List<Integer> messages = new ArrayList<>();
+
+    Observable
+        .of(1, 2, 3)
+        .concatMap(i -> new ColdObservable<Integer>(asList(i)) {
+          @Override
+          public synchronized Disposable observe(Observer<? super Integer> observer) {
+            observed.incrementAndGet();
+            return super.observe(observer);
+          }
+        })
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .observe();
+
+    assertThat(messages, equalTo(asList(1, 2, 3)));
+    assertThat(observed.get(), equalTo(0));
+  }
+
+  @Test(timeout = 5000)
+  public void emptyInnersAreSkipped() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .of(1, 2, 3, 4)
+        .concatMap(i -> i % 2 == 0 ? Observable.of(i) : Observable.<Integer>of())
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    assertThat(messages, equalTo(asList(2, 4)));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 10000)
+  public void longSynchronousChainDoesNotOverflowStack() {
+    AtomicInteger count = new AtomicInteger();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .of(range(200000))
+        .concatMap(i -> Observable.of(i, i))
+        .then(onObservation(Observation::requestUnbounded))
+        .then(m -> count.incrementAndGet())
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    assertThat(count.get(), equalTo(400000));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void asynchronousInnersAreConcatenated() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<Integer> second = new HotObservable<>();
+    List<Integer> messages = new ArrayList<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .of(first, second)
+        .concatMap(o -> o)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    second.next(0);
+    first.next(1).next(2);
+    assertThat(second.hasObservers(), equalTo(false));
+
+    first.complete();
+    second.next(3).complete();
+
+    assertThat(messages, equalTo(asList(1, 2, 3)));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void innerFailureCancelsUpstream() {
+    HotObservable<Integer> upstream = new HotObservable<>();
+    HotObservable<Integer> inner = new HotObservable<>();
+    Throwable failure = new Throwable();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+
+    upstream
+        .concatMap(i -> inner)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onFailure(received::set))
+        .observe();
+
+    upstream.next(1);
+    inner.fail(failure);
+
+    assertThat(received.get(), equalTo(failure));
+    assertThat(upstream.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void upstreamFailureWaitsForInnerCompletion() {
+    HotObservable<Integer> upstream = new HotObservable<>();
+    HotObservable<Integer> inner = new HotObservable<>();
+    Throwable failure = new Throwable();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+    List<Integer> messages = new ArrayList<>();
+
+    upstream
+        .concatMap(i -> inner)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onFailure(received::set))
+        .observe();
+
+    upstream.next(1).fail(failure);
+    assertThat(received.get(), equalTo(null));
+
+    inner.next(10).complete();
+    assertThat(messages, equalTo(asList(10)));
+    assertThat(received.get(), equalTo(failure));
+  }
+
+  @Test(timeout = 5000)
+  public void mappingFailureIsDelivered() {
+    RuntimeException failure = new RuntimeException();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+    List<Integer> messages = new ArrayList<>();
+
+    Observable
+        .of(1, 2, 3)
+        .concatMap(i -> {
+          if (i == 2)
+            throw failure;
+          return Observable.of(i);
+        })
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onFailure(received::set))
+        .observe();
+
+    assertThat(messages, equalTo(asList(1)));
+    assertThat(received.get(), equalTo(failure));
+  }
+
+  @Test(timeout = 5000)
+  public void nullMappingIsDeliveredAsFailure() {
+    AtomicReference<Throwable> received = new AtomicReference<>();
+    List<Integer> messages = new ArrayList<>();
+
+    Observable
+        .of(1, 2, 3)
+        .concatMap(i -> i == 2 ? null : Observable.of(i))
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onFailure(received::set))
+        .observe();
+
+    assertThat(messages, equalTo(asList(1)));
+    assertThat(received.get() instanceof NullPointerException, equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void cancelCancelsInner() {
+    HotObservable<Integer> inner = new HotObservable<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    Observable
+        .of(1)
+        .concatMap(i -> inner)
+        .then(onObservation(observation::set))
+        .then(onObservation(Observation::requestUnbounded))
+        .observe();
+
+    assertThat(inner.hasObservers(), equalTo(true));
+    observation.get().cancel();
+    assertThat(inner.hasObservers(), equalTo(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositivePrefetchThrows() {
+    Observable.of(1).concatMap(i -> Observable.of(i), 0);
+  }
+}
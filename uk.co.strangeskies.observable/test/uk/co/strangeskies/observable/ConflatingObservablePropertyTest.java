@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.VerificationsInOrder;
+import uk.co.strangeskies.observable.ObservableValue.Change;
+
+@SuppressWarnings("javadoc")
+public class ConflatingObservablePropertyTest {
+  @Injectable
+  Observer<String> downstreamObserver;
+  @Injectable
+  Observer<Change<String>> changeObserver;
+
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final Executor queue = tasks::add;
+
+  private void runTasks() {
+    while (!tasks.isEmpty())
+      tasks.remove(0).run();
+  }
+
+  @Test
+  public void getInitialValueTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+
+    assertThat(property.get(), equalTo("initial"));
+  }
+
+  @Test
+  public void initialValueMessageOnSubscribeTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+
+    property.observe(downstreamObserver);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext("initial");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void setValueMessageAfterSubscribeTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+
+    property.observe(downstreamObserver);
+    property.set("message");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext("initial");
+        downstreamObserver.onNext("message");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void setEqualValueTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+
+    property.observe(downstreamObserver);
+    property.set("initial");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext("initial");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void setReturnsPreviousValueTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+
+    assertThat(property.set("message"), equalTo("initial"));
+    assertThat(property.get(), equalTo("message"));
+  }
+
+  @Test
+  public void setProblemFailsObserverTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+    Throwable problem = new Throwable();
+
+    property.observe(downstreamObserver);
+    property.setProblem(problem);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext("initial");
+        downstreamObserver.onFail(problem);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test(expected = MissingValueException.class)
+  public void getAfterProblemTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+    property.setProblem(new Throwable());
+    property.get();
+  }
+
+  @Test
+  public void cancelledObserverIsNotNotifiedTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+
+    property.observe(downstreamObserver).cancel();
+    property.set("message");
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext("initial");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void conflateSetsOnExecutorTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial", queue);
+
+    property.observe(downstreamObserver);
+    runTasks();
+
+    property.set("first");
+    property.set("second");
+    property.set("third");
+
+    assertThat(tasks.size(), equalTo(1));
+    runTasks();
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext("initial");
+        downstreamObserver.onNext("third");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void conflateBackToDeliveredValueTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial", queue);
+
+    property.observe(downstreamObserver);
+    runTasks();
+
+    property.set("message");
+    property.set("initial");
+    runTasks();
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext("initial");
+        downstreamObserver.onNext("initial");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void noChangesOnObserveTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+    property.changes().observe(changeObserver);
+
+    new VerificationsInOrder() {
+      {
+        changeObserver.onObserve((Observation) any);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void changeInitialToNextMessageTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+    property.changes().observe(changeObserver);
+    property.set("message");
+
+    new VerificationsInOrder() {
+      {
+        changeObserver.onObserve((Observation) any);
+        Change<String> change;
+        changeObserver.onNext(change = withCapture());
+        assertThat(change.previousValue().get(), equalTo("initial"));
+        assertThat(change.newValue().get(), equalTo("message"));
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void changeInitialToProblemTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial");
+    property.changes().observe(changeObserver);
+    property.setProblem(new Throwable());
+
+    new VerificationsInOrder() {
+      {
+        changeObserver.onObserve((Observation) any);
+        Change<String> change;
+        changeObserver.onNext(change = withCapture());
+        assertThat(change.previousValue().get(), equalTo("initial"));
+        assertFalse(change.newValue().isValid());
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void conflatedChangeSpansSkippedValuesTest() {
+    ObservableProperty<String> property = new ConflatingObservableProperty<>("initial", queue);
+    property.changes().observe(changeObserver);
+
+    property.set("first");
+    property.set("second");
+    runTasks();
+
+    new VerificationsInOrder() {
+      {
+        changeObserver.onObserve((Observation) any);
+        Change<String> change;
+        changeObserver.onNext(change = withCapture());
+        assertThat(change.previousValue().get(), equalTo("initial"));
+        assertThat(change.newValue().get(), equalTo("second"));
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test(timeout = 5000)
+  public void concurrentWritersDeliverLatestValueTest() throws InterruptedException {
+    ObservableProperty<Integer> property = new ConflatingObservableProperty<>(0);
+    List<Integer> received = new CopyOnWriteArrayList<>();
+    property.observe(received::add);
+
+    Thread[] writers = new Thread[4];
+    for (int i = 0; i < writers.length; i++) {
+      int offset = i;
+      writers[i] = new Thread(() -> {
+        for (int j = 1; j <= 1000; j++)
+          property.set(j * writers.length + offset);
+      });
+    }
+    for (Thread writer : writers)
+      writer.start();
+    for (Thread writer : writers)
+      writer.join();
+
+    property.set(-1);
+
+    assertThat(received.get(received.size() - 1), equalTo(-1));
+    assertThat(property.get(), equalTo(-1));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.time.Duration.ofMillis;
+
+import org.junit.Test;
+
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.VerificationsInOrder;
+
+@SuppressWarnings("javadoc")
+public class DebouncingObserverTest {
+  @Injectable
+  Observation upstreamObservation;
+
+  @Injectable
+  Observer<String> downstreamObserver;
+
+  @Test
+  public void debounceBurstTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    Observer<String> test = new DebouncingObserver<>(downstreamObserver, ofMillis(10), scheduler);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("one");
+    scheduler.advance(ofMillis(5));
+    test.onNext("two");
+    scheduler.advance(ofMillis(9));
+    test.onNext("three");
+    scheduler.advance(ofMillis(10));
+    scheduler.advance(ofMillis(10));
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("three");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void debounceSeparatedMessagesTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    Observer<String> test = new DebouncingObserver<>(downstreamObserver, ofMillis(10), scheduler);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("one");
+    scheduler.advance(ofMillis(10));
+    test.onNext("two");
+    scheduler.advance(ofMillis(10));
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("one");
+        downstreamObserver.onNext("two");
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void completeWithPendingMessageTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    Observer<String> test = new DebouncingObserver<>(downstreamObserver, ofMillis(10), scheduler);
+
+    test.onObserve(upstreamObservation);
+    test.onNext("one");
+    test.onComplete();
+    scheduler.advance(ofMillis(10));
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        upstreamObservation.requestUnbounded();
+        downstreamObserver.onNext("one");
+        downstreamObserver.onComplete();
+      }
+    };
+    new FullVerifications() {};
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DedicatedThreadObserverTest {
+  private final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+  private <T> CompletableFuture<List<T>> collect(Observable<T> observable, long requestCount) {
+    CompletableFuture<List<T>> result = new CompletableFuture<>();
+    List<T> messages = new ArrayList<>();
+
+    observable.observe(new Observer<T>() {
+      @Override
+      public void onObserve(Observation observation) {
+        observation.request(requestCount);
+      }
+
+      @Override
+      public void onNext(T message) {
+        messages.add(message);
+      }
+
+      @Override
+      public void onComplete() {
+        result.complete(messages);
+      }
+
+      @Override
+      public void onFail(Throwable t) {
+        result.completeExceptionally(t);
+      }
+    });
+
+    return result;
+  }
+
+  @Test(timeout = 5000)
+  public void messagesInOrderTest() throws Exception {
+    List<Integer> messages = collect(
+        Observable.of(1, 2, 3, 4, 5).executeOnThreads(threadFactory, 2),
+        Long.MAX_VALUE).get();
+
+    assertThat(messages, equalTo(List.of(1, 2, 3, 4, 5)));
+  }
+
+  @Test(timeout = 5000)
+  public void messagesOnDedicatedThreadTest() throws Exception {
+    Thread observingThread = Thread.currentThread();
+
+    List<Thread> threads = collect(
+        Observable.of(1, 2).executeOnThreads(threadFactory, 2).map(m -> Thread.currentThread()),
+        Long.MAX_VALUE).get();
+
+    assertThat(threads.get(0), not(equalTo(observingThread)));
+    assertThat(threads.get(0), equalTo(threads.get(1)));
+  }
+
+  @Test(timeout = 5000)
+  public void messagesOnVirtualThreadsTest() throws Exception {
+    List<Integer> messages = collect(
+        Observable.of(1, 2, 3).executeOnVirtualThreads(),
+        Long.MAX_VALUE).get();
+
+    assertThat(messages, equalTo(List.of(1, 2, 3)));
+  }
+
+  @Test(timeout = 5000)
+  public void completeOnlyAfterRequestedMessagesTest() throws Exception {
+    CompletableFuture<List<Integer>> result = collect(
+        Observable.of(1, 2, 3).executeOnThreads(threadFactory, 4),
+        2);
+
+    Thread.sleep(100);
+
+    assertThat(result.isDone(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void failureTest() throws Exception {
+    Throwable failure = new Throwable();
+
+    HotObservable<Integer> observable = new HotObservable<>();
+    CompletableFuture<List<Integer>> result = collect(
+        observable.executeOnThreads(threadFactory, 4),
+        Long.MAX_VALUE);
+    observable.fail(failure);
+
+    try {
+      result.get(1, TimeUnit.SECONDS);
+    } catch (java.util.concurrent.ExecutionException e) {
+      assertThat(e.getCause(), equalTo(failure));
+      return;
+    }
+    throw new AssertionError();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMailboxSizeTest() {
+    new DedicatedThreadObserver<>(m -> {}, threadFactory, 0);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullThreadFactoryTest() {
+    new DedicatedThreadObserver<>(m -> {}, null, 1);
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DoubleObservableTest {
+  static class RecordingObserver implements DoubleObserver {
+    final List<Double> messages = new ArrayList<>();
+    Observation observation;
+    boolean complete;
+
+    @Override
+    public void onObserve(Observation observation) {
+      this.observation = observation;
+    }
+
+    @Override
+    public void onNext(double message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void onComplete() {
+      complete = true;
+    }
+  }
+
+  @Test
+  public void mapTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    RecordingObserver observer = new RecordingObserver();
+    observable.map(m -> m * 2).observe(observer);
+
+    observable.next(1).next(2.5);
+
+    assertThat(observer.messages, equalTo(List.of(2.0, 5.0)));
+  }
+
+  @Test
+  public void filterTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    RecordingObserver observer = new RecordingObserver();
+    observable.filter(m -> m > 1).observe(observer);
+
+    observable.next(1).next(2).next(0.5).next(3);
+
+    assertThat(observer.messages, equalTo(List.of(2.0, 3.0)));
+  }
+
+  @Test
+  public void mapToObjTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    List<String> messages = new ArrayList<>();
+    observable.mapToObj(m -> "message" + m).observe(messages::add);
+
+    observable.next(1);
+
+    assertThat(messages, equalTo(List.of("message1.0")));
+  }
+
+  @Test
+  public void mapFromObservableTest() {
+    RecordingObserver observer = new RecordingObserver();
+    Observable.of("1", "2.5").mapToDouble(Double::parseDouble).requestUnbounded().observe(
+        observer);
+
+    assertThat(observer.messages, equalTo(List.of(1.0, 2.5)));
+    assertThat(observer.complete, equalTo(true));
+  }
+
+  @Test
+  public void reduceTest() throws Exception {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    CompletableFuture<Double> sum = observable.reduce(0, Double::sum);
+
+    observable.next(1).next(2).next(3).complete();
+
+    assertThat(sum.get(), equalTo(6.0));
+  }
+
+  @Test
+  public void reduceBackpressureTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    RecordingObserver observer = new RecordingObserver();
+    observable.reduceBackpressure(Double::sum).observe(observer);
+
+    observable.next(1).next(2);
+    observer.observation.requestNext();
+    observable.next(3);
+    observer.observation.requestNext();
+    observable.next(4).next(5);
+    observer.observation.requestNext();
+
+    assertThat(observer.messages, equalTo(List.of(3.0, 3.0, 9.0)));
+  }
+
+  @Test
+  public void reduceBackpressureSendsFinalReductionBeforeCompletionTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    RecordingObserver observer = new RecordingObserver();
+    observable.reduceBackpressure(Double::sum).observe(observer);
+
+    observable.next(1).next(2).complete();
+    assertThat(observer.complete, equalTo(false));
+
+    observer.observation.requestNext();
+    assertThat(observer.messages, equalTo(List.of(3.0)));
+    assertThat(observer.complete, equalTo(true));
+  }
+
+  @Test
+  public void summarizeBackpressureTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    List<DoubleSummaryStatistics> summaries = new ArrayList<>();
+    observable.summarizeBackpressure().observe(new Observer<DoubleSummaryStatistics>() {
+      @Override
+      public void onObserve(Observation observation) {
+        observation.requestNext();
+      }
+
+      @Override
+      public void onNext(DoubleSummaryStatistics message) {
+        summaries.add(message);
+      }
+    });
+
+    observable.next(1);
+
+    assertThat(summaries.size(), equalTo(1));
+    assertThat(summaries.get(0).getSum(), equalTo(1.0));
+  }
+
+  @Test
+  public void boxedTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    List<Double> messages = new ArrayList<>();
+    observable.boxed().observe(messages::add);
+
+    observable.next(1);
+
+    assertThat(messages, equalTo(List.of(1.0)));
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class FusedObservableTest {
+  private final List<Observer<?>> observers = new ArrayList<>();
+
+  private final Observable<Integer> upstreamObservable = observer -> {
+    observers.add(observer);
+    return Observable.of(1, 2, 3, 4, 5, 6).observe(observer);
+  };
+
+  private <T> List<T> collect(Observable<T> observable) {
+    List<T> messages = new ArrayList<>();
+    observable.thenAfter(Observer.onObservation(Observation::requestUnbounded)).observe(
+        messages::add);
+    return messages;
+  }
+
+  @Test
+  public void singleMapUsesMappingObserverTest() {
+    collect(upstreamObservable.map(m -> m * 2));
+
+    assertThat(observers.get(0), instanceOf(MappingObserver.class));
+  }
+
+  @Test
+  public void singleFilterUsesFilteringObserverTest() {
+    collect(upstreamObservable.filter(m -> m > 2));
+
+    assertThat(observers.get(0), instanceOf(FilteringObserver.class));
+  }
+
+  @Test
+  public void chainUsesSingleFusedObserverTest() {
+    collect(upstreamObservable.map(m -> m * 2).filter(m -> m > 2).map(m -> m + 1));
+
+    assertThat(observers.size(), equalTo(1));
+    assertThat(observers.get(0), instanceOf(FusedObserver.class));
+  }
+
+  @Test
+  public void mapThenFilterTest() {
+    List<Integer> messages = collect(upstreamObservable.map(m -> m * 3).filter(m -> m % 2 == 0));
+
+    assertThat(messages, equalTo(List.of(6, 12, 18)));
+  }
+
+  @Test
+  public void filterThenMapTest() {
+    List<String> messages = collect(
+        upstreamObservable.filter(m -> m % 2 == 1).map(m -> "message" + m));
+
+    assertThat(messages, equalTo(List.of("message1", "message3", "message5")));
+  }
+
+  @Test
+  public void consecutiveFiltersTest() {
+    List<Integer> messages = collect(upstreamObservable.filter(m -> m > 1).filter(m -> m < 5));
+
+    assertThat(messages, equalTo(List.of(2, 3, 4)));
+  }
+
+  @Test
+  public void filteredMessageRequestsNextTest() {
+    List<Integer> messages = new ArrayList<>();
+
+    upstreamObservable
+        .map(m -> m * 2)
+        .filter(m -> m > 6)
+        .thenAfter(Observer.onObservation(Observation::requestNext))
+        .observe(messages::add);
+
+    assertThat(messages, equalTo(List.of(8)));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullMappingTest() {
+    upstreamObservable.map(m -> m).map(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullConditionTest() {
+    upstreamObservable.map(m -> m).filter(null);
+  }
+}
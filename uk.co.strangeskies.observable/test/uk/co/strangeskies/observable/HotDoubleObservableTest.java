@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import mockit.Expectations;
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.VerificationsInOrder;
+
+@SuppressWarnings("javadoc")
+public class HotDoubleObservableTest {
+  @Injectable
+  DoubleObserver downstreamObserver;
+
+  @Test
+  public void messageTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    observable.observe(downstreamObserver);
+    observable.next(1);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext(1);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void completeTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    observable.observe(downstreamObserver);
+    observable.complete();
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onComplete();
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void failTest() {
+    Throwable t = new Throwable();
+
+    HotDoubleObservable observable = new HotDoubleObservable();
+    observable.observe(downstreamObserver);
+    observable.fail(t);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onFail(t);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void throwFromOnNextTest() {
+    Throwable t = new RuntimeException();
+
+    new Expectations() {
+      {
+        downstreamObserver.onNext(anyDouble);
+        result = t;
+      }
+    };
+
+    HotDoubleObservable observable = new HotDoubleObservable();
+    observable.observe(downstreamObserver);
+    observable.next(1);
+    observable.next(2);
+
+    new VerificationsInOrder() {
+      {
+        downstreamObserver.onObserve((Observation) any);
+        downstreamObserver.onNext(1);
+        downstreamObserver.onFail(t);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void cancelTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    observable.observe(downstreamObserver).cancel();
+    observable.next(1);
+
+    assertThat(observable.hasObservers(), equalTo(false));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void messageWhenDeadTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    observable.complete();
+    observable.next(1);
+  }
+
+  @Test
+  public void startWhenDeadTest() {
+    HotDoubleObservable observable = new HotDoubleObservable();
+    observable.complete();
+    observable.start();
+    observable.assertLive();
+  }
+}
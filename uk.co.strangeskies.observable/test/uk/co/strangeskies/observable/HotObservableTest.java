@@ -35,6 +35,11 @@ package uk.co.strangeskies.observable;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
 import org.junit.Test;
 
 import mockit.FullVerifications;
@@ -222,4 +227,91 @@ public class HotObservableTest {
     observable.observe();
     observable.next(null);
   }
+
+  @Test
+  public void cancelDuringMessageTest() {
+    List<String> received = new ArrayList<>();
+
+    HotObservable<String> observable = new HotObservable<>();
+    Disposable second = observable.observe(m -> received.add("second " + m));
+    observable.observe(m -> {
+      received.add("first " + m);
+      second.cancel();
+    });
+    observable.next("message1");
+    observable.next("message2");
+
+    assertThat(received, equalTo(List.of("second message1", "first message1", "first message2")));
+  }
+
+  @Test
+  public void observeDuringMessageTest() {
+    List<String> received = new ArrayList<>();
+
+    HotObservable<String> observable = new HotObservable<>();
+    observable.observe(m -> {
+      if (received.isEmpty())
+        observable.observe(n -> received.add("second " + n));
+      received.add("first " + m);
+    });
+    observable.next("message1");
+    observable.next("message2");
+
+    assertThat(
+        received,
+        equalTo(List.of("first message1", "first message2", "second message2")));
+  }
+
+  @Test
+  public void cancelDuringObserveIsNotAddedTest() {
+    HotObservable<String> observable = new HotObservable<>();
+    observable.observe(new Observer<String>() {
+      @Override
+      public void onObserve(Observation observation) {
+        observation.cancel();
+      }
+
+      @Override
+      public void onNext(String message) {}
+    });
+
+    assertThat(observable.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void completeWaitsForMessageInFlightTest() throws Exception {
+    List<String> received = new CopyOnWriteArrayList<>();
+    CountDownLatch delivering = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    HotObservable<String> observable = new HotObservable<>();
+    observable.observe(new Observer<String>() {
+      @Override
+      public void onNext(String message) {
+        delivering.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        received.add(message);
+      }
+
+      @Override
+      public void onComplete() {
+        received.add("complete");
+      }
+    });
+
+    Thread producer = new Thread(() -> observable.next("message"));
+    producer.start();
+    delivering.await();
+
+    observable.complete();
+    assertThat(received, equalTo(List.of()));
+
+    release.countDown();
+    producer.join();
+    assertThat(received, equalTo(List.of("message", "complete")));
+  }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class InstrumentationTest {
+  private final List<StageMetrics> started = new ArrayList<>();
+  private final List<StageMetrics> terminated = new ArrayList<>();
+
+  @Before
+  public void enableInstrumentation() {
+    Instrumentation.enable(new InstrumentationSink() {
+      @Override
+      public void stageStarted(StageMetrics stage) {
+        started.add(stage);
+      }
+
+      @Override
+      public void stageTerminated(StageMetrics stage) {
+        terminated.add(stage);
+      }
+    });
+  }
+
+  @After
+  public void disableInstrumentation() {
+    Instrumentation.disable();
+  }
+
+  @Test
+  public void disabledStageIsNotRecordedTest() {
+    Instrumentation.disable();
+    HotObservable<String> observable = new HotObservable<>();
+    List<String> received = new ArrayList<>();
+
+    observable.instrument("stage").observe(received::add);
+    observable.next("message");
+
+    assertThat(received, equalTo(List.of("message")));
+    assertTrue(started.isEmpty());
+    assertFalse(Instrumentation.isEnabled());
+  }
+
+  @Test
+  public void countMessagesTest() {
+    HotObservable<String> observable = new HotObservable<>();
+    List<String> received = new ArrayList<>();
+
+    observable.instrument("stage").observe(received::add);
+    observable.next("a").next("b").next("c");
+
+    assertThat(received, equalTo(List.of("a", "b", "c")));
+    assertThat(started.size(), equalTo(1));
+
+    StageMetrics stage = started.get(0);
+    assertThat(stage.getName(), equalTo("stage"));
+    assertThat(stage.getMessagesIn(), equalTo(3L));
+    assertThat(stage.getMessagesOut(), equalTo(3L));
+    assertThat(stage.getLatency().getCount(), equalTo(3L));
+    assertTrue(Instrumentation.getStages().contains(stage));
+  }
+
+  @Test
+  public void recordOutstandingDemandTest() {
+    List<Observation> observations = new ArrayList<>();
+    Observable.of(1, 2, 3, 4).instrument("stage").observe(new Observer<Integer>() {
+      @Override
+      public void onObserve(Observation observation) {
+        observations.add(observation);
+      }
+
+      @Override
+      public void onNext(Integer message) {}
+    });
+    StageMetrics stage = started.get(0);
+    assertThat(stage.getOutstandingDemand(), equalTo(0L));
+
+    observations.get(0).request(3);
+    assertThat(stage.getMessagesIn(), equalTo(3L));
+    assertThat(stage.getOutstandingDemand(), equalTo(0L));
+  }
+
+  @Test
+  public void terminateOnCompleteTest() {
+    HotObservable<String> observable = new HotObservable<>();
+
+    observable.instrument("stage").observe(m -> {});
+    observable.complete();
+
+    assertThat(terminated, equalTo(started));
+    assertTrue(started.get(0).isTerminated());
+    assertFalse(Instrumentation.getStages().contains(started.get(0)));
+  }
+
+  @Test
+  public void reportStageTerminatedDuringObservationTest() {
+    Observable
+        .of(1, 2)
+        .instrument("stage")
+        .then(Observer.onObservation(Observation::requestUnbounded))
+        .observe(m -> {});
+
+    assertThat(started.size(), equalTo(1));
+    assertThat(terminated, equalTo(started));
+    assertFalse(Instrumentation.getStages().contains(started.get(0)));
+  }
+
+  @Test
+  public void failingSinkDoesNotSuppressSignalsTest() {
+    Instrumentation.enable(new InstrumentationSink() {
+      @Override
+      public void stageStarted(StageMetrics stage) {
+        throw new IllegalStateException();
+      }
+
+      @Override
+      public void stageTerminated(StageMetrics stage) {
+        throw new IllegalStateException();
+      }
+    });
+    HotObservable<String> observable = new HotObservable<>();
+    List<String> received = new ArrayList<>();
+    List<Throwable> failures = new ArrayList<>();
+    Throwable failure = new Throwable();
+
+    observable
+        .instrument("stage")
+        .then(received::add)
+        .then(Observer.onFailure(failures::add))
+        .observe();
+    observable.next("message").fail(failure);
+
+    assertThat(received, equalTo(List.of("message")));
+    assertThat(failures, equalTo(List.of(failure)));
+  }
+
+  @Test
+  public void terminateOnCancelTest() {
+    HotObservable<String> observable = new HotObservable<>();
+
+    observable.instrument("stage").observe(m -> {}).cancel();
+    observable.next("message");
+
+    assertThat(terminated, equalTo(started));
+    assertThat(started.get(0).getMessagesIn(), equalTo(0L));
+    assertFalse(observable.hasObservers());
+  }
+
+  @Test
+  public void linkDownstreamStageTest() {
+    HotObservable<String> observable = new HotObservable<>();
+
+    observable.instrument("upstream").map(String::length).instrument("downstream").observe();
+
+    StageMetrics downstream = started
+        .stream()
+        .filter(s -> s.getName().equals("downstream"))
+        .findAny()
+        .get();
+    StageMetrics upstream = started
+        .stream()
+        .filter(s -> s.getName().equals("upstream"))
+        .findAny()
+        .get();
+
+    assertThat(upstream.getDownstream(), equalTo(downstream));
+    assertThat(downstream.getDownstream(), nullValue());
+  }
+
+  @Test
+  public void queueDepthAcrossExecutorTest() {
+    HotObservable<String> observable = new HotObservable<>();
+    List<Runnable> tasks = new ArrayList<>();
+    Executor executor = tasks::add;
+
+    observable.instrument("before").executeOn(executor).instrument("after").observe();
+    while (!tasks.isEmpty())
+      tasks.remove(0).run();
+    StageMetrics before = started
+        .stream()
+        .filter(s -> s.getName().equals("before"))
+        .findAny()
+        .get();
+
+    observable.next("a").next("b").next("c");
+    assertThat(before.getQueueDepth(), equalTo(3L));
+
+    while (!tasks.isEmpty())
+      tasks.remove(0).run();
+    assertThat(before.getQueueDepth(), equalTo(0L));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IntObservableTest {
+  @Test
+  public void mapAndFilterTest() {
+    HotIntObservable observable = new HotIntObservable();
+    List<Integer> messages = new ArrayList<>();
+    observable.map(m -> m * 2).filter(m -> m > 2).boxed().observe(messages::add);
+
+    observable.next(1).next(2).next(3);
+
+    assertThat(messages, equalTo(List.of(4, 6)));
+  }
+
+  @Test
+  public void reduceTest() throws Exception {
+    HotIntObservable observable = new HotIntObservable();
+    CompletableFuture<Integer> sum = observable.reduce(0, Integer::sum);
+
+    observable.next(1).next(2).next(3).complete();
+
+    assertThat(sum.get(), equalTo(6));
+  }
+
+  @Test
+  public void mapFromObservableTest() throws Exception {
+    CompletableFuture<Integer> sum = Observable
+        .of("1", "2")
+        .mapToInt(Integer::parseInt)
+        .reduce(0, Integer::sum);
+
+    assertThat(sum.get(), equalTo(3));
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class JmxInstrumentationSinkTest {
+  private MBeanServer server;
+  private final List<StageMetrics> started = new ArrayList<>();
+
+  @Before
+  public void enableInstrumentation() {
+    server = MBeanServerFactory.newMBeanServer();
+    Instrumentation.enable(new JmxInstrumentationSink(server) {
+      @Override
+      public void stageStarted(StageMetrics stage) {
+        super.stageStarted(stage);
+        started.add(stage);
+      }
+    });
+  }
+
+  @After
+  public void disableInstrumentation() {
+    Instrumentation.disable();
+  }
+
+  @Test
+  public void registerStageBeanTest() throws Exception {
+    HotObservable<String> observable = new HotObservable<>();
+
+    observable.instrument("stage").observe();
+    observable.next("a").next("b");
+
+    StageMetrics stage = started.get(0);
+    ObjectName name = JmxInstrumentationSink.getObjectName(stage);
+
+    assertTrue(server.isRegistered(name));
+    assertThat(server.getAttribute(name, "Name"), equalTo("stage"));
+    assertThat(server.getAttribute(name, "MessagesIn"), equalTo(2L));
+    assertThat(server.getAttribute(name, "LatencyCount"), equalTo(2L));
+    assertThat(server.getAttribute(name, "DownstreamId"), equalTo(-1L));
+  }
+
+  @Test
+  public void unregisterStageBeanOnCompleteTest() {
+    HotObservable<String> observable = new HotObservable<>();
+
+    observable.instrument("stage: with, special = characters").observe();
+    StageMetrics stage = started.get(0);
+    ObjectName name = JmxInstrumentationSink.getObjectName(stage);
+    assertTrue(server.isRegistered(name));
+
+    observable.complete();
+
+    assertFalse(server.isRegistered(name));
+  }
+}
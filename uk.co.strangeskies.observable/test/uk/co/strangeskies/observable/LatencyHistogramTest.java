@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class LatencyHistogramTest {
+  @Test
+  public void emptyHistogramTest() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThat(histogram.getCount(), equalTo(0L));
+    assertThat(histogram.getMean(), equalTo(0d));
+    assertThat(histogram.getPercentile(50), equalTo(0L));
+  }
+
+  @Test
+  public void recordIntoPowerOfTwoBucketsTest() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record(0);
+    histogram.record(1);
+    histogram.record(2);
+    histogram.record(3);
+    histogram.record(4);
+
+    assertThat(histogram.getBucketCount(0), equalTo(1L));
+    assertThat(histogram.getBucketCount(1), equalTo(1L));
+    assertThat(histogram.getBucketCount(2), equalTo(2L));
+    assertThat(histogram.getBucketCount(3), equalTo(1L));
+    assertThat(LatencyHistogram.getBucketUpperBound(2), equalTo(3L));
+  }
+
+  @Test
+  public void recordNegativeAsZeroTest() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record(-5);
+
+    assertThat(histogram.getBucketCount(0), equalTo(1L));
+    assertThat(histogram.getMaximum(), equalTo(0L));
+  }
+
+  @Test
+  public void recordMaximumValueTest() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.getBucketCount(LatencyHistogram.BUCKET_COUNT - 1), equalTo(1L));
+    assertThat(histogram.getPercentile(100), equalTo(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void meanAndMaximumTest() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    histogram.record(10);
+    histogram.record(30);
+
+    assertThat(histogram.getMean(), equalTo(20d));
+    assertThat(histogram.getMaximum(), equalTo(30L));
+  }
+
+  @Test
+  public void percentileBoundsTest() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    for (int i = 0; i < 99; i++)
+      histogram.record(100);
+    histogram.record(1000000);
+
+    assertThat(histogram.getPercentile(50), equalTo(127L));
+    assertThat(histogram.getPercentile(99), equalTo(127L));
+    assertThat(histogram.getPercentile(100), equalTo(1000000L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void percentileOutOfRangeTest() {
+    new LatencyHistogram().getPercentile(101);
+  }
+}
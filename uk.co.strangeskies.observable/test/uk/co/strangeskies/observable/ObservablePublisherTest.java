@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.Flow.Subscription;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ObservablePublisherTest {
+  static class RecordingSubscriber<T> implements Subscriber<T> {
+    final List<Object> events = new ArrayList<>();
+    Subscription subscription;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(T item) {
+      events.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      events.add(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      events.add("complete");
+    }
+  }
+
+  @Test
+  public void subscribeWithoutRequestTest() {
+    RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+    Observable.of(1, 2, 3).toPublisher().subscribe(subscriber);
+
+    assertThat(subscriber.events, equalTo(List.of()));
+  }
+
+  @Test
+  public void requestIsPassedThroughTest() {
+    RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+    Observable.of(1, 2, 3).toPublisher().subscribe(subscriber);
+    subscriber.subscription.request(2);
+
+    assertThat(subscriber.events, equalTo(List.of(1, 2)));
+  }
+
+  @Test
+  public void completeTest() {
+    RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+    Observable.of(1, 2).toPublisher().subscribe(subscriber);
+    subscriber.subscription.request(3);
+
+    assertThat(subscriber.events, equalTo(List.of(1, 2, "complete")));
+  }
+
+  @Test
+  public void cancelTest() {
+    RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+    Observable.of(1, 2, 3).toPublisher().subscribe(subscriber);
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(1);
+
+    assertThat(subscriber.events, equalTo(List.of(1)));
+  }
+
+  @Test
+  public void failTest() {
+    Throwable failure = new Throwable();
+
+    RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+    HotObservable<Integer> observable = new HotObservable<>();
+    observable.toPublisher().subscribe(subscriber);
+    observable.fail(failure);
+
+    assertThat(subscriber.events, equalTo(List.of(failure)));
+  }
+
+  @Test
+  public void nonPositiveRequestTest() {
+    RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+    Observable.of(1, 2, 3).toPublisher().subscribe(subscriber);
+    subscriber.subscription.request(0);
+
+    assertThat(subscriber.events.size(), equalTo(1));
+    assertThat(subscriber.events.get(0), instanceOf(IllegalArgumentException.class));
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.VerificationsInOrder;
+
+@SuppressWarnings("javadoc")
+public class ObservationHeapTest {
+  @Injectable
+  Observation firstObservation;
+  @Injectable
+  Observation secondObservation;
+  @Injectable
+  Observation thirdObservation;
+
+  @Test
+  public void emptyHeapTest() {
+    ObservationHeap heap = new ObservationHeap();
+
+    assertThat(heap.isEmpty(), equalTo(true));
+    assertThat(heap.getLeastPending(), nullValue());
+    assertThat(heap.getLeastPendingRequestCount(), equalTo(Long.MAX_VALUE));
+    assertThat(heap.getPendingRequestCount(), equalTo(0L));
+  }
+
+  @Test
+  public void leastPendingAfterRequestsTest() {
+    ObservationHeap heap = new ObservationHeap();
+    Observation first = heap.add(firstObservation);
+    Observation second = heap.add(secondObservation);
+    Observation third = heap.add(thirdObservation);
+
+    first.request(3);
+    second.request(1);
+    third.request(2);
+
+    assertThat(heap.getLeastPending(), sameInstance(second));
+    assertThat(heap.getLeastPendingRequestCount(), equalTo(1L));
+    assertThat(heap.getLeastPendingRequestCountAbove(1), equalTo(2L));
+    assertThat(heap.getPendingRequestCount(), equalTo(6L));
+    assertThat(heap.getObservations(), equalTo(asList(first, second, third)));
+
+    new VerificationsInOrder() {
+      {
+        firstObservation.request(3);
+        secondObservation.request(1);
+        thirdObservation.request(2);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void leastPendingTiesTest() {
+    ObservationHeap heap = new ObservationHeap();
+    Observation first = heap.add(firstObservation);
+    Observation second = heap.add(secondObservation);
+    Observation third = heap.add(thirdObservation);
+
+    first.request(1);
+    second.request(3);
+    third.request(1);
+
+    assertThat(heap.getLeastPendingObservationCount(), equalTo(2));
+    assertThat(heap.getLeastPending(), not(sameInstance(second)));
+    assertThat(heap.getLeastPendingRequestCountAbove(1), equalTo(3L));
+    assertThat(heap.getLeastPendingRequestCountAbove(3), equalTo(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void requestLeastPendingTest() {
+    ObservationHeap heap = new ObservationHeap();
+    Observation first = heap.add(firstObservation);
+    Observation second = heap.add(secondObservation);
+    Observation third = heap.add(thirdObservation);
+
+    second.request(2);
+    heap.requestLeastPending(1, 1);
+
+    assertThat(heap.getPendingRequestCount(), equalTo(5L));
+    assertThat(heap.getLeastPendingRequestCount(), equalTo(1L));
+    assertThat(heap.getLeastPendingObservationCount(), equalTo(1));
+    assertThat(heap.getLeastPendingRequestCountAbove(1), equalTo(2L));
+    assertThat(
+        first.getPendingRequestCount() + third.getPendingRequestCount(),
+        equalTo(3L));
+
+    heap.requestLeastPending(1, 0);
+
+    assertThat(heap.getLeastPendingRequestCount(), equalTo(2L));
+    assertThat(heap.getLeastPendingObservationCount(), equalTo(3));
+  }
+
+  @Test
+  public void fulfilRequestsTest() {
+    ObservationHeap heap = new ObservationHeap();
+    ObservationHeap.Entry first = heap.add(firstObservation);
+    ObservationHeap.Entry second = heap.add(secondObservation);
+
+    first.request(2);
+    second.request(1);
+    first.fulfil();
+    first.fulfil();
+
+    assertThat(heap.getLeastPending(), sameInstance(first));
+    assertThat(heap.getPendingRequestCount(), equalTo(1L));
+
+    first.fulfil();
+
+    assertThat(first.getPendingRequestCount(), equalTo(0L));
+  }
+
+  @Test
+  public void removeTest() {
+    ObservationHeap heap = new ObservationHeap();
+    ObservationHeap.Entry first = heap.add(firstObservation);
+    ObservationHeap.Entry second = heap.add(secondObservation);
+    ObservationHeap.Entry third = heap.add(thirdObservation);
+
+    first.request(1);
+    second.request(2);
+    third.request(3);
+    heap.remove(first);
+
+    assertThat(heap.size(), equalTo(2));
+    assertThat(heap.getLeastPending(), sameInstance(second));
+    assertThat(heap.getPendingRequestCount(), equalTo(5L));
+    assertThat(heap.getObservations(), equalTo(asList(second, third)));
+  }
+
+  @Test
+  public void unboundedRequestsTest() {
+    ObservationHeap heap = new ObservationHeap();
+    Observation first = heap.add(firstObservation);
+    heap.add(secondObservation);
+
+    first.request(1);
+    heap.requestEach(Long.MAX_VALUE);
+    heap.requestEach(Long.MAX_VALUE);
+
+    assertThat(heap.getPendingRequestCount(), equalTo(Long.MAX_VALUE));
+    assertThat(heap.getLeastPendingRequestCount(), equalTo(Long.MAX_VALUE));
+
+    new VerificationsInOrder() {
+      {
+        firstObservation.request(1);
+        secondObservation.request(Long.MAX_VALUE);
+        firstObservation.request(Long.MAX_VALUE);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void removeDuringAllocationTest() {
+    ObservationHeap heap = new ObservationHeap();
+    ObservationHeap.Entry first = heap.add(firstObservation);
+    ObservationHeap.Entry second = heap.add(secondObservation);
+
+    long remaining = heap.allocateRequests((count, observations) -> {
+      heap.remove(first);
+      assertThat(observations.size(), equalTo(2));
+      observations.get(0).request(1);
+      observations.get(1).request(1);
+      return count - 1;
+    }, 2);
+
+    assertThat(remaining, equalTo(1L));
+    assertThat(heap.getObservations(), equalTo(asList(second)));
+
+    new VerificationsInOrder() {
+      {
+        secondObservation.request(1);
+      }
+    };
+    new FullVerifications() {};
+  }
+}
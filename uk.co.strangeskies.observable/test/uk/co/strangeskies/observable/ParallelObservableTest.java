@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static uk.co.strangeskies.observable.Observer.onCompletion;
+import static uk.co.strangeskies.observable.Observer.onFailure;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ParallelObservableTest {
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  private static List<Integer> range(int count) {
+    return IntStream.range(0, count).boxed().collect(toList());
+  }
+
+  private static <M> List<M> receiveAll(Observable<M> observable) throws Exception {
+    List<M> messages = Collections.synchronizedList(new ArrayList<>());
+    CompletableFuture<List<M>> result = new CompletableFuture<>();
+
+    observable
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .thenAfter(onCompletion(() -> result.complete(messages)))
+        .thenAfter(onFailure(result::completeExceptionally))
+        .observe();
+
+    return new ArrayList<>(result.get(5, SECONDS));
+  }
+
+  @Test(timeout = 10000)
+  public void sequentialReceivesAllMessagesTest() throws Exception {
+    List<Integer> result = receiveAll(
+        Observable
+            .of(range(10000))
+            .parallel(4, m -> m, executor, 16)
+            .sequential(8));
+
+    Collections.sort(result);
+    assertThat(result, equalTo(range(10000)));
+  }
+
+  @Test(timeout = 10000)
+  public void preserveOrderPerKeyTest() throws Exception {
+    List<Integer> result = receiveAll(
+        Observable
+            .of(range(10000))
+            .parallel(4, m -> m % 7, executor, 16)
+            .sequential());
+
+    Map<Integer, List<Integer>> byKey = new HashMap<>();
+    for (Integer message : result)
+      byKey.computeIfAbsent(message % 7, k -> new ArrayList<>()).add(message);
+
+    assertThat(result.size(), equalTo(10000));
+    for (List<Integer> messages : byKey.values()) {
+      List<Integer> sorted = new ArrayList<>(messages);
+      Collections.sort(sorted);
+      assertThat(messages, equalTo(sorted));
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void mapOnRailWorkersTest() throws Exception {
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    List<Integer> result = receiveAll(
+        Observable
+            .of(range(1000))
+            .parallel(4, m -> m, executor)
+            .map(m -> {
+              threads.add(Thread.currentThread());
+              return m * 2;
+            })
+            .filter(m -> m % 4 == 0)
+            .sequential());
+
+    Collections.sort(result);
+    assertThat(
+        result,
+        equalTo(IntStream.range(0, 500).map(i -> i * 4).boxed().collect(toList())));
+    assertThat(threads.contains(Thread.currentThread()), equalTo(false));
+  }
+
+  @Test(timeout = 10000)
+  public void failPropagatesTest() throws Exception {
+    Throwable failure = new Throwable();
+    HotObservable<Integer> upstream = new HotObservable<>();
+
+    List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+    upstream
+        .parallel(4, m -> m, executor)
+        .sequential()
+        .thenAfter(onFailure(failures::add))
+        .observe();
+
+    upstream.fail(failure);
+
+    while (failures.isEmpty())
+      Thread.sleep(1);
+    assertThat(failures, equalTo(Collections.singletonList(failure)));
+  }
+
+  @Test(timeout = 10000)
+  public void failingRailStagePropagatesTest() throws Exception {
+    RuntimeException failure = new RuntimeException();
+
+    try {
+      receiveAll(
+          Observable
+              .of(range(1000))
+              .parallel(4, m -> m, executor, 16)
+              .map(m -> {
+                if (m == 500)
+                  throw failure;
+                return m;
+              })
+              .sequential(8));
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), equalTo(failure));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongNumberOfRailsTest() {
+    Observable.of(1, 2, 3).parallel(2, m -> m).observe(Collections.emptyList());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroParallelismTest() {
+    Observable.of(1, 2, 3).parallel(0, m -> m);
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+
+import org.junit.Test;
+
+import mockit.FullVerifications;
+import mockit.Injectable;
+import mockit.VerificationsInOrder;
+
+@SuppressWarnings("javadoc")
+public class PartitioningObserverTest {
+  interface MockObserver<T> extends Observer<T> {}
+
+  interface MockObservation extends Observation {}
+
+  @Injectable
+  MockObservation upstreamObservation;
+
+  @Injectable
+  MockObserver<Integer> evenObserver;
+
+  @Injectable
+  MockObserver<Integer> oddObserver;
+
+  @Test
+  public void observeRequestsCapacityTest() {
+    Observer<Integer> test = new PartitioningObserver<>(
+        asList(evenObserver, oddObserver),
+        m -> m,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+
+    new VerificationsInOrder() {
+      {
+        evenObserver.onObserve((Observation) any);
+        oddObserver.onObserve((Observation) any);
+        upstreamObservation.request(4);
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test
+  public void messagesWithoutRailRequestsTest() {
+    Observer<Integer> test = new PartitioningObserver<>(
+        asList(evenObserver, oddObserver),
+        m -> m,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+    test.onNext(0);
+    test.onNext(1);
+    test.onNext(2);
+
+    new VerificationsInOrder() {
+      {
+        upstreamObservation.request(4);
+      }
+    };
+    new FullVerifications(evenObserver, oddObserver) {
+      {
+        evenObserver.onObserve((Observation) any);
+        oddObserver.onObserve((Observation) any);
+      }
+    };
+  }
+
+  @Test
+  public void partitionByKeyTest() {
+    Observer<Integer> test = new PartitioningObserver<>(
+        asList(evenObserver, oddObserver),
+        m -> m,
+        r -> r.run(),
+        4);
+
+    Observation[] rails = new Observation[2];
+    new mockit.Expectations() {
+      {
+        evenObserver.onObserve((Observation) any);
+        result = new mockit.Delegate<Void>() {
+          @SuppressWarnings("unused")
+          void delegate(Observation observation) {
+            rails[0] = observation;
+          }
+        };
+        oddObserver.onObserve((Observation) any);
+        result = new mockit.Delegate<Void>() {
+          @SuppressWarnings("unused")
+          void delegate(Observation observation) {
+            rails[1] = observation;
+          }
+        };
+      }
+    };
+
+    test.onObserve(upstreamObservation);
+    rails[0].requestUnbounded();
+    rails[1].requestUnbounded();
+    test.onNext(0);
+    test.onNext(1);
+    test.onNext(2);
+    test.onNext(3);
+    test.onComplete();
+
+    new VerificationsInOrder() {
+      {
+        evenObserver.onNext(0);
+        evenObserver.onNext(2);
+        evenObserver.onComplete();
+      }
+    };
+    new VerificationsInOrder() {
+      {
+        oddObserver.onNext(1);
+        oddObserver.onNext(3);
+        oddObserver.onComplete();
+      }
+    };
+  }
+
+  @Test
+  public void cancelRailCancelsUpstreamTest() {
+    Observation[] rail = new Observation[1];
+    Observer<Integer> test = new PartitioningObserver<>(
+        asList(Observer.onObservation(o -> rail[0] = o)),
+        m -> m,
+        r -> r.run(),
+        4);
+
+    test.onObserve(upstreamObservation);
+    rail[0].cancel();
+
+    new VerificationsInOrder() {
+      {
+        upstreamObservation.request(4);
+        upstreamObservation.cancel();
+      }
+    };
+    new FullVerifications() {};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noRailsTest() {
+    new PartitioningObserver<Integer>(asList(), m -> m, r -> r.run(), 4);
+  }
+}
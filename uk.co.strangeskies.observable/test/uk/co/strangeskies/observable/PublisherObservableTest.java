@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class PublisherObservableTest {
+  @Test(timeout = 5000)
+  public void submissionPublisherTest() throws Exception {
+    CompletableFuture<List<String>> result = new CompletableFuture<>();
+
+    try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+      Observable.fromPublisher(publisher).observe(new Observer<String>() {
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void onObserve(Observation observation) {
+          observation.requestUnbounded();
+        }
+
+        @Override
+        public void onNext(String message) {
+          messages.add(message);
+        }
+
+        @Override
+        public void onComplete() {
+          result.complete(messages);
+        }
+      });
+
+      publisher.submit("message1");
+      publisher.submit("message2");
+    }
+
+    assertThat(result.get(1, TimeUnit.SECONDS), equalTo(List.of("message1", "message2")));
+  }
+
+  @Test
+  public void requestIsPassedThroughTest() {
+    List<Integer> messages = new ArrayList<>();
+
+    Observable
+        .fromPublisher(Observable.of(1, 2, 3).toPublisher())
+        .thenAfter(Observer.onObservation(o -> o.request(2)))
+        .observe(messages::add);
+
+    assertThat(messages, equalTo(List.of(1, 2)));
+  }
+
+  @Test
+  public void pendingRequestCountTest() {
+    List<Observation> observations = new ArrayList<>();
+
+    Observable.fromPublisher(Observable.of(1, 2, 3).toPublisher()).observe(new Observer<Integer>() {
+      @Override
+      public void onObserve(Observation observation) {
+        observations.add(observation);
+        observation.request(2);
+        observation.request(3);
+      }
+
+      @Override
+      public void onNext(Integer message) {}
+    });
+
+    assertThat(observations.get(0).getPendingRequestCount(), equalTo(2l));
+  }
+
+  @Test
+  public void cancelBeforeSubscriptionTest() {
+    List<Integer> messages = new ArrayList<>();
+
+    Disposable disposable = Observable
+        .<Integer>fromPublisher(subscriber -> {})
+        .observe(messages::add);
+    disposable.cancel();
+
+    assertThat(messages, equalTo(List.of()));
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ReferenceReaperTest {
+  private final ReferenceReaper reaper = new ReferenceReaper(Thread::new);
+
+  @After
+  public void closeReaper() {
+    reaper.close();
+  }
+
+  private static void collectGarbageUntil(BooleanSupplier condition) {
+    while (!condition.getAsBoolean()) {
+      new Object();
+      System.gc();
+      Thread.yield();
+    }
+  }
+
+  @Test(timeout = 5000)
+  public void reapWeakReferenceTest() {
+    CountDownLatch reaped = new CountDownLatch(1);
+    Reference<?> reference = reaper.weakReference(new Object(), reaped::countDown);
+
+    collectGarbageUntil(() -> reaped.getCount() == 0);
+
+    assertThat(reference.get(), equalTo(null));
+    assertThat(reaper.getReclaimedCount(), equalTo(1L));
+  }
+
+  @Test(timeout = 5000)
+  public void holdWeakReferenceTest() throws InterruptedException {
+    CountDownLatch reaped = new CountDownLatch(1);
+    Object referent = new Object();
+    Reference<?> reference = reaper.weakReference(referent, reaped::countDown);
+
+    System.gc();
+    Thread.sleep(50);
+
+    assertThat(reference.get(), equalTo(referent));
+    assertThat(reaped.getCount(), equalTo(1L));
+    assertThat(reaper.getReclaimedCount(), equalTo(0L));
+  }
+
+  @Test(timeout = 5000)
+  public void reapManyWeakReferencesTest() {
+    CountDownLatch reaped = new CountDownLatch(100);
+    Reference<?>[] references = new Reference<?>[100];
+    for (int i = 0; i < references.length; i++)
+      references[i] = reaper.weakReference(new Object(), reaped::countDown);
+
+    collectGarbageUntil(() -> reaped.getCount() == 0);
+
+    assertThat(reaper.getReclaimedCount(), equalTo(100L));
+  }
+
+  @Test(timeout = 5000)
+  public void cancelWeakObservationWithoutMessageTest() {
+    HotObservable<String> observable = new HotObservable<>();
+    observable.observe(ReferenceObserver.weak(new ArrayList<String>()::add, reaper));
+    assertTrue(observable.hasObservers());
+
+    collectGarbageUntil(() -> !observable.hasObservers());
+
+    assertThat(reaper.getReclaimedCount(), equalTo(1L));
+  }
+
+  @Test(timeout = 5000)
+  public void cancelOwnedObservationWithoutMessageTest() {
+    HotObservable<String> observable = new HotObservable<>();
+    observable.observe(ReferenceOwnedObserver.weak(new Object(), m -> {}, reaper));
+    assertTrue(observable.hasObservers());
+
+    collectGarbageUntil(() -> !observable.hasObservers());
+
+    assertThat(reaper.getReclaimedCount(), equalTo(1L));
+  }
+
+  @Test(timeout = 5000)
+  public void cancelSharedWeakObservationWithoutMessageTest() {
+    HotObservable<String> observable = new HotObservable<>();
+    observable.weakReference().observe(new ArrayList<String>()::add);
+
+    collectGarbageUntil(() -> !observable.hasObservers());
+
+    assertFalse(observable.hasObservers());
+  }
+
+  @Test(timeout = 5000)
+  public void closeStopsThreadTest() throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    ReferenceReaper reaper = new ReferenceReaper(runnable -> {
+      Thread thread = new Thread(runnable);
+      threads.add(thread);
+      return thread;
+    });
+    assertTrue(threads.get(0).isAlive());
+
+    reaper.close();
+    threads.get(0).join();
+
+    assertFalse(threads.get(0).isAlive());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void closeSharedReaperTest() {
+    ReferenceReaper.shared().close();
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.time.Duration.ofMillis;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.Observer.onCompletion;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class RepeatWhenObserverTest {
+  private final VirtualScheduler scheduler = new VirtualScheduler();
+
+  @Test
+  public void repeatAfterDelay() {
+    List<Integer> messages = new ArrayList<>();
+
+    Observable
+        .of(1, 2)
+        .repeatWhen(Backoff.fixed(ofMillis(100)), scheduler)
+        .then(onObservation(Observation::requestUnbounded))
+        .observe(messages::add);
+
+    assertThat(messages, equalTo(asList(1, 2)));
+
+    scheduler.advance(ofMillis(99));
+    assertThat(messages, equalTo(asList(1, 2)));
+
+    scheduler.advance(ofMillis(1));
+    assertThat(messages, equalTo(asList(1, 2, 1, 2)));
+  }
+
+  @Test
+  public void completeAfterMaximumAttempts() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .of(1)
+        .repeatWhen(Backoff.exponential(ofMillis(100)).withMaximumAttempts(2), scheduler)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onCompletion(() -> complete.set(true)))
+        .observe(messages::add);
+
+    scheduler.advance(ofMillis(100));
+    assertThat(complete.get(), equalTo(false));
+
+    scheduler.advance(ofMillis(200));
+    assertThat(messages, equalTo(asList(1, 1, 1)));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test
+  public void outstandingRequestsAreMadeAgain() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    Observable
+        .of(1, 2)
+        .repeatWhen(Backoff.fixed(ofMillis(100)), scheduler)
+        .then(onObservation(observation::set))
+        .observe(messages::add);
+
+    observation.get().request(3);
+    assertThat(messages, equalTo(asList(1, 2)));
+
+    scheduler.advance(ofMillis(100));
+    assertThat(messages, equalTo(asList(1, 2, 1)));
+    assertThat(observation.get().getPendingRequestCount(), equalTo(0L));
+  }
+
+  @Test
+  public void cancelPreventsRepeat() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    Observable
+        .of(1)
+        .repeatWhen(Backoff.fixed(ofMillis(100)), scheduler)
+        .then(onObservation(observation::set))
+        .then(onObservation(Observation::requestUnbounded))
+        .observe(messages::add);
+
+    observation.get().cancel();
+    scheduler.advance(ofMillis(1000));
+
+    assertThat(messages, equalTo(asList(1)));
+  }
+}
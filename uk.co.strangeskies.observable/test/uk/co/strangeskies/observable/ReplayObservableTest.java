@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.time.Duration.ofMillis;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.Observer.onCompletion;
+import static uk.co.strangeskies.observable.Observer.onFailure;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ReplayObservableTest {
+  private static <M> List<M> observeUnbounded(Observable<M> observable) {
+    List<M> messages = new ArrayList<>();
+    observable.then(onObservation(Observation::requestUnbounded)).observe(messages::add);
+    return messages;
+  }
+
+  @Test
+  public void replayAllToLateObserverTest() {
+    ReplayObservable<String> replay = ReplayObservable.unbounded();
+
+    replay.next("one").next("two");
+    List<String> messages = observeUnbounded(replay);
+    replay.next("three");
+
+    assertThat(messages, equalTo(asList("one", "two", "three")));
+  }
+
+  @Test
+  public void replayAcrossSegmentsTest() {
+    ReplayObservable<Integer> replay = ReplayObservable.unbounded();
+
+    IntStream.range(0, 1000).forEach(replay::next);
+    List<Integer> messages = observeUnbounded(replay);
+
+    assertThat(messages, equalTo(IntStream.range(0, 1000).boxed().collect(toList())));
+  }
+
+  @Test
+  public void replayBoundedTest() {
+    ReplayObservable<Integer> replay = ReplayObservable.bounded(100);
+
+    IntStream.range(0, 1000).forEach(replay::next);
+    List<Integer> messages = observeUnbounded(replay);
+    replay.next(1000);
+
+    assertThat(messages, equalTo(IntStream.range(900, 1001).boxed().collect(toList())));
+    assertThat(replay.getReplaySize(), equalTo(100L));
+  }
+
+  @Test
+  public void replayTimedTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    ReplayObservable<String> replay = ReplayObservable.timed(ofMillis(10), scheduler);
+
+    replay.next("one");
+    scheduler.advance(ofMillis(5));
+    replay.next("two");
+    scheduler.advance(ofMillis(6));
+    List<String> messages = observeUnbounded(replay);
+
+    assertThat(messages, equalTo(asList("two")));
+  }
+
+  @Test
+  public void replayWithBackpressureTest() {
+    ReplayObservable<String> replay = ReplayObservable.unbounded();
+    replay.next("one").next("two").next("three");
+
+    List<String> messages = new ArrayList<>();
+    Observation[] observation = new Observation[1];
+    replay.then(onObservation(o -> observation[0] = o)).observe(messages::add);
+
+    assertThat(messages, equalTo(asList()));
+
+    observation[0].request(2);
+    assertThat(messages, equalTo(asList("one", "two")));
+
+    replay.next("four");
+    observation[0].requestNext();
+    assertThat(messages, equalTo(asList("one", "two", "three")));
+
+    observation[0].requestNext();
+    assertThat(messages, equalTo(asList("one", "two", "three", "four")));
+  }
+
+  @Test
+  public void completeAfterReplayTest() {
+    ReplayObservable<String> replay = ReplayObservable.unbounded();
+    replay.next("one").complete();
+
+    List<String> events = new ArrayList<>();
+    replay
+        .then(onObservation(Observation::requestUnbounded))
+        .then(events::add)
+        .then(onCompletion(() -> events.add("complete")))
+        .observe();
+
+    assertThat(events, equalTo(asList("one", "complete")));
+    assertThat(replay.hasObservers(), equalTo(false));
+  }
+
+  @Test
+  public void failAfterReplayTest() {
+    ReplayObservable<String> replay = ReplayObservable.unbounded();
+    Throwable failure = new Throwable();
+    replay.next("one").fail(failure);
+
+    List<Object> events = new ArrayList<>();
+    replay
+        .then(onObservation(Observation::requestUnbounded))
+        .then(events::add)
+        .then(onFailure(events::add))
+        .observe();
+
+    assertThat(events, equalTo(asList("one", failure)));
+  }
+
+  @Test
+  public void cancelObservationTest() {
+    ReplayObservable<String> replay = ReplayObservable.unbounded();
+
+    List<String> messages = new ArrayList<>();
+    Disposable observation = replay
+        .then(onObservation(Observation::requestUnbounded))
+        .observe(messages::add);
+    replay.next("one");
+    observation.cancel();
+    replay.next("two");
+
+    assertThat(messages, equalTo(asList("one")));
+    assertThat(replay.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 10000)
+  public void concurrentReadersTest() throws InterruptedException {
+    ReplayObservable<Integer> replay = ReplayObservable.unbounded();
+    int count = 100000;
+    int readerCount = 4;
+
+    List<List<Integer>> received = new ArrayList<>();
+    CountDownLatch complete = new CountDownLatch(readerCount);
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < readerCount; i++) {
+      List<Integer> messages = new ArrayList<>();
+      received.add(messages);
+      readers.add(
+          new Thread(
+              () -> replay
+                  .then(onObservation(Observation::requestUnbounded))
+                  .then(messages::add)
+                  .then(onCompletion(complete::countDown))
+                  .observe()));
+    }
+
+    for (int i = 0; i < count; i++) {
+      if (i % (count / readerCount) == 0)
+        readers.get(i / (count / readerCount)).start();
+      replay.next(i);
+    }
+    replay.complete();
+
+    complete.await();
+
+    List<Integer> expected = IntStream.range(0, count).boxed().collect(toList());
+    for (List<Integer> messages : received)
+      assertThat(messages, equalTo(expected));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaximumSizeTest() {
+    ReplayObservable.bounded(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void nextAfterCompleteTest() {
+    ReplayObservable.unbounded().complete().next("one");
+  }
+}
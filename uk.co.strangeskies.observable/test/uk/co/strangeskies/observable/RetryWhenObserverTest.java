@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.time.Duration.ofMillis;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.Observer.onFailure;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class RetryWhenObserverTest {
+  private final VirtualScheduler scheduler = new VirtualScheduler();
+  private final Throwable failure = new Throwable();
+  private final AtomicInteger subscriptions = new AtomicInteger();
+
+  private Observable<Integer> failingAfter(Integer... messages) {
+    return observer -> {
+      subscriptions.incrementAndGet();
+      return Observable
+          .concat(Observable.of(messages), Observable.<Integer>failingValue(failure))
+          .observe(observer);
+    };
+  }
+
+  @Test
+  public void retryAfterDelay() {
+    List<Integer> messages = new ArrayList<>();
+
+    failingAfter(1, 2)
+        .retryWhen(Backoff.fixed(ofMillis(100)), scheduler)
+        .then(onObservation(Observation::requestUnbounded))
+        .observe(messages::add);
+
+    assertThat(subscriptions.get(), equalTo(1));
+    assertThat(messages, equalTo(asList(1, 2)));
+
+    scheduler.advance(ofMillis(99));
+    assertThat(subscriptions.get(), equalTo(1));
+
+    scheduler.advance(ofMillis(1));
+    assertThat(subscriptions.get(), equalTo(2));
+    assertThat(messages, equalTo(asList(1, 2, 1, 2)));
+  }
+
+  @Test
+  public void retryBacksOffExponentially() {
+    failingAfter()
+        .retryWhen(Backoff.exponential(ofMillis(100)), scheduler)
+        .then(onObservation(Observation::requestUnbounded))
+        .observe();
+
+    scheduler.advance(ofMillis(100));
+    assertThat(subscriptions.get(), equalTo(2));
+
+    scheduler.advance(ofMillis(199));
+    assertThat(subscriptions.get(), equalTo(2));
+
+    scheduler.advance(ofMillis(1));
+    assertThat(subscriptions.get(), equalTo(3));
+
+    scheduler.advance(ofMillis(400));
+    assertThat(subscriptions.get(), equalTo(4));
+  }
+
+  @Test
+  public void failAfterMaximumAttempts() {
+    AtomicReference<Throwable> received = new AtomicReference<>();
+
+    failingAfter()
+        .retryWhen(Backoff.fixed(ofMillis(100)).withMaximumAttempts(2), scheduler)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onFailure(received::set))
+        .observe();
+
+    scheduler.advance(ofMillis(200));
+    assertThat(subscriptions.get(), equalTo(3));
+    assertThat(received.get(), equalTo(failure));
+
+    scheduler.advance(ofMillis(1000));
+    assertThat(subscriptions.get(), equalTo(3));
+  }
+
+  @Test
+  public void messagesResetAttempts() {
+    AtomicReference<Throwable> received = new AtomicReference<>();
+
+    failingAfter(1)
+        .retryWhen(Backoff.exponential(ofMillis(100)).withMaximumAttempts(1), scheduler)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onFailure(received::set))
+        .observe();
+
+    scheduler.advance(ofMillis(100));
+    scheduler.advance(ofMillis(100));
+    scheduler.advance(ofMillis(100));
+
+    assertThat(subscriptions.get(), equalTo(4));
+    assertThat(received.get(), equalTo(null));
+  }
+
+  @Test
+  public void outstandingRequestsAreMadeAgain() {
+    List<Integer> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    failingAfter(1, 2, 3)
+        .retryWhen(Backoff.fixed(ofMillis(100)), scheduler)
+        .then(onObservation(observation::set))
+        .observe(messages::add);
+
+    observation.get().request(2);
+    assertThat(messages, equalTo(asList(1, 2)));
+    assertThat(observation.get().getPendingRequestCount(), equalTo(0L));
+
+    observation.get().request(3);
+    assertThat(messages, equalTo(asList(1, 2, 3)));
+
+    scheduler.advance(ofMillis(100));
+    assertThat(messages, equalTo(asList(1, 2, 3, 1, 2)));
+    assertThat(observation.get().getPendingRequestCount(), equalTo(0L));
+  }
+
+  @Test
+  public void cancelPreventsRetry() {
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    failingAfter()
+        .retryWhen(Backoff.fixed(ofMillis(100)), scheduler)
+        .then(onObservation(observation::set))
+        .then(onObservation(Observation::requestUnbounded))
+        .observe();
+
+    observation.get().cancel();
+    scheduler.advance(ofMillis(1000));
+
+    assertThat(subscriptions.get(), equalTo(1));
+  }
+
+  @Test(timeout = 5000)
+  public void retryOffFailingThread() throws InterruptedException {
+    Thread failingThread = Thread.currentThread();
+    AtomicReference<Thread> retryThread = new AtomicReference<>();
+    CountDownLatch retried = new CountDownLatch(1);
+
+    Observable<Integer> source = observer -> {
+      if (subscriptions.incrementAndGet() > 1) {
+        retryThread.set(Thread.currentThread());
+        retried.countDown();
+      }
+      return Observable.<Integer>failingValue(failure).observe(observer);
+    };
+
+    Disposable disposable = source
+        .retryWhen(Backoff.fixed(ofMillis(1)).withMaximumAttempts(1))
+        .then(onObservation(Observation::requestUnbounded))
+        .observe();
+
+    assertThat(retried.await(1, TimeUnit.SECONDS), equalTo(true));
+    assertThat(retryThread.get() != failingThread, equalTo(true));
+    disposable.cancel();
+  }
+}
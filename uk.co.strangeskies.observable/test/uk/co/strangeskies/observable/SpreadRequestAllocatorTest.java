@@ -237,4 +237,47 @@ public class SpreadRequestAllocatorTest {
       }
     };
   }
+
+  @Test
+  public void allocateOverHeapWhenUnevenlyPendingTest() {
+    ObservationHeap heap = new ObservationHeap();
+    heap.add(firstObservation).request(4);
+    heap.add(secondObservation).request(1);
+    heap.add(thirdObservation);
+
+    long remaining = spread.allocateRequests(8, heap);
+
+    assertThat(remaining, equalTo(0l));
+    assertThat(heap.getPendingRequestCount(), equalTo(13l));
+    assertThat(heap.getLeastPendingRequestCount(), equalTo(4l));
+    assertThat(heap.getLeastPendingObservationCount(), equalTo(2));
+  }
+
+  @Test(timeout = 10000)
+  public void allocateLargeRequestOverHeapTest() {
+    ObservationHeap heap = new ObservationHeap();
+    Observation first = heap.add(firstObservation);
+    Observation second = heap.add(secondObservation);
+
+    long remaining = spread.allocateRequests(1L << 36, heap);
+
+    assertThat(remaining, equalTo(0l));
+    assertThat(first.getPendingRequestCount(), equalTo(1L << 35));
+    assertThat(second.getPendingRequestCount(), equalTo(1L << 35));
+  }
+
+  @Test
+  public void allocateOddRequestOverHeapWithTiesTest() {
+    ObservationHeap heap = new ObservationHeap();
+    heap.add(firstObservation).request(2);
+    heap.add(secondObservation);
+    heap.add(thirdObservation);
+
+    long remaining = spread.allocateRequests(7, heap);
+
+    assertThat(remaining, equalTo(0l));
+    assertThat(heap.getPendingRequestCount(), equalTo(9l));
+    assertThat(heap.getLeastPendingRequestCount(), equalTo(3l));
+    assertThat(heap.getLeastPendingObservationCount(), equalTo(3));
+  }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.time.Duration.ofMillis;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class VirtualSchedulerTest {
+  @Test
+  public void scheduleBeforeDueTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    List<String> events = new ArrayList<>();
+
+    scheduler.schedule(() -> events.add("a"), ofMillis(10));
+    scheduler.advance(ofMillis(9));
+
+    assertThat(events, equalTo(asList()));
+    assertThat(scheduler.now(), equalTo(ofMillis(9)));
+  }
+
+  @Test
+  public void scheduleInOrderTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    List<String> events = new ArrayList<>();
+
+    scheduler.schedule(() -> events.add("b"), ofMillis(20));
+    scheduler.schedule(() -> events.add("a"), ofMillis(10));
+    scheduler.schedule(() -> events.add("c"), ofMillis(20));
+    scheduler.advance(ofMillis(20));
+
+    assertThat(events, equalTo(asList("a", "b", "c")));
+  }
+
+  @Test
+  public void schedulePeriodicallyTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    List<Long> events = new ArrayList<>();
+
+    scheduler.schedulePeriodically(
+        () -> events.add(scheduler.now().toMillis()),
+        ofMillis(5),
+        ofMillis(10));
+    scheduler.advance(ofMillis(30));
+
+    assertThat(events, equalTo(asList(5L, 15L, 25L)));
+  }
+
+  @Test
+  public void cancelScheduledTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    List<String> events = new ArrayList<>();
+
+    scheduler.schedule(() -> events.add("a"), ofMillis(10)).cancel();
+    scheduler.advance(ofMillis(10));
+
+    assertThat(events, equalTo(asList()));
+  }
+
+  @Test
+  public void cancelPeriodicFromActionTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    List<Long> events = new ArrayList<>();
+
+    Disposable[] task = new Disposable[1];
+    task[0] = scheduler.schedulePeriodically(() -> {
+      events.add(scheduler.now().toMillis());
+      if (events.size() == 2)
+        task[0].cancel();
+    }, ofMillis(10), ofMillis(10));
+    scheduler.advance(ofMillis(100));
+
+    assertThat(events, equalTo(asList(10L, 20L)));
+  }
+
+  @Test
+  public void scheduleFromActionTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    List<Long> events = new ArrayList<>();
+
+    scheduler.schedule(() -> {
+      events.add(scheduler.now().toMillis());
+      scheduler.schedule(() -> events.add(scheduler.now().toMillis()), ofMillis(5));
+    }, ofMillis(10));
+    scheduler.advance(ofMillis(20));
+
+    assertThat(events, equalTo(asList(10L, 15L)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroPeriodTest() {
+    new VirtualScheduler().schedulePeriodically(() -> {}, ofMillis(0), ofMillis(0));
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.time.Duration.ofMillis;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class WindowingObserverTest {
+  @Test
+  public void windowMessagesTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    HotObservable<String> upstream = new HotObservable<>();
+    List<List<String>> windows = new ArrayList<>();
+
+    upstream.window(ofMillis(10), scheduler).observe(window -> {
+      List<String> messages = new ArrayList<>();
+      windows.add(messages);
+      window.observe(messages::add);
+    });
+
+    upstream.next("one");
+    upstream.next("two");
+    scheduler.advance(ofMillis(10));
+    scheduler.advance(ofMillis(10));
+    upstream.next("three");
+
+    assertThat(windows, equalTo(asList(asList("one", "two"), asList(), asList("three"))));
+  }
+
+  @Test
+  public void completeWindowsTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    HotObservable<String> upstream = new HotObservable<>();
+    List<String> events = new ArrayList<>();
+
+    upstream.window(ofMillis(10), scheduler).observe(
+        window -> window
+            .then(events::add)
+            .thenAfter(Observer.onCompletion(() -> events.add("|")))
+            .observe());
+
+    upstream.next("one");
+    scheduler.advance(ofMillis(10));
+    upstream.next("two");
+    upstream.complete();
+
+    assertThat(events, equalTo(asList("one", "|", "two", "|")));
+  }
+
+  @Test
+  public void failWindowTest() {
+    VirtualScheduler scheduler = new VirtualScheduler();
+    HotObservable<String> upstream = new HotObservable<>();
+    List<Throwable> failures = new ArrayList<>();
+    Throwable failure = new Throwable();
+
+    upstream.window(ofMillis(10), scheduler).observe(
+        window -> window.thenAfter(Observer.onFailure(failures::add)).observe());
+
+    upstream.fail(failure);
+
+    assertThat(failures, equalTo(asList(failure)));
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.Observer.onCompletion;
+import static uk.co.strangeskies.observable.Observer.onFailure;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class WithLatestFromObserverTest {
+  @Test(timeout = 5000)
+  public void combineWithLatestFromOther() {
+    HotObservable<Integer> upstream = new HotObservable<>();
+    HotObservable<String> other = new HotObservable<>();
+    List<String> messages = new ArrayList<>();
+
+    upstream
+        .withLatestFrom(other, (i, s) -> i + s)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .observe();
+
+    upstream.next(1);
+    other.next("a").next("b");
+    upstream.next(2).next(3);
+    other.next("c");
+    upstream.next(4);
+
+    assertThat(messages, equalTo(asList("2b", "3b", "4c")));
+  }
+
+  @Test(timeout = 5000)
+  public void droppedMessagesAreReplaced() {
+    List<String> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+    AtomicBoolean complete = new AtomicBoolean();
+    HotObservable<String> other = new HotObservable<>();
+
+    Observable
+        .of(1, 2, 3)
+        .withLatestFrom(other, (i, s) -> i + s)
+        .then(onObservation(observation::set))
+        .then(messages::add)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    observation.get().request(1);
+    assertThat(messages, equalTo(asList()));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void completeCancelsOther() {
+    HotObservable<Integer> upstream = new HotObservable<>();
+    HotObservable<String> other = new HotObservable<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    upstream
+        .withLatestFrom(other, (i, s) -> i + s)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    upstream.complete();
+
+    assertThat(complete.get(), equalTo(true));
+    assertThat(other.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void otherFailureCancelsUpstream() {
+    HotObservable<Integer> upstream = new HotObservable<>();
+    HotObservable<String> other = new HotObservable<>();
+    Throwable failure = new Throwable();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+    List<String> messages = new ArrayList<>();
+
+    upstream
+        .withLatestFrom(other, (i, s) -> i + s)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onFailure(received::set))
+        .observe();
+
+    other.next("a");
+    upstream.next(1);
+    other.fail(failure);
+
+    assertThat(messages, equalTo(asList("1a")));
+    assertThat(received.get(), equalTo(failure));
+    assertThat(upstream.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void combinerFailureIsDelivered() {
+    HotObservable<Integer> upstream = new HotObservable<>();
+    HotObservable<String> other = new HotObservable<>();
+    RuntimeException failure = new RuntimeException();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+    List<String> messages = new ArrayList<>();
+
+    upstream
+        .withLatestFrom(other, (i, s) -> {
+          if (i == 2)
+            throw failure;
+          return i + s;
+        })
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onFailure(received::set))
+        .observe();
+
+    other.next("a");
+    upstream.next(1).next(2).next(3);
+
+    assertThat(messages, equalTo(asList("1a")));
+    assertThat(received.get(), equalTo(failure));
+    assertThat(upstream.hasObservers(), equalTo(false));
+    assertThat(other.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void otherFailureBeforeObservationIsDelivered() {
+    Throwable failure = new Throwable();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+    AtomicBoolean observed = new AtomicBoolean();
+
+    Observable
+        .of(1, 2)
+        .withLatestFrom(Observable.failingValue(failure), (i, s) -> i)
+        .then(onObservation(o -> observed.set(true)))
+        .then(onFailure(t -> received.set(observed.get() ? t : null)))
+        .observe();
+
+    assertThat(received.get(), equalTo(failure));
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2018 Elias N Vasylenko <eliasvasylenko@strangeskies.co.uk>
+ *      __   _______  ____           _       __     _      __       __
+ *    ,`_ `,|__   __||  _ `.        / \     |  \   | |  ,-`__`¬  ,-`__`¬
+ *   ( (_`-'   | |   | | ) |       / . \    | . \  | | / .`  `' / .`  `'
+ *    `._ `.   | |   | |<. L      / / \ \   | |\ \ | || |    _ | '--.
+ *   _   `. \  | |   | |  `.`.   / /   \ \  | | \ \| || |   | || +--'
+ *  \ \__.' /  | |   | |    \ \ / /     \ \ | |  \ ` | \ `._' | \ `.__,.
+ *   `.__.-`   |_|   |_|    |_|/_/       \_\|_|   \__|  `-.__.J  `-.__.J
+ *                   __    _         _      __      __
+ *                 ,`_ `, | |  _    | |  ,-`__`¬  ,`_ `,
+ *                ( (_`-' | | ) |   | | / .`  `' ( (_`-'
+ *                 `._ `. | L-' L   | || '--.     `._ `.
+ *                _   `. \| ,.-^.`. | || +--'    _   `. \
+ *               \ \__.' /| |    \ \| | \ `.__,.\ \__.' /
+ *                `.__.-` |_|    |_||_|  `-.__.J `.__.-`
+ *
+ * This file is part of uk.co.strangeskies.observable.
+ *
+ * uk.co.strangeskies.observable is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * uk.co.strangeskies.observable is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package uk.co.strangeskies.observable;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static uk.co.strangeskies.observable.Observer.onCompletion;
+import static uk.co.strangeskies.observable.Observer.onFailure;
+import static uk.co.strangeskies.observable.Observer.onObservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ZipObservationTest {
+  private static List<Integer> range(int count) {
+    return IntStream.range(0, count).boxed().collect(toList());
+  }
+
+  @Test(timeout = 5000)
+  public void zipPairsByPosition() {
+    List<String> messages = new ArrayList<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .zip(Observable.of(1, 2, 3), Observable.of("a", "b", "c"), (i, s) -> i + s)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    assertThat(messages, equalTo(asList("1a", "2b", "3c")));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void zipCompletesWithShortestSource() {
+    List<List<Integer>> messages = new ArrayList<>();
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .zip(asList(Observable.of(range(10)), Observable.of(range(3))), l -> l)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    assertThat(messages, equalTo(asList(asList(0, 0), asList(1, 1), asList(2, 2))));
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void zipManyMessagesThroughSmallPrefetch() {
+    List<Integer> messages = new ArrayList<>();
+
+    Observable
+        .zip(
+            asList(Observable.of(range(1000)), Observable.of(range(1000))),
+            l -> l.get(0) + l.get(1),
+            4)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .observe();
+
+    assertThat(messages, equalTo(range(1000).stream().map(i -> i * 2).collect(toList())));
+  }
+
+  @Test(timeout = 5000)
+  public void zipCombinerFailureIsDelivered() {
+    RuntimeException failure = new RuntimeException();
+    List<String> messages = new ArrayList<>();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+
+    Observable
+        .zip(Observable.of(1, 2, 3), Observable.of("a", "b", "c"), (i, s) -> {
+          if (i == 2)
+            throw failure;
+          return i + s;
+        })
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .then(onFailure(received::set))
+        .observe();
+
+    assertThat(messages, equalTo(asList("1a")));
+    assertThat(received.get(), equalTo(failure));
+  }
+
+  @Test(timeout = 5000)
+  public void zipRespectsDownstreamRequests() {
+    List<String> messages = new ArrayList<>();
+    AtomicReference<Observation> observation = new AtomicReference<>();
+
+    Observable
+        .zip(Observable.of(1, 2, 3), Observable.of("a", "b", "c"), (i, s) -> i + s)
+        .then(onObservation(observation::set))
+        .then(messages::add)
+        .observe();
+
+    assertThat(messages, equalTo(asList()));
+
+    observation.get().request(2);
+    assertThat(messages, equalTo(asList("1a", "2b")));
+
+    observation.get().request(1);
+    assertThat(messages, equalTo(asList("1a", "2b", "3c")));
+  }
+
+  @Test(timeout = 5000)
+  public void zipWaitsForEachHotSource() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<Integer> second = new HotObservable<>();
+    List<Integer> messages = new ArrayList<>();
+
+    Observable
+        .zip(first, second, Integer::sum)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(messages::add)
+        .observe();
+
+    first.next(1).next(2);
+    assertThat(messages, equalTo(asList()));
+
+    second.next(10);
+    assertThat(messages, equalTo(asList(11)));
+
+    second.next(20).next(30);
+    assertThat(messages, equalTo(asList(11, 22)));
+  }
+
+  @Test(timeout = 5000)
+  public void zipFailsWhenSourceFails() {
+    HotObservable<Integer> first = new HotObservable<>();
+    HotObservable<Integer> second = new HotObservable<>();
+    Throwable failure = new Throwable();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+
+    Observable
+        .zip(first, second, Integer::sum)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onFailure(received::set))
+        .observe();
+
+    first.next(1);
+    second.fail(failure);
+
+    assertThat(received.get(), equalTo(failure));
+    assertThat(first.hasObservers(), equalTo(false));
+  }
+
+  @Test(timeout = 5000)
+  public void zipOverflowFailsWhenSourceIgnoresRequests() {
+    HotObservable<Integer> first = new HotObservable<>();
+    AtomicReference<Throwable> received = new AtomicReference<>();
+
+    Observable
+        .zip(asList(first, Observable.<Integer>empty()), l -> l, 2)
+        .then(onObservation(Observation::requestUnbounded))
+        .then(onFailure(received::set))
+        .observe();
+
+    first.next(1).next(2).next(3);
+
+    assertThat(received.get() instanceof UnexpectedMessageException, equalTo(true));
+  }
+
+  @Test(timeout = 5000)
+  public void zipNoSourcesCompletes() {
+    AtomicBoolean complete = new AtomicBoolean();
+
+    Observable
+        .zip(asList(), l -> l)
+        .then(onCompletion(() -> complete.set(true)))
+        .observe();
+
+    assertThat(complete.get(), equalTo(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zipNonPositivePrefetchThrows() {
+    Observable.zip(asList(Observable.of(1)), l -> l, 0);
+  }
+}